@@ -0,0 +1,505 @@
+package com.vagsoft.bookstore.analytics;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.vagsoft.bookstore.dto.analyticsDTOs.OrderCubeQueryDTO;
+import com.vagsoft.bookstore.dto.analyticsDTOs.OrderCubeRowReadDTO;
+import com.vagsoft.bookstore.models.enums.CubeDimension;
+import com.vagsoft.bookstore.models.enums.CubeMeasure;
+import com.vagsoft.bookstore.models.enums.Status;
+
+/**
+ * In-memory, column-oriented copy of the order lines, used to answer ad-hoc
+ * group-by, filter and top-N questions without touching the database. Every
+ * line is a position in a set of primitive arrays, so a query is a sequential
+ * scan that is split across the fork-join pool.
+ * <p>
+ * Lines are appended by a single writer and become visible to the queries when
+ * they are published. The status of the orders that can still change is
+ * written in place, and so is the mark of the lines of deleted orders and books,
+ * which the queries skip.
+ */
+public class OrderCube {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final Status[] STATUSES = Status.values();
+    private static final byte REMOVED = -1;
+
+    private final int parallelThreshold;
+    private final int recentOrderWindow;
+    private final ForkJoinPool pool;
+    // Lines of the orders that are not delivered or cancelled yet, as [first, last + 1)
+    private final Map<Integer, int[]> openOrderLines = new HashMap<>();
+    // Orders appended within the window below the highest ID, which a re-read of the window skips
+    private final TreeSet<Integer> recentOrderIDs = new TreeSet<>();
+    private int[] orderIDs = new int[INITIAL_CAPACITY];
+    private int[] bookIDs = new int[INITIAL_CAPACITY];
+    private int[] days = new int[INITIAL_CAPACITY];
+    private int[] quantities = new int[INITIAL_CAPACITY];
+    private double[] amounts = new double[INITIAL_CAPACITY];
+    private byte[] statuses = new byte[INITIAL_CAPACITY];
+    private int size;
+    private int maxOrderID;
+    private volatile Columns columns = new Columns(0, orderIDs, bookIDs, days, quantities, amounts, statuses);
+    private volatile Genres genres = new Genres(new int[0][], List.of());
+
+    /**
+     * Creates an empty cube.
+     *
+     * @param parallelThreshold
+     *            the number of lines below which a scan is not split further
+     * @param recentOrderWindow
+     *            the number of order IDs below the highest one whose orders are
+     *            remembered as recent
+     * @param pool
+     *            the pool the scans run in
+     */
+    public OrderCube(final int parallelThreshold, final int recentOrderWindow, final ForkJoinPool pool) {
+        this.parallelThreshold = parallelThreshold;
+        this.recentOrderWindow = recentOrderWindow;
+        this.pool = pool;
+    }
+
+    /**
+     * Appends an order line. The line is not visible to the queries until
+     * {@link #publish()} is called. The lines of an order must be appended one
+     * after the other, but the orders may be appended in any order.
+     *
+     * @param orderID
+     *            the ID of the order
+     * @param bookID
+     *            the ID of the ordered book
+     * @param day
+     *            the date of the order
+     * @param quantity
+     *            the ordered quantity
+     * @param amount
+     *            the share of the order's total amount paid for the line
+     * @param status
+     *            the status of the order
+     */
+    public synchronized void append(final int orderID, final int bookID, final LocalDate day, final int quantity,
+            final double amount, final Status status) {
+        if (size == orderIDs.length) {
+            grow();
+        }
+
+        orderIDs[size] = orderID;
+        bookIDs[size] = bookID;
+        days[size] = (int) day.toEpochDay();
+        quantities[size] = quantity;
+        amounts[size] = amount;
+        statuses[size] = (byte) status.ordinal();
+
+        if (!isFinal(status)) {
+            openOrderLines.compute(orderID,
+                    (id, lines) -> lines == null ? new int[]{size, size + 1} : new int[]{lines[0], size + 1});
+        }
+        maxOrderID = Math.max(maxOrderID, orderID);
+        recentOrderIDs.add(orderID);
+        while (recentOrderIDs.first() <= maxOrderID - recentOrderWindow) {
+            recentOrderIDs.pollFirst();
+        }
+        size++;
+    }
+
+    /** Makes the appended lines visible to the queries. */
+    public synchronized void publish() {
+        columns = new Columns(size, orderIDs, bookIDs, days, quantities, amounts, statuses);
+    }
+
+    /**
+     * Changes the status of an order that was not delivered or cancelled yet.
+     *
+     * @param orderID
+     *            the ID of the order
+     * @param status
+     *            the new status
+     */
+    public synchronized void updateStatus(final Integer orderID, final Status status) {
+        int[] lines = openOrderLines.get(orderID);
+        if (lines == null) {
+            return;
+        }
+
+        for (int i = lines[0]; i < lines[1]; i++) {
+            if (statuses[i] != REMOVED) {
+                statuses[i] = (byte) status.ordinal();
+            }
+        }
+        if (isFinal(status)) {
+            openOrderLines.remove(orderID);
+        }
+    }
+
+    /**
+     * Removes the lines of deleted orders from the queries. The lines become
+     * invisible once {@link #publish()} is called.
+     *
+     * @param removedOrderIDs
+     *            the IDs of the deleted orders
+     */
+    public synchronized void removeOrders(final Set<Integer> removedOrderIDs) {
+        for (int i = 0; i < size; i++) {
+            if (removedOrderIDs.contains(orderIDs[i])) {
+                statuses[i] = REMOVED;
+            }
+        }
+        openOrderLines.keySet().removeAll(removedOrderIDs);
+    }
+
+    /**
+     * Removes the lines of a deleted book from the queries. The lines become
+     * invisible once {@link #publish()} is called.
+     *
+     * @param bookID
+     *            the ID of the deleted book
+     */
+    public synchronized void removeBook(final int bookID) {
+        for (int i = 0; i < size; i++) {
+            if (bookIDs[i] == bookID) {
+                statuses[i] = REMOVED;
+            }
+        }
+    }
+
+    /**
+     * Retrieves the IDs of the orders whose status can still change.
+     *
+     * @return the IDs of the open orders
+     */
+    public synchronized Set<Integer> getOpenOrderIDs() {
+        return new HashSet<>(openOrderLines.keySet());
+    }
+
+    /**
+     * Retrieves the highest order ID appended so far.
+     *
+     * @return the highest order ID, 0 if the cube is empty
+     */
+    public synchronized int getMaxOrderID() {
+        return maxOrderID;
+    }
+
+    /**
+     * Retrieves the IDs of the appended orders within the recent window below the
+     * highest order ID.
+     *
+     * @return the IDs of the recent orders
+     */
+    public synchronized Set<Integer> getRecentOrderIDs() {
+        return new HashSet<>(recentOrderIDs);
+    }
+
+    /**
+     * Retrieves the number of published lines.
+     *
+     * @return the number of lines
+     */
+    public int getLineCount() {
+        return columns.size;
+    }
+
+    /**
+     * Replaces the genres of the books.
+     *
+     * @param genresByBookID
+     *            the genres of every book, keyed by book ID
+     */
+    public void setGenres(final Map<Integer, List<String>> genresByBookID) {
+        int maxBookID = genresByBookID.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1);
+        int[][] byBook = new int[maxBookID + 1][];
+        List<String> names = new ArrayList<>();
+        Map<String, Integer> codes = new HashMap<>();
+
+        genresByBookID.forEach((bookID, bookGenres) -> byBook[bookID] = bookGenres.stream()
+                .mapToInt(genre -> codes.computeIfAbsent(genre, name -> {
+                    names.add(name);
+                    return names.size() - 1;
+                })).toArray());
+
+        genres = new Genres(byBook, List.copyOf(names));
+    }
+
+    /**
+     * Aggregates the published lines matching the filters of the query by the
+     * requested dimensions and returns the top groups by the requested measure.
+     * A line is counted once for every genre of its book when grouping by genre.
+     *
+     * @param query
+     *            the dimensions, filters, measure and limit of the query
+     * @return the top groups, highest measure first
+     */
+    public List<OrderCubeRowReadDTO> query(final OrderCubeQueryDTO query) {
+        Columns snapshot = columns;
+        Genres genreSnapshot = genres;
+        Scan scan = new Scan(snapshot, genreSnapshot, query);
+
+        Aggregates aggregates = pool.invoke(new ScanTask(scan, 0, snapshot.size));
+
+        return aggregates.top(query.getOrderBy(), query.getLimit()).stream()
+                .map(slot -> new OrderCubeRowReadDTO(decode(scan.dimensions, aggregates.keys[slot], genreSnapshot),
+                        aggregates.revenue[slot], aggregates.units[slot], aggregates.lines[slot]))
+                .toList();
+    }
+
+    private void grow() {
+        int capacity = orderIDs.length * 2;
+        orderIDs = Arrays.copyOf(orderIDs, capacity);
+        bookIDs = Arrays.copyOf(bookIDs, capacity);
+        days = Arrays.copyOf(days, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+    }
+
+    private static boolean isFinal(final Status status) {
+        return status == Status.DELIVERED || status == Status.CANCELLED;
+    }
+
+    private static long key(final int[] values) {
+        return ((long) values[0] << 32) | (values[1] & 0xFFFFFFFFL);
+    }
+
+    private static List<String> decode(final CubeDimension[] dimensions, final long key, final Genres genres) {
+        List<String> values = new ArrayList<>(dimensions.length);
+        for (int d = 0; d < dimensions.length; d++) {
+            int value = d == 0 ? (int) (key >> 32) : (int) key;
+            values.add(switch (dimensions[d]) {
+                case DAY, WEEK -> LocalDate.ofEpochDay(value).toString();
+                case MONTH -> YearMonth.of(value / 12, value % 12 + 1).toString();
+                case BOOK -> String.valueOf(value);
+                case GENRE -> genres.names.get(value);
+                case STATUS -> STATUSES[value].name();
+            });
+        }
+        return values;
+    }
+
+    /** Published state of the columns: the lines below {@code size} are complete. */
+    private record Columns(int size, int[] orderIDs, int[] bookIDs, int[] days, int[] quantities, double[] amounts,
+            byte[] statuses) {
+    }
+
+    /** Dictionary-encoded genres, indexed by book ID. */
+    private record Genres(int[][] byBook, List<String> names) {
+    }
+
+    /** Query compiled for the scan. */
+    private static final class Scan {
+        private final Columns columns;
+        private final Genres genres;
+        private final CubeDimension[] dimensions;
+        private final int genreDimension;
+        private final int fromDay;
+        private final int toDay;
+        private final int statusMask;
+
+        private Scan(final Columns columns, final Genres genres, final OrderCubeQueryDTO query) {
+            this.columns = columns;
+            this.genres = genres;
+            this.dimensions = query.getGroupBy().toArray(CubeDimension[]::new);
+            this.genreDimension = query.getGroupBy().indexOf(CubeDimension.GENRE);
+            this.fromDay = query.getFrom() == null ? Integer.MIN_VALUE : (int) query.getFrom().toEpochDay();
+            this.toDay = query.getTo() == null ? Integer.MAX_VALUE : (int) query.getTo().toEpochDay();
+
+            int mask = 0;
+            for (Status status : query.getStatuses().isEmpty() ? List.of(STATUSES) : query.getStatuses()) {
+                mask |= 1 << status.ordinal();
+            }
+            this.statusMask = mask;
+        }
+
+        private void aggregate(final int from, final int to, final Aggregates out) {
+            int[] values = new int[2];
+            // Lines of the same day are mostly next to each other, so the month is memoized
+            int monthDay = Integer.MIN_VALUE;
+            int month = 0;
+
+            for (int i = from; i < to; i++) {
+                int day = columns.days[i];
+                byte status = columns.statuses[i];
+                if (status == REMOVED || day < fromDay || day > toDay || (statusMask & (1 << status)) == 0) {
+                    continue;
+                }
+
+                for (int d = 0; d < dimensions.length; d++) {
+                    values[d] = switch (dimensions[d]) {
+                        case DAY -> day;
+                        // Epoch day 0 is a Thursday, weeks start on Monday
+                        case WEEK -> day - Math.floorMod(day + 3, 7);
+                        case MONTH -> {
+                            if (day != monthDay) {
+                                LocalDate date = LocalDate.ofEpochDay(day);
+                                monthDay = day;
+                                month = date.getYear() * 12 + date.getMonthValue() - 1;
+                            }
+                            yield month;
+                        }
+                        case BOOK -> columns.bookIDs[i];
+                        case STATUS -> status;
+                        case GENRE -> 0;
+                    };
+                }
+
+                if (genreDimension < 0) {
+                    out.add(key(values), columns.amounts[i], columns.quantities[i]);
+                    continue;
+                }
+
+                int bookID = columns.bookIDs[i];
+                int[] bookGenres = bookID < genres.byBook.length ? genres.byBook[bookID] : null;
+                if (bookGenres != null) {
+                    for (int genre : bookGenres) {
+                        values[genreDimension] = genre;
+                        out.add(key(values), columns.amounts[i], columns.quantities[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    /** Scans a range of lines, splitting it in halves while it is above the threshold. */
+    private final class ScanTask extends RecursiveTask<Aggregates> {
+        private final Scan scan;
+        private final int from;
+        private final int to;
+
+        private ScanTask(final Scan scan, final int from, final int to) {
+            this.scan = scan;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Aggregates compute() {
+            if (to - from <= parallelThreshold) {
+                Aggregates aggregates = new Aggregates();
+                scan.aggregate(from, to, aggregates);
+                return aggregates;
+            }
+
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask(scan, from, middle);
+            left.fork();
+            Aggregates right = new ScanTask(scan, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /** Open-addressing hash map from group key to measures, without boxing. */
+    private static final class Aggregates {
+        private long[] keys = new long[16];
+        private double[] revenue = new double[16];
+        private long[] units = new long[16];
+        private long[] lines = new long[16];
+        private boolean[] used = new boolean[16];
+        private int count;
+
+        private void add(final long key, final double amount, final long quantity) {
+            add(key, amount, quantity, 1);
+        }
+
+        private void add(final long key, final double amount, final long quantity, final long lineCount) {
+            int slot = slot(key);
+            if (!used[slot]) {
+                if ((count + 1) * 4 > keys.length * 3) {
+                    rehash();
+                    slot = slot(key);
+                }
+                used[slot] = true;
+                keys[slot] = key;
+                count++;
+            }
+            revenue[slot] += amount;
+            units[slot] += quantity;
+            lines[slot] += lineCount;
+        }
+
+        private Aggregates merge(final Aggregates other) {
+            Aggregates larger = count >= other.count ? this : other;
+            Aggregates smaller = larger == this ? other : this;
+            for (int slot = 0; slot < smaller.keys.length; slot++) {
+                if (smaller.used[slot]) {
+                    larger.add(smaller.keys[slot], smaller.revenue[slot], smaller.units[slot], smaller.lines[slot]);
+                }
+            }
+            return larger;
+        }
+
+        private List<Integer> top(final CubeMeasure measure, final int limit) {
+            Comparator<Integer> order = Comparator.<Integer>comparingDouble(slot -> measure(measure, slot))
+                    .thenComparing(slot -> keys[slot], Comparator.reverseOrder());
+            // Min-heap of the best groups seen so far
+            PriorityQueue<Integer> best = new PriorityQueue<>(order);
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (used[slot]) {
+                    best.add(slot);
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+
+            List<Integer> slots = new ArrayList<>(best);
+            slots.sort(order.reversed());
+            return slots;
+        }
+
+        private double measure(final CubeMeasure measure, final int slot) {
+            return switch (measure) {
+                case REVENUE -> revenue[slot];
+                case UNITS -> units[slot];
+                case LINES -> lines[slot];
+            };
+        }
+
+        private int slot(final long key) {
+            int mask = keys.length - 1;
+            long hash = key * 0x9E3779B97F4A7C15L;
+            int slot = (int) (hash ^ (hash >>> 32)) & mask;
+            while (used[slot] && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            double[] oldRevenue = revenue;
+            long[] oldUnits = units;
+            long[] oldLines = lines;
+            boolean[] oldUsed = used;
+
+            int capacity = oldKeys.length * 2;
+            keys = new long[capacity];
+            revenue = new double[capacity];
+            units = new long[capacity];
+            lines = new long[capacity];
+            used = new boolean[capacity];
+
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldUsed[slot]) {
+                    int newSlot = slot(oldKeys[slot]);
+                    used[newSlot] = true;
+                    keys[newSlot] = oldKeys[slot];
+                    revenue[newSlot] = oldRevenue[slot];
+                    units[newSlot] = oldUnits[slot];
+                    lines[newSlot] = oldLines[slot];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.vagsoft.bookstore.caches;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of strings, answering whether a value was definitely never added
+ * or might have been. It is safe for concurrent use, as bits are only ever set,
+ * and cannot forget values, so filters of changing sets are rebuilt instead.
+ */
+public class BloomFilter {
+    private final int numBits;
+    private final int numHashes;
+    private final AtomicLongArray bits;
+    private final AtomicInteger count = new AtomicInteger();
+
+    /**
+     * Creates an empty filter sized for the expected number of values. More
+     * values can be added, at the cost of a higher false positive rate.
+     *
+     * @param expectedEntries
+     *            the expected number of values
+     * @param falsePositiveRate
+     *            the rate of values reported as possibly added without having
+     *            been added, once the expected number of values is reached
+     */
+    public BloomFilter(final int expectedEntries, final double falsePositiveRate) {
+        if (expectedEntries <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid Bloom filter size");
+        }
+        double ln2 = Math.log(2);
+        this.numBits = (int) Math.max(64, Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (ln2 * ln2)));
+        this.numHashes = (int) Math.max(1, Math.round((double) numBits / expectedEntries * ln2));
+        this.bits = new AtomicLongArray((numBits + 63) / 64);
+    }
+
+    /**
+     * Adds a value to the filter.
+     *
+     * @param value
+     *            the value to add
+     */
+    public void put(final String value) {
+        long hash = hash(value);
+        for (int i = 0; i < numHashes; i++) {
+            int bit = index(hash, i);
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            // A plain read is enough to skip the write, as bits are only ever set
+            if ((bits.get(word) & mask) == 0) {
+                bits.getAndUpdate(word, current -> current | mask);
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    /**
+     * Checks if a value might have been added to the filter.
+     *
+     * @param value
+     *            the value to check
+     * @return false if the value was definitely never added, true otherwise
+     */
+    public boolean mightContain(final String value) {
+        long hash = hash(value);
+        for (int i = 0; i < numHashes; i++) {
+            int bit = index(hash, i);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Estimates the current false positive rate from the number of values added,
+     * counting values added more than once every time.
+     *
+     * @return the estimated false positive rate
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) numHashes * count.get() / numBits), numHashes);
+    }
+
+    // Double hashing, deriving every index from the two halves of a single 64-bit hash
+    private int index(final long hash, final int i) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        return Math.floorMod(h1 + i * h2, numBits);
+    }
+
+    // 64-bit FNV-1a, finished with a mix so that both halves depend on every character
+    private static long hash(final String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,46 @@
+package com.vagsoft.bookstore.caches;
+
+import java.time.Duration;
+import java.util.Collection;
+
+import com.vagsoft.bookstore.dto.cartDTOs.CartReadDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of the priced cart views, keyed by user ID. The least recently read views
+ * are evicted once the cache is full and every view expires after the configured
+ * time to live. The views are tagged with the IDs of their books, so that all the
+ * affected carts are invalidated when a book changes.
+ */
+@Component
+public class CartViewCache extends LruTtlCache<Integer, CartReadDTO> {
+    private final long ttlNanos;
+
+    public CartViewCache(@Value("${cart-view-cache.max-entries:10000}") final int maxEntries,
+            @Value("${cart-view-cache.ttl:PT30M}") final Duration ttl) {
+        super(maxEntries);
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Invalidates the cached cart views containing a book, now and again once the
+     * current transaction commits.
+     *
+     * @param bookID
+     *            the ID of the book
+     */
+    public void invalidateBook(final Integer bookID) {
+        invalidateTag(bookID);
+    }
+
+    @Override
+    protected long ttlNanos(final CartReadDTO view) {
+        return ttlNanos;
+    }
+
+    @Override
+    protected Collection<Integer> tagsOf(final CartReadDTO view) {
+        return view.getCartItems().stream().map(cartItem -> cartItem.getBook().getId()).toList();
+    }
+}
@@ -0,0 +1,237 @@
+package com.vagsoft.bookstore.caches;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Base of the caches of values loaded from the database. The least recently read
+ * entries are evicted once the cache is full and every entry expires after its
+ * time to live. Entries can be tagged with IDs, such as the IDs of the books a
+ * view shows, so that all the entries of an ID are invalidated at once.
+ * <p>
+ * Invalidations run now and again once the current transaction completes, and
+ * values loaded while anything was invalidated are not cached, as they may have
+ * been read before the change was committed.
+ *
+ * @param <K>
+ *            the type of the keys
+ * @param <V>
+ *            the type of the cached values, which may be null
+ */
+public abstract class LruTtlCache<K, V> {
+    private final int maxEntries;
+    // In access order, so that the eldest entry is the least recently read one
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Integer, Set<K>> keysByTag = new HashMap<>();
+    // Incremented by every invalidation, so that values loaded concurrently are not cached
+    private long generation;
+
+    protected LruTtlCache(final int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Retrieves the time to live of a loaded value.
+     *
+     * @param value
+     *            the loaded value
+     * @return the time to live in nanoseconds
+     */
+    protected abstract long ttlNanos(V value);
+
+    /**
+     * Checks if a loaded value can be cached.
+     *
+     * @param value
+     *            the loaded value
+     * @return true if the value can be cached, false otherwise
+     */
+    protected boolean isCacheable(final V value) {
+        return true;
+    }
+
+    /**
+     * Retrieves the IDs a value is tagged with, for {@link #invalidateTag}.
+     *
+     * @param value
+     *            the cached value
+     * @return the tags of the value
+     */
+    protected Collection<Integer> tagsOf(final V value) {
+        return List.of();
+    }
+
+    /**
+     * Called for every lookup answered from the cache.
+     *
+     * @param value
+     *            the cached value
+     */
+    protected void onHit(final V value) {
+    }
+
+    /** Called for every lookup that loads the value. */
+    protected void onMiss() {
+    }
+
+    /**
+     * Retrieves the cached value of a key, if present and not expired.
+     *
+     * @param key
+     *            the key
+     * @return the cached value, or null if it is not cached
+     */
+    public synchronized V get(final K key) {
+        Entry<V> entry = lookup(key);
+        return entry == null ? null : entry.value();
+    }
+
+    /**
+     * Retrieves the cached value of a key, loading it if missing or expired and
+     * caching it if it can be cached.
+     *
+     * @param key
+     *            the key
+     * @param loader
+     *            loads the value from the database
+     * @return the value of the key
+     */
+    public V getOrLoad(final K key, final Supplier<V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = lookup(key);
+            if (entry != null) {
+                onHit(entry.value());
+                return entry.value();
+            }
+            loadGeneration = generation;
+        }
+
+        onMiss();
+        V value = loader.get();
+
+        synchronized (this) {
+            // Skipping the value if anything was invalidated while it was being loaded
+            if (loadGeneration == generation && isCacheable(value)) {
+                remove(key);
+                entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos(value)));
+                for (Integer tag : tagsOf(value)) {
+                    keysByTag.computeIfAbsent(tag, id -> new HashSet<>()).add(key);
+                }
+                if (entries.size() > maxEntries) {
+                    remove(entries.keySet().iterator().next());
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Invalidates the cached value of a key, now and again once the current
+     * transaction commits.
+     *
+     * @param key
+     *            the key
+     */
+    public void invalidate(final K key) {
+        runNowAndAfterCommit(() -> evict(key));
+    }
+
+    /**
+     * Invalidates all the cached values, now and again once the current
+     * transaction commits.
+     */
+    public void invalidateAll() {
+        runNowAndAfterCommit(this::evictAll);
+    }
+
+    /**
+     * Retrieves the number of cached entries.
+     *
+     * @return the number of cached entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Invalidates the cached values tagged with an ID, now and again once the
+     * current transaction commits.
+     *
+     * @param tag
+     *            the ID the values are tagged with
+     */
+    protected void invalidateTag(final Integer tag) {
+        runNowAndAfterCommit(() -> evictTag(tag));
+    }
+
+    private Entry<V> lookup(final K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && System.nanoTime() - entry.expiresAt() > 0) {
+            remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    private synchronized void evict(final K key) {
+        generation++;
+        remove(key);
+    }
+
+    private synchronized void evictTag(final Integer tag) {
+        generation++;
+
+        Set<K> keys = keysByTag.remove(tag);
+        if (keys != null) {
+            keys.forEach(this::remove);
+        }
+    }
+
+    private synchronized void evictAll() {
+        generation++;
+        entries.clear();
+        keysByTag.clear();
+    }
+
+    private void remove(final K key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry != null) {
+            for (Integer tag : tagsOf(entry.value())) {
+                Set<K> keys = keysByTag.get(tag);
+                if (keys != null) {
+                    keys.remove(key);
+                    if (keys.isEmpty()) {
+                        keysByTag.remove(tag);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void runNowAndAfterCommit(final Runnable invalidation) {
+        invalidation.run();
+
+        // Values loaded before the changes are committed would otherwise be cached again
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(final int status) {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
@@ -0,0 +1,66 @@
+package com.vagsoft.bookstore.caches;
+
+import java.time.Duration;
+import java.util.Collection;
+
+import com.vagsoft.bookstore.dto.orderDTOs.OrderReadDTO;
+import com.vagsoft.bookstore.models.enums.Status;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of the order views of delivered and cancelled orders, keyed by order ID.
+ * Orders in any other status are never cached, as they can still change. The
+ * least recently read views are evicted once the cache is full and every view
+ * expires after the configured time to live. The views are tagged with the IDs
+ * of their books, so that they are invalidated when a book changes, since the
+ * views show the current book details.
+ */
+@Component
+public class OrderViewCache extends LruTtlCache<Integer, OrderReadDTO> {
+    private final long ttlNanos;
+
+    public OrderViewCache(@Value("${order-view-cache.max-entries:10000}") final int maxEntries,
+            @Value("${order-view-cache.ttl:PT24H}") final Duration ttl) {
+        super(maxEntries);
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Checks if an order can be cached, which is the case once it can no longer
+     * change.
+     *
+     * @param status
+     *            the status of the order
+     * @return true if the order can be cached, false otherwise
+     */
+    public static boolean isCacheable(final Status status) {
+        return status == Status.DELIVERED || status == Status.CANCELLED;
+    }
+
+    /**
+     * Invalidates the cached views of the orders containing a book, now and again
+     * once the current transaction commits.
+     *
+     * @param bookID
+     *            the ID of the book
+     */
+    public void invalidateBook(final Integer bookID) {
+        invalidateTag(bookID);
+    }
+
+    @Override
+    protected long ttlNanos(final OrderReadDTO view) {
+        return ttlNanos;
+    }
+
+    @Override
+    protected boolean isCacheable(final OrderReadDTO view) {
+        return isCacheable(view.getStatus());
+    }
+
+    @Override
+    protected Collection<Integer> tagsOf(final OrderReadDTO view) {
+        return view.getOrderItems().stream().map(orderItem -> orderItem.getBook().getId()).toList();
+    }
+}
@@ -0,0 +1,78 @@
+package com.vagsoft.bookstore.caches;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Cache of the entities loaded while validating the current request, keyed by
+ * the repository they were loaded from and their ID, so that the services can
+ * use them instead of reading them again. The entities are kept in the
+ * attributes of the request and are dropped together with it. Outside of a
+ * request nothing is cached.
+ */
+public class RequestEntityCache {
+    private static final String ATTRIBUTE = RequestEntityCache.class.getName();
+
+    /**
+     * Caches an entity for the rest of the current request.
+     *
+     * @param repository
+     *            the repository the entity was loaded from
+     * @param id
+     *            the ID the entity was loaded by
+     * @param entity
+     *            the entity
+     */
+    public static void put(final Class<? extends JpaRepository<?, ?>> repository, final Object id,
+            final Object entity) {
+        Map<Key, Object> entities = getEntities(true);
+        if (entities != null) {
+            entities.put(new Key(repository, id), entity);
+        }
+    }
+
+    /**
+     * Retrieves an entity cached during the current request. The entity is
+     * detached, so only the associations loaded with it can be read.
+     *
+     * @param repository
+     *            the repository the entity was loaded from
+     * @param id
+     *            the ID the entity was loaded by
+     * @param <T>
+     *            the type of the entity
+     * @return the entity, or empty if it is not cached
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Optional<T> get(final Class<? extends JpaRepository<T, ?>> repository, final Object id) {
+        Map<Key, Object> entities = getEntities(false);
+        if (entities == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable((T) entities.get(new Key(repository, id)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Key, Object> getEntities(final boolean create) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+
+        Map<Key, Object> entities = (Map<Key, Object>) attributes.getAttribute(ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (entities == null && create) {
+            entities = new HashMap<>();
+            attributes.setAttribute(ATTRIBUTE, entities, RequestAttributes.SCOPE_REQUEST);
+        }
+        return entities;
+    }
+
+    private record Key(Class<?> repository, Object id) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.vagsoft.bookstore.caches;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory set of revoked token IDs, fronted by a {@link BloomFilter} so that
+ * the tokens that were never revoked, nearly all of them, are let through after
+ * a few bit lookups without hashing into the exact set. Every entry is kept
+ * until the token it covers expires. As a Bloom filter cannot forget, the filter
+ * is rebuilt from the exact set whenever the expired entries are removed.
+ */
+public class RevokedTokenFilter {
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+    // Replaced as a whole on every rebuild, so that readers never see a half built filter
+    private volatile BloomFilter bloomFilter;
+
+    /**
+     * Creates an empty filter sized for the expected number of revoked tokens.
+     * More tokens can be added, at the cost of a higher false positive rate.
+     *
+     * @param expectedEntries
+     *            the expected number of unexpired revoked tokens
+     * @param falsePositiveRate
+     *            the rate of tokens that are looked up in the exact set without
+     *            having been revoked
+     */
+    public RevokedTokenFilter(final int expectedEntries, final double falsePositiveRate) {
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.bloomFilter = new BloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+    /**
+     * Checks if a token is revoked.
+     *
+     * @param tokenID
+     *            the ID of the token
+     * @return true if the token is revoked, false otherwise
+     */
+    public boolean isRevoked(final String tokenID) {
+        if (!bloomFilter.mightContain(tokenID)) {
+            return false;
+        }
+        Instant expiresAt = revokedTokens.get(tokenID);
+        return expiresAt != null && !expiresAt.isBefore(Instant.now());
+    }
+
+    /**
+     * Revokes a token until it expires.
+     *
+     * @param tokenID
+     *            the ID of the token
+     * @param expiresAt
+     *            the expiry of the token
+     */
+    public synchronized void add(final String tokenID, final Instant expiresAt) {
+        // Adding to the exact set first, so that a token found in the filter is always found in the set
+        revokedTokens.merge(tokenID, expiresAt, RevokedTokenFilter::later);
+        bloomFilter.put(tokenID);
+    }
+
+    /**
+     * Adds the given revoked tokens, removes the expired ones and rebuilds the
+     * filter.
+     *
+     * @param tokens
+     *            the expiry of the revoked tokens, keyed by token ID
+     * @param now
+     *            the current time
+     */
+    public synchronized void reload(final Map<String, Instant> tokens, final Instant now) {
+        tokens.forEach((tokenID, expiresAt) -> revokedTokens.merge(tokenID, expiresAt, RevokedTokenFilter::later));
+        revokedTokens.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+
+        BloomFilter rebuilt = new BloomFilter(expectedEntries, falsePositiveRate);
+        revokedTokens.keySet().forEach(rebuilt::put);
+        bloomFilter = rebuilt;
+    }
+
+    /**
+     * Retrieves the number of revoked tokens held, expired ones included until the
+     * next reload.
+     *
+     * @return the number of revoked tokens
+     */
+    public int size() {
+        return revokedTokens.size();
+    }
+
+    private static Instant later(final Instant a, final Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
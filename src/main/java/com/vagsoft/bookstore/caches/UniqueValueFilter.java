@@ -0,0 +1,177 @@
+package com.vagsoft.bookstore.caches;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bloom filters of the stored usernames, emails and ISBNs, letting the
+ * uniqueness validation skip the database for values that were definitely never
+ * stored. The filters are built from the database on startup and rebuilt
+ * periodically, to forget the deleted and changed values, and every value
+ * written in between is added as it is written. Until the first build, every
+ * value is reported as possibly stored.
+ * <p>
+ * The checks are counted by the {@code unique-field.filter} counter, tagged by
+ * field and by whether the database was skipped, queried or queried for a false
+ * positive, and the estimated false positive rate of every filter is published
+ * as the {@code unique-field.filter.false-positive-rate} gauge.
+ */
+@Component
+public class UniqueValueFilter {
+    public static final String USERNAME = "username";
+    public static final String EMAIL = "email";
+    public static final String ISBN = "isbn";
+    private static final Logger log = LoggerFactory.getLogger(UniqueValueFilter.class);
+    private static final Map<String, String> TABLES = Map.of(USERNAME, "Users", EMAIL, "Users", ISBN, "Books");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final Map<String, FieldCounters> counters = new HashMap<>();
+    // Replaced as a whole on every rebuild, so that readers never see half built filters
+    private volatile Map<String, BloomFilter> filters;
+    // Values written while the filters are being rebuilt, added to the new filters once built
+    private List<String[]> pendingValues;
+
+    public UniqueValueFilter(final JdbcTemplate jdbcTemplate,
+            @Value("${unique-field-filter.expected-entries:100000}") final int expectedEntries,
+            @Value("${unique-field-filter.false-positive-rate:0.01}") final double falsePositiveRate,
+            final MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+
+        for (String field : TABLES.keySet()) {
+            counters.put(field, new FieldCounters(checkCounter(meterRegistry, field, "skipped"),
+                    checkCounter(meterRegistry, field, "queried"),
+                    checkCounter(meterRegistry, field, "false_positive")));
+            Gauge.builder("unique-field.filter.false-positive-rate", this, filter -> filter.falsePositiveRate(field))
+                    .tag("field", field).description("Estimated false positive rate of the unique value filter")
+                    .register(meterRegistry);
+        }
+    }
+
+    private static Counter checkCounter(final MeterRegistry meterRegistry, final String field, final String result) {
+        return Counter.builder("unique-field.filter").tag("field", field).tag("result", result)
+                .description("Uniqueness checks by result of the unique value filter").register(meterRegistry);
+    }
+
+    /**
+     * Checks if a value might be stored, counting the check.
+     *
+     * @param field
+     *            the field of the value
+     * @param value
+     *            the value to check
+     * @return false if the value is definitely not stored, true otherwise
+     * @throws IllegalArgumentException
+     *             if there is no filter for the field
+     */
+    public boolean mightContain(final String field, final String value) {
+        FieldCounters fieldCounters = counters.get(field);
+        if (fieldCounters == null) {
+            throw new IllegalArgumentException("Unknown unique value filter: " + field);
+        }
+
+        Map<String, BloomFilter> current = filters;
+        if (current != null && !current.get(field).mightContain(value)) {
+            fieldCounters.skipped().increment();
+            return false;
+        }
+        fieldCounters.queried().increment();
+        return true;
+    }
+
+    /**
+     * Counts a value that the filter reported as possibly stored, but the database
+     * did not find.
+     *
+     * @param field
+     *            the field of the value
+     */
+    public void recordFalsePositive(final String field) {
+        counters.get(field).falsePositives().increment();
+    }
+
+    /**
+     * Adds a written value to the filter of its field.
+     *
+     * @param field
+     *            the field of the value
+     * @param value
+     *            the written value, skipped if null
+     */
+    public synchronized void add(final String field, final String value) {
+        if (value == null) {
+            return;
+        }
+        if (filters != null) {
+            filters.get(field).put(value);
+        }
+        if (pendingValues != null) {
+            pendingValues.add(new String[]{field, value});
+        }
+    }
+
+    /**
+     * Rebuilds the filters from the database, forgetting the deleted and changed
+     * values. Also run on startup, as the first scheduled run.
+     */
+    @Scheduled(fixedDelayString = "${unique-field-filter.rebuild-interval:P1D}")
+    public void rebuild() {
+        synchronized (this) {
+            pendingValues = new ArrayList<>();
+        }
+
+        long start = System.nanoTime();
+        Map<String, BloomFilter> rebuilt = new HashMap<>();
+        try {
+            for (Map.Entry<String, String> entry : TABLES.entrySet()) {
+                rebuilt.put(entry.getKey(), buildFilter(entry.getKey(), entry.getValue()));
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingValues = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            pendingValues.forEach(pending -> rebuilt.get(pending[0]).put(pending[1]));
+            pendingValues = null;
+            filters = rebuilt;
+        }
+        log.info("Rebuilt the unique value filters in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private BloomFilter buildFilter(final String field, final String table) {
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+        // Leaving room for the values written until the next rebuild
+        BloomFilter filter = new BloomFilter(Math.max(expectedEntries, rows == null ? 0 : rows * 2),
+                falsePositiveRate);
+        jdbcTemplate.query("SELECT " + field + " FROM " + table, statement -> statement.setFetchSize(10000), row -> {
+            filter.put(row.getString(1));
+        });
+        return filter;
+    }
+
+    private double falsePositiveRate(final String field) {
+        Map<String, BloomFilter> current = filters;
+        return current == null ? 1 : current.get(field).expectedFalsePositiveRate();
+    }
+
+    private record FieldCounters(Counter skipped, Counter queried, Counter falsePositives) {
+    }
+}
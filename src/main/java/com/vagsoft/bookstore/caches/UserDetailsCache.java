@@ -0,0 +1,81 @@
+package com.vagsoft.bookstore.caches;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import com.vagsoft.bookstore.models.CustomUserDetails;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of the user details loaded on authentication, keyed by username. Unknown
+ * usernames are cached too, for a shorter time, so that repeated logins with
+ * made-up usernames do not query the database either. The least recently read
+ * entries are evicted once the cache is full. The details are tagged with the ID
+ * of their user, so that they can be invalidated by user ID as well.
+ * <p>
+ * The lookups are counted by the {@code user-details.cache} counter, tagged by
+ * whether they hit a user, hit an unknown username or missed.
+ */
+@Component
+public class UserDetailsCache extends LruTtlCache<String, CustomUserDetails> {
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final Counter hits;
+    private final Counter negativeHits;
+    private final Counter misses;
+
+    public UserDetailsCache(@Value("${user-details-cache.max-entries:10000}") final int maxEntries,
+            @Value("${user-details-cache.ttl:PT5M}") final Duration ttl,
+            @Value("${user-details-cache.negative-ttl:PT1M}") final Duration negativeTtl,
+            final MeterRegistry meterRegistry) {
+        super(maxEntries);
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.hits = lookupCounter(meterRegistry, "hit");
+        this.negativeHits = lookupCounter(meterRegistry, "negative_hit");
+        this.misses = lookupCounter(meterRegistry, "miss");
+        Gauge.builder("user-details.cache.size", this, UserDetailsCache::size)
+                .description("Number of usernames in the user details cache").register(meterRegistry);
+    }
+
+    private static Counter lookupCounter(final MeterRegistry meterRegistry, final String result) {
+        return Counter.builder("user-details.cache").tag("result", result)
+                .description("User details lookups by result").register(meterRegistry);
+    }
+
+    /**
+     * Invalidates the cached details of a user, now and again once the current
+     * transaction commits.
+     *
+     * @param userID
+     *            the ID of the user
+     */
+    public void invalidateUser(final Integer userID) {
+        invalidateTag(userID);
+    }
+
+    @Override
+    protected long ttlNanos(final CustomUserDetails userDetails) {
+        return userDetails != null ? ttlNanos : negativeTtlNanos;
+    }
+
+    @Override
+    protected Collection<Integer> tagsOf(final CustomUserDetails userDetails) {
+        return userDetails != null ? List.of(userDetails.getId()) : List.of();
+    }
+
+    @Override
+    protected void onHit(final CustomUserDetails userDetails) {
+        (userDetails != null ? hits : negativeHits).increment();
+    }
+
+    @Override
+    protected void onMiss() {
+        misses.increment();
+    }
+}
@@ -0,0 +1,103 @@
+package com.vagsoft.bookstore.caches;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.vagsoft.bookstore.utils.HashUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * JWT decoder that caches the tokens verified by another decoder, keyed by the
+ * SHA-256 hash of the token, so that a client reusing its token skips the
+ * signature verification and parsing on every request. Only successfully
+ * verified tokens with an expiry are cached, and only until they expire. Once
+ * the cache is full, the token closest to its expiry is evicted, which is an
+ * expired one whenever there is any.
+ * <p>
+ * The decode times are published as the {@code jwt.decode} timer, tagged by
+ * whether the token was cached.
+ */
+public class VerifiedJwtCache implements JwtDecoder {
+    private final JwtDecoder delegate;
+    private final int maxEntries;
+    private final Map<String, Jwt> jwts = new ConcurrentHashMap<>();
+    // The keys of the cached tokens ordered by expiry, only changed along with the tokens while holding the lock
+    private final NavigableSet<Expiry> expiries = new TreeSet<>(
+            Comparator.comparing(Expiry::expiresAt).thenComparing(Expiry::key));
+    private final Timer hitTimer;
+    private final Timer missTimer;
+
+    public VerifiedJwtCache(final JwtDecoder delegate, final int maxEntries, final MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.hitTimer = Timer.builder("jwt.decode").tag("cached", "true")
+                .description("Time spent decoding the JWT of a request").register(meterRegistry);
+        this.missTimer = Timer.builder("jwt.decode").tag("cached", "false")
+                .description("Time spent decoding the JWT of a request").register(meterRegistry);
+    }
+
+    @Override
+    public Jwt decode(final String token) throws JwtException {
+        long start = System.nanoTime();
+        String key = HashUtils.sha256(token);
+
+        Jwt cached = jwts.get(key);
+        if (cached != null) {
+            if (!isExpired(cached)) {
+                hitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return cached;
+            }
+            remove(key, cached);
+        }
+
+        // Throws if the token is invalid, so that only verified tokens are cached
+        Jwt jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null) {
+            put(key, jwt);
+        }
+
+        missTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return jwt;
+    }
+
+    /** Invalidates all the cached tokens, for example once the signing keys change. */
+    public synchronized void invalidateAll() {
+        jwts.clear();
+        expiries.clear();
+    }
+
+    private synchronized void put(final String key, final Jwt jwt) {
+        if (jwts.putIfAbsent(key, jwt) != null) {
+            return;
+        }
+        expiries.add(new Expiry(jwt.getExpiresAt(), key));
+
+        // Evicting the tokens closest to their expiry, which may be the new token itself
+        while (jwts.size() > maxEntries) {
+            Expiry eldest = expiries.pollFirst();
+            jwts.remove(eldest.key());
+        }
+    }
+
+    private synchronized void remove(final String key, final Jwt jwt) {
+        if (jwts.remove(key, jwt)) {
+            expiries.remove(new Expiry(jwt.getExpiresAt(), key));
+        }
+    }
+
+    private static boolean isExpired(final Jwt jwt) {
+        return !Instant.now().isBefore(jwt.getExpiresAt());
+    }
+
+    private record Expiry(Instant expiresAt, String key) {
+    }
+}
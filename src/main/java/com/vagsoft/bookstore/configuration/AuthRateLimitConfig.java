@@ -0,0 +1,63 @@
+package com.vagsoft.bookstore.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vagsoft.bookstore.filters.AuthRateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Configuration class for the rate limits of the authentication endpoints. */
+@Configuration
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "auth-rate-limit")
+public class AuthRateLimitConfig {
+    private boolean enabled = false;
+
+    // Number of stripes the buckets of every limit are spread over
+    private int stripes = 16;
+
+    // Number of client IPs and usernames tracked by every limit, beyond which new keys share buckets
+    private int maxKeys = 100000;
+
+    private double ipPermitsPerMinute = 30;
+
+    private int ipBurst = 10;
+
+    private double usernamePermitsPerMinute = 10;
+
+    private int usernameBurst = 5;
+
+    // Limit of all the clients together, protecting the password hashing threads
+    private double globalPermitsPerSecond = 50;
+
+    private int globalBurst = 100;
+
+    /**
+     * Bean for registering the rate limit filter on the authentication endpoints,
+     * ahead of the security filters, so that rejected requests are not
+     * authenticated.
+     *
+     * @param objectMapper
+     *            the mapper of the request and response bodies
+     * @param meterRegistry
+     *            the registry of the rejection metrics
+     * @return FilterRegistrationBean of the rate limit filter
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "auth-rate-limit", name = "enabled", havingValue = "true")
+    public FilterRegistrationBean<AuthRateLimitFilter> authRateLimitFilter(final ObjectMapper objectMapper,
+            final MeterRegistry meterRegistry) {
+        final var registration = new FilterRegistrationBean<>(
+                new AuthRateLimitFilter(this, objectMapper, meterRegistry));
+        registration.addUrlPatterns("/auth/login", "/auth/register");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
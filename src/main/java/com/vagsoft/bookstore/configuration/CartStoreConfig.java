@@ -0,0 +1,64 @@
+package com.vagsoft.bookstore.configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import com.vagsoft.bookstore.models.enums.CartStoreMode;
+import com.vagsoft.bookstore.repositories.BookRepository;
+import com.vagsoft.bookstore.repositories.CartItemsRepository;
+import com.vagsoft.bookstore.stores.CartStore;
+import com.vagsoft.bookstore.stores.CartWriteAheadLog;
+import com.vagsoft.bookstore.stores.DatabaseCartStore;
+import com.vagsoft.bookstore.stores.WriteBehindCartStore;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/** Configuration class for the cart store settings. */
+@Configuration
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "cart-store")
+public class CartStoreConfig {
+    private CartStoreMode mode = CartStoreMode.DATABASE;
+
+    private Duration flushInterval = Duration.ofSeconds(5);
+
+    private int maxCarts = 10000;
+
+    private int batchSize = 500;
+
+    private Path walDirectory = Path.of("cart-wal");
+
+    private boolean syncWrites = true;
+
+    /**
+     * Bean for configuring the cart store. In write-behind mode the quantity
+     * changes are kept in memory and written to the database periodically,
+     * otherwise they are written immediately.
+     *
+     * @param cartItemsRepository
+     *            the cart items repository
+     * @param bookRepository
+     *            the book repository used to check the stock of pending changes
+     * @param transactionManager
+     *            the transaction manager used by the write-behind flushes
+     * @return CartStore instance
+     * @throws IOException
+     *             if the write-ahead log cannot be opened
+     */
+    @Bean
+    public CartStore cartStore(final CartItemsRepository cartItemsRepository, final BookRepository bookRepository,
+            final PlatformTransactionManager transactionManager) throws IOException {
+        if (mode == CartStoreMode.WRITE_BEHIND) {
+            return new WriteBehindCartStore(cartItemsRepository, bookRepository, transactionManager,
+                    new CartWriteAheadLog(walDirectory, syncWrites), flushInterval, maxCarts, batchSize);
+        }
+
+        return new DatabaseCartStore(cartItemsRepository);
+    }
+}
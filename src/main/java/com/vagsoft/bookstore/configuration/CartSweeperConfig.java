@@ -0,0 +1,24 @@
+package com.vagsoft.bookstore.configuration;
+
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/** Configuration class for the abandoned cart sweeper settings. */
+@Configuration
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "cart-sweeper")
+public class CartSweeperConfig {
+    private boolean enabled = false;
+
+    private Duration idleAge = Duration.ofDays(30);
+
+    private int batchSize = 200;
+
+    // Share of the sweeper's wall-clock time it may spend running statements
+    private double loadBudget = 0.2;
+}
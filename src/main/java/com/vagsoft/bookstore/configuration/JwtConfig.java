@@ -1,22 +1,27 @@
 package com.vagsoft.bookstore.configuration;
 
+import java.nio.file.Path;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
 import java.time.Duration;
 
-import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.KeyUse;
 import com.nimbusds.jose.jwk.RSAKey;
-import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.DefaultJOSEObjectTypeVerifier;
+import com.vagsoft.bookstore.caches.VerifiedJwtCache;
+import com.vagsoft.bookstore.services.GuestCartTokenService;
+import com.vagsoft.bookstore.services.JwtKeyService;
 import com.vagsoft.bookstore.services.JwtService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 
 /** Configuration class for JWT settings. */
@@ -31,28 +36,66 @@ public class JwtConfig {
 
     private Duration ttl;
 
+    private Duration guestCartTtl = Duration.ofDays(30);
+
+    // Directory of the PEM key files used instead of the single RSA key, reloaded when they change
+    private String keyDirectory;
+
+    private Duration keyReloadInterval = Duration.ofMinutes(1);
+
+    // Number of verified tokens kept, so that they are not verified again on every request
+    private int verifiedCacheMaxEntries = 10000;
+
     /**
-     * Bean for configuring the JWT encoder This bean uses the public and private
-     * keys to create a JWT encoder that can be used to generate JWT tokens.
+     * Bean for configuring the JWT keys This bean reads the signing and
+     * verification keys from the key directory, if set, or uses the RSA key pair
+     * otherwise.
      *
-     * @return JwtEncoder instance
+     * @return JwtKeyService instance
      */
     @Bean
-    public JwtEncoder jwtEncoder() {
-        final var jwk = new RSAKey.Builder(publicKey).privateKey(privateKey).build();
+    public JwtKeyService jwtKeyService() {
+        if (keyDirectory != null && !keyDirectory.isBlank()) {
+            return new JwtKeyService(Path.of(keyDirectory), null);
+        }
+
+        final var jwk = new RSAKey.Builder(publicKey).privateKey(privateKey).keyID("app")
+                .algorithm(JWSAlgorithm.RS256).keyUse(KeyUse.SIGNATURE).build();
+        return new JwtKeyService(null, jwk);
+    }
 
-        return new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(jwk)));
+    /**
+     * Bean for configuring the JWT encoder This bean uses the current signing key
+     * of the JWT keys to create a JWT encoder that can be used to generate JWT
+     * tokens.
+     *
+     * @param jwtKeyService
+     *            the JWT keys
+     * @return JwtEncoder instance
+     */
+    @Bean
+    public JwtEncoder jwtEncoder(final JwtKeyService jwtKeyService) {
+        return new NimbusJwtEncoder(jwtKeyService);
     }
 
     /**
-     * Bean for configuring the JWT decoder This bean uses the public key to create
-     * a JWT decoder that can be used to validate and decode JWT tokens.
+     * Bean for configuring the JWT decoder This bean uses the JWT keys, selected by
+     * the key ID of the token, to create a JWT decoder that can be used to
+     * validate and decode JWT tokens. The verified tokens are cached until they
+     * expire or the keys change.
      *
+     * @param jwtKeyService
+     *            the JWT keys
+     * @param meterRegistry
+     *            the registry of the decoding metrics
      * @return JwtDecoder instance
      */
     @Bean
-    public JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withPublicKey(publicKey).build();
+    public VerifiedJwtCache jwtDecoder(final JwtKeyService jwtKeyService, final MeterRegistry meterRegistry) {
+        final var jwtDecoder = new VerifiedJwtCache(jwtKeyService.createDecoder(DefaultJOSEObjectTypeVerifier.JWT),
+                verifiedCacheMaxEntries, meterRegistry);
+        jwtKeyService.addReloadListener(jwtDecoder::invalidateAll);
+        return jwtDecoder;
     }
 
     /**
@@ -64,12 +107,36 @@ public class JwtConfig {
      *            the name of the application
      * @param jwtEncoder
      *            the JWT encoder
+     * @param jwtKeyService
+     *            the JWT keys
      * @return JwtService instance
      */
     @Bean
     public JwtService jwtService(@Value("${spring.application.name}") final String appName,
-            final JwtEncoder jwtEncoder) {
+            final JwtEncoder jwtEncoder, final JwtKeyService jwtKeyService) {
+
+        return new JwtService(appName, ttl, jwtEncoder, jwtKeyService);
+    }
+
+    /**
+     * Bean for configuring the guest cart token service This bean signs guest carts
+     * with the same keys as the JWT tokens, using a separate token type that the
+     * JWT decoder doesn't accept.
+     *
+     * @param appName
+     *            the name of the application
+     * @param jwtEncoder
+     *            the JWT encoder
+     * @param jwtKeyService
+     *            the JWT keys
+     * @return GuestCartTokenService instance
+     */
+    @Bean
+    public GuestCartTokenService guestCartTokenService(@Value("${spring.application.name}") final String appName,
+            final JwtEncoder jwtEncoder, final JwtKeyService jwtKeyService) {
+        final var guestCartDecoder = jwtKeyService.createDecoder(
+                new DefaultJOSEObjectTypeVerifier<>(new JOSEObjectType(GuestCartTokenService.TOKEN_TYPE)));
 
-        return new JwtService(appName, ttl, jwtEncoder);
+        return new GuestCartTokenService(appName, guestCartTtl, jwtEncoder, jwtKeyService, guestCartDecoder);
     }
 }
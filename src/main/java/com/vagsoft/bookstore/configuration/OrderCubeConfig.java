@@ -0,0 +1,25 @@
+package com.vagsoft.bookstore.configuration;
+
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/** Configuration class for the in-memory order cube settings. */
+@Configuration
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "order-cube")
+public class OrderCubeConfig {
+    private Duration refreshInterval = Duration.ofMinutes(5);
+
+    // Number of order lines below which a scan is not split across the fork-join pool
+    private int parallelThreshold = 1 << 16;
+
+    private int fetchSize = 10000;
+
+    // Number of order IDs below the highest loaded one that every refresh reads again
+    private int rereadOrderIDs = 1000;
+}
@@ -0,0 +1,29 @@
+package com.vagsoft.bookstore.configuration;
+
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/** Configuration class for the monthly order partitions and their archival. */
+@Configuration
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "order-partitions")
+public class OrderPartitionConfig {
+    private Duration maintenanceInterval = Duration.ofDays(1);
+
+    // Number of months after the current one that always have their partitions
+    private int monthsAhead = 3;
+
+    private boolean archiveEnabled = false;
+
+    // Number of months before the current one that are kept in the database
+    private int retentionMonths = 24;
+
+    private String archiveDirectory = "order-archive";
+
+    private int fetchSize = 10000;
+}
@@ -0,0 +1,29 @@
+package com.vagsoft.bookstore.configuration;
+
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/** Configuration class for the password hashing executor settings. */
+@Configuration
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "password-hashing")
+public class PasswordHashingConfig {
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    // Number of hashes waiting for a thread before new ones are rejected
+    private int queueCapacity = 64;
+
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    // Time a single hash should take, used to pick the bcrypt cost at startup
+    private Duration targetLatency = Duration.ofMillis(100);
+
+    private int minStrength = 10;
+
+    private int maxStrength = 14;
+}
@@ -2,7 +2,10 @@ package com.vagsoft.bookstore.configuration;
 
 import static org.springframework.security.config.http.SessionCreationPolicy.STATELESS;
 
+import com.vagsoft.bookstore.executors.PasswordHashingExecutor;
 import com.vagsoft.bookstore.services.CustomUserDetailsService;
+import com.vagsoft.bookstore.services.TokenRevocationService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -10,13 +13,13 @@ import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
-import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.web.BearerTokenAuthenticationEntryPoint;
 import org.springframework.security.oauth2.server.resource.web.access.BearerTokenAccessDeniedHandler;
 import org.springframework.security.web.SecurityFilterChain;
@@ -32,20 +35,36 @@ public class SecurityConfig {
      *
      * @param http
      *            HttpSecurity object for configuring security settings
+     * @param tokenRevocationService
+     *            the revoked tokens, rejected even though they are still valid
      * @return SecurityFilterChain object
      * @throws Exception
      *             if an error occurs during configuration
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(final HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(final HttpSecurity http,
+            final TokenRevocationService tokenRevocationService) throws Exception {
+        final var authenticationConverter = new JwtAuthenticationConverter();
+
         return http.csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(
-                        auth -> auth.requestMatchers("/auth/login").anonymous().requestMatchers("/auth/register")
-                                .permitAll().requestMatchers(HttpMethod.GET, "/books", "/books/{bookID}").permitAll()
+                        auth -> auth.requestMatchers("/auth/login").anonymous()
+                                .requestMatchers("/auth/register", "/auth/refresh").permitAll()
+                                .requestMatchers(HttpMethod.GET, "/books", "/books/{bookID}").permitAll()
+                                .requestMatchers("/guest-cart", "/guest-cart/**").permitAll()
                                 .requestMatchers("/swagger-ui/**").permitAll().requestMatchers("/v3/**").permitAll()
+                                .requestMatchers("/actuator/health").permitAll().requestMatchers("/actuator/**")
+                                .hasAuthority("SCOPE_ROLE_ADMIN")
                                 .anyRequest().authenticated())
                 .sessionManagement(session -> session.sessionCreationPolicy(STATELESS))
-                .oauth2ResourceServer(server -> server.jwt(Customizer.withDefaults())
+                .oauth2ResourceServer(server -> server
+                        // Checked after decoding, so that the cached verified tokens are checked too
+                        .jwt(jwt -> jwt.jwtAuthenticationConverter(token -> {
+                            if (tokenRevocationService.isRevoked(token)) {
+                                throw new InvalidBearerTokenException("The token has been revoked");
+                            }
+                            return authenticationConverter.convert(token);
+                        }))
                         .authenticationEntryPoint(new BearerTokenAuthenticationEntryPoint())
                         .accessDeniedHandler(new BearerTokenAccessDeniedHandler()))
                 .build();
@@ -56,23 +75,32 @@ public class SecurityConfig {
      *
      * @param userDetailsService
      *            UserDetailsService object for loading user details
+     * @param passwordEncoder
+     *            PasswordEncoder object for checking the passwords
      * @return AuthenticationManager object
      */
     @Bean
-    public AuthenticationManager authenticationManager(final CustomUserDetailsService userDetailsService) {
+    public AuthenticationManager authenticationManager(final CustomUserDetailsService userDetailsService,
+            final PasswordEncoder passwordEncoder) {
         var authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return new ProviderManager(authProvider);
     }
 
     /**
-     * Bean for configuring password encoding with BCrypt.
+     * Bean for configuring password encoding with BCrypt, run on a bounded pool of
+     * threads off the request threads.
      *
+     * @param passwordHashingConfig
+     *            the password hashing settings
+     * @param meterRegistry
+     *            the registry of the hashing metrics
      * @return PasswordEncoder object
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordHashingExecutor passwordEncoder(final PasswordHashingConfig passwordHashingConfig,
+            final MeterRegistry meterRegistry) {
+        return new PasswordHashingExecutor(passwordHashingConfig, meterRegistry);
     }
 }
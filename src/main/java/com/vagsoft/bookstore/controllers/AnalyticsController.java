@@ -0,0 +1,62 @@
+package com.vagsoft.bookstore.controllers;
+
+import java.util.List;
+
+import com.vagsoft.bookstore.dto.analyticsDTOs.OrderCubeQueryDTO;
+import com.vagsoft.bookstore.dto.analyticsDTOs.OrderCubeRowReadDTO;
+import com.vagsoft.bookstore.dto.analyticsDTOs.OrderCubeStatusReadDTO;
+import com.vagsoft.bookstore.services.OrderAnalyticsService;
+import com.vagsoft.bookstore.validations.annotations.IsAdmin;
+import com.vagsoft.bookstore.validations.groups.OrderedValidation;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/** REST controller for endpoints related to the order analytics. */
+@RestController
+@RequestMapping(path = "/analytics")
+@Validated(OrderedValidation.class)
+public class AnalyticsController {
+    private final OrderAnalyticsService orderAnalyticsService;
+
+    public AnalyticsController(final OrderAnalyticsService orderAnalyticsService) {
+        this.orderAnalyticsService = orderAnalyticsService;
+    }
+
+    /**
+     * Groups the order lines matching the given filters by up to two dimensions
+     * and retrieves the top groups by the given measure.
+     *
+     * @param orderCubeQueryDTO
+     *            the dimensions, filters, measure and limit of the query
+     * @return the top groups, highest measure first
+     */
+    @IsAdmin
+    @PostMapping(path = "/orders/query")
+    public ResponseEntity<List<OrderCubeRowReadDTO>> queryOrders(//
+            @RequestBody @Valid //
+            final OrderCubeQueryDTO orderCubeQueryDTO) {
+        return ResponseEntity.ok(orderAnalyticsService.queryOrders(orderCubeQueryDTO));
+    }
+
+    /**
+     * Refreshes the in-memory order analytics with the orders placed since the
+     * last refresh, or rebuilds them from all the orders.
+     *
+     * @param full
+     *            whether the analytics are rebuilt from all the orders
+     * @return the state of the analytics after the refresh
+     */
+    @IsAdmin
+    @PostMapping(path = "/orders/refresh")
+    public ResponseEntity<OrderCubeStatusReadDTO> refreshOrders(//
+            @RequestParam(name = "full", defaultValue = "false") //
+            final boolean full) {
+        return ResponseEntity.ok(orderAnalyticsService.refresh(full));
+    }
+}
@@ -2,12 +2,15 @@ package com.vagsoft.bookstore.controllers;
 
 import java.util.Optional;
 
+import com.vagsoft.bookstore.dto.userDTOs.AuthTokenDTO;
 import com.vagsoft.bookstore.dto.userDTOs.UserLoginDTO;
 import com.vagsoft.bookstore.dto.userDTOs.UserReadDTO;
 import com.vagsoft.bookstore.dto.userDTOs.UserWriteDTO;
 import com.vagsoft.bookstore.errors.exceptions.userExceptions.UserCreationException;
 import com.vagsoft.bookstore.mappers.UserMapper;
 import com.vagsoft.bookstore.services.AuthService;
+import com.vagsoft.bookstore.services.GuestCartTokenService;
+import com.vagsoft.bookstore.utils.AuthUtils;
 import com.vagsoft.bookstore.validations.annotations.ValidAdminRegistration;
 import com.vagsoft.bookstore.validations.groups.ExtendedValidation;
 import com.vagsoft.bookstore.validations.groups.OrderedValidation;
@@ -19,6 +22,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -27,20 +31,25 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping(path = "/auth")
 @Validated(OrderedValidation.class)
 public class AuthController {
+    public static final String REFRESH_TOKEN_HEADER = "X-Refresh-Token";
+
     private final AuthService authService;
     private final UserMapper userMapper;
+    private final AuthUtils authUtils;
 
-    public AuthController(final AuthService authService, final UserMapper userMapper) {
+    public AuthController(final AuthService authService, final UserMapper userMapper, final AuthUtils authUtils) {
         this.authService = authService;
         this.userMapper = userMapper;
+        this.authUtils = authUtils;
     }
 
     /**
-     * Registers a new user and returns a JWT token.
+     * Registers a new user and returns a JWT token and a refresh token.
      *
      * @param userWriteDTO
      *            the UserWriteDTO containing user details
-     * @return ResponseEntity containing the registered UserReadDTO and JWT token
+     * @return ResponseEntity containing the registered UserReadDTO, JWT token and
+     *         refresh token
      */
     @ApiResponse(responseCode = "201")
     @PostMapping("/register")
@@ -52,21 +61,63 @@ public class AuthController {
 
         Optional<UserReadDTO> registeredUser = authService.registerUser(userWriteDTO);
 
-        String jwtToken = authService.authenticate(userLoginDTO);
+        AuthTokenDTO authTokens = authService.authenticate(userLoginDTO);
 
-        return ResponseEntity.status(HttpStatus.CREATED).header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtToken)
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + authTokens.getAccessToken())
+                .header(REFRESH_TOKEN_HEADER, authTokens.getRefreshToken())
                 .body(registeredUser.orElseThrow(() -> new UserCreationException("User registration failed")));
     }
 
     /**
-     * Logins a user and returns a JWT token.
+     * Logins a user and returns a JWT token, with a refresh token in the
+     * X-Refresh-Token header.
      *
      * @param userLoginDTO
      *            the UserLoginDTO containing login credentials
+     * @param guestCartToken
+     *            the token of a guest cart to merge into the user's cart (optional)
      * @return ResponseEntity containing the JWT token
      */
     @PostMapping("/login")
-    public ResponseEntity<String> loginUser(@RequestBody @Valid final UserLoginDTO userLoginDTO) {
-        return ResponseEntity.status(HttpStatus.OK).body(authService.authenticate(userLoginDTO));
+    public ResponseEntity<String> loginUser(@RequestBody @Valid final UserLoginDTO userLoginDTO,
+            @RequestHeader(name = GuestCartTokenService.HEADER, required = false) final String guestCartToken) {
+        AuthTokenDTO authTokens = authService.authenticate(userLoginDTO, guestCartToken);
+
+        return ResponseEntity.status(HttpStatus.OK).header(REFRESH_TOKEN_HEADER, authTokens.getRefreshToken())
+                .body(authTokens.getAccessToken());
+    }
+
+    /**
+     * Exchanges a refresh token for a new JWT token, with a new refresh token in
+     * the X-Refresh-Token header. Every refresh token can only be used once.
+     *
+     * @param refreshToken
+     *            the refresh token returned by the last login or refresh
+     * @return ResponseEntity containing the JWT token
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<String> refreshToken(@RequestHeader(name = REFRESH_TOKEN_HEADER) final String refreshToken) {
+        AuthTokenDTO authTokens = authService.refresh(refreshToken);
+
+        return ResponseEntity.status(HttpStatus.OK).header(REFRESH_TOKEN_HEADER, authTokens.getRefreshToken())
+                .body(authTokens.getAccessToken());
+    }
+
+    /**
+     * Logs out the current user, revoking the JWT token of the request and, if
+     * sent, the refresh token.
+     *
+     * @param refreshToken
+     *            the refresh token of the session (optional)
+     * @return ResponseEntity with no content
+     */
+    @ApiResponse(responseCode = "204")
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logoutUser(
+            @RequestHeader(name = REFRESH_TOKEN_HEADER, required = false) final String refreshToken) {
+        authService.logout(authUtils.getJwtFromAuthentication(), refreshToken);
+
+        return ResponseEntity.noContent().build();
     }
 }
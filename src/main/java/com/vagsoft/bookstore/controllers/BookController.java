@@ -119,7 +119,7 @@ public class BookController {
     public ResponseEntity<BookReadDTO> getBookByID(//
             @PathVariable //
             @Positive(groups = BasicValidation.class) //
-            @ExistsResource(repository = BookRepository.class, message = "Book with given ID does not exist", groups = ExtendedValidation.class) //
+            @ExistsResource(repository = BookRepository.class, prefetchMethod = "findWithGenresByID", message = "Book with given ID does not exist", groups = ExtendedValidation.class) //
             final Integer bookID) {
         BookReadDTO foundBook = bookService.getBookByID(bookID);
         return ResponseEntity.ok(foundBook);
@@ -5,6 +5,8 @@ import java.util.Optional;
 import com.vagsoft.bookstore.dto.cartDTOs.CartItemReadDTO;
 import com.vagsoft.bookstore.dto.cartDTOs.CartItemUpdateDTO;
 import com.vagsoft.bookstore.dto.cartDTOs.CartItemWriteDTO;
+import com.vagsoft.bookstore.dto.cartDTOs.CartItemsBatchDTO;
+import com.vagsoft.bookstore.dto.cartDTOs.CartReadDTO;
 import com.vagsoft.bookstore.errors.exceptions.cartExceptions.CartItemCreationException;
 import com.vagsoft.bookstore.errors.exceptions.cartExceptions.CartItemsUpdateException;
 import com.vagsoft.bookstore.repositories.BookRepository;
@@ -15,7 +17,6 @@ import com.vagsoft.bookstore.utils.AuthUtils;
 import com.vagsoft.bookstore.validations.annotations.ExistsCompositeResource;
 import com.vagsoft.bookstore.validations.annotations.ExistsResource;
 import com.vagsoft.bookstore.validations.annotations.IsAdmin;
-import com.vagsoft.bookstore.validations.annotations.UniqueCompositeFields;
 import com.vagsoft.bookstore.validations.groups.BasicValidation;
 import com.vagsoft.bookstore.validations.groups.ExtendedValidation;
 import com.vagsoft.bookstore.validations.groups.OrderedValidation;
@@ -28,6 +29,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -90,6 +92,7 @@ public class CartItemsController {
             @ExistsCompositeResource(//
                     repository = CartItemsRepository.class, //
                     methodName = "existsByUserIDAndBookID", //
+                    prefetchMethod = "findWithBookByUserIDAndBookID", //
                     firstPathVariable = "userID", //
                     secondPathVariable = "bookID", //
                     message = "The book with the given ID is not in the given user's cart items", //
@@ -127,6 +130,7 @@ public class CartItemsController {
             @ExistsCompositeResource(//
                     repository = CartItemsRepository.class, //
                     methodName = "existsByUserIDAndBookID", //
+                    prefetchMethod = "findWithBookByUserIDAndBookID", //
                     firstPathVariable = "userID", //
                     secondPathVariable = "bookID", //
                     message = "No Cart item found with the given user ID and book ID", //
@@ -186,24 +190,17 @@ public class CartItemsController {
     }
 
     /**
-     * Adds a new cart item for the authenticated user.
+     * Adds a new cart item for the authenticated user, or increases its quantity if
+     * the book is already in the cart.
      *
      * @param cartItemWriteDTO
      *            the cart item to be added
-     * @return the created cart item
+     * @return the created or updated cart item
      */
     @ApiResponse(responseCode = "201")
     @PostMapping(path = "/me/items")
     public ResponseEntity<CartItemReadDTO> addCartItem(//
             @RequestBody @Valid //
-            @UniqueCompositeFields(//
-                    repository = CartItemsRepository.class, //
-                    methodName = "existsByUserIDAndBookID", //
-                    usePathVariable = false, //
-                    dtoClass = CartItemWriteDTO.class, //
-                    dtoFieldName = "bookID", //
-                    message = "This book is already in your cart", //
-                    groups = ExtendedValidation.class) //
             final CartItemWriteDTO cartItemWriteDTO) {
         Integer userID = authUtils.getUserIdFromAuthentication();
 
@@ -213,6 +210,23 @@ public class CartItemsController {
                 .ok(savedCartItem.orElseThrow(() -> new CartItemCreationException("Failed to create cart item")));
     }
 
+    /**
+     * Applies a batch of add, set-quantity and remove operations to the cart items
+     * of the authenticated user in a single transaction.
+     *
+     * @param cartItemsBatchDTO
+     *            the operations to apply, in order
+     * @return the resulting cart
+     */
+    @PatchMapping(path = "/me/items")
+    public ResponseEntity<CartReadDTO> updateCartItems(//
+            @RequestBody @Valid //
+            final CartItemsBatchDTO cartItemsBatchDTO) {
+        Integer userID = authUtils.getUserIdFromAuthentication();
+
+        return ResponseEntity.ok(cartItemsService.applyCartItemOperations(userID, cartItemsBatchDTO));
+    }
+
     /**
      * Retrieves a specific cart item for the authenticated user using the book's
      * ID.
@@ -229,6 +243,7 @@ public class CartItemsController {
             @ExistsCompositeResource(//
                     repository = CartItemsRepository.class, //
                     methodName = "existsByUserIDAndBookID", //
+                    prefetchMethod = "findWithBookByUserIDAndBookID", //
                     useJWT = true, //
                     secondPathVariable = "bookID", //
                     message = "The book with the given ID is not in the given user's cart items", //
@@ -260,6 +275,7 @@ public class CartItemsController {
             @ExistsCompositeResource(//
                     repository = CartItemsRepository.class, //
                     methodName = "existsByUserIDAndBookID", //
+                    prefetchMethod = "findWithBookByUserIDAndBookID", //
                     useJWT = true, secondPathVariable = "bookID", //
                     message = "No Cart item found with the given JWT and book ID", //
                     groups = ExtendedValidation.class) //
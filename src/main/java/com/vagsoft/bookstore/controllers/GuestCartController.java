@@ -0,0 +1,65 @@
+package com.vagsoft.bookstore.controllers;
+
+import com.vagsoft.bookstore.dto.cartDTOs.CartItemsBatchDTO;
+import com.vagsoft.bookstore.dto.cartDTOs.CartReadDTO;
+import com.vagsoft.bookstore.services.GuestCartService;
+import com.vagsoft.bookstore.services.GuestCartTokenService;
+import com.vagsoft.bookstore.validations.groups.OrderedValidation;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for endpoints related to guest carts. The guest cart travels in
+ * the X-Guest-Cart header, both in the requests and in the responses.
+ */
+@RestController
+@RequestMapping(path = "/guest-cart")
+@Validated(OrderedValidation.class)
+public class GuestCartController {
+    private final GuestCartService guestCartService;
+
+    public GuestCartController(final GuestCartService guestCartService) {
+        this.guestCartService = guestCartService;
+    }
+
+    /**
+     * Retrieves the guest cart held in the given token.
+     *
+     * @param guestCartToken
+     *            the guest cart token (optional)
+     * @return the guest cart
+     */
+    @GetMapping
+    public ResponseEntity<CartReadDTO> getGuestCart(
+            @RequestHeader(name = GuestCartTokenService.HEADER, required = false) final String guestCartToken) {
+        return ResponseEntity.ok(guestCartService.getGuestCart(guestCartToken));
+    }
+
+    /**
+     * Applies a batch of add, set-quantity and remove operations to the guest cart
+     * held in the given token.
+     *
+     * @param guestCartToken
+     *            the guest cart token (optional)
+     * @param cartItemsBatchDTO
+     *            the operations to apply
+     * @return the resulting guest cart, with its new token in the X-Guest-Cart
+     *         header
+     */
+    @PatchMapping(path = "/items")
+    public ResponseEntity<CartReadDTO> updateGuestCartItems(//
+            @RequestHeader(name = GuestCartTokenService.HEADER, required = false) final String guestCartToken, //
+            @RequestBody @Valid final CartItemsBatchDTO cartItemsBatchDTO) {
+        GuestCartService.GuestCartUpdate update = guestCartService.applyGuestCartOperations(guestCartToken,
+                cartItemsBatchDTO);
+
+        return ResponseEntity.ok().header(GuestCartTokenService.HEADER, update.token()).body(update.cart());
+    }
+}
@@ -1,15 +1,24 @@
 package com.vagsoft.bookstore.controllers;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 import com.vagsoft.bookstore.dto.orderDTOs.OrderReadDTO;
+import com.vagsoft.bookstore.dto.orderDTOs.OrderStatusBatchDTO;
+import com.vagsoft.bookstore.dto.orderDTOs.OrderStatusBatchReadDTO;
+import com.vagsoft.bookstore.dto.orderDTOs.OrderSummaryReadDTO;
+import com.vagsoft.bookstore.dto.orderDTOs.OrderSummaryRebuildReadDTO;
 import com.vagsoft.bookstore.dto.orderDTOs.OrderUpdateDTO;
 import com.vagsoft.bookstore.errors.exceptions.orderExceptions.OrderCreationException;
 import com.vagsoft.bookstore.errors.exceptions.orderExceptions.OrderUpdateException;
+import com.vagsoft.bookstore.models.enums.ExportFormat;
 import com.vagsoft.bookstore.models.enums.Status;
 import com.vagsoft.bookstore.repositories.OrderRepository;
 import com.vagsoft.bookstore.repositories.UserRepository;
+import com.vagsoft.bookstore.services.OrderExportService;
 import com.vagsoft.bookstore.services.OrderService;
+import com.vagsoft.bookstore.services.OrderSummaryService;
 import com.vagsoft.bookstore.utils.AuthUtils;
 import com.vagsoft.bookstore.validations.annotations.ExistsCompositeResource;
 import com.vagsoft.bookstore.validations.annotations.ExistsResource;
@@ -23,10 +32,15 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Positive;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -34,6 +48,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /** REST controller for endpoints related to orders. */
 @RestController
@@ -41,10 +56,15 @@ import org.springframework.web.bind.annotation.RestController;
 @Validated(OrderedValidation.class)
 public class OrderController {
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
+    private final OrderSummaryService orderSummaryService;
     private final AuthUtils authUtils;
 
-    public OrderController(final OrderService orderService, final AuthUtils authUtils) {
+    public OrderController(final OrderService orderService, final OrderExportService orderExportService,
+            final OrderSummaryService orderSummaryService, final AuthUtils authUtils) {
         this.orderService = orderService;
+        this.orderExportService = orderExportService;
+        this.orderSummaryService = orderSummaryService;
         this.authUtils = authUtils;
     }
 
@@ -59,6 +79,10 @@ public class OrderController {
      *            the maximum total amount of the orders to search for (optional)
      * @param status
      *            the status of the orders to search for (optional)
+     * @param minOrderDate
+     *            the earliest date of the orders to search for (optional)
+     * @param maxOrderDate
+     *            the latest date of the orders to search for (optional)
      * @param pageable
      *            the pagination information (optional)
      * @return a page of orders
@@ -78,8 +102,15 @@ public class OrderController {
             final Double maxTotalAmount, //
             @RequestParam(name = "status", required = false) //
             final Status status, //
+            @RequestParam(name = "minOrderDate", required = false) //
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) //
+            final LocalDate minOrderDate, //
+            @RequestParam(name = "maxOrderDate", required = false) //
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) //
+            final LocalDate maxOrderDate, //
             final Pageable pageable) {
-        return ResponseEntity.ok(orderService.getOrders(userID, minTotalAmount, maxTotalAmount, status, pageable));
+        return ResponseEntity.ok(orderService.getOrders(userID, minTotalAmount, maxTotalAmount, status, minOrderDate,
+                maxOrderDate, pageable));
     }
 
     /**
@@ -125,6 +156,119 @@ public class OrderController {
                 .orElseThrow(() -> new OrderUpdateException("Order with ID: " + orderID + " update failed")));
     }
 
+    /**
+     * Moves the given orders, or the orders matching the given filters, to a new
+     * status. Orders that cannot be moved to the new status from their current one
+     * are skipped.
+     *
+     * @param orderStatusBatchDTO
+     *            the new status and the selection of the orders
+     * @return the new status and the IDs of the updated orders
+     */
+    @IsAdmin
+    @PatchMapping(path = "/status")
+    public ResponseEntity<OrderStatusBatchReadDTO> updateOrderStatuses(//
+            @RequestBody @Valid //
+            final OrderStatusBatchDTO orderStatusBatchDTO) {
+        return ResponseEntity.ok(orderService.updateOrderStatuses(orderStatusBatchDTO));
+    }
+
+    /**
+     * Streams the orders in the given range joined with their items and books, one
+     * line per order item.
+     *
+     * @param minOrderDate
+     *            the earliest date of the orders to export (optional)
+     * @param maxOrderDate
+     *            the latest date of the orders to export (optional)
+     * @param statuses
+     *            the statuses of the orders to export (optional)
+     * @param format
+     *            the format of the export, CSV by default
+     * @param gzip
+     *            whether the export is gzipped
+     * @return the streamed export
+     */
+    @IsAdmin
+    @GetMapping(path = "/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(//
+            @RequestParam(name = "minOrderDate", required = false) //
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) //
+            final LocalDate minOrderDate, //
+            @RequestParam(name = "maxOrderDate", required = false) //
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) //
+            final LocalDate maxOrderDate, //
+            @RequestParam(name = "status", required = false) //
+            final List<Status> statuses, //
+            @RequestParam(name = "format", defaultValue = "CSV") //
+            final ExportFormat format, //
+            @RequestParam(name = "gzip", defaultValue = "false") //
+            final boolean gzip) {
+        StreamingResponseBody export = orderExportService.exportOrders(minOrderDate, maxOrderDate, statuses, format,
+                gzip);
+
+        String fileName = format == ExportFormat.CSV ? "orders.csv" : "orders.ndjson";
+        MediaType contentType = format == ExportFormat.CSV
+                ? new MediaType("text", "csv")
+                : new MediaType("application", "x-ndjson");
+        if (gzip) {
+            fileName += ".gz";
+            contentType = new MediaType("application", "gzip");
+        }
+
+        return ResponseEntity.ok().contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build()
+                        .toString())
+                .body(export);
+    }
+
+    /**
+     * Retrieves a page of order summaries filtered by the specified parameters,
+     * newest first.
+     *
+     * @param userID
+     *            the ID of the user who placed the orders (optional)
+     * @param status
+     *            the status of the orders to search for (optional)
+     * @param minOrderDate
+     *            the earliest date of the orders to search for (optional)
+     * @param maxOrderDate
+     *            the latest date of the orders to search for (optional)
+     * @param pageable
+     *            the pagination information (optional)
+     * @return a page of order summaries
+     */
+    @IsAdmin
+    @GetMapping(path = "/summaries")
+    public ResponseEntity<Page<OrderSummaryReadDTO>> getOrderSummaries(//
+            @RequestParam(name = "userID", required = false) //
+            @Positive(groups = BasicValidation.class) //
+            @ExistsResource(repository = UserRepository.class, nullable = true, message = "User with given ID does not exist", groups = ExtendedValidation.class) //
+            final Integer userID, //
+            @RequestParam(name = "status", required = false) //
+            final Status status, //
+            @RequestParam(name = "minOrderDate", required = false) //
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) //
+            final LocalDate minOrderDate, //
+            @RequestParam(name = "maxOrderDate", required = false) //
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) //
+            final LocalDate maxOrderDate, //
+            final Pageable pageable) {
+        return ResponseEntity.ok(
+                orderSummaryService.getOrderSummaries(userID, status, minOrderDate, maxOrderDate, pageable));
+    }
+
+    /**
+     * Rebuilds the order summaries from the orders, their items and their books.
+     *
+     * @return the number of order summaries written
+     */
+    @IsAdmin
+    @PostMapping(path = "/summaries/rebuild")
+    public ResponseEntity<OrderSummaryRebuildReadDTO> rebuildOrderSummaries() {
+        return ResponseEntity.ok(new OrderSummaryRebuildReadDTO(orderSummaryService.rebuild()));
+    }
+
     /**
      * Retrieves a page of orders for the authenticated user, filtered by the
      * specified parameters.
@@ -135,6 +279,10 @@ public class OrderController {
      *            the maximum total amount of the orders to search for (optional)
      * @param status
      *            the status of the orders to search for (optional)
+     * @param minOrderDate
+     *            the earliest date of the orders to search for (optional)
+     * @param maxOrderDate
+     *            the latest date of the orders to search for (optional)
      * @param pageable
      *            the pagination information (optional)
      * @return a page of orders
@@ -149,10 +297,48 @@ public class OrderController {
             final Double maxTotalAmount, //
             @RequestParam(name = "status", required = false) //
             final Status status, //
+            @RequestParam(name = "minOrderDate", required = false) //
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) //
+            final LocalDate minOrderDate, //
+            @RequestParam(name = "maxOrderDate", required = false) //
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) //
+            final LocalDate maxOrderDate, //
+            final Pageable pageable) {
+        Integer userID = authUtils.getUserIdFromAuthentication();
+
+        return ResponseEntity.ok(orderService.getOrders(userID, minTotalAmount, maxTotalAmount, status, minOrderDate,
+                maxOrderDate, pageable));
+    }
+
+    /**
+     * Retrieves a page of order summaries for the authenticated user, filtered by
+     * the specified parameters, newest first.
+     *
+     * @param status
+     *            the status of the orders to search for (optional)
+     * @param minOrderDate
+     *            the earliest date of the orders to search for (optional)
+     * @param maxOrderDate
+     *            the latest date of the orders to search for (optional)
+     * @param pageable
+     *            the pagination information (optional)
+     * @return a page of order summaries
+     */
+    @GetMapping(path = "/me/summaries")
+    public ResponseEntity<Page<OrderSummaryReadDTO>> getOrderSummariesMe(//
+            @RequestParam(name = "status", required = false) //
+            final Status status, //
+            @RequestParam(name = "minOrderDate", required = false) //
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) //
+            final LocalDate minOrderDate, //
+            @RequestParam(name = "maxOrderDate", required = false) //
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) //
+            final LocalDate maxOrderDate, //
             final Pageable pageable) {
         Integer userID = authUtils.getUserIdFromAuthentication();
 
-        return ResponseEntity.ok(orderService.getOrders(userID, minTotalAmount, maxTotalAmount, status, pageable));
+        return ResponseEntity.ok(
+                orderSummaryService.getOrderSummaries(userID, status, minOrderDate, maxOrderDate, pageable));
     }
 
     /**
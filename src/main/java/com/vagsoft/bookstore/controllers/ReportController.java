@@ -0,0 +1,50 @@
+package com.vagsoft.bookstore.controllers;
+
+import java.time.LocalDate;
+
+import com.vagsoft.bookstore.dto.reportDTOs.SalesReportReadDTO;
+import com.vagsoft.bookstore.services.ReportService;
+import com.vagsoft.bookstore.validations.annotations.IsAdmin;
+import com.vagsoft.bookstore.validations.groups.OrderedValidation;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/** REST controller for endpoints related to the admin reports. */
+@RestController
+@RequestMapping(path = "/reports")
+@Validated(OrderedValidation.class)
+public class ReportController {
+    private final ReportService reportService;
+
+    public ReportController(final ReportService reportService) {
+        this.reportService = reportService;
+    }
+
+    /**
+     * Retrieves the daily revenue and order counts, the units sold per book and
+     * per genre in the given range of days, and the current order counts per
+     * status.
+     *
+     * @param from
+     *            the first day of the range
+     * @param to
+     *            the last day of the range
+     * @return the sales report
+     */
+    @IsAdmin
+    @GetMapping(path = "/sales")
+    public ResponseEntity<SalesReportReadDTO> getSalesReport(//
+            @RequestParam(name = "from") //
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) //
+            final LocalDate from, //
+            @RequestParam(name = "to") //
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) //
+            final LocalDate to) {
+        return ResponseEntity.ok(reportService.getSalesReport(from, to));
+    }
+}
@@ -0,0 +1,49 @@
+package com.vagsoft.bookstore.dto.analyticsDTOs;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.vagsoft.bookstore.models.enums.CubeDimension;
+import com.vagsoft.bookstore.models.enums.CubeMeasure;
+import com.vagsoft.bookstore.models.enums.Status;
+import com.vagsoft.bookstore.validations.groups.BasicValidation;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCubeQueryDTO {
+    @Builder.Default
+    @NotNull(message = "groupBy must not be null", groups = BasicValidation.class)
+    @Size(max = 2, message = "groupBy must have at most 2 dimensions", groups = BasicValidation.class)
+    private List<@NotNull(groups = BasicValidation.class) CubeDimension> groupBy = new ArrayList<>();
+
+    @Builder.Default
+    @NotNull(message = "statuses must not be null", groups = BasicValidation.class)
+    private Set<@NotNull(groups = BasicValidation.class) Status> statuses = new HashSet<>();
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    @Builder.Default
+    @NotNull(message = "orderBy must not be null", groups = BasicValidation.class)
+    private CubeMeasure orderBy = CubeMeasure.REVENUE;
+
+    @Builder.Default
+    @NotNull(message = "limit must not be null", groups = BasicValidation.class)
+    @Positive(message = "limit must be positive", groups = BasicValidation.class)
+    @Max(value = 10000, message = "limit must be at most 10000", groups = BasicValidation.class)
+    private Integer limit = 100;
+}
@@ -0,0 +1,19 @@
+package com.vagsoft.bookstore.dto.analyticsDTOs;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCubeRowReadDTO {
+    private List<String> keys;
+    private Double revenue;
+    private Long units;
+    private Long lines;
+}
@@ -0,0 +1,18 @@
+package com.vagsoft.bookstore.dto.analyticsDTOs;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCubeStatusReadDTO {
+    private Integer lines;
+    private Integer maxOrderID;
+    private LocalDateTime refreshedAt;
+}
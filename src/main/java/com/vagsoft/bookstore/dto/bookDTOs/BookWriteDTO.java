@@ -3,6 +3,7 @@ package com.vagsoft.bookstore.dto.bookDTOs;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.vagsoft.bookstore.caches.UniqueValueFilter;
 import com.vagsoft.bookstore.dto.genreDTOs.GenreDTO;
 import com.vagsoft.bookstore.repositories.BookRepository;
 import com.vagsoft.bookstore.validations.annotations.NullOrNotBlank;
@@ -46,7 +47,7 @@ public class BookWriteDTO {
     @PositiveOrZero(message = "availability must be greater than or equal to 0", groups = BasicValidation.class)
     private Integer availability;
 
-    @UniqueField(repository = BookRepository.class, methodName = "existsByIsbn", message = "isbn must be unique", groups = ExtendedValidation.class)
+    @UniqueField(repository = BookRepository.class, filter = UniqueValueFilter.ISBN, methodName = "existsByIsbn", message = "isbn must be unique", groups = ExtendedValidation.class)
     @NullOrNotBlank(groups = BasicValidation.class)
     @Size(max = 31, message = "isbn must be less than 32 characters", groups = BasicValidation.class)
     private String isbn;
@@ -0,0 +1,28 @@
+package com.vagsoft.bookstore.dto.cartDTOs;
+
+import com.vagsoft.bookstore.models.enums.CartItemAction;
+import com.vagsoft.bookstore.validations.groups.BasicValidation;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartItemOperationDTO {
+    @NotNull(message = "action must not be null", groups = BasicValidation.class)
+    private CartItemAction action;
+
+    @NotNull(message = "bookID must not be null", groups = BasicValidation.class)
+    @Positive(message = "bookID must be greater than 0", groups = BasicValidation.class)
+    private Integer bookID;
+
+    @Builder.Default
+    @NotNull(message = "quantity must not be null", groups = BasicValidation.class)
+    @Positive(message = "quantity must be greater than 0", groups = BasicValidation.class)
+    private Integer quantity = 1;
+}
@@ -14,4 +14,16 @@ public class CartItemReadDTO {
     private Integer cartID;
     private BookReadDTO book;
     private Integer quantity;
+
+    /**
+     * Computes the price of the line, the book's price times the quantity.
+     *
+     * @return the subtotal of the line, or null if the book has no price
+     */
+    public Double getSubtotal() {
+        if (book == null || book.getPrice() == null || quantity == null) {
+            return null;
+        }
+        return book.getPrice() * quantity;
+    }
 }
@@ -0,0 +1,25 @@
+package com.vagsoft.bookstore.dto.cartDTOs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.vagsoft.bookstore.validations.groups.BasicValidation;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartItemsBatchDTO {
+    @Builder.Default
+    @Valid
+    @NotEmpty(message = "operations must not be empty", groups = BasicValidation.class)
+    @Size(max = 500, message = "operations must be at most 500", groups = BasicValidation.class)
+    private List<CartItemOperationDTO> operations = new ArrayList<>();
+}
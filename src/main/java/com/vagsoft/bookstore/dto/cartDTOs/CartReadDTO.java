@@ -2,6 +2,7 @@ package com.vagsoft.bookstore.dto.cartDTOs;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -17,4 +18,14 @@ public class CartReadDTO {
     private Integer userID;
     @Builder.Default
     private List<CartItemReadDTO> cartItems = new ArrayList<>();
+
+    /**
+     * Computes the total price of the cart from the subtotals of its lines.
+     *
+     * @return the total of the cart
+     */
+    public Double getTotal() {
+        return cartItems.stream().map(CartItemReadDTO::getSubtotal).filter(Objects::nonNull)
+                .mapToDouble(Double::doubleValue).sum();
+    }
 }
@@ -0,0 +1,36 @@
+package com.vagsoft.bookstore.dto.orderDTOs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.vagsoft.bookstore.models.enums.Status;
+import com.vagsoft.bookstore.validations.groups.BasicValidation;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusBatchDTO {
+    @Enumerated(EnumType.STRING)
+    @NotNull(message = "status must not be null", groups = BasicValidation.class)
+    private Status status;
+
+    @Builder.Default
+    @Size(max = 1000, message = "orderIDs must be at most 1000", groups = BasicValidation.class)
+    private List<@NotNull(groups = BasicValidation.class) @Positive(groups = BasicValidation.class) Integer> orderIDs = new ArrayList<>();
+
+    @Positive(message = "userID must be positive", groups = BasicValidation.class)
+    private Integer userID;
+
+    @Enumerated(EnumType.STRING)
+    private Status currentStatus;
+}
@@ -0,0 +1,18 @@
+package com.vagsoft.bookstore.dto.orderDTOs;
+
+import java.util.List;
+
+import com.vagsoft.bookstore.models.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusBatchReadDTO {
+    private Status status;
+    private List<Integer> updatedOrderIDs;
+}
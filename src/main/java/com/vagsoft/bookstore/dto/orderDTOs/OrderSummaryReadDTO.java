@@ -0,0 +1,24 @@
+package com.vagsoft.bookstore.dto.orderDTOs;
+
+import java.time.LocalDate;
+
+import com.vagsoft.bookstore.models.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryReadDTO {
+    private Integer id;
+    private Integer userID;
+    private LocalDate orderDate;
+    private Status status;
+    private Double totalAmount;
+    private Integer itemCount;
+    private Integer firstBookID;
+    private String firstBookTitle;
+}
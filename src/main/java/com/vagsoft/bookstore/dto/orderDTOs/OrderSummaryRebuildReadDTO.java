@@ -0,0 +1,14 @@
+package com.vagsoft.bookstore.dto.orderDTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryRebuildReadDTO {
+    private Integer summaryCount;
+}
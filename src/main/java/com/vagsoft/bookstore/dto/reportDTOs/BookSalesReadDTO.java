@@ -0,0 +1,16 @@
+package com.vagsoft.bookstore.dto.reportDTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSalesReadDTO {
+    private Integer bookID;
+    private String title;
+    private Long units;
+}
@@ -0,0 +1,18 @@
+package com.vagsoft.bookstore.dto.reportDTOs;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySalesReadDTO {
+    private LocalDate day;
+    private Integer orderCount;
+    private Double revenue;
+}
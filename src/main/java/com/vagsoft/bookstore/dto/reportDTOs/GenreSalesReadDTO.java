@@ -0,0 +1,15 @@
+package com.vagsoft.bookstore.dto.reportDTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenreSalesReadDTO {
+    private String genre;
+    private Long units;
+}
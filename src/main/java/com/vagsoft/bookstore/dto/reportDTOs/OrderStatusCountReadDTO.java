@@ -0,0 +1,17 @@
+package com.vagsoft.bookstore.dto.reportDTOs;
+
+import com.vagsoft.bookstore.models.enums.Status;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusCountReadDTO {
+    private Status status;
+    private Integer orderCount;
+}
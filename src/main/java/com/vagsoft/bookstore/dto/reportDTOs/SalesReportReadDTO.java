@@ -0,0 +1,45 @@
+package com.vagsoft.bookstore.dto.reportDTOs;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesReportReadDTO {
+    private LocalDate from;
+    private LocalDate to;
+    @Builder.Default
+    private List<DailySalesReadDTO> days = new ArrayList<>();
+    @Builder.Default
+    private List<BookSalesReadDTO> books = new ArrayList<>();
+    @Builder.Default
+    private List<GenreSalesReadDTO> genres = new ArrayList<>();
+    @Builder.Default
+    private List<OrderStatusCountReadDTO> statuses = new ArrayList<>();
+
+    /**
+     * Computes the number of orders in the range from the daily sales.
+     *
+     * @return the number of orders
+     */
+    public Integer getOrderCount() {
+        return days.stream().mapToInt(DailySalesReadDTO::getOrderCount).sum();
+    }
+
+    /**
+     * Computes the revenue of the range from the daily sales.
+     *
+     * @return the revenue
+     */
+    public Double getRevenue() {
+        return days.stream().mapToDouble(DailySalesReadDTO::getRevenue).sum();
+    }
+}
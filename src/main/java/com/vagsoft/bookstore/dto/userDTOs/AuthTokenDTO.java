@@ -0,0 +1,16 @@
+package com.vagsoft.bookstore.dto.userDTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthTokenDTO {
+    private String accessToken;
+
+    private String refreshToken;
+}
@@ -1,5 +1,6 @@
 package com.vagsoft.bookstore.dto.userDTOs;
 
+import com.vagsoft.bookstore.caches.UniqueValueFilter;
 import com.vagsoft.bookstore.repositories.UserRepository;
 import com.vagsoft.bookstore.validations.annotations.NullOrNotBlank;
 import com.vagsoft.bookstore.validations.annotations.UniqueField;
@@ -16,12 +17,12 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class UserUpdateDTO {
-    @UniqueField(repository = UserRepository.class, methodName = "existsByEmailAndIdNot", pathVariable = "userID", message = "email must be unique", groups = ExtendedValidation.class)
+    @UniqueField(repository = UserRepository.class, filter = UniqueValueFilter.EMAIL, methodName = "existsByEmailAndIdNot", pathVariable = "userID", message = "email must be unique", groups = ExtendedValidation.class)
     @NullOrNotBlank(groups = BasicValidation.class)
     @Size(max = 320, message = "email must be less than 321 characters", groups = BasicValidation.class)
     private String email;
 
-    @UniqueField(repository = UserRepository.class, methodName = "existsByUsernameAndIdNot", pathVariable = "userID", message = "username must be unique", groups = ExtendedValidation.class)
+    @UniqueField(repository = UserRepository.class, filter = UniqueValueFilter.USERNAME, methodName = "existsByUsernameAndIdNot", pathVariable = "userID", message = "username must be unique", groups = ExtendedValidation.class)
     @NullOrNotBlank(groups = BasicValidation.class)
     @Size(max = 31, message = "username must be less than 32 characters", groups = BasicValidation.class)
     private String username;
@@ -1,5 +1,6 @@
 package com.vagsoft.bookstore.dto.userDTOs;
 
+import com.vagsoft.bookstore.caches.UniqueValueFilter;
 import com.vagsoft.bookstore.models.enums.Role;
 import com.vagsoft.bookstore.repositories.UserRepository;
 import com.vagsoft.bookstore.validations.annotations.UniqueField;
@@ -19,12 +20,12 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class UserWriteDTO {
-    @UniqueField(repository = UserRepository.class, methodName = "existsByEmail", message = "email must be unique", groups = ExtendedValidation.class)
+    @UniqueField(repository = UserRepository.class, filter = UniqueValueFilter.EMAIL, methodName = "existsByEmail", message = "email must be unique", groups = ExtendedValidation.class)
     @NotBlank(message = "email must not be blank", groups = BasicValidation.class)
     @Size(max = 320, message = "email must be less than 321 characters", groups = BasicValidation.class)
     private String email;
 
-    @UniqueField(repository = UserRepository.class, methodName = "existsByUsername", message = "username must be unique", groups = ExtendedValidation.class)
+    @UniqueField(repository = UserRepository.class, filter = UniqueValueFilter.USERNAME, methodName = "existsByUsername", message = "username must be unique", groups = ExtendedValidation.class)
     @NotBlank(message = "username must not be blank", groups = BasicValidation.class)
     @Size(max = 31, message = "username must be less than 32 characters", groups = BasicValidation.class)
     private String username;
@@ -2,16 +2,20 @@ package com.vagsoft.bookstore.errors.advices;
 
 import java.util.stream.Collectors;
 
+import com.vagsoft.bookstore.errors.exceptions.InvalidRefreshTokenException;
 import com.vagsoft.bookstore.errors.exceptions.ResourceCreationException;
 import com.vagsoft.bookstore.errors.exceptions.ResourceNotFoundException;
 import com.vagsoft.bookstore.errors.exceptions.ResourceUpdateException;
+import com.vagsoft.bookstore.errors.exceptions.ServiceUnavailableException;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.ValidationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -218,6 +222,23 @@ public class GlobalControllerAdvice {
         return problemDetail;
     }
 
+    /**
+     * Handles invalid refresh token exceptions.
+     *
+     * @param ex
+     *            the {@link InvalidRefreshTokenException} to handle
+     * @return a {@link ProblemDetail} with the error details
+     */
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    @ResponseStatus(HttpStatus.UNAUTHORIZED)
+    public ProblemDetail handleInvalidRefreshTokenException(final InvalidRefreshTokenException ex) {
+        log.error("InvalidRefreshTokenException", ex);
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.UNAUTHORIZED, ex.getMessage());
+        problemDetail.setTitle("Unauthorized");
+        return problemDetail;
+    }
+
     /**
      * Handles authorization denied exceptions.
      *
@@ -237,6 +258,26 @@ public class GlobalControllerAdvice {
         return problemDetail;
     }
 
+    /**
+     * Handles service unavailable exceptions, telling the client when to retry.
+     *
+     * @param ex
+     *            the {@link ServiceUnavailableException} to handle
+     * @return a {@link ProblemDetail} with the error details and a Retry-After
+     *         header
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ProblemDetail> handleServiceUnavailableException(final ServiceUnavailableException ex) {
+        log.error("ServiceUnavailableException", ex);
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE,
+                ex.getMessage());
+        problemDetail.setTitle("Service unavailable");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(problemDetail);
+    }
+
     /**
      * Handles other exceptions.
      *
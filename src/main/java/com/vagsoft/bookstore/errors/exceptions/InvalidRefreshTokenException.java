@@ -0,0 +1,10 @@
+package com.vagsoft.bookstore.errors.exceptions;
+
+/**
+ * Exception thrown when a refresh token is unknown, expired or was already used.
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+    public InvalidRefreshTokenException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.vagsoft.bookstore.errors.exceptions;
+
+import java.time.Duration;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when a request cannot be served right now and should be
+ * retried after the given delay.
+ */
+@Getter
+public class ServiceUnavailableException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(final String message, final Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
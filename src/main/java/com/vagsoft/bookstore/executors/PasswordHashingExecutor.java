@@ -0,0 +1,148 @@
+package com.vagsoft.bookstore.executors;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.vagsoft.bookstore.configuration.PasswordHashingConfig;
+import com.vagsoft.bookstore.errors.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Password encoder that runs bcrypt on a dedicated pool of threads with a
+ * bounded queue, so that a burst of logins and registrations cannot take every
+ * request thread and CPU. Hashes that don't fit in the queue are rejected with a
+ * {@link ServiceUnavailableException} instead of waiting.
+ * <p>
+ * The bcrypt cost is calibrated at startup to the highest strength whose hash
+ * takes no longer than the target latency on this machine, within the
+ * configured bounds. Existing hashes keep working, as every hash carries its own
+ * cost.
+ */
+public class PasswordHashingExecutor implements PasswordEncoder, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    private final ThreadPoolExecutor executor;
+    private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final PasswordHashingConfig passwordHashingConfig;
+    @Getter
+    private final int strength;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingExecutor(final PasswordHashingConfig passwordHashingConfig,
+            final MeterRegistry meterRegistry) {
+        this.passwordHashingConfig = passwordHashingConfig;
+        this.strength = calibrateStrength(passwordHashingConfig);
+        this.bCryptPasswordEncoder = new BCryptPasswordEncoder(strength);
+
+        int threads = passwordHashingConfig.getThreads();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(passwordHashingConfig.getQueueCapacity()),
+                Thread.ofPlatform().name("password-hashing-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("password.hashing.queued", executor, e -> e.getQueue().size())
+                .description("Number of password hashes waiting for a thread").register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Number of password hashes running").register(meterRegistry);
+        this.encodeTimer = Timer.builder("password.hashing").tag("operation", "encode")
+                .description("Time spent hashing passwords").register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hashing").tag("operation", "matches")
+                .description("Time spent hashing passwords").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected")
+                .description("Number of password hashes rejected because the queue was full").register(meterRegistry);
+    }
+
+    /**
+     * Picks the highest bcrypt strength whose hash takes no longer than the target
+     * latency, measuring a single hash at the minimum strength, as every step up
+     * doubles the time.
+     *
+     * @param passwordHashingConfig
+     *            the password hashing settings
+     * @return the calibrated strength
+     */
+    static int calibrateStrength(final PasswordHashingConfig passwordHashingConfig) {
+        int minStrength = passwordHashingConfig.getMinStrength();
+        int maxStrength = passwordHashingConfig.getMaxStrength();
+        if (minStrength >= maxStrength) {
+            return minStrength;
+        }
+
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+        // Warming up first, so that class loading and compilation are not measured
+        encoder.encode("calibration");
+        long start = System.nanoTime();
+        encoder.encode("calibration");
+        long elapsed = Math.max(1, System.nanoTime() - start);
+
+        int strength = minStrength;
+        long target = passwordHashingConfig.getTargetLatency().toNanos();
+        while (strength < maxStrength && elapsed * 2 <= target) {
+            elapsed *= 2;
+            strength++;
+        }
+
+        log.info("Calibrated the bcrypt strength to {}, about {} ms per hash", strength, elapsed / 1_000_000);
+        return strength;
+    }
+
+    @Override
+    public String encode(final CharSequence rawPassword) {
+        return submit(encodeTimer, () -> bCryptPasswordEncoder.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+        return submit(matchesTimer, () -> bCryptPasswordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(final String encodedPassword) {
+        return bCryptPasswordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(final Timer timer, final Supplier<T> hash) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.record(hash));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException("Too many concurrent logins, please try again later",
+                    passwordHashingConfig.getRetryAfter());
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing the password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Failed to hash the password", e.getCause());
+        }
+    }
+
+    /** Stops the hashing threads once the running hashes are done. */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
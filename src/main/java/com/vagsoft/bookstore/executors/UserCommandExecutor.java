@@ -0,0 +1,128 @@
+package com.vagsoft.bookstore.executors;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import com.vagsoft.bookstore.errors.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Executor of the commands that change the cart and the orders of a user. The
+ * commands of the same user run one at a time, in arrival order and each in its
+ * own transaction, so that concurrent requests of a user, such as a
+ * double-clicked checkout, don't contend on the same rows. The users are spread
+ * over a fixed number of lock stripes, so the commands of different users run in
+ * parallel unless their IDs share a stripe.
+ * <p>
+ * The number of waiting commands is exposed as the {@code user.commands.waiting}
+ * gauge and the time spent waiting as the {@code user.commands.wait} timer.
+ */
+@Component
+public class UserCommandExecutor {
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final ReentrantLock[] stripes;
+    private final long waitTimeoutNanos;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Timer acquiredTimer;
+    private final Timer timedOutTimer;
+
+    public UserCommandExecutor(final PlatformTransactionManager transactionManager, final MeterRegistry meterRegistry,
+            @Value("${user-commands.stripes:1024}") final int stripeCount,
+            @Value("${user-commands.wait-timeout:10s}") final Duration waitTimeout) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            // Fair, so that the commands of a user run in the order they arrived
+            this.stripes[i] = new ReentrantLock(true);
+        }
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("user.commands.waiting", waiting, AtomicInteger::get)
+                .description("Number of user commands waiting for the previous commands of their user")
+                .register(meterRegistry);
+        this.acquiredTimer = Timer.builder("user.commands.wait").tag("outcome", "acquired")
+                .description("Time user commands waited for the previous commands of their user")
+                .register(meterRegistry);
+        this.timedOutTimer = Timer.builder("user.commands.wait").tag("outcome", "timed_out")
+                .description("Time user commands waited for the previous commands of their user")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a command of a user in a transaction, once the previous commands of the
+     * user have finished.
+     *
+     * @param userID
+     *            the ID of the user
+     * @param command
+     *            the command to run
+     * @param <T>
+     *            the type of the command's result
+     * @return the result of the command
+     * @throws ServiceUnavailableException
+     *             if the previous commands of the user did not finish in time
+     */
+    public <T> T call(final Integer userID, final Supplier<T> command) {
+        ReentrantLock stripe = stripes[Math.floorMod(userID, stripes.length)];
+
+        acquire(userID, stripe);
+        try {
+            // Committing before releasing the lock, so that the next command sees the changes
+            return transactionTemplate.execute(status -> command.get());
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Runs a command of a user in a transaction, once the previous commands of the
+     * user have finished.
+     *
+     * @param userID
+     *            the ID of the user
+     * @param command
+     *            the command to run
+     * @throws ServiceUnavailableException
+     *             if the previous commands of the user did not finish in time
+     */
+    public void run(final Integer userID, final Runnable command) {
+        call(userID, () -> {
+            command.run();
+            return null;
+        });
+    }
+
+    private void acquire(final Integer userID, final ReentrantLock stripe) {
+        long start = System.nanoTime();
+        boolean acquired;
+
+        waiting.incrementAndGet();
+        try {
+            acquired = stripe.tryLock(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        } finally {
+            waiting.decrementAndGet();
+        }
+
+        long waited = System.nanoTime() - start;
+        if (!acquired) {
+            timedOutTimer.record(waited, TimeUnit.NANOSECONDS);
+            throw new ServiceUnavailableException(
+                    "Too many concurrent requests for the user with ID: " + userID, RETRY_AFTER);
+        }
+        acquiredTimer.record(waited, TimeUnit.NANOSECONDS);
+    }
+}
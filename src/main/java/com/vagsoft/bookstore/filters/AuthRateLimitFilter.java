@@ -0,0 +1,200 @@
+package com.vagsoft.bookstore.filters;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vagsoft.bookstore.configuration.AuthRateLimitConfig;
+import com.vagsoft.bookstore.limiters.StripedRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filter that rate limits the authentication requests by client IP, by the
+ * username in the request body and across all the clients, before the password
+ * is hashed. The client IP is checked first, so that a flood from a single
+ * client is rejected without reading the body. Rejected requests get a
+ * {@code 429} with a Retry-After header and are counted by the
+ * {@code auth.rate-limited} counter, tagged by the limit that was hit.
+ */
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+    // Far larger than any login or registration, so that the username can always be read
+    private static final int MAX_BODY_BYTES = 8192;
+
+    private final ObjectMapper objectMapper;
+    private final StripedRateLimiter ipLimiter;
+    private final StripedRateLimiter usernameLimiter;
+    private final StripedRateLimiter globalLimiter;
+    private final Counter ipRejections;
+    private final Counter usernameRejections;
+    private final Counter globalRejections;
+
+    public AuthRateLimitFilter(final AuthRateLimitConfig config, final ObjectMapper objectMapper,
+            final MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.ipLimiter = new StripedRateLimiter(config.getIpPermitsPerMinute() / 60, config.getIpBurst(),
+                config.getStripes(), config.getMaxKeys());
+        this.usernameLimiter = new StripedRateLimiter(config.getUsernamePermitsPerMinute() / 60,
+                config.getUsernameBurst(), config.getStripes(), config.getMaxKeys());
+        this.globalLimiter = new StripedRateLimiter(config.getGlobalPermitsPerSecond(), config.getGlobalBurst(), 1,
+                1);
+
+        this.ipRejections = rejectionCounter(meterRegistry, "ip");
+        this.usernameRejections = rejectionCounter(meterRegistry, "username");
+        this.globalRejections = rejectionCounter(meterRegistry, "global");
+        Gauge.builder("auth.rate-limit.keys", () -> ipLimiter.size() + usernameLimiter.size())
+                .description("Number of client IPs and usernames tracked by the rate limits").register(meterRegistry);
+    }
+
+    private static Counter rejectionCounter(final MeterRegistry meterRegistry, final String limit) {
+        return Counter.builder("auth.rate-limited").tag("limit", limit)
+                .description("Authentication requests rejected by the rate limits").register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+            final FilterChain filterChain) throws ServletException, IOException {
+        long wait = ipLimiter.tryAcquire(request.getRemoteAddr());
+        if (wait > 0) {
+            ipRejections.increment();
+            reject(response, wait);
+            return;
+        }
+
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value());
+            return;
+        }
+
+        String username = readUsername(body);
+        if (username != null) {
+            wait = usernameLimiter.tryAcquire(username.toLowerCase(Locale.ROOT));
+            if (wait > 0) {
+                usernameRejections.increment();
+                reject(response, wait);
+                return;
+            }
+        }
+
+        wait = globalLimiter.tryAcquire("");
+        if (wait > 0) {
+            globalRejections.increment();
+            reject(response, wait);
+            return;
+        }
+
+        filterChain.doFilter(new CachedBodyRequest(request, body), response);
+    }
+
+    private String readUsername(final byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            String username = objectMapper.readTree(body).path("username").asText(null);
+            return username == null || username.isBlank() ? null : username;
+        } catch (IOException e) {
+            // Left to the controller, which rejects the malformed body
+            return null;
+        }
+    }
+
+    private void reject(final HttpServletResponse response, final long waitNanos) throws IOException {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS,
+                "Too many authentication attempts");
+        problemDetail.setTitle("Too many requests");
+
+        // Rounding up, so that a client retrying on time finds a permit
+        long retryAfter = TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter)));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), problemDetail);
+    }
+
+    /** Request whose body was already read, served again from memory. */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(final HttpServletRequest request, final byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream inputStream = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return inputStream.read();
+                }
+
+                @Override
+                public int read(final byte[] b, final int off, final int len) {
+                    return inputStream.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return inputStream.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(final ReadListener readListener) {
+                    // The whole body is already in memory, so it can be handed to the listener right away
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.vagsoft.bookstore.limiters;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limiter with a token bucket per key. Every bucket is a single
+ * {@link AtomicLong} holding the time at which it will be full again, updated
+ * with a compare-and-set, so acquiring a permit never takes a lock. The buckets
+ * are spread over stripes, each holding a bounded number of keys. A full stripe
+ * drops its idle buckets, which are full again and so hold no state, and the
+ * keys that still find no room share the stripe's overflow bucket.
+ */
+public class StripedRateLimiter {
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final int maxKeysPerStripe;
+    private final Stripe[] stripes;
+
+    /**
+     * Creates a rate limiter.
+     *
+     * @param permitsPerSecond
+     *            the rate at which the buckets refill
+     * @param burst
+     *            the capacity of the buckets
+     * @param stripes
+     *            the number of stripes the keys are spread over
+     * @param maxKeys
+     *            the maximum number of keys held
+     */
+    public StripedRateLimiter(final double permitsPerSecond, final int burst, final int stripes, final int maxKeys) {
+        if (permitsPerSecond <= 0 || burst <= 0 || stripes <= 0 || maxKeys < stripes) {
+            throw new IllegalArgumentException("Invalid rate limiter settings");
+        }
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.capacityNanos = intervalNanos * burst;
+        this.maxKeysPerStripe = maxKeys / stripes;
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Tries to acquire a permit for a key.
+     *
+     * @param key
+     *            the key of the bucket
+     * @return 0 if the permit was acquired, otherwise the nanoseconds until one is
+     *         available
+     */
+    public long tryAcquire(final String key) {
+        long now = System.nanoTime();
+        Stripe stripe = stripes[Math.floorMod(key.hashCode(), stripes.length)];
+
+        AtomicLong bucket = stripe.buckets.get(key);
+        if (bucket == null) {
+            bucket = stripe.bucketFor(key, now);
+        }
+
+        while (true) {
+            long fullAt = bucket.get();
+            // A bucket that filled up in the past is simply full, not fuller
+            long nextFullAt = Math.max(fullAt, now) + intervalNanos;
+            long wait = nextFullAt - now - capacityNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, nextFullAt)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Retrieves the number of keys held.
+     *
+     * @return the number of keys
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    private final class Stripe {
+        private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong overflow = new AtomicLong(System.nanoTime());
+        private final AtomicLong lastSweep = new AtomicLong(System.nanoTime() - SWEEP_INTERVAL_NANOS);
+
+        private AtomicLong bucketFor(final String key, final long now) {
+            if (buckets.size() >= maxKeysPerStripe) {
+                sweep(now);
+                if (buckets.size() >= maxKeysPerStripe) {
+                    AtomicLong bucket = buckets.get(key);
+                    return bucket != null ? bucket : overflow;
+                }
+            }
+            // Starting full, as a key that was never seen has not used any permits
+            return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        private void sweep(final long now) {
+            long last = lastSweep.get();
+            if (now - last < SWEEP_INTERVAL_NANOS || !lastSweep.compareAndSet(last, now)) {
+                return;
+            }
+            // A permit taken from a bucket while it is dropped is forgiven, which only ever errs towards allowing
+            buckets.values().removeIf(bucket -> bucket.get() <= now);
+        }
+    }
+}
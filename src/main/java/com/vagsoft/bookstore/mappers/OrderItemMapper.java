@@ -31,6 +31,7 @@ public interface OrderItemMapper {
      * @return the converted OrderItem entity
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "orderDate", ignore = true)
     OrderItem cartItemToOrderItem(CartItem cartItem);
 
     /**
@@ -3,8 +3,10 @@ package com.vagsoft.bookstore.mappers;
 import java.util.List;
 
 import com.vagsoft.bookstore.dto.orderDTOs.OrderReadDTO;
+import com.vagsoft.bookstore.dto.orderDTOs.OrderSummaryReadDTO;
 import com.vagsoft.bookstore.dto.orderDTOs.OrderUpdateDTO;
 import com.vagsoft.bookstore.models.entities.Order;
+import com.vagsoft.bookstore.models.entities.OrderSummary;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -68,4 +70,34 @@ public interface OrderMapper {
     default Page<OrderReadDTO> pageOrderToPageDto(Page<Order> page) {
         return new PageImpl<>(listOrderToListDto(page.getContent()), page.getPageable(), page.getTotalElements());
     }
+
+    /**
+     * Converts an OrderSummary entity to an OrderSummaryReadDTO.
+     *
+     * @param orderSummary
+     *            the OrderSummary entity to be converted
+     * @return the converted OrderSummaryReadDTO
+     */
+    OrderSummaryReadDTO orderSummaryToReadDto(OrderSummary orderSummary);
+
+    /**
+     * Converts a list of OrderSummary entities to a list of OrderSummaryReadDTOs.
+     *
+     * @param orderSummaries
+     *            the list of OrderSummary entities to be converted
+     * @return the list of converted OrderSummaryReadDTOs
+     */
+    List<OrderSummaryReadDTO> listOrderSummaryToListDto(List<OrderSummary> orderSummaries);
+
+    /**
+     * Converts a Page of OrderSummary entities to a Page of OrderSummaryReadDTOs.
+     *
+     * @param page
+     *            the Page of OrderSummary entities to be converted
+     * @return the converted Page of OrderSummaryReadDTOs
+     */
+    default Page<OrderSummaryReadDTO> pageOrderSummaryToPageDto(Page<OrderSummary> page) {
+        return new PageImpl<>(listOrderSummaryToListDto(page.getContent()), page.getPageable(),
+                page.getTotalElements());
+    }
 }
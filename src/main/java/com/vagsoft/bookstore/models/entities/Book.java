@@ -3,9 +3,11 @@ package com.vagsoft.bookstore.models.entities;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.vagsoft.bookstore.models.listeners.UniqueValueListener;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -16,6 +18,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 @Data
 @Builder
@@ -23,6 +26,8 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Entity
 @Table(name = "Books")
+@EntityListeners(UniqueValueListener.class)
+@BatchSize(size = 100)
 public class Book {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -51,6 +56,7 @@ public class Book {
     private String isbn;
 
     @Builder.Default
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "book", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     private List<Genre> genres = new ArrayList<>();
 
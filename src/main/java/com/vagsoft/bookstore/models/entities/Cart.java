@@ -1,5 +1,6 @@
 package com.vagsoft.bookstore.models.entities;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -39,4 +40,7 @@ public class Cart {
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     @JoinColumn(name = "cartID")
     private List<CartItem> cartItems = new ArrayList<>();
+
+    @Column(name = "lastmodified", insertable = false, updatable = false)
+    private LocalDateTime lastModified;
 }
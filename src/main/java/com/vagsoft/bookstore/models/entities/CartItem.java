@@ -1,5 +1,7 @@
 package com.vagsoft.bookstore.models.entities;
 
+import java.time.LocalDateTime;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -36,4 +38,7 @@ public class CartItem {
 
     @Column
     private Integer quantity;
+
+    @Column(name = "lastmodified", insertable = false, updatable = false)
+    private LocalDateTime lastModified;
 }
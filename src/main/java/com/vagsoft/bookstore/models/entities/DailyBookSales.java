@@ -0,0 +1,45 @@
+package com.vagsoft.bookstore.models.entities;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/** Rollup of the units of a book ordered on a day, maintained by database triggers. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Immutable
+@IdClass(DailyBookSales.DailyBookSalesID.class)
+@Table(name = "dailybooksales")
+public class DailyBookSales {
+    @Id
+    @Column
+    private LocalDate day;
+
+    @Id
+    @Column(name = "bookid")
+    private Integer bookID;
+
+    @Column(nullable = false)
+    private Integer units;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DailyBookSalesID implements Serializable {
+        private LocalDate day;
+        private Integer bookID;
+    }
+}
@@ -0,0 +1,53 @@
+package com.vagsoft.bookstore.models.entities;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Rollup of the units of a genre ordered on a day, maintained by database
+ * triggers. A day is spread over several slots, which are summed when read.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Immutable
+@IdClass(DailyGenreSales.DailyGenreSalesID.class)
+@Table(name = "dailygenresales")
+public class DailyGenreSales {
+    @Id
+    @Column
+    private LocalDate day;
+
+    @Id
+    @Column
+    private String genre;
+
+    @Id
+    @Column
+    private Short slot;
+
+    @Column(nullable = false)
+    private Integer units;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DailyGenreSalesID implements Serializable {
+        private LocalDate day;
+        private String genre;
+        private Short slot;
+    }
+}
@@ -0,0 +1,51 @@
+package com.vagsoft.bookstore.models.entities;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Rollup of the orders placed on a day, maintained by database triggers. A day is
+ * spread over several slots, which are summed when read.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Immutable
+@IdClass(DailySales.DailySalesID.class)
+@Table(name = "dailysales")
+public class DailySales {
+    @Id
+    @Column
+    private LocalDate day;
+
+    @Id
+    @Column
+    private Short slot;
+
+    @Column(name = "ordercount", nullable = false)
+    private Integer orderCount;
+
+    @Column(nullable = false)
+    private Double revenue;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DailySalesID implements Serializable {
+        private LocalDate day;
+        private Short slot;
+    }
+}
@@ -1,5 +1,6 @@
 package com.vagsoft.bookstore.models.entities;
 
+import java.time.LocalDate;
 import java.util.Objects;
 
 import jakarta.persistence.Column;
@@ -10,6 +11,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -39,6 +41,15 @@ public class OrderItem {
     @Column
     private Integer quantity;
 
+    // Copy of the order's date, which the order items are partitioned by, kept in step by the database afterwards
+    @Column(name = "orderdate", nullable = false, updatable = false)
+    private LocalDate orderDate;
+
+    @PrePersist
+    private void copyOrderDate() {
+        orderDate = order.getOrderDate();
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (o == null || getClass() != o.getClass()) {
@@ -0,0 +1,51 @@
+package com.vagsoft.bookstore.models.entities;
+
+import java.io.Serializable;
+
+import com.vagsoft.bookstore.models.enums.Status;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Rollup of the number of orders in a status, maintained by database triggers. A
+ * status is spread over several slots, which are summed when read.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Immutable
+@IdClass(OrderStatusCount.OrderStatusCountID.class)
+@Table(name = "orderstatuscounts")
+public class OrderStatusCount {
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column
+    private Status status;
+
+    @Id
+    @Column
+    private Short slot;
+
+    @Column(name = "ordercount", nullable = false)
+    private Integer orderCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderStatusCountID implements Serializable {
+        private Status status;
+        private Short slot;
+    }
+}
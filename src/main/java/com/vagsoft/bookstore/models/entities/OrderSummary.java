@@ -0,0 +1,55 @@
+package com.vagsoft.bookstore.models.entities;
+
+import java.time.LocalDate;
+
+import com.vagsoft.bookstore.models.enums.Status;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Summary of an order for the order history listings, maintained by the order
+ * and book write paths.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Immutable
+@Table(name = "ordersummaries")
+public class OrderSummary {
+    @Id
+    @Column(name = "orderid")
+    private Integer id;
+
+    @Column(name = "userid", nullable = false)
+    private Integer userID;
+
+    @Column(name = "orderdate", nullable = false)
+    private LocalDate orderDate;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @Column(name = "totalamount", nullable = false)
+    private Double totalAmount;
+
+    @Column(name = "itemcount", nullable = false)
+    private Integer itemCount;
+
+    @Column(name = "firstbookid")
+    private Integer firstBookID;
+
+    @Column(name = "firstbooktitle")
+    private String firstBookTitle;
+}
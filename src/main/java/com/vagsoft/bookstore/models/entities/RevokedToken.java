@@ -0,0 +1,27 @@
+package com.vagsoft.bookstore.models.entities;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "revokedtokens")
+public class RevokedToken {
+    @Id
+    @Column(name = "tokenid")
+    private String tokenID;
+
+    @Column(name = "expiresat", nullable = false)
+    private Instant expiresAt;
+}
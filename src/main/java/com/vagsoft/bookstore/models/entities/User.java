@@ -3,8 +3,10 @@ package com.vagsoft.bookstore.models.entities;
 import java.time.LocalDate;
 
 import com.vagsoft.bookstore.models.enums.Role;
+import com.vagsoft.bookstore.models.listeners.UniqueValueListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
@@ -22,6 +24,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Entity
 @Table(name = "Users")
+@EntityListeners(UniqueValueListener.class)
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
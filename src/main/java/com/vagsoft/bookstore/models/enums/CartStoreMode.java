@@ -0,0 +1,5 @@
+package com.vagsoft.bookstore.models.enums;
+
+public enum CartStoreMode {
+    DATABASE, WRITE_BEHIND
+}
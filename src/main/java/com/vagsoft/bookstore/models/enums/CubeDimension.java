@@ -0,0 +1,5 @@
+package com.vagsoft.bookstore.models.enums;
+
+public enum CubeDimension {
+    DAY, WEEK, MONTH, BOOK, GENRE, STATUS
+}
@@ -1,5 +1,23 @@
 package com.vagsoft.bookstore.models.enums;
 
+import java.util.Set;
+
 public enum Status {
-    PROCESSING, ENROUTE, DELIVERED, CANCELLED
+    PROCESSING, ENROUTE, DELIVERED, CANCELLED;
+
+    /**
+     * Retrieves the statuses an order can be moved from to this status by a bulk
+     * status transition.
+     *
+     * @return the allowed previous statuses, empty if no order can be moved to
+     *         this status
+     */
+    public Set<Status> getPreviousStatuses() {
+        return switch (this) {
+            case PROCESSING -> Set.of();
+            case ENROUTE -> Set.of(PROCESSING);
+            case DELIVERED -> Set.of(ENROUTE);
+            case CANCELLED -> Set.of(PROCESSING, ENROUTE);
+        };
+    }
 }
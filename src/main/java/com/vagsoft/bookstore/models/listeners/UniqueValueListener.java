@@ -0,0 +1,38 @@
+package com.vagsoft.bookstore.models.listeners;
+
+import com.vagsoft.bookstore.caches.UniqueValueFilter;
+import com.vagsoft.bookstore.models.entities.Book;
+import com.vagsoft.bookstore.models.entities.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Entity listener adding the unique values of the written users and books to
+ * the {@link UniqueValueFilter}, whichever path writes them.
+ */
+@Component
+public class UniqueValueListener {
+    private final UniqueValueFilter uniqueValueFilter;
+
+    public UniqueValueListener(final UniqueValueFilter uniqueValueFilter) {
+        this.uniqueValueFilter = uniqueValueFilter;
+    }
+
+    /**
+     * Adds the unique values of a written entity.
+     *
+     * @param entity
+     *            the written user or book
+     */
+    @PostPersist
+    @PostUpdate
+    public void onWrite(final Object entity) {
+        if (entity instanceof User user) {
+            uniqueValueFilter.add(UniqueValueFilter.USERNAME, user.getUsername());
+            uniqueValueFilter.add(UniqueValueFilter.EMAIL, user.getEmail());
+        } else if (entity instanceof Book book) {
+            uniqueValueFilter.add(UniqueValueFilter.ISBN, book.getIsbn());
+        }
+    }
+}
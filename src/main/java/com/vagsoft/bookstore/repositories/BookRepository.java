@@ -1,9 +1,13 @@
 package com.vagsoft.bookstore.repositories;
 
+import java.util.List;
+import java.util.Optional;
+
 import com.vagsoft.bookstore.models.entities.Book;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -42,6 +46,35 @@ public interface BookRepository extends JpaRepository<Book, Integer> {
     Page<Book> findBooks(String title, String genre, String author, String description, Double minPrice,
             Double maxPrice, Pageable pageable);
 
+    /**
+     * Retrieves a book by its ID together with its genres in a single query.
+     *
+     * @param bookID
+     *            the ID of the book
+     * @return the book, or empty if it does not exist
+     */
+    @Query("""
+            SELECT b
+            FROM Book b
+            LEFT JOIN FETCH b.genres
+            WHERE b.id = :bookID
+            """)
+    Optional<Book> findWithGenresByID(Integer bookID);
+
+    /**
+     * Retrieves the stock of a book without loading the book itself.
+     *
+     * @param bookID
+     *            the ID of the book
+     * @return the available quantity of the book, or null if it does not exist
+     */
+    @Query("""
+            SELECT b.availability
+            FROM Book b
+            WHERE b.id = :bookID
+            """)
+    Integer findAvailabilityByID(Integer bookID);
+
     /**
      * Checks if a book with the given ISBN exists in the database.
      *
@@ -62,4 +95,30 @@ public interface BookRepository extends JpaRepository<Book, Integer> {
      * @return true if the book exists, false otherwise
      */
     boolean existsByIsbnAndIdNot(String isbn, Integer bookID);
+
+    /**
+     * Returns the ordered books of the given orders to stock in a single
+     * statement, adding up the quantities of every book across all the orders.
+     *
+     * @param orderIDs
+     *            the IDs of the orders
+     * @return the IDs of the books returned to stock
+     */
+    @Query(value = """
+            WITH returned AS (
+                UPDATE Books b
+                SET availability = b.availability + r.quantity
+                FROM (
+                    SELECT oi.bookID, SUM(oi.quantity) AS quantity
+                    FROM OrderItems oi
+                    WHERE oi.orderID = ANY(:orderIDs)
+                    GROUP BY oi.bookID
+                ) r
+                WHERE b.ID = r.bookID
+                RETURNING b.ID
+            )
+            SELECT r.ID
+            FROM returned r
+            """, nativeQuery = true)
+    List<Integer> returnStockOfOrders(Integer[] orderIDs);
 }
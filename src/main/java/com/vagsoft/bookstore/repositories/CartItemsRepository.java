@@ -1,5 +1,6 @@
 package com.vagsoft.bookstore.repositories;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -46,6 +47,25 @@ public interface CartItemsRepository extends JpaRepository<CartItem, Integer> {
             """)
     List<CartItem> findAllByUserID(Integer userID);
 
+    /**
+     * Retrieves all cart items by user ID together with their carts, books and the
+     * books' genres in a single query.
+     *
+     * @param userID
+     *            the ID of the user
+     * @return list of cart items associated with the user ID
+     */
+    @Query("""
+                SELECT ci
+                FROM CartItem ci
+                INNER JOIN FETCH ci.cart c
+                INNER JOIN FETCH ci.book b
+                LEFT JOIN FETCH b.genres
+                WHERE c.user.id = :userID
+                ORDER BY ci.id
+            """)
+    List<CartItem> findAllWithBooksByUserID(Integer userID);
+
     /**
      * Checks if a cart item exists for a given user ID and book ID.
      *
@@ -78,6 +98,26 @@ public interface CartItemsRepository extends JpaRepository<CartItem, Integer> {
             """)
     Optional<CartItem> findByUserIDAndBookID(Integer userID, Integer bookID);
 
+    /**
+     * Retrieves a cart item by user ID and book ID together with its cart, book and
+     * the book's genres in a single query.
+     *
+     * @param userID
+     *            the ID of the user
+     * @param bookID
+     *            the ID of the book
+     * @return the cart item associated with the user ID and book ID
+     */
+    @Query("""
+                SELECT ci
+                FROM CartItem ci
+                INNER JOIN FETCH ci.cart c
+                INNER JOIN FETCH ci.book b
+                LEFT JOIN FETCH b.genres
+                WHERE c.user.id = :userID AND b.id = :bookID
+            """)
+    Optional<CartItem> findWithBookByUserIDAndBookID(Integer userID, Integer bookID);
+
     /**
      * Retrieves a cart item by user ID and book ID, returning a reference.
      *
@@ -94,6 +134,212 @@ public interface CartItemsRepository extends JpaRepository<CartItem, Integer> {
             """)
     CartItem getReferenceByUserIDAndBookID(Integer userID, Integer bookID);
 
+    /**
+     * Adds a quantity of a book to the cart of a user, increasing the quantity of the
+     * cart item if the book is already in the cart. Nothing is written if the book's
+     * availability does not cover the resulting quantity.
+     *
+     * @param userID
+     *            the ID of the user
+     * @param bookID
+     *            the ID of the book
+     * @param quantity
+     *            the quantity to add
+     * @return the ID of the inserted or updated cart item, or empty if nothing was
+     *         written
+     */
+    @Query(value = """
+                WITH upserted AS (
+                    INSERT INTO CartItems (cartID, bookID, quantity)
+                    SELECT c.ID, b.ID, :quantity
+                    FROM Carts c
+                    INNER JOIN Books b ON b.ID = :bookID
+                    WHERE c.userID = :userID AND b.availability >= :quantity
+                    ON CONFLICT (cartID, bookID) DO UPDATE
+                    SET quantity = CartItems.quantity + EXCLUDED.quantity
+                    WHERE (
+                        SELECT b.availability
+                        FROM Books b
+                        WHERE b.ID = EXCLUDED.bookID
+                    ) >= CartItems.quantity + EXCLUDED.quantity
+                    RETURNING ID
+                )
+                SELECT u.ID
+                FROM upserted u
+            """, nativeQuery = true)
+    Optional<Integer> addQuantityByUserIDAndBookID(Integer userID, Integer bookID, Integer quantity);
+
+    /**
+     * Sets the quantities of the given books in the cart of a user, adding the books
+     * that are not in the cart yet. Both arrays are matched by position. Only the
+     * books with enough stock for their new quantity are written.
+     *
+     * @param userID
+     *            the ID of the user
+     * @param bookIDs
+     *            the IDs of the books
+     * @param quantities
+     *            the new quantities of the books
+     * @return the number of rows inserted or updated
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+                INSERT INTO CartItems (cartID, bookID, quantity)
+                SELECT c.ID, b.ID, v.quantity
+                FROM Carts c
+                CROSS JOIN unnest(:bookIDs, :quantities) AS v(bookID, quantity)
+                INNER JOIN Books b ON b.ID = v.bookID
+                WHERE c.userID = :userID AND b.availability >= v.quantity
+                ON CONFLICT (cartID, bookID) DO UPDATE
+                SET quantity = EXCLUDED.quantity
+            """, nativeQuery = true)
+    int upsertAllByUserID(Integer userID, Integer[] bookIDs, Integer[] quantities);
+
+    /**
+     * Adds the given quantities of books to the cart of a user, increasing the
+     * quantities of the books already in the cart. Each resulting quantity is capped
+     * at the book's availability and out-of-stock or missing books are skipped. Both
+     * arrays are matched by position.
+     *
+     * @param userID
+     *            the ID of the user
+     * @param bookIDs
+     *            the IDs of the books
+     * @param quantities
+     *            the quantities to add
+     * @return the number of rows inserted or updated
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+                INSERT INTO CartItems (cartID, bookID, quantity)
+                SELECT c.ID, b.ID, LEAST(v.quantity, b.availability)
+                FROM Carts c
+                CROSS JOIN unnest(:bookIDs, :quantities) AS v(bookID, quantity)
+                INNER JOIN Books b ON b.ID = v.bookID
+                WHERE c.userID = :userID AND b.availability > 0
+                ON CONFLICT (cartID, bookID) DO UPDATE
+                SET quantity = LEAST(CartItems.quantity + EXCLUDED.quantity, (
+                    SELECT b.availability
+                    FROM Books b
+                    WHERE b.ID = EXCLUDED.bookID
+                ))
+            """, nativeQuery = true)
+    int mergeAllByUserID(Integer userID, Integer[] bookIDs, Integer[] quantities);
+
+    /**
+     * Updates the quantity of a cart item by user ID and book ID, if the book has
+     * enough stock for it.
+     *
+     * @param userID
+     *            the ID of the user
+     * @param bookID
+     *            the ID of the book
+     * @param quantity
+     *            the new quantity
+     * @return the number of rows updated
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+                UPDATE CartItem ci
+                SET ci.quantity = :quantity
+                WHERE ci.book.id = :bookID AND ci.cart IN (
+                    SELECT c
+                    FROM Cart c
+                    WHERE c.user.id = :userID
+                ) AND :quantity <= (
+                    SELECT b.availability
+                    FROM Book b
+                    WHERE b.id = :bookID
+                )
+            """)
+    int updateQuantityByUserIDAndBookID(Integer userID, Integer bookID, Integer quantity);
+
+    /**
+     * Updates the quantities of many cart items of many users in a single statement.
+     * All arrays are matched by position. Cart items that no longer exist are
+     * skipped.
+     *
+     * @param userIDs
+     *            the IDs of the users
+     * @param bookIDs
+     *            the IDs of the books
+     * @param quantities
+     *            the new quantities
+     * @return the number of rows updated
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+                UPDATE CartItems ci
+                SET quantity = v.quantity
+                FROM Carts c, unnest(:userIDs, :bookIDs, :quantities) AS v(userID, bookID, quantity)
+                WHERE c.userID = v.userID AND ci.cartID = c.ID AND ci.bookID = v.bookID
+            """, nativeQuery = true)
+    int updateAllQuantities(Integer[] userIDs, Integer[] bookIDs, Integer[] quantities);
+
+    /**
+     * Deletes the cart items of the given books from the cart of a user.
+     *
+     * @param userID
+     *            the ID of the user
+     * @param bookIDs
+     *            the IDs of the books to remove
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+                DELETE
+                FROM CartItem ci
+                WHERE ci.book.id IN :bookIDs AND ci.cart IN (
+                    SELECT c
+                    FROM Cart c
+                    WHERE c.user.id = :userID
+                )
+            """)
+    void deleteAllByUserIDAndBookIDIn(Integer userID, Collection<Integer> bookIDs);
+
+    /**
+     * Retrieves the IDs of the next cart items, in ID order, that belong to carts
+     * left unchanged for longer than the given number of seconds.
+     *
+     * @param idleSeconds
+     *            the number of seconds the carts must have been unchanged for,
+     *            measured against the database clock
+     * @param afterID
+     *            the ID after which to continue, 0 to start from the beginning
+     * @param batchSize
+     *            the maximum number of IDs to retrieve
+     * @return list of cart item IDs
+     */
+    @Query(value = """
+                SELECT ci.ID
+                FROM CartItems ci
+                INNER JOIN Carts c ON c.ID = ci.cartID
+                WHERE c.lastModified < CURRENT_TIMESTAMP - make_interval(secs => :idleSeconds) AND ci.ID > :afterID
+                ORDER BY ci.ID
+                LIMIT :batchSize
+            """, nativeQuery = true)
+    List<Integer> findIdleCartItemIDs(Long idleSeconds, Integer afterID, Integer batchSize);
+
+    /**
+     * Deletes the given cart items, skipping the ones whose cart was changed within
+     * the given number of seconds.
+     *
+     * @param cartItemIDs
+     *            the IDs of the cart items
+     * @param idleSeconds
+     *            the number of seconds the carts must have been unchanged for,
+     *            measured against the database clock
+     * @return the number of deleted cart items
+     */
+    @Modifying
+    @Query(value = """
+                DELETE
+                FROM CartItems ci
+                USING Carts c
+                WHERE ci.ID IN (:cartItemIDs) AND c.ID = ci.cartID
+                AND c.lastModified < CURRENT_TIMESTAMP - make_interval(secs => :idleSeconds)
+            """, nativeQuery = true)
+    int deleteIdleByIdIn(Collection<Integer> cartItemIDs, Long idleSeconds);
+
     /**
      * Deletes a cart item by user ID and book ID.
      *
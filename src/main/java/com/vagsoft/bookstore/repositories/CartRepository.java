@@ -28,4 +28,13 @@ public interface CartRepository extends JpaRepository<Cart, Integer> {
      * @return the Cart entity associated with the user ID
      */
     Cart getReferenceByUser_Id(Integer userID);
+
+    /**
+     * Checks if a cart exists for the given user ID.
+     *
+     * @param userID
+     *            the ID of the user
+     * @return true if the user has a cart, false otherwise
+     */
+    boolean existsByUser_Id(Integer userID);
 }
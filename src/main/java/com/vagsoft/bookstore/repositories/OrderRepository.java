@@ -1,5 +1,9 @@
 package com.vagsoft.bookstore.repositories;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
 import com.vagsoft.bookstore.models.entities.Order;
 import com.vagsoft.bookstore.models.enums.Status;
 import org.springframework.data.domain.Page;
@@ -11,6 +15,19 @@ import org.springframework.stereotype.Repository;
 /** Repository interface for accessing order data. */
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Integer> {
+    /**
+     * Retrieves the IDs of the orders placed by a user.
+     *
+     * @param userID
+     *            the ID of the user
+     * @return list of order IDs
+     */
+    @Query("""
+                SELECT o.id
+                FROM Order o
+                WHERE o.user.id = :userID
+            """)
+    List<Integer> findIDsByUserID(Integer userID);
 
     /**
      * Retrieves a page of orders filtered by the specified parameters.
@@ -23,6 +40,10 @@ public interface OrderRepository extends JpaRepository<Order, Integer> {
      *            the maximum total amount of the orders to search for (optional)
      * @param status
      *            the status of the orders to search for (optional)
+     * @param minOrderDate
+     *            the earliest date of the orders to search for (optional)
+     * @param maxOrderDate
+     *            the latest date of the orders to search for (optional)
      * @param pageable
      *            the pagination information (optional)
      * @return a page of orders
@@ -34,9 +55,11 @@ public interface OrderRepository extends JpaRepository<Order, Integer> {
                 AND (:minTotalAmount IS NULL OR o.totalAmount >= :minTotalAmount)
                 AND (:maxTotalAmount IS NULL OR o.totalAmount <= :maxTotalAmount)
                 AND (:status IS NULL OR o.status = :status)
+                AND (:minOrderDate IS NULL OR o.orderDate >= :minOrderDate)
+                AND (:maxOrderDate IS NULL OR o.orderDate <= :maxOrderDate)
             """)
     Page<Order> findOrders(Integer userID, Double minTotalAmount, Double maxTotalAmount, Status status,
-            Pageable pageable);
+            LocalDate minOrderDate, LocalDate maxOrderDate, Pageable pageable);
 
     /**
      * Checks if an order with the given ID exists for the specified user
@@ -48,4 +71,38 @@ public interface OrderRepository extends JpaRepository<Order, Integer> {
      * @return true if the order exists, false otherwise
      */
     boolean existsByUser_IdAndId(Integer userID, Integer orderID);
+
+    /**
+     * Moves the selected orders to the given status in a single statement. Only
+     * the orders whose current status is one of the allowed previous statuses are
+     * updated.
+     *
+     * @param status
+     *            the new status
+     * @param previousStatuses
+     *            the statuses the orders can be moved from
+     * @param orderIDs
+     *            the IDs of the orders to update, empty to not filter by ID
+     * @param userID
+     *            the ID of the user who placed the orders (optional)
+     * @param currentStatus
+     *            the current status of the orders to update (optional)
+     * @return the IDs of the updated orders
+     */
+    @Query(value = """
+                WITH updated AS (
+                    UPDATE Orders o
+                    SET status = :status
+                    WHERE o.status IN (:previousStatuses)
+                    AND (cardinality(CAST(:orderIDs AS INTEGER[])) = 0 OR o.ID = ANY(:orderIDs))
+                    AND (CAST(:userID AS INTEGER) IS NULL OR o.userID = :userID)
+                    AND (CAST(:currentStatus AS VARCHAR) IS NULL OR o.status = :currentStatus)
+                    RETURNING o.ID
+                )
+                SELECT u.ID
+                FROM updated u
+                ORDER BY u.ID
+            """, nativeQuery = true)
+    List<Integer> updateStatuses(String status, Collection<String> previousStatuses, Integer[] orderIDs,
+            Integer userID, String currentStatus);
 }
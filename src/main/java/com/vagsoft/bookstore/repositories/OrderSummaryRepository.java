@@ -0,0 +1,154 @@
+package com.vagsoft.bookstore.repositories;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.vagsoft.bookstore.models.entities.OrderSummary;
+import com.vagsoft.bookstore.models.enums.Status;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/** Repository interface for the order summaries read model. */
+@Repository
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Integer> {
+    /**
+     * Retrieves a page of the order summaries of a user, newest first.
+     *
+     * @param userID
+     *            the ID of the user who placed the orders
+     * @param status
+     *            the status of the orders to search for (optional)
+     * @param minOrderDate
+     *            the earliest date of the orders to search for (optional)
+     * @param maxOrderDate
+     *            the latest date of the orders to search for (optional)
+     * @param pageable
+     *            the pagination information (optional)
+     * @return a page of order summaries
+     */
+    @Query("""
+                SELECT s
+                FROM OrderSummary s
+                WHERE s.userID = :userID
+                AND (:status IS NULL OR s.status = :status)
+                AND (:minOrderDate IS NULL OR s.orderDate >= :minOrderDate)
+                AND (:maxOrderDate IS NULL OR s.orderDate <= :maxOrderDate)
+                ORDER BY s.orderDate DESC, s.id DESC
+            """)
+    Page<OrderSummary> findSummariesByUserID(Integer userID, Status status, LocalDate minOrderDate,
+            LocalDate maxOrderDate, Pageable pageable);
+
+    /**
+     * Retrieves a page of the order summaries of all the users, newest first.
+     *
+     * @param status
+     *            the status of the orders to search for (optional)
+     * @param minOrderDate
+     *            the earliest date of the orders to search for (optional)
+     * @param maxOrderDate
+     *            the latest date of the orders to search for (optional)
+     * @param pageable
+     *            the pagination information (optional)
+     * @return a page of order summaries
+     */
+    @Query("""
+                SELECT s
+                FROM OrderSummary s
+                WHERE (:status IS NULL OR s.status = :status)
+                AND (:minOrderDate IS NULL OR s.orderDate >= :minOrderDate)
+                AND (:maxOrderDate IS NULL OR s.orderDate <= :maxOrderDate)
+                ORDER BY s.orderDate DESC, s.id DESC
+            """)
+    Page<OrderSummary> findSummaries(Status status, LocalDate minOrderDate, LocalDate maxOrderDate,
+            Pageable pageable);
+
+    /**
+     * Recomputes the summaries of the given orders from the orders, their items and
+     * their books, adding the missing ones.
+     *
+     * @param orderIDs
+     *            the IDs of the orders
+     * @return the number of summaries written
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+                INSERT INTO OrderSummaries (orderID, userID, orderDate, status, totalAmount, itemCount, firstBookID,
+                    firstBookTitle)
+                SELECT o.ID, o.userID, o.orderDate, o.status, o.totalAmount, COALESCE(SUM(oi.quantity), 0),
+                    (array_agg(oi.bookID ORDER BY oi.ID))[1], (array_agg(b.title ORDER BY oi.ID))[1]
+                FROM Orders o
+                LEFT JOIN OrderItems oi ON oi.orderID = o.ID AND oi.orderDate = o.orderDate
+                LEFT JOIN Books b ON b.ID = oi.bookID
+                WHERE o.ID = ANY(:orderIDs)
+                GROUP BY o.ID, o.userID, o.orderDate, o.status, o.totalAmount
+                ON CONFLICT (orderID) DO UPDATE
+                SET userID = EXCLUDED.userID, orderDate = EXCLUDED.orderDate, status = EXCLUDED.status,
+                    totalAmount = EXCLUDED.totalAmount, itemCount = EXCLUDED.itemCount,
+                    firstBookID = EXCLUDED.firstBookID, firstBookTitle = EXCLUDED.firstBookTitle
+            """, nativeQuery = true)
+    int refreshSummaries(Integer[] orderIDs);
+
+    /**
+     * Updates the title of a book in the summaries of the orders it comes first in.
+     *
+     * @param bookID
+     *            the ID of the book
+     * @param title
+     *            the new title of the book
+     * @return the number of summaries updated
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+                UPDATE OrderSummaries
+                SET firstBookTitle = :title
+                WHERE firstBookID = :bookID
+            """, nativeQuery = true)
+    int updateFirstBookTitle(Integer bookID, String title);
+
+    /**
+     * Retrieves the IDs of the orders containing a book.
+     *
+     * @param bookID
+     *            the ID of the book
+     * @return list of order IDs
+     */
+    @Query(value = """
+                SELECT DISTINCT oi.orderID
+                FROM OrderItems oi
+                WHERE oi.bookID = :bookID
+            """, nativeQuery = true)
+    List<Integer> findOrderIDsByBookID(Integer bookID);
+
+    /**
+     * Deletes all the order summaries.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+                DELETE
+                FROM OrderSummaries
+            """, nativeQuery = true)
+    void deleteAllSummaries();
+
+    /**
+     * Writes the summaries of all the orders from the orders, their items and their
+     * books.
+     *
+     * @return the number of summaries written
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+                INSERT INTO OrderSummaries (orderID, userID, orderDate, status, totalAmount, itemCount, firstBookID,
+                    firstBookTitle)
+                SELECT o.ID, o.userID, o.orderDate, o.status, o.totalAmount, COALESCE(SUM(oi.quantity), 0),
+                    (array_agg(oi.bookID ORDER BY oi.ID))[1], (array_agg(b.title ORDER BY oi.ID))[1]
+                FROM Orders o
+                LEFT JOIN OrderItems oi ON oi.orderID = o.ID AND oi.orderDate = o.orderDate
+                LEFT JOIN Books b ON b.ID = oi.bookID
+                GROUP BY o.ID, o.userID, o.orderDate, o.status, o.totalAmount
+            """, nativeQuery = true)
+    int insertAllSummaries();
+}
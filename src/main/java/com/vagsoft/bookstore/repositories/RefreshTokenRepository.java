@@ -0,0 +1,68 @@
+package com.vagsoft.bookstore.repositories;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.vagsoft.bookstore.models.entities.RefreshToken;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/** Repository interface for the refresh tokens. */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Integer> {
+    /**
+     * Retrieves a refresh token with its user by the hash of the token, locking it
+     * so that it can only be used once.
+     *
+     * @param tokenHash
+     *            the SHA-256 hash of the token
+     * @return the refresh token, if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+                SELECT t
+                FROM RefreshToken t
+                JOIN FETCH t.user
+                WHERE t.tokenHash = :tokenHash
+            """)
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Deletes all the refresh tokens of a family, ending the session they belong
+     * to.
+     *
+     * @param familyID
+     *            the ID of the family
+     * @return the number of deleted tokens
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.familyID = :familyID")
+    int deleteAllByFamilyID(UUID familyID);
+
+    /**
+     * Deletes all the refresh tokens of a user, ending all of the user's sessions.
+     *
+     * @param userID
+     *            the ID of the user
+     * @return the number of deleted tokens
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.user.id = :userID")
+    int deleteAllByUserID(Integer userID);
+
+    /**
+     * Deletes the refresh tokens that expired before the given time.
+     *
+     * @param now
+     *            the current time
+     * @return the number of deleted tokens
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :now")
+    int deleteAllExpired(Instant now);
+}
@@ -0,0 +1,95 @@
+package com.vagsoft.bookstore.repositories;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.vagsoft.bookstore.dto.reportDTOs.BookSalesReadDTO;
+import com.vagsoft.bookstore.dto.reportDTOs.DailySalesReadDTO;
+import com.vagsoft.bookstore.dto.reportDTOs.GenreSalesReadDTO;
+import com.vagsoft.bookstore.dto.reportDTOs.OrderStatusCountReadDTO;
+import com.vagsoft.bookstore.models.entities.DailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/** Repository interface for reading the sales rollups of the orders. */
+@Repository
+public interface ReportRepository extends JpaRepository<DailySales, DailySales.DailySalesID> {
+    /**
+     * Retrieves the order count and revenue of every day in the given range that
+     * has orders, adding up the slots of every day.
+     *
+     * @param from
+     *            the first day of the range
+     * @param to
+     *            the last day of the range
+     * @return list of daily sales ordered by day
+     */
+    @Query("""
+                SELECT new com.vagsoft.bookstore.dto.reportDTOs.DailySalesReadDTO(s.day,
+                    CAST(SUM(s.orderCount) AS Integer), SUM(s.revenue))
+                FROM DailySales s
+                WHERE s.day BETWEEN :from AND :to
+                GROUP BY s.day
+                HAVING SUM(s.orderCount) <> 0
+                ORDER BY s.day
+            """)
+    List<DailySalesReadDTO> findDailySales(LocalDate from, LocalDate to);
+
+    /**
+     * Retrieves the units ordered of every book in the given range, best sellers
+     * first.
+     *
+     * @param from
+     *            the first day of the range
+     * @param to
+     *            the last day of the range
+     * @return list of book sales
+     */
+    @Query("""
+                SELECT new com.vagsoft.bookstore.dto.reportDTOs.BookSalesReadDTO(s.bookID, b.title, SUM(s.units))
+                FROM DailyBookSales s
+                LEFT JOIN Book b ON b.id = s.bookID
+                WHERE s.day BETWEEN :from AND :to
+                GROUP BY s.bookID, b.title
+                HAVING SUM(s.units) <> 0
+                ORDER BY SUM(s.units) DESC, s.bookID
+            """)
+    List<BookSalesReadDTO> findBookSales(LocalDate from, LocalDate to);
+
+    /**
+     * Retrieves the units ordered of every genre in the given range, best sellers
+     * first, adding up the slots of every day.
+     *
+     * @param from
+     *            the first day of the range
+     * @param to
+     *            the last day of the range
+     * @return list of genre sales
+     */
+    @Query("""
+                SELECT new com.vagsoft.bookstore.dto.reportDTOs.GenreSalesReadDTO(s.genre, SUM(s.units))
+                FROM DailyGenreSales s
+                WHERE s.day BETWEEN :from AND :to
+                GROUP BY s.genre
+                HAVING SUM(s.units) <> 0
+                ORDER BY SUM(s.units) DESC, s.genre
+            """)
+    List<GenreSalesReadDTO> findGenreSales(LocalDate from, LocalDate to);
+
+    /**
+     * Retrieves the current number of orders in every status, adding up the slots
+     * of every status.
+     *
+     * @return list of order counts by status
+     */
+    @Query("""
+                SELECT new com.vagsoft.bookstore.dto.reportDTOs.OrderStatusCountReadDTO(c.status,
+                    CAST(SUM(c.orderCount) AS Integer))
+                FROM OrderStatusCount c
+                GROUP BY c.status
+                HAVING SUM(c.orderCount) <> 0
+                ORDER BY c.status
+            """)
+    List<OrderStatusCountReadDTO> findOrderStatusCounts();
+}
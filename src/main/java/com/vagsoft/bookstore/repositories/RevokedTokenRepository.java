@@ -0,0 +1,35 @@
+package com.vagsoft.bookstore.repositories;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.vagsoft.bookstore.models.entities.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/** Repository interface for the revoked access tokens. */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+    /**
+     * Retrieves the revoked tokens that have not expired yet.
+     *
+     * @param now
+     *            the current time
+     * @return the unexpired revoked tokens
+     */
+    @Query("SELECT t FROM RevokedToken t WHERE t.expiresAt >= :now")
+    List<RevokedToken> findAllUnexpired(Instant now);
+
+    /**
+     * Deletes the revoked tokens that expired before the given time.
+     *
+     * @param now
+     *            the current time
+     * @return the number of deleted tokens
+     */
+    @Modifying
+    @Query("DELETE FROM RevokedToken t WHERE t.expiresAt < :now")
+    int deleteAllExpired(Instant now);
+}
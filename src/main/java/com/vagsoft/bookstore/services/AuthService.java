@@ -2,37 +2,55 @@ package com.vagsoft.bookstore.services;
 
 import java.util.Optional;
 
+import com.vagsoft.bookstore.caches.UserDetailsCache;
+import com.vagsoft.bookstore.dto.userDTOs.AuthTokenDTO;
 import com.vagsoft.bookstore.dto.userDTOs.UserLoginDTO;
 import com.vagsoft.bookstore.dto.userDTOs.UserReadDTO;
 import com.vagsoft.bookstore.dto.userDTOs.UserWriteDTO;
 import com.vagsoft.bookstore.mappers.UserMapper;
+import com.vagsoft.bookstore.models.CustomUserDetails;
 import com.vagsoft.bookstore.models.entities.User;
 import com.vagsoft.bookstore.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /** Service class for handling authentication-related operations. */
 @Service
 public class AuthService {
+    private static final Logger log = LoggerFactory.getLogger(AuthService.class);
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final CartService cartService;
+    private final GuestCartService guestCartService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserDetailsCache userDetailsCache;
 
     public AuthService(final UserRepository userRepository, final UserMapper userMapper,
             final PasswordEncoder passwordEncoder, final AuthenticationManager authenticationManager,
-            final JwtService jwtService, final CartService cartService) {
+            final JwtService jwtService, final CartService cartService, final GuestCartService guestCartService,
+            final RefreshTokenService refreshTokenService, final TokenRevocationService tokenRevocationService,
+            final UserDetailsCache userDetailsCache) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
         this.cartService = cartService;
+        this.guestCartService = guestCartService;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userDetailsCache = userDetailsCache;
     }
 
     /**
@@ -51,6 +69,9 @@ public class AuthService {
 
         User savedUser = userRepository.save(userToSave);
 
+        // The username may have been cached as unknown by an earlier login attempt
+        userDetailsCache.invalidate(savedUser.getUsername());
+
         // Create an empty cart for the newly registered user
         cartService.createEmptyCart(savedUser);
 
@@ -58,19 +79,78 @@ public class AuthService {
     }
 
     /**
-     * Authenticates a user and returns a JWT token.
+     * Authenticates a user and returns a JWT token and a refresh token.
      *
      * @param userLoginDTO
      *            the UserLoginDTO containing login credentials
-     * @return the generated JWT token
+     * @return the generated JWT token and refresh token
      */
-    public String authenticate(final UserLoginDTO userLoginDTO) {
+    public AuthTokenDTO authenticate(final UserLoginDTO userLoginDTO) {
+        return authenticate(userLoginDTO, null);
+    }
 
+    /**
+     * Authenticates a user, merges the given guest cart into the user's cart and
+     * returns a JWT token and a refresh token. An invalid or expired guest cart is
+     * skipped, so that it never prevents the login.
+     *
+     * @param userLoginDTO
+     *            the UserLoginDTO containing login credentials
+     * @param guestCartToken
+     *            the token of the guest cart to merge (optional)
+     * @return the generated JWT token and refresh token
+     */
+    public AuthTokenDTO authenticate(final UserLoginDTO userLoginDTO, final String guestCartToken) {
         final var authToken = UsernamePasswordAuthenticationToken.unauthenticated(userLoginDTO.getUsername(),
                 userLoginDTO.getPassword());
 
         final var authentication = authenticationManager.authenticate(authToken);
+        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+
+        if (guestCartToken != null && !guestCartToken.isBlank()) {
+            try {
+                guestCartService.mergeGuestCart(userDetails.getId(), guestCartToken);
+            } catch (IllegalArgumentException e) {
+                log.debug("Skipping guest cart of user with ID: {}", userDetails.getId(), e);
+            }
+        }
+
+        return new AuthTokenDTO(jwtService.generateToken(authentication),
+                refreshTokenService.issueToken(userDetails.getId()));
+    }
+
+    /**
+     * Exchanges a refresh token for a new JWT token and a new refresh token,
+     * without checking the password again.
+     *
+     * @param refreshToken
+     *            the refresh token to use
+     * @return the generated JWT token and refresh token
+     */
+    public AuthTokenDTO refresh(final String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotateToken(refreshToken);
+
+        CustomUserDetails userDetails = new CustomUserDetails(rotation.user());
+        final var authentication = UsernamePasswordAuthenticationToken.authenticated(userDetails, null,
+                userDetails.getAuthorities());
+
+        return new AuthTokenDTO(jwtService.generateToken(authentication), rotation.token());
+    }
+
+    /**
+     * Logs out a user, revoking the access token and, if given, the refresh token
+     * of the session.
+     *
+     * @param accessToken
+     *            the access token to revoke
+     * @param refreshToken
+     *            the refresh token to revoke (optional)
+     */
+    public void logout(final Jwt accessToken, final String refreshToken) {
+        tokenRevocationService.revoke(accessToken);
 
-        return jwtService.generateToken(authentication);
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revokeToken(refreshToken);
+        }
     }
 }
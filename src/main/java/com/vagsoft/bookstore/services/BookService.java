@@ -1,7 +1,11 @@
 package com.vagsoft.bookstore.services;
 
+import java.util.List;
 import java.util.Optional;
 
+import com.vagsoft.bookstore.caches.CartViewCache;
+import com.vagsoft.bookstore.caches.OrderViewCache;
+import com.vagsoft.bookstore.caches.RequestEntityCache;
 import com.vagsoft.bookstore.dto.bookDTOs.BookReadDTO;
 import com.vagsoft.bookstore.dto.bookDTOs.BookUpdateDTO;
 import com.vagsoft.bookstore.dto.bookDTOs.BookWriteDTO;
@@ -19,10 +23,20 @@ import org.springframework.transaction.annotation.Transactional;
 public class BookService {
     private final BookRepository bookRepository;
     private final BookMapper bookMapper;
-
-    public BookService(final BookRepository bookRepository, final BookMapper bookMapper) {
+    private final CartViewCache cartViewCache;
+    private final OrderViewCache orderViewCache;
+    private final OrderSummaryService orderSummaryService;
+    private final OrderAnalyticsService orderAnalyticsService;
+
+    public BookService(final BookRepository bookRepository, final BookMapper bookMapper,
+            final CartViewCache cartViewCache, final OrderViewCache orderViewCache,
+            final OrderSummaryService orderSummaryService, final OrderAnalyticsService orderAnalyticsService) {
         this.bookRepository = bookRepository;
         this.bookMapper = bookMapper;
+        this.cartViewCache = cartViewCache;
+        this.orderViewCache = orderViewCache;
+        this.orderSummaryService = orderSummaryService;
+        this.orderAnalyticsService = orderAnalyticsService;
     }
 
     /**
@@ -75,7 +89,9 @@ public class BookService {
      */
     @Transactional(readOnly = true)
     public BookReadDTO getBookByID(final Integer bookID) {
-        Book foundBook = bookRepository.getReferenceById(bookID);
+        // Using the book loaded while validating the request, if any
+        Book foundBook = RequestEntityCache.get(BookRepository.class, bookID)
+                .orElseGet(() -> bookRepository.getReferenceById(bookID));
         return bookMapper.bookToReadDto(foundBook);
     }
 
@@ -92,12 +108,27 @@ public class BookService {
     public Optional<BookReadDTO> updateBookByID(final Integer bookID, final BookUpdateDTO bookUpdateDTO) {
 
         Book foundBook = bookRepository.getReferenceById(bookID);
+        BookReadDTO previousBook = bookMapper.bookToReadDto(foundBook);
 
         bookMapper.updateBookFromDto(bookUpdateDTO, foundBook);
 
         Book updatedBook = bookRepository.save(foundBook);
+        BookReadDTO updatedBookDTO = bookMapper.bookToReadDto(updatedBook);
+
+        // The carts and orders containing the book show its details, so they are only stale if those changed
+        if (hasDetailChanges(previousBook, updatedBookDTO)) {
+            cartViewCache.invalidateBook(bookID);
+            orderViewCache.invalidateBook(bookID);
+        }
+        orderSummaryService.renameBook(bookID, updatedBook.getTitle());
 
-        return Optional.of(bookMapper.bookToReadDto(updatedBook));
+        return Optional.of(updatedBookDTO);
+    }
+
+    private static boolean hasDetailChanges(final BookReadDTO previousBook, final BookReadDTO updatedBook) {
+        // Stock changes alone are left to the time to live of the cached views, as they happen on every checkout
+        previousBook.setAvailability(updatedBook.getAvailability());
+        return !previousBook.equals(updatedBook);
     }
 
     /**
@@ -108,23 +139,14 @@ public class BookService {
      */
     @Transactional
     public void deleteBookByID(final Integer bookID) {
-        bookRepository.deleteById(bookID);
-    }
-
-    /**
-     * Checks if a book has enough stock available.
-     *
-     * @param bookID
-     *            the ID of the book to check
-     * @param quantity
-     *            the quantity of the book to check
-     * @return true if the book has enough stock, false otherwise
-     */
-    @Transactional(readOnly = true)
-    public boolean isBookQuantityAvailable(final Integer bookID, final Integer quantity) {
-        Book book = bookRepository.getReferenceById(bookID);
+        // The items of the book are deleted with it, which changes the summaries of its orders
+        List<Integer> orderIDs = orderSummaryService.getOrderIDsByBookID(bookID);
 
-        return book.getAvailability() >= quantity;
+        bookRepository.deleteById(bookID);
+        cartViewCache.invalidateBook(bookID);
+        orderViewCache.invalidateBook(bookID);
+        orderSummaryService.refreshOrders(orderIDs);
+        orderAnalyticsService.removeBook(bookID);
     }
 
     /**
@@ -147,20 +169,4 @@ public class BookService {
             throw new IllegalArgumentException("Not enough stock for book with ID: " + bookID);
         }
     }
-
-    /**
-     * Returns books to the stock by increasing the availability of the book.
-     *
-     * @param bookID
-     *            the ID of the book to return
-     * @param quantity
-     *            the quantity of the book to return
-     */
-    @Transactional
-    public void returnBooks(final Integer bookID, final Integer quantity) {
-        Book book = bookRepository.findById(bookID)
-                .orElseThrow(() -> new BookNotFoundException("No book found with the given ID: " + bookID));
-
-        book.setAvailability(book.getAvailability() + quantity);
-    }
 }
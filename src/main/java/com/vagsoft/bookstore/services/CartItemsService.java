@@ -1,39 +1,67 @@
 package com.vagsoft.bookstore.services;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import com.vagsoft.bookstore.caches.CartViewCache;
+import com.vagsoft.bookstore.caches.RequestEntityCache;
+import com.vagsoft.bookstore.dto.cartDTOs.CartItemOperationDTO;
 import com.vagsoft.bookstore.dto.cartDTOs.CartItemReadDTO;
 import com.vagsoft.bookstore.dto.cartDTOs.CartItemUpdateDTO;
 import com.vagsoft.bookstore.dto.cartDTOs.CartItemWriteDTO;
+import com.vagsoft.bookstore.dto.cartDTOs.CartItemsBatchDTO;
+import com.vagsoft.bookstore.dto.cartDTOs.CartReadDTO;
+import com.vagsoft.bookstore.errors.exceptions.bookExceptions.BookNotFoundException;
+import com.vagsoft.bookstore.errors.exceptions.cartExceptions.CartNotFoundException;
+import com.vagsoft.bookstore.executors.UserCommandExecutor;
 import com.vagsoft.bookstore.mappers.CartItemMapper;
+import com.vagsoft.bookstore.mappers.CartMapper;
+import com.vagsoft.bookstore.models.entities.Book;
 import com.vagsoft.bookstore.models.entities.CartItem;
 import com.vagsoft.bookstore.repositories.BookRepository;
 import com.vagsoft.bookstore.repositories.CartItemsRepository;
 import com.vagsoft.bookstore.repositories.CartRepository;
+import com.vagsoft.bookstore.stores.CartStore;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
- * Service class for handling cart item-related operations.
+ * Service class for handling cart item-related operations. The changes to a
+ * user's cart items run through the {@link UserCommandExecutor}, one at a time
+ * per user.
  */
 @Service
 public class CartItemsService {
     private final CartItemsRepository cartItemsRepository;
     private final CartRepository cartRepository;
     private final BookRepository bookRepository;
-    private final BookService bookService;
     private final CartItemMapper cartItemMapper;
+    private final CartMapper cartMapper;
+    private final CartStore cartStore;
+    private final CartViewCache cartViewCache;
+    private final UserCommandExecutor userCommandExecutor;
 
     public CartItemsService(final CartItemsRepository cartItemsRepository, final CartRepository cartRepository,
-            final BookRepository bookRepository, final BookService bookService, final CartItemMapper cartItemMapper) {
+            final BookRepository bookRepository, final CartItemMapper cartItemMapper, final CartMapper cartMapper,
+            final CartStore cartStore, final CartViewCache cartViewCache,
+            final UserCommandExecutor userCommandExecutor) {
         this.cartItemsRepository = cartItemsRepository;
         this.cartRepository = cartRepository;
         this.bookRepository = bookRepository;
-        this.bookService = bookService;
         this.cartItemMapper = cartItemMapper;
+        this.cartMapper = cartMapper;
+        this.cartStore = cartStore;
+        this.cartViewCache = cartViewCache;
+        this.userCommandExecutor = userCommandExecutor;
     }
 
     /**
@@ -47,7 +75,10 @@ public class CartItemsService {
      */
     @Transactional(readOnly = true)
     public Page<CartItemReadDTO> getAllCartItems(final Integer userID, final Pageable pageable) {
-        return cartItemMapper.pageCartItemsToPageDto(cartItemsRepository.findAllByUserID(userID, pageable));
+        Page<CartItemReadDTO> cartItems = cartItemMapper
+                .pageCartItemsToPageDto(cartItemsRepository.findAllByUserID(userID, pageable));
+        cartStore.applyPendingQuantities(userID, cartItems.getContent());
+        return cartItems;
     }
 
     /**
@@ -61,29 +92,185 @@ public class CartItemsService {
      */
     @Transactional(readOnly = true)
     public CartItemReadDTO getCartItem(final Integer userID, final Integer bookID) {
-        return cartItemMapper.cartItemToReadDto(cartItemsRepository.getReferenceByUserIDAndBookID(userID, bookID));
+        // Using the cart item loaded while validating the request, if any
+        CartItem foundCartItem = RequestEntityCache.get(CartItemsRepository.class, List.of(userID, bookID))
+                .orElseGet(() -> cartItemsRepository.getReferenceByUserIDAndBookID(userID, bookID));
+        CartItemReadDTO cartItem = cartItemMapper.cartItemToReadDto(foundCartItem);
+        cartStore.applyPendingQuantities(userID, List.of(cartItem));
+        return cartItem;
     }
 
     /**
-     * Adds a new cart item for a given user.
+     * Adds a new cart item for a given user. If the book is already in the user's
+     * cart, its quantity is increased instead.
      *
+     * @param userID
+     *            the ID of the user
      * @param cartItemWriteDTO
      *            the cart item to be added
-     * @return the created cart item
+     * @return the created or updated cart item
      */
-    @Transactional
     public Optional<CartItemReadDTO> addCartItem(final Integer userID, final CartItemWriteDTO cartItemWriteDTO) {
-        CartItem cartItemToSave = CartItem.builder().quantity(cartItemWriteDTO.getQuantity())
-                .book(bookRepository.getReferenceById(cartItemWriteDTO.getBookID()))
-                .cart(cartRepository.getReferenceByUser_Id(userID)).build();
+        return userCommandExecutor.call(userID, () -> {
+            Integer bookID = cartItemWriteDTO.getBookID();
+
+            // Writing the pending quantities first, so that the increment starts from them
+            cartStore.flush(userID);
+            cartViewCache.invalidate(userID);
+
+            // The upsert checks the stock itself, so that the check can't race with other writes
+            Optional<Integer> cartItemID = cartItemsRepository.addQuantityByUserIDAndBookID(userID, bookID,
+                    cartItemWriteDTO.getQuantity());
+
+            // Finding out why nothing was written, only on the failure path
+            if (cartItemID.isEmpty()) {
+                if (!bookRepository.existsById(bookID)) {
+                    throw new BookNotFoundException("No book found with the given ID: " + bookID);
+                }
+                if (!cartRepository.existsByUser_Id(userID)) {
+                    throw new CartNotFoundException("No cart found for the user with ID: " + userID);
+                }
+                throw new IllegalArgumentException("Not enough stock for book with ID: " + bookID);
+            }
+
+            return cartItemsRepository.findWithBookByUserIDAndBookID(userID, bookID)
+                    .map(cartItemMapper::cartItemToReadDto);
+        });
+    }
+
+    /**
+     * Applies a batch of add, set-quantity and remove operations to the cart of a
+     * given user in a single transaction. The operations are applied in order and
+     * the resulting quantities are written with one delete and one upsert statement,
+     * which also checks the stock of all the affected books.
+     *
+     * @param userID
+     *            the ID of the user
+     * @param cartItemsBatchDTO
+     *            the operations to apply
+     * @return the resulting cart
+     */
+    public CartReadDTO applyCartItemOperations(final Integer userID, final CartItemsBatchDTO cartItemsBatchDTO) {
+        return userCommandExecutor.call(userID, () -> {
+            cartStore.flush(userID);
+            cartViewCache.invalidate(userID);
+
+            // Loading the current quantities of the cart's books
+            Map<Integer, Integer> quantities = new LinkedHashMap<>();
+            for (CartItem cartItem : cartItemsRepository.findAllByUserID(userID)) {
+                quantities.put(cartItem.getBook().getId(), cartItem.getQuantity());
+            }
+
+            // Folding the operations into the final quantity of every affected book
+            Set<Integer> affectedBookIDs = foldOperations(quantities, cartItemsBatchDTO.getOperations());
+
+            List<Integer> removedBookIDs = affectedBookIDs.stream().filter(bookID -> !quantities.containsKey(bookID))
+                    .toList();
+            List<Integer> keptBookIDs = affectedBookIDs.stream().filter(quantities::containsKey).toList();
 
-        // Check the book's availability before adding to the cart
-        if (!bookService.isBookQuantityAvailable(cartItemWriteDTO.getBookID(), cartItemWriteDTO.getQuantity())) {
-            throw new IllegalArgumentException("Not enough stock for book with ID: " + cartItemWriteDTO.getBookID());
+            if (!removedBookIDs.isEmpty()) {
+                cartItemsRepository.deleteAllByUserIDAndBookIDIn(userID, removedBookIDs);
+            }
+            if (!keptBookIDs.isEmpty()) {
+                // The upsert skips the books without enough stock, so that the check can't race with other writes
+                int writtenRows = cartItemsRepository.upsertAllByUserID(userID, keptBookIDs.toArray(Integer[]::new),
+                        keptBookIDs.stream().map(quantities::get).toArray(Integer[]::new));
+
+                // Finding out which book was skipped, only on the failure path, and rolling back the whole batch
+                if (writtenRows < keptBookIDs.size()) {
+                    findBooksWithStock(keptBookIDs, quantities);
+                    if (!cartRepository.existsByUser_Id(userID)) {
+                        throw new CartNotFoundException("No cart found for the user with ID: " + userID);
+                    }
+                    throw new IllegalArgumentException("Not enough stock for the books in the batch");
+                }
+            }
+
+            return cartMapper.cartToReadDto(cartRepository.findByUser_Id(userID)
+                    .orElseThrow(() -> new CartNotFoundException("No cart found for the user with ID: " + userID)));
+        });
+    }
+
+    /**
+     * Adds the books of a guest cart to the cart of a given user with a single
+     * upsert. Quantities are capped at the books' availability and books that are
+     * missing or out of stock are skipped.
+     *
+     * @param userID
+     *            the ID of the user
+     * @param quantities
+     *            the quantities of the guest cart's books, keyed by book ID
+     */
+    public void mergeCartItems(final Integer userID, final Map<Integer, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
         }
 
-        CartItem savedCartItem = cartItemsRepository.save(cartItemToSave);
-        return Optional.of(cartItemMapper.cartItemToReadDto(savedCartItem));
+        userCommandExecutor.run(userID, () -> {
+            cartStore.flush(userID);
+            cartViewCache.invalidate(userID);
+
+            List<Integer> bookIDs = List.copyOf(quantities.keySet());
+            cartItemsRepository.mergeAllByUserID(userID, bookIDs.toArray(Integer[]::new),
+                    bookIDs.stream().map(quantities::get).toArray(Integer[]::new));
+        });
+    }
+
+    /**
+     * Folds a list of add, set-quantity and remove operations into the given
+     * quantities.
+     *
+     * @param quantities
+     *            the quantities of the books keyed by book ID, updated in place
+     * @param operations
+     *            the operations to apply, in order
+     * @return the IDs of the books affected by the operations
+     */
+    static Set<Integer> foldOperations(final Map<Integer, Integer> quantities,
+            final List<CartItemOperationDTO> operations) {
+        Set<Integer> affectedBookIDs = new LinkedHashSet<>();
+        for (CartItemOperationDTO operation : operations) {
+            Integer bookID = operation.getBookID();
+            affectedBookIDs.add(bookID);
+
+            switch (operation.getAction()) {
+                case ADD -> quantities.merge(bookID, operation.getQuantity(), Integer::sum);
+                case SET -> quantities.put(bookID, operation.getQuantity());
+                case REMOVE -> quantities.remove(bookID);
+            }
+        }
+        return affectedBookIDs;
+    }
+
+    /**
+     * Retrieves the given books with a single query, checking that all of them exist
+     * and have enough stock for the given quantities.
+     *
+     * @param bookIDs
+     *            the IDs of the books
+     * @param quantities
+     *            the requested quantities of the books, keyed by book ID
+     * @return the books keyed by ID
+     */
+    public Map<Integer, Book> findBooksWithStock(final Collection<Integer> bookIDs,
+            final Map<Integer, Integer> quantities) {
+        if (bookIDs.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Integer, Book> books = bookRepository.findAllById(bookIDs).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+
+        for (Integer bookID : bookIDs) {
+            Book book = books.get(bookID);
+            if (book == null) {
+                throw new BookNotFoundException("No book found with the given ID: " + bookID);
+            }
+            if (book.getAvailability() == null || book.getAvailability() < quantities.get(bookID)) {
+                throw new IllegalArgumentException("Not enough stock for book with ID: " + bookID);
+            }
+        }
+        return books;
     }
 
     /**
@@ -97,15 +284,30 @@ public class CartItemsService {
      *            the updated cart item information
      * @return the updated cart item
      */
-    @Transactional
     public Optional<CartItemReadDTO> updateCartItem(final Integer userID, final Integer bookID,
             final CartItemUpdateDTO cartItemUpdateDTO) {
-        CartItem cartItem = cartItemsRepository.getReferenceByUserIDAndBookID(userID, bookID);
+        return userCommandExecutor.call(userID, () -> {
+            // Depending on the store mode, the quantity is written now or kept as pending
+            if (!cartStore.setQuantity(userID, bookID, cartItemUpdateDTO.getQuantity())) {
+                throw new IllegalArgumentException("Not enough stock for book with ID: " + bookID);
+            }
+            cartViewCache.invalidate(userID);
 
-        cartItem.setQuantity(cartItemUpdateDTO.getQuantity());
-        CartItem updatedCartItem = cartItemsRepository.save(cartItem);
+            // The cart item loaded while validating the request only needs its new quantity
+            Optional<CartItem> prefetchedCartItem = RequestEntityCache.get(CartItemsRepository.class,
+                    List.of(userID, bookID));
+            if (prefetchedCartItem.isPresent()) {
+                CartItemReadDTO cartItem = cartItemMapper.cartItemToReadDto(prefetchedCartItem.get());
+                cartItem.setQuantity(cartItemUpdateDTO.getQuantity());
+                return Optional.of(cartItem);
+            }
 
-        return Optional.of(cartItemMapper.cartItemToReadDto(updatedCartItem));
+            return cartItemsRepository.findByUserIDAndBookID(userID, bookID).map(cartItemMapper::cartItemToReadDto)
+                    .map(cartItem -> {
+                        cartStore.applyPendingQuantities(userID, List.of(cartItem));
+                        return cartItem;
+                    });
+        });
     }
 
     /**
@@ -116,13 +318,17 @@ public class CartItemsService {
      * @param bookID
      *            the ID of the book
      */
-    @Transactional
     public void deleteCartItem(final Integer userID, final Integer bookID) {
-        cartItemsRepository.deleteByUserIDAndBookID(userID, bookID);
+        userCommandExecutor.run(userID, () -> {
+            cartStore.discard(userID, bookID);
+            cartViewCache.invalidate(userID);
+            cartItemsRepository.deleteByUserIDAndBookID(userID, bookID);
+        });
     }
 
     /**
      * Retrieves all cart items for a given user and deletes them from the cart.
+     * Called while placing an order, which already runs as a command of the user.
      *
      * @param userID
      *            the ID of the user
@@ -130,6 +336,9 @@ public class CartItemsService {
      */
     @Transactional
     public List<CartItem> checkout(final Integer userID) {
+        cartStore.flush(userID);
+        cartViewCache.invalidate(userID);
+
         List<CartItem> cartItems = cartItemsRepository.findAllByUserID(userID);
         cartItemsRepository.deleteAllByUserID(userID);
         return cartItems;
@@ -1,10 +1,18 @@
 package com.vagsoft.bookstore.services;
 
+import java.util.List;
+
+import com.vagsoft.bookstore.caches.CartViewCache;
 import com.vagsoft.bookstore.dto.cartDTOs.CartReadDTO;
+import com.vagsoft.bookstore.errors.exceptions.cartExceptions.CartNotFoundException;
+import com.vagsoft.bookstore.mappers.CartItemMapper;
 import com.vagsoft.bookstore.mappers.CartMapper;
 import com.vagsoft.bookstore.models.entities.Cart;
+import com.vagsoft.bookstore.models.entities.CartItem;
 import com.vagsoft.bookstore.models.entities.User;
+import com.vagsoft.bookstore.repositories.CartItemsRepository;
 import com.vagsoft.bookstore.repositories.CartRepository;
+import com.vagsoft.bookstore.stores.CartStore;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -14,11 +22,21 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class CartService {
     private final CartRepository cartRepository;
+    private final CartItemsRepository cartItemsRepository;
     private final CartMapper cartMapper;
+    private final CartItemMapper cartItemMapper;
+    private final CartStore cartStore;
+    private final CartViewCache cartViewCache;
 
-    public CartService(final CartRepository cartRepository, final CartMapper cartMapper) {
+    public CartService(final CartRepository cartRepository, final CartItemsRepository cartItemsRepository,
+            final CartMapper cartMapper, final CartItemMapper cartItemMapper, final CartStore cartStore,
+            final CartViewCache cartViewCache) {
         this.cartRepository = cartRepository;
+        this.cartItemsRepository = cartItemsRepository;
         this.cartMapper = cartMapper;
+        this.cartItemMapper = cartItemMapper;
+        this.cartStore = cartStore;
+        this.cartViewCache = cartViewCache;
     }
 
     /**
@@ -30,19 +48,47 @@ public class CartService {
      */
     @Transactional(readOnly = true)
     public Page<CartReadDTO> getAllCarts(final Pageable pageable) {
-        return cartMapper.pageCartToPageDto(cartRepository.findAll(pageable));
+        Page<CartReadDTO> carts = cartMapper.pageCartToPageDto(cartRepository.findAll(pageable));
+        carts.forEach(cart -> cartStore.applyPendingQuantities(cart.getUserID(), cart.getCartItems()));
+        return carts;
     }
 
     /**
-     * Retrieves cart by user ID.
+     * Retrieves cart by user ID, with the subtotal of every line and the cart's
+     * total. The cart is cached until it or one of its books changes.
      *
      * @param userID
      *            the ID of the user
      * @return the cart associated with the user ID
      */
-    @Transactional(readOnly = true)
     public CartReadDTO getCartByUserId(final Integer userID) {
-        return cartMapper.cartToReadDto(cartRepository.getReferenceByUser_Id(userID));
+        // Not transactional, so that cache hits don't touch the database
+        return cartViewCache.getOrLoad(userID, () -> loadCartView(userID));
+    }
+
+    /**
+     * Loads the cart of a user with its items, books and prices in a single query.
+     *
+     * @param userID
+     *            the ID of the user
+     * @return the cart associated with the user ID
+     */
+    private CartReadDTO loadCartView(final Integer userID) {
+        List<CartItem> cartItems = cartItemsRepository.findAllWithBooksByUserID(userID);
+
+        Integer cartID;
+        if (cartItems.isEmpty()) {
+            cartID = cartRepository.findByUser_Id(userID)
+                    .orElseThrow(() -> new CartNotFoundException("No cart found for the user with ID: " + userID))
+                    .getId();
+        } else {
+            cartID = cartItems.getFirst().getCart().getId();
+        }
+
+        CartReadDTO cart = CartReadDTO.builder().id(cartID).userID(userID)
+                .cartItems(cartItemMapper.listCartItemsToDto(cartItems)).build();
+        cartStore.applyPendingQuantities(userID, cart.getCartItems());
+        return cart;
     }
 
     /**
@@ -0,0 +1,127 @@
+package com.vagsoft.bookstore.services;
+
+import java.time.Duration;
+import java.util.List;
+
+import com.vagsoft.bookstore.caches.CartViewCache;
+import com.vagsoft.bookstore.configuration.CartSweeperConfig;
+import com.vagsoft.bookstore.repositories.CartItemsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service class that deletes the items of carts left unchanged for longer than
+ * the configured idle age. The items are deleted in small batches, walking the
+ * cart items by ID, and the sweeper pauses between batches to stay within its
+ * database load budget.
+ */
+@Service
+public class CartSweeperService {
+    private static final Logger log = LoggerFactory.getLogger(CartSweeperService.class);
+
+    private final CartItemsRepository cartItemsRepository;
+    private final CartViewCache cartViewCache;
+    private final CartSweeperConfig cartSweeperConfig;
+    private final TransactionTemplate transactionTemplate;
+
+    public CartSweeperService(final CartItemsRepository cartItemsRepository, final CartViewCache cartViewCache,
+            final CartSweeperConfig cartSweeperConfig, final PlatformTransactionManager transactionManager) {
+        this.cartItemsRepository = cartItemsRepository;
+        this.cartViewCache = cartViewCache;
+        this.cartSweeperConfig = cartSweeperConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /** Runs the sweep on the configured interval, if the sweeper is enabled. */
+    @Scheduled(fixedDelayString = "${cart-sweeper.interval:PT1H}", initialDelayString = "${cart-sweeper.interval:PT1H}")
+    public void scheduledSweep() {
+        if (cartSweeperConfig.isEnabled()) {
+            sweep();
+        }
+    }
+
+    /**
+     * Deletes the items of all the carts left unchanged for longer than the
+     * configured idle age.
+     *
+     * @return the report of the sweep
+     */
+    public SweepReport sweep() {
+        // Comparing against the database clock, which also sets the modification times
+        long idleSeconds = cartSweeperConfig.getIdleAge().toSeconds();
+        double loadBudget = Math.clamp(cartSweeperConfig.getLoadBudget(), 0.01, 1.0);
+
+        long startTime = System.nanoTime();
+        long deletedItems = 0;
+        int batches = 0;
+        int lastID = 0;
+
+        while (true) {
+            long batchStartTime = System.nanoTime();
+
+            // Walking the cart items by ID, so that every batch starts where the last one ended
+            List<Integer> cartItemIDs = cartItemsRepository.findIdleCartItemIDs(idleSeconds, lastID,
+                    cartSweeperConfig.getBatchSize());
+            if (cartItemIDs.isEmpty()) {
+                break;
+            }
+            lastID = cartItemIDs.getLast();
+
+            Integer deleted = transactionTemplate
+                    .execute(status -> cartItemsRepository.deleteIdleByIdIn(cartItemIDs, idleSeconds));
+            deletedItems += deleted == null ? 0 : deleted;
+            batches++;
+
+            // Pausing long enough for the statements to take up only the load budget
+            long batchTime = System.nanoTime() - batchStartTime;
+            if (!pause(Duration.ofNanos((long) (batchTime * (1 - loadBudget) / loadBudget)))) {
+                break;
+            }
+        }
+
+        if (deletedItems > 0) {
+            cartViewCache.invalidateAll();
+        }
+
+        SweepReport report = new SweepReport(deletedItems, batches, Duration.ofNanos(System.nanoTime() - startTime));
+        log.info("Swept {} items of abandoned carts in {} batches and {} ms ({} items/s)", report.deletedItems(),
+                report.batches(), report.duration().toMillis(), String.format("%.1f", report.itemsPerSecond()));
+        return report;
+    }
+
+    private boolean pause(final Duration duration) {
+        try {
+            Thread.sleep(duration);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Report of a single sweep.
+     *
+     * @param deletedItems
+     *            the number of deleted cart items
+     * @param batches
+     *            the number of batches
+     * @param duration
+     *            the total duration of the sweep, pauses included
+     */
+    public record SweepReport(long deletedItems, int batches, Duration duration) {
+        /**
+         * Computes the throughput of the sweep.
+         *
+         * @return the deleted cart items per second
+         */
+        public double itemsPerSecond() {
+            long millis = duration.toMillis();
+            return millis == 0 ? deletedItems : deletedItems * 1000.0 / millis;
+        }
+    }
+}
@@ -1,26 +1,26 @@
 package com.vagsoft.bookstore.services;
 
-import java.util.Optional;
-
+import com.vagsoft.bookstore.caches.UserDetailsCache;
 import com.vagsoft.bookstore.models.CustomUserDetails;
-import com.vagsoft.bookstore.models.entities.User;
 import com.vagsoft.bookstore.repositories.UserRepository;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Custom UserDetailsService implementation for loading user details from the
- * database based on the username.
+ * database based on the username. The details are served from the
+ * {@link UserDetailsCache}, so that repeated logins do not query the database.
  */
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
-    public CustomUserDetailsService(final UserRepository userRepository) {
+    public CustomUserDetailsService(final UserRepository userRepository, final UserDetailsCache userDetailsCache) {
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
     }
 
     /**
@@ -33,12 +33,13 @@ public class CustomUserDetailsService implements UserDetailsService {
      *             if the user is not found
      */
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(final String username) throws UsernameNotFoundException {
-        Optional<User> user = userRepository.findByUsername(username);
-        if (user.isEmpty()) {
+        // No transaction around the lookup, so that a cached user does not take a connection
+        CustomUserDetails userDetails = userDetailsCache.getOrLoad(username,
+                () -> userRepository.findByUsername(username).map(CustomUserDetails::new).orElse(null));
+        if (userDetails == null) {
             throw new UsernameNotFoundException("User not found with username: " + username);
         }
-        return new CustomUserDetails(user.get());
+        return userDetails;
     }
 }
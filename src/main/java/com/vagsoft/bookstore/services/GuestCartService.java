@@ -0,0 +1,130 @@
+package com.vagsoft.bookstore.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.vagsoft.bookstore.dto.cartDTOs.CartItemReadDTO;
+import com.vagsoft.bookstore.dto.cartDTOs.CartItemsBatchDTO;
+import com.vagsoft.bookstore.dto.cartDTOs.CartReadDTO;
+import com.vagsoft.bookstore.mappers.BookMapper;
+import com.vagsoft.bookstore.models.entities.Book;
+import com.vagsoft.bookstore.repositories.BookRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service class for handling the carts of anonymous shoppers. Guest carts are
+ * kept entirely in signed tokens held by the client, so they never write to the
+ * database until they are merged into a user's cart at login.
+ */
+@Service
+public class GuestCartService {
+    private static final int MAX_GUEST_CART_BOOKS = 100;
+
+    private final GuestCartTokenService guestCartTokenService;
+    private final CartItemsService cartItemsService;
+    private final BookRepository bookRepository;
+    private final BookMapper bookMapper;
+
+    public GuestCartService(final GuestCartTokenService guestCartTokenService, final CartItemsService cartItemsService,
+            final BookRepository bookRepository, final BookMapper bookMapper) {
+        this.guestCartTokenService = guestCartTokenService;
+        this.cartItemsService = cartItemsService;
+        this.bookRepository = bookRepository;
+        this.bookMapper = bookMapper;
+    }
+
+    /**
+     * Retrieves the guest cart held in a token, with the current details of its
+     * books. Books that no longer exist are left out.
+     *
+     * @param token
+     *            the guest cart token, may be null for an empty cart
+     * @return the guest cart
+     */
+    @Transactional(readOnly = true)
+    public CartReadDTO getGuestCart(final String token) {
+        Map<Integer, Integer> quantities = guestCartTokenService.decode(token);
+
+        return toCartView(quantities, findBooks(quantities.keySet()));
+    }
+
+    /**
+     * Applies a batch of add, set-quantity and remove operations to the guest cart
+     * held in a token. The stock of all the affected books is checked with a single
+     * query, and the books checked are reused for the resulting cart.
+     *
+     * @param token
+     *            the guest cart token, may be null for an empty cart
+     * @param cartItemsBatchDTO
+     *            the operations to apply
+     * @return the token and the view of the resulting guest cart
+     */
+    @Transactional(readOnly = true)
+    public GuestCartUpdate applyGuestCartOperations(final String token, final CartItemsBatchDTO cartItemsBatchDTO) {
+        Map<Integer, Integer> quantities = guestCartTokenService.decode(token);
+
+        Set<Integer> affectedBookIDs = CartItemsService.foldOperations(quantities, cartItemsBatchDTO.getOperations());
+        if (quantities.size() > MAX_GUEST_CART_BOOKS) {
+            throw new IllegalArgumentException("A guest cart can hold at most " + MAX_GUEST_CART_BOOKS + " books");
+        }
+
+        Map<Integer, Book> books = new HashMap<>(cartItemsService
+                .findBooksWithStock(affectedBookIDs.stream().filter(quantities::containsKey).toList(), quantities));
+
+        // Only the books left untouched by the operations still need to be loaded
+        books.putAll(findBooks(quantities.keySet().stream().filter(bookID -> !books.containsKey(bookID)).toList()));
+
+        return new GuestCartUpdate(guestCartTokenService.encode(quantities), toCartView(quantities, books));
+    }
+
+    /**
+     * Merges the guest cart held in a token into the cart of a user.
+     *
+     * @param userID
+     *            the ID of the user
+     * @param token
+     *            the guest cart token
+     */
+    public void mergeGuestCart(final Integer userID, final String token) {
+        cartItemsService.mergeCartItems(userID, guestCartTokenService.decode(token));
+    }
+
+    private Map<Integer, Book> findBooks(final Collection<Integer> bookIDs) {
+        if (bookIDs.isEmpty()) {
+            return Map.of();
+        }
+        return bookRepository.findAllById(bookIDs).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+    }
+
+    private CartReadDTO toCartView(final Map<Integer, Integer> quantities, final Map<Integer, Book> books) {
+        // Leaving out the books that no longer exist
+        List<CartItemReadDTO> cartItems = new ArrayList<>();
+        quantities.forEach((bookID, quantity) -> {
+            Book book = books.get(bookID);
+            if (book != null) {
+                cartItems.add(CartItemReadDTO.builder().book(bookMapper.bookToReadDto(book)).quantity(quantity).build());
+            }
+        });
+
+        return CartReadDTO.builder().cartItems(cartItems).build();
+    }
+
+    /**
+     * Result of applying operations to a guest cart.
+     *
+     * @param token
+     *            the token of the resulting guest cart
+     * @param cart
+     *            the view of the resulting guest cart
+     */
+    public record GuestCartUpdate(String token, CartReadDTO cart) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.vagsoft.bookstore.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * Service class for encoding guest carts into signed tokens carried by the
+ * client. The tokens are signed with the same keys as the access tokens but have
+ * their own JOSE type, so neither kind of token is accepted in place of the
+ * other.
+ */
+@RequiredArgsConstructor
+public class GuestCartTokenService {
+    public static final String HEADER = "X-Guest-Cart";
+    public static final String TOKEN_TYPE = "guest-cart+jwt";
+    private static final String ITEMS_CLAIM = "items";
+
+    private final String issuer;
+
+    private final Duration ttl;
+
+    private final JwtEncoder jwtEncoder;
+
+    private final JwtKeyService jwtKeyService;
+
+    private final JwtDecoder guestCartDecoder;
+
+    /**
+     * Encodes the quantities of a guest cart into a signed token.
+     *
+     * @param quantities
+     *            the quantities of the books, keyed by book ID
+     * @return the signed guest cart token
+     */
+    public String encode(final Map<Integer, Integer> quantities) {
+        // Every item is a compact [bookID, quantity] pair
+        List<List<Integer>> items = new ArrayList<>(quantities.size());
+        quantities.forEach((bookID, quantity) -> items.add(List.of(bookID, quantity)));
+
+        JwsHeader header = jwtKeyService.signingHeader().type(TOKEN_TYPE).build();
+        JwtClaimsSet claimsSet = JwtClaimsSet.builder().issuer(issuer).issuedAt(Instant.now())
+                .expiresAt(Instant.now().plus(ttl)).claim(ITEMS_CLAIM, items).build();
+
+        return jwtEncoder.encode(JwtEncoderParameters.from(header, claimsSet)).getTokenValue();
+    }
+
+    /**
+     * Decodes and verifies a guest cart token.
+     *
+     * @param token
+     *            the guest cart token, may be null for an empty cart
+     * @return the quantities of the books, keyed by book ID
+     * @throws IllegalArgumentException
+     *             if the token is invalid or expired
+     */
+    public Map<Integer, Integer> decode(final String token) {
+        Map<Integer, Integer> quantities = new LinkedHashMap<>();
+        if (token == null || token.isBlank()) {
+            return quantities;
+        }
+
+        Jwt jwt;
+        try {
+            jwt = guestCartDecoder.decode(token);
+        } catch (JwtException e) {
+            throw new IllegalArgumentException("Invalid guest cart token");
+        }
+
+        List<?> items = jwt.getClaim(ITEMS_CLAIM);
+        if (items != null) {
+            for (Object item : items) {
+                if (item instanceof List<?> pair && pair.size() == 2 && pair.get(0) instanceof Number bookID
+                        && pair.get(1) instanceof Number quantity) {
+                    quantities.put(bookID.intValue(), quantity.intValue());
+                }
+            }
+        }
+        return quantities;
+    }
+}
@@ -0,0 +1,241 @@
+package com.vagsoft.bookstore.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JOSEObjectTypeVerifier;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+/**
+ * Service class holding the keys that sign and verify the tokens. The keys are
+ * read from a directory of PEM files, {@code <kid>.key} for the PKCS#8 private
+ * key and {@code <kid>.pub} for the X.509 public key, where a public key alone
+ * only verifies the tokens signed before it was retired. RSA keys sign with
+ * RS256 and P-256 EC keys with ES256. The private key whose ID sorts last signs
+ * the new tokens, so a key is rotated by adding a key with a later ID and
+ * removing the old one once its tokens have expired. The directory is polled for
+ * changes, so the keys are reloaded without a restart.
+ * <p>
+ * Without a directory, the single RSA key from the application properties is
+ * used.
+ */
+public class JwtKeyService implements JWKSource<SecurityContext> {
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyService.class);
+
+    private static final Set<JWSAlgorithm> ALGORITHMS = Set.of(JWSAlgorithm.RS256, JWSAlgorithm.ES256);
+    private static final String PRIVATE_KEY_SUFFIX = ".key";
+    private static final String PUBLIC_KEY_SUFFIX = ".pub";
+
+    private final Path keyDirectory;
+    private final List<Runnable> reloadListeners = new CopyOnWriteArrayList<>();
+    private volatile Keys keys;
+
+    public JwtKeyService(final Path keyDirectory, final JWK defaultKey) {
+        this.keyDirectory = keyDirectory;
+        if (keyDirectory == null) {
+            this.keys = new Keys(new JWKSet(defaultKey), defaultKey, "");
+        } else {
+            this.keys = loadKeys(fingerprint());
+        }
+    }
+
+    /**
+     * Checks the key directory for changes and reloads the keys if any. A
+     * directory that cannot be loaded is logged and the current keys are kept.
+     */
+    @Scheduled(fixedDelayString = "${jwt.key-reload-interval:PT1M}")
+    public void reloadKeys() {
+        if (keyDirectory == null) {
+            return;
+        }
+
+        try {
+            String fingerprint = fingerprint();
+            if (fingerprint.equals(keys.fingerprint())) {
+                return;
+            }
+            keys = loadKeys(fingerprint);
+        } catch (RuntimeException e) {
+            log.error("Failed to reload the JWT keys from {}, keeping the current keys", keyDirectory, e);
+            return;
+        }
+
+        log.info("Reloaded the JWT keys, signing with {}", keys.signingKey().getKeyID());
+        // The tokens of removed keys must not be accepted from any cache either
+        reloadListeners.forEach(Runnable::run);
+    }
+
+    /**
+     * Registers an action to run after the keys are reloaded.
+     *
+     * @param listener
+     *            the action to run
+     */
+    public void addReloadListener(final Runnable listener) {
+        reloadListeners.add(listener);
+    }
+
+    /**
+     * Creates the header of a new token, naming the algorithm and the ID of the
+     * current signing key.
+     *
+     * @return the header builder
+     */
+    public JwsHeader.Builder signingHeader() {
+        JWK signingKey = keys.signingKey();
+        return JwsHeader.with(SignatureAlgorithm.from(signingKey.getAlgorithm().getName()))
+                .keyId(signingKey.getKeyID());
+    }
+
+    /**
+     * Creates a decoder that verifies the tokens with the current keys, selected by
+     * the key ID of the token.
+     *
+     * @param typeVerifier
+     *            verifies the JOSE type of the tokens
+     * @return the decoder
+     */
+    public JwtDecoder createDecoder(final JOSEObjectTypeVerifier<SecurityContext> typeVerifier) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(ALGORITHMS, this));
+        processor.setJWSTypeVerifier(typeVerifier);
+        // The claims are validated by the decoder instead
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        return new NimbusJwtDecoder(processor);
+    }
+
+    @Override
+    public List<JWK> get(final JWKSelector jwkSelector, final SecurityContext context) {
+        return jwkSelector.select(keys.jwkSet());
+    }
+
+    private String fingerprint() {
+        try (Stream<Path> files = Files.list(keyDirectory)) {
+            return files.filter(this::isKeyFile).sorted().map(file -> {
+                try {
+                    return file.getFileName() + ":" + Files.getLastModifiedTime(file).toMillis() + ":"
+                            + Files.size(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).collect(Collectors.joining(","));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list the JWT keys in " + keyDirectory, e);
+        }
+    }
+
+    private boolean isKeyFile(final Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(PRIVATE_KEY_SUFFIX) || name.endsWith(PUBLIC_KEY_SUFFIX);
+    }
+
+    private Keys loadKeys(final String fingerprint) {
+        // Sorted by key ID, so that the last private key is the signing key
+        Map<String, JWK> keysByID = new TreeMap<>();
+        try (Stream<Path> files = Files.list(keyDirectory)) {
+            for (Path publicKeyFile : files.filter(file -> file.toString().endsWith(PUBLIC_KEY_SUFFIX)).toList()) {
+                String name = publicKeyFile.getFileName().toString();
+                String keyID = name.substring(0, name.length() - PUBLIC_KEY_SUFFIX.length());
+                Path privateKeyFile = keyDirectory.resolve(keyID + PRIVATE_KEY_SUFFIX);
+                keysByID.put(keyID,
+                        readKey(keyID, publicKeyFile, Files.exists(privateKeyFile) ? privateKeyFile : null));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the JWT keys in " + keyDirectory, e);
+        }
+
+        List<JWK> jwks = new ArrayList<>(keysByID.values());
+        JWK signingKey = jwks.reversed().stream().filter(JWK::isPrivate).findFirst().orElseThrow(
+                () -> new IllegalStateException("No private JWT key with a public key found in " + keyDirectory));
+        return new Keys(new JWKSet(jwks), signingKey, fingerprint);
+    }
+
+    private static JWK readKey(final String keyID, final Path publicKeyFile, final Path privateKeyFile)
+            throws IOException {
+        try {
+            X509EncodedKeySpec publicKeySpec = new X509EncodedKeySpec(readPem(publicKeyFile));
+            // The algorithm is not known before parsing, so trying both supported ones
+            PublicKey publicKey;
+            KeyFactory keyFactory;
+            try {
+                keyFactory = KeyFactory.getInstance("EC");
+                publicKey = keyFactory.generatePublic(publicKeySpec);
+            } catch (GeneralSecurityException e) {
+                keyFactory = KeyFactory.getInstance("RSA");
+                publicKey = keyFactory.generatePublic(publicKeySpec);
+            }
+            PrivateKey privateKey = privateKeyFile == null
+                    ? null
+                    : keyFactory.generatePrivate(new PKCS8EncodedKeySpec(readPem(privateKeyFile)));
+
+            if (publicKey instanceof ECPublicKey ecPublicKey) {
+                if (!Curve.P_256.equals(Curve.forECParameterSpec(ecPublicKey.getParams()))) {
+                    throw new IllegalStateException("Only P-256 EC keys are supported, but " + keyID + " is not");
+                }
+                ECKey.Builder builder = new ECKey.Builder(Curve.P_256, ecPublicKey).keyID(keyID)
+                        .algorithm(JWSAlgorithm.ES256).keyUse(KeyUse.SIGNATURE);
+                if (privateKey != null) {
+                    builder.privateKey((ECPrivateKey) privateKey);
+                }
+                return builder.build();
+            }
+            RSAKey.Builder builder = new RSAKey.Builder((RSAPublicKey) publicKey).keyID(keyID)
+                    .algorithm(JWSAlgorithm.RS256).keyUse(KeyUse.SIGNATURE);
+            if (privateKey != null) {
+                builder.privateKey((RSAPrivateKey) privateKey);
+            }
+            return builder.build();
+        } catch (GeneralSecurityException | ClassCastException e) {
+            throw new IllegalStateException("Invalid JWT key: " + keyID, e);
+        }
+    }
+
+    private static byte[] readPem(final Path file) throws IOException {
+        String base64 = Files.readAllLines(file).stream().filter(line -> !line.startsWith("-----"))
+                .collect(Collectors.joining());
+        return Base64.getMimeDecoder().decode(base64);
+    }
+
+    private record Keys(JWKSet jwkSet, JWK signingKey, String fingerprint) {
+    }
+}
@@ -2,6 +2,7 @@ package com.vagsoft.bookstore.services;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 import com.vagsoft.bookstore.models.CustomUserDetails;
@@ -21,8 +22,11 @@ public class JwtService {
 
     private final JwtEncoder jwtEncoder;
 
+    private final JwtKeyService jwtKeyService;
+
     /**
-     * Generates a JWT token for the given authentication.
+     * Generates a JWT token for the given authentication, with a random ID by which
+     * it can be revoked.
      *
      * @param authentication
      *            the authentication object containing user details
@@ -35,9 +39,10 @@ public class JwtService {
         CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
 
         JwtClaimsSet claimsSet = JwtClaimsSet.builder().issuer(issuer).issuedAt(Instant.now())
-                .expiresAt(Instant.now().plus(ttl)).subject(userDetails.getUsername()).claim("id", userDetails.getId())
-                .claim("scope", scope).build();
+                .expiresAt(Instant.now().plus(ttl)).subject(userDetails.getUsername()).id(UUID.randomUUID().toString())
+                .claim("id", userDetails.getId()).claim("scope", scope).build();
 
-        return jwtEncoder.encode(JwtEncoderParameters.from(claimsSet)).getTokenValue();
+        return jwtEncoder.encode(JwtEncoderParameters.from(jwtKeyService.signingHeader().build(), claimsSet))
+                .getTokenValue();
     }
 }
@@ -0,0 +1,223 @@
+package com.vagsoft.bookstore.services;
+
+import java.sql.Array;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+import com.vagsoft.bookstore.analytics.OrderCube;
+import com.vagsoft.bookstore.configuration.OrderCubeConfig;
+import com.vagsoft.bookstore.dto.analyticsDTOs.OrderCubeQueryDTO;
+import com.vagsoft.bookstore.dto.analyticsDTOs.OrderCubeRowReadDTO;
+import com.vagsoft.bookstore.dto.analyticsDTOs.OrderCubeStatusReadDTO;
+import com.vagsoft.bookstore.models.enums.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service class for the ad-hoc order analytics. The order lines are loaded into
+ * an in-memory {@link OrderCube} on the first query and refreshed incrementally
+ * from the new orders afterwards. Order IDs are taken before the orders commit,
+ * so every refresh also reads again a trailing window of IDs below the highest
+ * loaded one, skipping the orders already loaded. Deleted orders and books are
+ * removed from the cube once their deletion commits.
+ */
+@Service
+public class OrderAnalyticsService {
+    private static final Logger log = LoggerFactory.getLogger(OrderAnalyticsService.class);
+
+    // The share of the order's total of every line is taken by the current book prices
+    private static final String LINES_QUERY = """
+                SELECT oi.orderID, oi.bookID, o.orderDate, oi.quantity, o.status,
+                    COALESCE(o.totalAmount * (oi.quantity * b.price)
+                        / NULLIF(SUM(oi.quantity * b.price) OVER (PARTITION BY oi.orderID), 0), 0) AS amount
+                FROM OrderItems oi
+                INNER JOIN Orders o ON o.ID = oi.orderID
+                INNER JOIN Books b ON b.ID = oi.bookID
+                WHERE oi.orderID > ? AND oi.orderID <> ALL(?)
+                ORDER BY oi.orderID, oi.ID
+            """;
+    private static final String STATUSES_QUERY = """
+                SELECT o.ID, o.status
+                FROM Orders o
+                WHERE o.ID = ANY(?)
+            """;
+    private static final String GENRES_QUERY = """
+                SELECT g.bookID, g.genre
+                FROM Genres g
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderCubeConfig orderCubeConfig;
+    private volatile OrderCube cube;
+    private volatile LocalDateTime refreshedAt;
+
+    public OrderAnalyticsService(final JdbcTemplate jdbcTemplate, final PlatformTransactionManager transactionManager,
+            final OrderCubeConfig orderCubeConfig) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.orderCubeConfig = orderCubeConfig;
+    }
+
+    /**
+     * Answers a group-by, filter and top-N question over the order lines.
+     *
+     * @param query
+     *            the dimensions, filters, measure and limit of the query
+     * @return the top groups, highest measure first
+     */
+    public List<OrderCubeRowReadDTO> queryOrders(final OrderCubeQueryDTO query) {
+        OrderCube loadedCube = cube;
+        if (loadedCube == null) {
+            synchronized (this) {
+                // Checking again, so that only the first of concurrent queries loads the cube
+                if (cube == null) {
+                    refresh(true);
+                }
+                loadedCube = cube;
+            }
+        }
+        return loadedCube.query(query);
+    }
+
+    /**
+     * Refreshes the order cube, either by rebuilding it from all the orders or by
+     * appending the new orders and updating the statuses of the open ones.
+     *
+     * @param full
+     *            whether the cube is rebuilt from scratch
+     * @return the state of the cube after the refresh
+     */
+    public synchronized OrderCubeStatusReadDTO refresh(final boolean full) {
+        long start = System.nanoTime();
+        OrderCube target = full || cube == null
+                ? new OrderCube(orderCubeConfig.getParallelThreshold(), orderCubeConfig.getRereadOrderIDs(),
+                        ForkJoinPool.commonPool())
+                : cube;
+        int previousLines = target.getLineCount();
+        // Orders committed after others with a higher ID are still within the window
+        int rereadFrom = Math.max(0, target.getMaxOrderID() - orderCubeConfig.getRereadOrderIDs());
+        Set<Integer> loadedOrderIDs = target.getRecentOrderIDs();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            target.setGenres(loadGenres());
+            updateStatuses(target);
+            jdbcTemplate.query(LINES_QUERY, statement -> {
+                // Without a transaction the driver would read the whole result set into memory
+                statement.setFetchSize(orderCubeConfig.getFetchSize());
+                statement.setInt(1, rereadFrom);
+                statement.setArray(2, statement.getConnection().createArrayOf("integer", loadedOrderIDs.toArray()));
+            }, row -> {
+                target.append(row.getInt(1), row.getInt(2), row.getDate(3).toLocalDate(), row.getInt(4),
+                        row.getDouble(6), Status.valueOf(row.getString(5)));
+            });
+        });
+        target.publish();
+
+        cube = target;
+        refreshedAt = LocalDateTime.now();
+        log.info("Refreshed the order cube with {} new lines in {} ms", target.getLineCount() - previousLines,
+                (System.nanoTime() - start) / 1_000_000);
+        return new OrderCubeStatusReadDTO(target.getLineCount(), target.getMaxOrderID(), refreshedAt);
+    }
+
+    /** Appends the orders placed since the last refresh, once the cube was loaded. */
+    @Scheduled(fixedDelayString = "${order-cube.refresh-interval:PT5M}")
+    public void refreshNewOrders() {
+        if (cube != null) {
+            refresh(false);
+        }
+    }
+
+    /**
+     * Removes the lines of deleted orders from the cube, once the current
+     * transaction commits.
+     *
+     * @param orderIDs
+     *            the IDs of the deleted orders
+     */
+    public void removeOrders(final Collection<Integer> orderIDs) {
+        if (!orderIDs.isEmpty()) {
+            Set<Integer> removedOrderIDs = Set.copyOf(orderIDs);
+            runAfterCommit(() -> remove(loadedCube -> loadedCube.removeOrders(removedOrderIDs)));
+        }
+    }
+
+    /**
+     * Removes the lines of a deleted book from the cube, once the current
+     * transaction commits.
+     *
+     * @param bookID
+     *            the ID of the deleted book
+     */
+    public void removeBook(final Integer bookID) {
+        runAfterCommit(() -> remove(loadedCube -> loadedCube.removeBook(bookID)));
+    }
+
+    private synchronized void remove(final Consumer<OrderCube> removal) {
+        // A cube loaded later reads the orders without the deleted lines
+        if (cube != null) {
+            removal.accept(cube);
+            cube.publish();
+        }
+    }
+
+    private void runAfterCommit(final Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private Map<Integer, List<String>> loadGenres() {
+        Map<Integer, List<String>> genres = new HashMap<>();
+        jdbcTemplate.query(GENRES_QUERY, statement -> statement.setFetchSize(orderCubeConfig.getFetchSize()),
+                row -> {
+                    genres.computeIfAbsent(row.getInt(1), bookID -> new ArrayList<>()).add(row.getString(2));
+                });
+        return genres;
+    }
+
+    private void updateStatuses(final OrderCube target) {
+        Set<Integer> openOrderIDs = target.getOpenOrderIDs();
+        if (openOrderIDs.isEmpty()) {
+            return;
+        }
+
+        Set<Integer> deletedOrderIDs = new HashSet<>(openOrderIDs);
+        jdbcTemplate.query(STATUSES_QUERY, statement -> {
+            Array ids = statement.getConnection().createArrayOf("integer", openOrderIDs.toArray());
+            statement.setArray(1, ids);
+        }, row -> {
+            deletedOrderIDs.remove(row.getInt(1));
+            target.updateStatus(row.getInt(1), Status.valueOf(row.getString(2)));
+        });
+
+        // Open orders that are gone were deleted since the last refresh
+        if (!deletedOrderIDs.isEmpty()) {
+            target.removeOrders(deletedOrderIDs);
+        }
+    }
+}
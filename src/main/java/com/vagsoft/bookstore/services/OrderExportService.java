@@ -0,0 +1,163 @@
+package com.vagsoft.bookstore.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vagsoft.bookstore.models.enums.ExportFormat;
+import com.vagsoft.bookstore.models.enums.Status;
+import com.vagsoft.bookstore.utils.CsvUtils;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Service class for the order exports. The orders are joined with their items
+ * and books in a single query, read through a cursor and written to the
+ * response row by row, so the memory used does not grow with the export.
+ */
+@Service
+public class OrderExportService {
+    private static final String[] COLUMNS = {"orderID", "userID", "orderDate", "status", "totalAmount", "bookID",
+            "isbn", "title", "quantity"};
+    // Joining on the order date too, so that every month's items are only matched against the same month's orders
+    private static final String EXPORT_QUERY = """
+                SELECT o.ID, o.userID, o.orderDate, o.status, o.totalAmount, oi.bookID, b.isbn, b.title, oi.quantity
+                FROM Orders o
+                INNER JOIN OrderItems oi ON oi.orderID = o.ID AND oi.orderDate = o.orderDate
+                INNER JOIN Books b ON b.ID = oi.bookID
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public OrderExportService(final JdbcTemplate jdbcTemplate, final PlatformTransactionManager transactionManager,
+            final ObjectMapper objectMapper, @Value("${order-export.fetch-size:5000}") final int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Prepares the export of the order lines matching the given filters, one line
+     * per order item, ordered by order date and order ID.
+     *
+     * @param minOrderDate
+     *            the earliest date of the orders to export (optional)
+     * @param maxOrderDate
+     *            the latest date of the orders to export (optional)
+     * @param statuses
+     *            the statuses of the orders to export (optional)
+     * @param format
+     *            the format of the export
+     * @param gzip
+     *            whether the export is gzipped
+     * @return the export, written when the response is streamed
+     */
+    public StreamingResponseBody exportOrders(final LocalDate minOrderDate, final LocalDate maxOrderDate,
+            final List<Status> statuses, final ExportFormat format, final boolean gzip) {
+        if (minOrderDate != null && maxOrderDate != null && minOrderDate.isAfter(maxOrderDate)) {
+            throw new IllegalArgumentException("minOrderDate must not be after maxOrderDate");
+        }
+
+        // Only adding the filters that are given, so that the date bounds can prune the order partitions
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (minOrderDate != null) {
+            conditions.add("o.orderDate >= ?");
+            args.add(minOrderDate);
+        }
+        if (maxOrderDate != null) {
+            conditions.add("o.orderDate <= ?");
+            args.add(maxOrderDate);
+        }
+        if (statuses != null && !statuses.isEmpty()) {
+            conditions.add("o.status IN (" + String.join(", ", statuses.stream().map(s -> "?").toList()) + ")");
+            statuses.forEach(status -> args.add(status.name()));
+        }
+        String query = EXPORT_QUERY + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + " ORDER BY o.orderDate, o.ID, oi.ID";
+
+        return outputStream -> {
+            OutputStream target = gzip ? new GzipCompressorOutputStream(outputStream) : outputStream;
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8))) {
+                if (format == ExportFormat.CSV) {
+                    writeCsv(writer, query, args.toArray());
+                } else {
+                    try (JsonGenerator generator = objectMapper.createGenerator(writer)) {
+                        writeNdjson(generator, query, args.toArray());
+                    }
+                }
+            }
+        };
+    }
+
+    private void writeCsv(final Writer writer, final String query, final Object[] args) throws IOException {
+        writer.write(String.join(",", COLUMNS));
+        writer.write('\n');
+
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(query, argumentSetter(args), row -> {
+            try {
+                for (int i = 1; i <= COLUMNS.length; i++) {
+                    writer.write(i > 1 ? "," : "");
+                    writer.write(CsvUtils.escape(row.getString(i)));
+                }
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+    }
+
+    private void writeNdjson(final JsonGenerator generator, final String query, final Object[] args) {
+        // Ending every line with a line break instead of separating the lines with spaces
+        generator.setRootValueSeparator(null);
+
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(query, argumentSetter(args), row -> {
+            try {
+                generator.writeStartObject();
+                generator.writeNumberField(COLUMNS[0], row.getInt(1));
+                generator.writeNumberField(COLUMNS[1], row.getInt(2));
+                generator.writeStringField(COLUMNS[2], row.getDate(3).toLocalDate().toString());
+                generator.writeStringField(COLUMNS[3], row.getString(4));
+                generator.writeNumberField(COLUMNS[4], row.getDouble(5));
+                generator.writeNumberField(COLUMNS[5], row.getInt(6));
+                generator.writeStringField(COLUMNS[6], row.getString(7));
+                generator.writeStringField(COLUMNS[7], row.getString(8));
+                generator.writeNumberField(COLUMNS[8], row.getInt(9));
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+    }
+
+    private PreparedStatementSetter argumentSetter(final Object[] args) {
+        PreparedStatementSetter argsSetter = new ArgumentPreparedStatementSetter(args);
+        return statement -> {
+            // Without a transaction the driver would read the whole result set into memory
+            statement.setFetchSize(fetchSize);
+            argsSetter.setValues(statement);
+        };
+    }
+}
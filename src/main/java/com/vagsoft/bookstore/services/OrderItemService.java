@@ -1,22 +1,37 @@
 package com.vagsoft.bookstore.services;
 
+import java.util.List;
+
+import com.vagsoft.bookstore.caches.OrderViewCache;
 import com.vagsoft.bookstore.dto.orderDTOs.OrderItemReadDTO;
+import com.vagsoft.bookstore.dto.orderDTOs.OrderReadDTO;
 import com.vagsoft.bookstore.mappers.OrderItemMapper;
 import com.vagsoft.bookstore.repositories.OrderItemsRepository;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-/** Service class for order item operations. */
+/**
+ * Service class for order item operations. The items of delivered and cancelled
+ * orders are served from the order view cache when it holds their order.
+ */
 @Service
 public class OrderItemService {
     private final OrderItemsRepository orderItemsRepository;
     private final OrderItemMapper orderItemMapper;
+    private final OrderViewCache orderViewCache;
+    private final TransactionTemplate readOnlyTransactionTemplate;
 
-    public OrderItemService(final OrderItemsRepository orderItemsRepository, final OrderItemMapper orderItemMapper) {
+    public OrderItemService(final OrderItemsRepository orderItemsRepository, final OrderItemMapper orderItemMapper,
+            final OrderViewCache orderViewCache, final PlatformTransactionManager transactionManager) {
         this.orderItemsRepository = orderItemsRepository;
         this.orderItemMapper = orderItemMapper;
+        this.orderViewCache = orderViewCache;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
     }
 
     /**
@@ -28,9 +43,21 @@ public class OrderItemService {
      *            the pagination information
      * @return a page of OrderItemReadDTO objects
      */
-    @Transactional(readOnly = true)
     public Page<OrderItemReadDTO> getOrderItems(final Integer orderID, final Pageable pageable) {
-        return orderItemMapper.pageOrderItemToPageDto(orderItemsRepository.findAllByOrderId(orderID, pageable));
+        // Paging the items of cached orders in memory, unless they have to be sorted
+        OrderReadDTO cachedOrder = orderViewCache.get(orderID);
+        if (cachedOrder != null && pageable.getSort().isUnsorted()) {
+            List<OrderItemReadDTO> orderItems = cachedOrder.getOrderItems();
+            if (pageable.isUnpaged()) {
+                return new PageImpl<>(orderItems, pageable, orderItems.size());
+            }
+            int from = (int) Math.min(pageable.getOffset(), orderItems.size());
+            int to = Math.min(from + pageable.getPageSize(), orderItems.size());
+            return new PageImpl<>(orderItems.subList(from, to), pageable, orderItems.size());
+        }
+
+        return readOnlyTransactionTemplate.execute(status -> orderItemMapper
+                .pageOrderItemToPageDto(orderItemsRepository.findAllByOrderId(orderID, pageable)));
     }
 
     /**
@@ -42,8 +69,17 @@ public class OrderItemService {
      *            the ID of the book
      * @return an OrderItemReadDTO object representing the order item
      */
-    @Transactional(readOnly = true)
     public OrderItemReadDTO getOrderItemByBookID(final Integer orderID, final Integer bookID) {
-        return orderItemMapper.orderItemToReadDto(orderItemsRepository.getReferenceByOrderIdAndBookId(orderID, bookID));
+        OrderReadDTO cachedOrder = orderViewCache.get(orderID);
+        if (cachedOrder != null) {
+            for (OrderItemReadDTO orderItem : cachedOrder.getOrderItems()) {
+                if (orderItem.getBook().getId().equals(bookID)) {
+                    return orderItem;
+                }
+            }
+        }
+
+        return readOnlyTransactionTemplate.execute(status -> orderItemMapper
+                .orderItemToReadDto(orderItemsRepository.getReferenceByOrderIdAndBookId(orderID, bookID)));
     }
 }
@@ -0,0 +1,201 @@
+package com.vagsoft.bookstore.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.vagsoft.bookstore.configuration.OrderPartitionConfig;
+import com.vagsoft.bookstore.utils.CsvUtils;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service class that maintains the monthly partitions of the orders and their
+ * items. Partitions are created ahead of the current month and, if archival is
+ * enabled, the months older than the retention are detached, written to gzipped
+ * CSV files and dropped, together with their order summaries. The sales rollups
+ * are left as they are, so the reports keep covering the archived months.
+ */
+@Service
+public class OrderPartitionService {
+    private static final Logger log = LoggerFactory.getLogger(OrderPartitionService.class);
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("orders_(\\d{4})_(\\d{2})");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final String PARTITIONS_QUERY = """
+                SELECT c.relname
+                FROM pg_inherits i
+                INNER JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'orders'::regclass
+                ORDER BY c.relname
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderPartitionConfig orderPartitionConfig;
+
+    public OrderPartitionService(final JdbcTemplate jdbcTemplate, final PlatformTransactionManager transactionManager,
+            final OrderPartitionConfig orderPartitionConfig) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.orderPartitionConfig = orderPartitionConfig;
+    }
+
+    /** Creates the upcoming partitions and archives the expired ones, if enabled. */
+    @Scheduled(fixedDelayString = "${order-partitions.maintenance-interval:P1D}")
+    public void maintainPartitions() {
+        createPartitions();
+        if (orderPartitionConfig.isArchiveEnabled()) {
+            archivePartitions();
+        }
+    }
+
+    /**
+     * Creates the missing partitions from the current month up to the configured
+     * number of months ahead.
+     *
+     * @return the number of months whose partitions were created
+     */
+    public int createPartitions() {
+        LocalDate today = LocalDate.now();
+        Integer created = jdbcTemplate.queryForObject("SELECT create_order_partitions(?, ?)", Integer.class, today,
+                today.plusMonths(orderPartitionConfig.getMonthsAhead()));
+        if (created != null && created > 0) {
+            log.info("Created the order partitions of {} months", created);
+        }
+        return created == null ? 0 : created;
+    }
+
+    /**
+     * Archives the partitions of the months older than the retention. Every month
+     * is archived in its own transaction, so a failed month stays attached and is
+     * retried on the next run.
+     *
+     * @return the archived months
+     */
+    public List<YearMonth> archivePartitions() {
+        YearMonth oldestKept = YearMonth.now().minusMonths(orderPartitionConfig.getRetentionMonths());
+
+        List<YearMonth> archived = new ArrayList<>();
+        for (YearMonth month : findPartitionMonths()) {
+            if (!month.isBefore(oldestKept)) {
+                break;
+            }
+            transactionTemplate.executeWithoutResult(status -> archivePartition(month));
+            archived.add(month);
+        }
+        return archived;
+    }
+
+    private List<YearMonth> findPartitionMonths() {
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : jdbcTemplate.queryForList(PARTITIONS_QUERY, String.class)) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (matcher.matches()) {
+                months.add(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+            }
+        }
+        return months;
+    }
+
+    private void archivePartition(final YearMonth month) {
+        String suffix = month.format(PARTITION_SUFFIX);
+        long start = System.nanoTime();
+
+        // The items go first, so that nothing references the orders partition once it is detached
+        long items = archiveTable("OrderItems", "orderitems_" + suffix);
+        long orders = archiveTable("Orders", "orders_" + suffix);
+        jdbcTemplate.update("DELETE FROM OrderSummaries WHERE orderDate >= ? AND orderDate < ?", month.atDay(1),
+                month.plusMonths(1).atDay(1));
+
+        log.info("Archived {} orders and {} order items of {} in {} ms", orders, items, month,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private long archiveTable(final String parent, final String partition) {
+        jdbcTemplate.execute("ALTER TABLE " + parent + " DETACH PARTITION " + partition);
+
+        Path directory = Path.of(orderPartitionConfig.getArchiveDirectory());
+        Path file = directory.resolve(partition + ".csv.gz");
+        Path tempFile = directory.resolve(partition + ".csv.gz.tmp");
+        long rows;
+        try {
+            Files.createDirectories(directory);
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new GzipCompressorOutputStream(Files.newOutputStream(tempFile)), StandardCharsets.UTF_8))) {
+                rows = writeCsv(writer, "SELECT * FROM " + partition + " ORDER BY ID");
+            }
+            // Moving the finished file into place, so that a partial archive is never left behind
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to archive the partition " + partition, e);
+        }
+
+        jdbcTemplate.execute("DROP TABLE " + partition);
+        return rows;
+    }
+
+    private long writeCsv(final Writer writer, final String query) {
+        CsvRowWriter rowWriter = new CsvRowWriter(writer);
+        // Without a transaction the driver would read the whole partition into memory
+        jdbcTemplate.query(query, statement -> statement.setFetchSize(orderPartitionConfig.getFetchSize()), rowWriter);
+        return rowWriter.rows;
+    }
+
+    /** Writes the rows of a query as CSV lines, preceded by a header of the column names. */
+    private static final class CsvRowWriter implements RowCallbackHandler {
+        private final Writer writer;
+        private long rows;
+
+        private CsvRowWriter(final Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(final ResultSet row) throws SQLException {
+            ResultSetMetaData metaData = row.getMetaData();
+            int columns = metaData.getColumnCount();
+            try {
+                // Writing the header together with the first row
+                if (rows == 0) {
+                    for (int i = 1; i <= columns; i++) {
+                        writer.write(i > 1 ? "," : "");
+                        writer.write(metaData.getColumnName(i));
+                    }
+                    writer.write('\n');
+                }
+                for (int i = 1; i <= columns; i++) {
+                    writer.write(i > 1 ? "," : "");
+                    writer.write(CsvUtils.escape(row.getString(i)));
+                }
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows++;
+        }
+    }
+}
@@ -3,42 +3,67 @@ package com.vagsoft.bookstore.services;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import com.vagsoft.bookstore.caches.CartViewCache;
+import com.vagsoft.bookstore.caches.OrderViewCache;
 import com.vagsoft.bookstore.dto.orderDTOs.OrderReadDTO;
+import com.vagsoft.bookstore.dto.orderDTOs.OrderStatusBatchDTO;
+import com.vagsoft.bookstore.dto.orderDTOs.OrderStatusBatchReadDTO;
 import com.vagsoft.bookstore.dto.orderDTOs.OrderUpdateDTO;
 import com.vagsoft.bookstore.errors.exceptions.cartExceptions.CartItemsNotFoundException;
+import com.vagsoft.bookstore.executors.UserCommandExecutor;
 import com.vagsoft.bookstore.mappers.OrderItemMapper;
 import com.vagsoft.bookstore.mappers.OrderMapper;
 import com.vagsoft.bookstore.models.entities.CartItem;
 import com.vagsoft.bookstore.models.entities.Order;
 import com.vagsoft.bookstore.models.entities.OrderItem;
 import com.vagsoft.bookstore.models.enums.Status;
+import com.vagsoft.bookstore.repositories.BookRepository;
 import com.vagsoft.bookstore.repositories.OrderRepository;
 import com.vagsoft.bookstore.repositories.UserRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /** Service class for order operations. */
 @Service
 public class OrderService {
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
+    private final BookRepository bookRepository;
     private final CartItemsService cartItemsService;
     private final BookService bookService;
     private final OrderMapper orderMapper;
     private final OrderItemMapper orderItemMapper;
+    private final CartViewCache cartViewCache;
+    private final OrderViewCache orderViewCache;
+    private final OrderSummaryService orderSummaryService;
+    private final UserCommandExecutor userCommandExecutor;
+    private final TransactionTemplate readOnlyTransactionTemplate;
 
     public OrderService(final OrderRepository orderRepository, final UserRepository userRepository,
-                        final CartItemsService cartItemsService, BookService bookService, final OrderMapper orderMapper,
-                        final OrderItemMapper orderItemMapper) {
+            final BookRepository bookRepository, final CartItemsService cartItemsService,
+            final BookService bookService, final OrderMapper orderMapper, final OrderItemMapper orderItemMapper,
+            final CartViewCache cartViewCache, final OrderViewCache orderViewCache,
+            final OrderSummaryService orderSummaryService, final UserCommandExecutor userCommandExecutor,
+            final PlatformTransactionManager transactionManager) {
         this.orderRepository = orderRepository;
         this.userRepository = userRepository;
+        this.bookRepository = bookRepository;
         this.cartItemsService = cartItemsService;
         this.bookService = bookService;
         this.orderMapper = orderMapper;
         this.orderItemMapper = orderItemMapper;
+        this.cartViewCache = cartViewCache;
+        this.orderViewCache = orderViewCache;
+        this.orderSummaryService = orderSummaryService;
+        this.userCommandExecutor = userCommandExecutor;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
     }
 
     /**
@@ -52,15 +77,19 @@ public class OrderService {
      *            the maximum total amount of the orders to search for (optional)
      * @param status
      *            the status of the orders to search for (optional)
+     * @param minOrderDate
+     *            the earliest date of the orders to search for (optional)
+     * @param maxOrderDate
+     *            the latest date of the orders to search for (optional)
      * @param pageable
      *            the pagination information (optional)
      * @return a page of orders
      */
     @Transactional(readOnly = true)
     public Page<OrderReadDTO> getOrders(final Integer userID, final Double minTotalAmount, final Double maxTotalAmount,
-            final Status status, Pageable pageable) {
-        return orderMapper.pageOrderToPageDto(
-                orderRepository.findOrders(userID, minTotalAmount, maxTotalAmount, status, pageable));
+            final Status status, final LocalDate minOrderDate, final LocalDate maxOrderDate, Pageable pageable) {
+        return orderMapper.pageOrderToPageDto(orderRepository.findOrders(userID, minTotalAmount, maxTotalAmount,
+                status, minOrderDate, maxOrderDate, pageable));
     }
 
     /**
@@ -70,36 +99,39 @@ public class OrderService {
      *            the ID of the user placing the order
      * @return an Optional containing the created OrderReadDTO
      */
-    @Transactional
     public Optional<OrderReadDTO> addOrderByUserID(final Integer userID) {
-        // Checking out the user's cart items
-        List<CartItem> cartItems = cartItemsService.checkout(userID);
-        if (cartItems.isEmpty()) {
-            throw new CartItemsNotFoundException("No items in the cart of the user with ID: " + userID);
-        }
+        // Serialized with the user's cart changes, so that a repeated checkout finds the cart empty
+        return userCommandExecutor.call(userID, () -> {
+            // Checking out the user's cart items
+            List<CartItem> cartItems = cartItemsService.checkout(userID);
+            if (cartItems.isEmpty()) {
+                throw new CartItemsNotFoundException("No items in the cart of the user with ID: " + userID);
+            }
 
-        // Requesting books from the book service to ensure availability
-        for (CartItem cartItem : cartItems) {
-            bookService.requestBooks(cartItem.getBook().getId(), cartItem.getQuantity());
-        }
+            // Requesting books from the book service to ensure availability
+            for (CartItem cartItem : cartItems) {
+                bookService.requestBooks(cartItem.getBook().getId(), cartItem.getQuantity());
+            }
 
-        // Mapping cart items to order items and creating an order
-        Order orderToSave = new Order();
+            // Mapping cart items to order items and creating an order
+            Order orderToSave = new Order();
 
-        List<OrderItem> orderItems = orderItemMapper.cartItemsToOrderItems(cartItems);
-        orderItems.forEach(orderItem -> orderItem.setOrder(orderToSave));
+            List<OrderItem> orderItems = orderItemMapper.cartItemsToOrderItems(cartItems);
+            orderItems.forEach(orderItem -> orderItem.setOrder(orderToSave));
 
-        // Setting order properties
-        orderToSave.setUser(userRepository.getReferenceById(userID));
-        orderToSave.setOrderItems(orderItems);
-        orderToSave.setStatus(Status.PROCESSING);
-        orderToSave.setOrderDate(LocalDate.now());
-        orderToSave.setTotalAmount(orderItems.stream()
-                .mapToDouble(orderItem -> orderItem.getBook().getPrice() * orderItem.getQuantity()).sum());
+            // Setting order properties
+            orderToSave.setUser(userRepository.getReferenceById(userID));
+            orderToSave.setOrderItems(orderItems);
+            orderToSave.setStatus(Status.PROCESSING);
+            orderToSave.setOrderDate(LocalDate.now());
+            orderToSave.setTotalAmount(orderItems.stream()
+                    .mapToDouble(orderItem -> orderItem.getBook().getPrice() * orderItem.getQuantity()).sum());
 
-        Order savedOrder = orderRepository.save(orderToSave);
+            Order savedOrder = orderRepository.save(orderToSave);
+            orderSummaryService.refreshOrders(List.of(savedOrder.getId()));
 
-        return Optional.of(orderMapper.orderToReadDto(savedOrder));
+            return Optional.of(orderMapper.orderToReadDto(savedOrder));
+        });
     }
 
     /**
@@ -109,9 +141,10 @@ public class OrderService {
      *            the ID of the order to be retrieved
      * @return an Optional containing the OrderReadDTO
      */
-    @Transactional(readOnly = true)
     public OrderReadDTO getOrderByID(final Integer orderID) {
-        return orderMapper.orderToReadDto(orderRepository.getReferenceById(orderID));
+        // Not transactional, so that delivered and cancelled orders are served from the cache without the database
+        return orderViewCache.getOrLoad(orderID, () -> readOnlyTransactionTemplate
+                .execute(status -> orderMapper.orderToReadDto(orderRepository.getReferenceById(orderID))));
     }
 
     /**
@@ -126,18 +159,73 @@ public class OrderService {
     @Transactional
     public Optional<OrderReadDTO> updateOrderByID(final Integer orderID, final OrderUpdateDTO orderUpdateDTO) {
         Order foundOrder = orderRepository.getReferenceById(orderID);
+        Status previousStatus = foundOrder.getStatus();
+
+        // Allowing only the same status transitions as the batch status update
+        Status status = orderUpdateDTO.getStatus();
+        if (status != null && status != previousStatus && !status.getPreviousStatuses().contains(previousStatus)) {
+            throw new IllegalArgumentException(
+                    "Order cannot be moved from status: " + previousStatus + " to status: " + status);
+        }
 
         orderMapper.updateOrderFromDto(orderUpdateDTO, foundOrder);
 
-        Order updatedOrder = orderRepository.save(foundOrder);
+        orderRepository.save(foundOrder);
+        orderViewCache.invalidate(orderID);
+        orderSummaryService.refreshOrders(List.of(orderID));
 
         // If the order is being cancelled, return the books to stock
-        if(orderUpdateDTO.getStatus() == Status.CANCELLED) {
-            for (OrderItem orderItem : updatedOrder.getOrderItems()) {
-                bookService.returnBooks(orderItem.getBook().getId(), orderItem.getQuantity());
-            }
+        if (status == Status.CANCELLED && previousStatus != Status.CANCELLED) {
+            returnStock(List.of(orderID));
         }
 
-        return Optional.of(orderMapper.orderToReadDto(updatedOrder));
+        return Optional.of(orderMapper.orderToReadDto(orderRepository.getReferenceById(orderID)));
+    }
+
+    /**
+     * Moves the given orders, or the orders matching the given filters, to a new
+     * status in a single statement. Orders that cannot be moved to the new status
+     * from their current one are skipped. The books of the cancelled orders are
+     * returned to stock.
+     *
+     * @param orderStatusBatchDTO
+     *            the new status and the selection of the orders
+     * @return the new status and the IDs of the updated orders
+     */
+    @Transactional
+    public OrderStatusBatchReadDTO updateOrderStatuses(final OrderStatusBatchDTO orderStatusBatchDTO) {
+        Status status = orderStatusBatchDTO.getStatus();
+        List<Integer> orderIDs = orderStatusBatchDTO.getOrderIDs();
+        if (orderIDs.isEmpty() && orderStatusBatchDTO.getUserID() == null
+                && orderStatusBatchDTO.getCurrentStatus() == null) {
+            throw new IllegalArgumentException("Either orderIDs, userID or currentStatus must be given");
+        }
+
+        Set<Status> previousStatuses = status.getPreviousStatuses();
+        if (previousStatuses.isEmpty()) {
+            throw new IllegalArgumentException("Orders cannot be moved to status: " + status);
+        }
+
+        // Updating all the selected orders that allow the transition at once
+        List<Integer> updatedOrderIDs = orderRepository.updateStatuses(status.name(),
+                previousStatuses.stream().map(Status::name).toList(), orderIDs.toArray(Integer[]::new),
+                orderStatusBatchDTO.getUserID(),
+                orderStatusBatchDTO.getCurrentStatus() == null ? null : orderStatusBatchDTO.getCurrentStatus().name());
+        updatedOrderIDs.forEach(orderViewCache::invalidate);
+        orderSummaryService.refreshOrders(updatedOrderIDs);
+
+        if (status == Status.CANCELLED && !updatedOrderIDs.isEmpty()) {
+            returnStock(updatedOrderIDs);
+        }
+
+        return new OrderStatusBatchReadDTO(status, updatedOrderIDs);
+    }
+
+    private void returnStock(final List<Integer> orderIDs) {
+        // Only the cached views showing one of the returned books are stale
+        for (Integer bookID : bookRepository.returnStockOfOrders(orderIDs.toArray(Integer[]::new))) {
+            cartViewCache.invalidateBook(bookID);
+            orderViewCache.invalidateBook(bookID);
+        }
     }
 }
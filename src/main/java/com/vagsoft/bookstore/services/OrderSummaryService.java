@@ -0,0 +1,119 @@
+package com.vagsoft.bookstore.services;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import com.vagsoft.bookstore.dto.orderDTOs.OrderSummaryReadDTO;
+import com.vagsoft.bookstore.mappers.OrderMapper;
+import com.vagsoft.bookstore.models.enums.Status;
+import com.vagsoft.bookstore.repositories.OrderSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service class for the order summaries read model. The summaries are written in
+ * the same transaction as the orders and books they are built from, and can be
+ * rebuilt from those at any time.
+ */
+@Service
+public class OrderSummaryService {
+    private static final Logger log = LoggerFactory.getLogger(OrderSummaryService.class);
+
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderMapper orderMapper;
+
+    public OrderSummaryService(final OrderSummaryRepository orderSummaryRepository, final OrderMapper orderMapper) {
+        this.orderSummaryRepository = orderSummaryRepository;
+        this.orderMapper = orderMapper;
+    }
+
+    /**
+     * Retrieves a page of order summaries filtered by the specified parameters,
+     * newest first.
+     *
+     * @param userID
+     *            the ID of the user who placed the orders (optional)
+     * @param status
+     *            the status of the orders to search for (optional)
+     * @param minOrderDate
+     *            the earliest date of the orders to search for (optional)
+     * @param maxOrderDate
+     *            the latest date of the orders to search for (optional)
+     * @param pageable
+     *            the pagination information (optional)
+     * @return a page of order summaries
+     */
+    @Transactional(readOnly = true)
+    public Page<OrderSummaryReadDTO> getOrderSummaries(final Integer userID, final Status status,
+            final LocalDate minOrderDate, final LocalDate maxOrderDate, final Pageable pageable) {
+        // Separate queries, so that the listing of a user always scans the user's range of the index
+        if (userID != null) {
+            return orderMapper.pageOrderSummaryToPageDto(orderSummaryRepository.findSummariesByUserID(userID, status,
+                    minOrderDate, maxOrderDate, pageable));
+        }
+        return orderMapper.pageOrderSummaryToPageDto(
+                orderSummaryRepository.findSummaries(status, minOrderDate, maxOrderDate, pageable));
+    }
+
+    /**
+     * Recomputes the summaries of the given orders, within the current transaction.
+     *
+     * @param orderIDs
+     *            the IDs of the orders
+     */
+    @Transactional
+    public void refreshOrders(final Collection<Integer> orderIDs) {
+        if (!orderIDs.isEmpty()) {
+            orderSummaryRepository.refreshSummaries(orderIDs.toArray(Integer[]::new));
+        }
+    }
+
+    /**
+     * Updates the summaries after a book is renamed, within the current
+     * transaction.
+     *
+     * @param bookID
+     *            the ID of the book
+     * @param title
+     *            the new title of the book
+     */
+    @Transactional
+    public void renameBook(final Integer bookID, final String title) {
+        orderSummaryRepository.updateFirstBookTitle(bookID, title);
+    }
+
+    /**
+     * Retrieves the IDs of the orders containing a book, whose summaries change if
+     * the book is deleted.
+     *
+     * @param bookID
+     *            the ID of the book
+     * @return list of order IDs
+     */
+    @Transactional(readOnly = true)
+    public List<Integer> getOrderIDsByBookID(final Integer bookID) {
+        return orderSummaryRepository.findOrderIDsByBookID(bookID);
+    }
+
+    /**
+     * Rebuilds all the order summaries from the orders, their items and their
+     * books.
+     *
+     * @return the number of summaries written
+     */
+    @Transactional
+    public int rebuild() {
+        long start = System.nanoTime();
+
+        orderSummaryRepository.deleteAllSummaries();
+        int written = orderSummaryRepository.insertAllSummaries();
+
+        log.info("Rebuilt {} order summaries in {} ms", written, (System.nanoTime() - start) / 1_000_000);
+        return written;
+    }
+}
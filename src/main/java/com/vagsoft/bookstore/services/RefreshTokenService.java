@@ -0,0 +1,142 @@
+package com.vagsoft.bookstore.services;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import com.vagsoft.bookstore.errors.exceptions.InvalidRefreshTokenException;
+import com.vagsoft.bookstore.models.entities.RefreshToken;
+import com.vagsoft.bookstore.models.entities.User;
+import com.vagsoft.bookstore.repositories.RefreshTokenRepository;
+import com.vagsoft.bookstore.repositories.UserRepository;
+import com.vagsoft.bookstore.utils.HashUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service class for the refresh tokens, which exchange for new access tokens
+ * without checking the password again. The tokens are random values of which
+ * only the SHA-256 hash is stored. Every token is replaced by a new one of the
+ * same family when used, and a used token presented again ends the whole family,
+ * since either the client or an attacker holds a stolen copy.
+ */
+@Service
+public class RefreshTokenService {
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final Duration ttl;
+
+    public RefreshTokenService(final RefreshTokenRepository refreshTokenRepository,
+            final UserRepository userRepository, @Value("${jwt.refresh-ttl:30d}") final Duration ttl) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Issues a refresh token of a new family for a user that just logged in.
+     *
+     * @param userID
+     *            the ID of the user
+     * @return the refresh token
+     */
+    @Transactional
+    public String issueToken(final Integer userID) {
+        return saveToken(userRepository.getReferenceById(userID), UUID.randomUUID());
+    }
+
+    /**
+     * Uses a refresh token, replacing it with a new token of the same family.
+     *
+     * @param token
+     *            the refresh token to use
+     * @return the user of the token and the new refresh token
+     * @throws InvalidRefreshTokenException
+     *             if the token is unknown, expired or was already used
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotateToken(final String token) {
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(HashUtils.sha256(token))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token"));
+
+        // Deleting the whole family, so that neither the client nor whoever reused the token can go on
+        if (refreshToken.getUsedAt() != null) {
+            int deleted = refreshTokenRepository.deleteAllByFamilyID(refreshToken.getFamilyID());
+            log.warn("Reused refresh token of user with ID: {}, revoked {} tokens of its family",
+                    refreshToken.getUser().getId(), deleted);
+            throw new InvalidRefreshTokenException("Invalid refresh token");
+        }
+        if (refreshToken.getExpiresAt().isBefore(Instant.now())) {
+            throw new InvalidRefreshTokenException("Expired refresh token");
+        }
+
+        refreshToken.setUsedAt(Instant.now());
+        return new Rotation(refreshToken.getUser(), saveToken(refreshToken.getUser(), refreshToken.getFamilyID()));
+    }
+
+    /**
+     * Revokes a refresh token together with the rest of its family, ending the
+     * session it belongs to. Unknown tokens are ignored.
+     *
+     * @param token
+     *            the refresh token to revoke
+     */
+    @Transactional
+    public void revokeToken(final String token) {
+        refreshTokenRepository.findByTokenHash(HashUtils.sha256(token))
+                .ifPresent(refreshToken -> refreshTokenRepository.deleteAllByFamilyID(refreshToken.getFamilyID()));
+    }
+
+    /**
+     * Revokes all the refresh token families of a user, ending all of the user's
+     * sessions.
+     *
+     * @param userID
+     *            the ID of the user
+     */
+    @Transactional
+    public void revokeUserTokens(final Integer userID) {
+        refreshTokenRepository.deleteAllByUserID(userID);
+    }
+
+    /** Deletes the expired refresh tokens, used ones included. */
+    @Scheduled(fixedDelayString = "${jwt.refresh-cleanup-interval:PT1H}")
+    @Transactional
+    public void deleteExpiredTokens() {
+        int deleted = refreshTokenRepository.deleteAllExpired(Instant.now());
+        if (deleted > 0) {
+            log.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    private String saveToken(final User user, final UUID familyID) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshToken.builder().user(user).familyID(familyID)
+                .tokenHash(HashUtils.sha256(token)).expiresAt(Instant.now().plus(ttl)).build());
+        return token;
+    }
+
+    /**
+     * The result of using a refresh token.
+     *
+     * @param user
+     *            the user of the token
+     * @param token
+     *            the new refresh token
+     */
+    public record Rotation(User user, String token) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.vagsoft.bookstore.services;
+
+import java.time.LocalDate;
+
+import com.vagsoft.bookstore.dto.reportDTOs.SalesReportReadDTO;
+import com.vagsoft.bookstore.repositories.ReportRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Service class for the admin reports. */
+@Service
+public class ReportService {
+    private final ReportRepository reportRepository;
+
+    public ReportService(final ReportRepository reportRepository) {
+        this.reportRepository = reportRepository;
+    }
+
+    /**
+     * Retrieves the sales report of the given range of days from the sales
+     * rollups, so that it costs one row per day rather than one per order.
+     *
+     * @param from
+     *            the first day of the range
+     * @param to
+     *            the last day of the range
+     * @return the sales report
+     */
+    @Transactional(readOnly = true)
+    public SalesReportReadDTO getSalesReport(final LocalDate from, final LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+
+        return new SalesReportReadDTO(from, to, reportRepository.findDailySales(from, to),
+                reportRepository.findBookSales(from, to), reportRepository.findGenreSales(from, to),
+                reportRepository.findOrderStatusCounts());
+    }
+}
@@ -0,0 +1,92 @@
+package com.vagsoft.bookstore.services;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.vagsoft.bookstore.caches.RevokedTokenFilter;
+import com.vagsoft.bookstore.models.entities.RevokedToken;
+import com.vagsoft.bookstore.repositories.RevokedTokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service class for revoking access tokens before they expire. The revoked
+ * token IDs are persisted and held in memory in a {@link RevokedTokenFilter}, so
+ * that checking the token of every request does not query the database. The
+ * revocations made by other instances are picked up on every sync, which also
+ * deletes the revocations of the tokens that have expired anyway.
+ */
+@Service
+public class TokenRevocationService {
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RevokedTokenFilter revokedTokenFilter;
+
+    public TokenRevocationService(final RevokedTokenRepository revokedTokenRepository,
+            @Value("${jwt.revocation-expected-entries:10000}") final int expectedEntries,
+            @Value("${jwt.revocation-false-positive-rate:0.01}") final double falsePositiveRate,
+            final MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.revokedTokenFilter = new RevokedTokenFilter(expectedEntries, falsePositiveRate);
+        Gauge.builder("jwt.revoked", revokedTokenFilter, RevokedTokenFilter::size)
+                .description("Number of revoked access tokens held in memory").register(meterRegistry);
+    }
+
+    /**
+     * Checks if an access token is revoked. Tokens without an ID cannot be revoked.
+     *
+     * @param jwt
+     *            the access token
+     * @return true if the token is revoked, false otherwise
+     */
+    public boolean isRevoked(final Jwt jwt) {
+        return jwt.getId() != null && revokedTokenFilter.isRevoked(jwt.getId());
+    }
+
+    /**
+     * Revokes an access token until it expires.
+     *
+     * @param jwt
+     *            the access token to revoke
+     * @throws IllegalArgumentException
+     *             if the token has no ID or no expiry
+     */
+    @Transactional
+    public void revoke(final Jwt jwt) {
+        if (jwt.getId() == null || jwt.getExpiresAt() == null) {
+            throw new IllegalArgumentException("Token cannot be revoked");
+        }
+
+        revokedTokenRepository.save(new RevokedToken(jwt.getId(), jwt.getExpiresAt()));
+        revokedTokenFilter.add(jwt.getId(), jwt.getExpiresAt());
+    }
+
+    /**
+     * Deletes the expired revocations and loads the revocations made by all the
+     * instances since the last sync. Also run on startup, as the first scheduled
+     * run.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation-sync-interval:PT30S}")
+    @Transactional
+    public void syncRevocations() {
+        Instant now = Instant.now();
+        int deleted = revokedTokenRepository.deleteAllExpired(now);
+
+        Map<String, Instant> tokens = revokedTokenRepository.findAllUnexpired(now).stream()
+                .collect(Collectors.toMap(RevokedToken::getTokenID, RevokedToken::getExpiresAt));
+        revokedTokenFilter.reload(tokens, now);
+
+        if (deleted > 0) {
+            log.info("Deleted {} expired token revocations", deleted);
+        }
+    }
+}
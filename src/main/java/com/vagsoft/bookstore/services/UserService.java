@@ -1,12 +1,15 @@
 package com.vagsoft.bookstore.services;
 
+import java.util.List;
 import java.util.Optional;
 
+import com.vagsoft.bookstore.caches.UserDetailsCache;
 import com.vagsoft.bookstore.dto.userDTOs.UserReadDTO;
 import com.vagsoft.bookstore.dto.userDTOs.UserUpdateDTO;
 import com.vagsoft.bookstore.mappers.UserMapper;
 import com.vagsoft.bookstore.models.entities.User;
 import com.vagsoft.bookstore.models.enums.Role;
+import com.vagsoft.bookstore.repositories.OrderRepository;
 import com.vagsoft.bookstore.repositories.UserRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -20,12 +23,22 @@ public class UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
+    private final OrderRepository orderRepository;
+    private final OrderAnalyticsService orderAnalyticsService;
+    private final RefreshTokenService refreshTokenService;
 
     public UserService(final UserRepository userRepository, final UserMapper userMapper,
-            final PasswordEncoder passwordEncoder) {
+            final PasswordEncoder passwordEncoder, final UserDetailsCache userDetailsCache,
+            final OrderRepository orderRepository, final OrderAnalyticsService orderAnalyticsService,
+            final RefreshTokenService refreshTokenService) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsCache = userDetailsCache;
+        this.orderRepository = orderRepository;
+        this.orderAnalyticsService = orderAnalyticsService;
+        this.refreshTokenService = refreshTokenService;
     }
 
     /**
@@ -74,6 +87,7 @@ public class UserService {
      *            the new user information
      * @return the updated user
      */
+    @Transactional
     public Optional<UserReadDTO> updateUserByID(final Integer userID, final UserUpdateDTO userUpdateDTO) {
 
         User foundUser = userRepository.getReferenceById(userID);
@@ -81,12 +95,19 @@ public class UserService {
         if (userUpdateDTO.getPassword() != null) {
             String hashedPassword = passwordEncoder.encode(userUpdateDTO.getPassword());
             userUpdateDTO.setPassword(hashedPassword);
+
+            // Ending the sessions opened with the old password, so that a stolen refresh token stops working
+            refreshTokenService.revokeUserTokens(userID);
         }
 
         userMapper.updateUserFromDto(userUpdateDTO, foundUser);
 
         User updatedUser = userRepository.save(foundUser);
 
+        // Invalidating the new username too, in case it was cached as unknown
+        userDetailsCache.invalidateUser(userID);
+        userDetailsCache.invalidate(updatedUser.getUsername());
+
         return Optional.of(userMapper.userToReadDto(updatedUser));
     }
 
@@ -98,7 +119,13 @@ public class UserService {
      */
     @Transactional
     public void deleteUserByID(final Integer userID) {
+        // The orders of the user are deleted with it
+        List<Integer> orderIDs = orderRepository.findIDsByUserID(userID);
+
         userRepository.deleteById(userID);
+
+        userDetailsCache.invalidateUser(userID);
+        orderAnalyticsService.removeOrders(orderIDs);
     }
 
     /**
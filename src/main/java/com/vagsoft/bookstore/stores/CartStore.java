@@ -0,0 +1,79 @@
+package com.vagsoft.bookstore.stores;
+
+import java.util.List;
+import java.util.Map;
+
+import com.vagsoft.bookstore.dto.cartDTOs.CartItemReadDTO;
+
+/**
+ * Store for the quantity changes of cart items. Implementations decide whether a
+ * change is written to the database immediately or kept as pending and written
+ * later.
+ */
+public interface CartStore {
+    /**
+     * Sets the quantity of a book in the cart of a user.
+     *
+     * @param userID
+     *            the ID of the user
+     * @param bookID
+     *            the ID of the book
+     * @param quantity
+     *            the new quantity of the book
+     * @return true if the quantity was set, false if the book does not have enough
+     *         stock
+     */
+    boolean setQuantity(Integer userID, Integer bookID, Integer quantity);
+
+    /**
+     * Retrieves the quantity changes of a user that are not written to the database
+     * yet.
+     *
+     * @param userID
+     *            the ID of the user
+     * @return the pending quantities keyed by book ID
+     */
+    Map<Integer, Integer> getPendingQuantities(Integer userID);
+
+    /**
+     * Drops the pending quantity change of a book, for example because the book is
+     * being removed from the cart.
+     *
+     * @param userID
+     *            the ID of the user
+     * @param bookID
+     *            the ID of the book
+     */
+    void discard(Integer userID, Integer bookID);
+
+    /**
+     * Writes the pending quantity changes of a user to the database.
+     *
+     * @param userID
+     *            the ID of the user
+     */
+    void flush(Integer userID);
+
+    /**
+     * Replaces the quantities of the given cart items with the pending quantities
+     * of the user, if there are any.
+     *
+     * @param userID
+     *            the ID of the user
+     * @param cartItems
+     *            the cart items read from the database
+     * @return the given cart items
+     */
+    default List<CartItemReadDTO> applyPendingQuantities(final Integer userID, final List<CartItemReadDTO> cartItems) {
+        Map<Integer, Integer> pendingQuantities = getPendingQuantities(userID);
+        if (!pendingQuantities.isEmpty()) {
+            for (CartItemReadDTO cartItem : cartItems) {
+                Integer pendingQuantity = pendingQuantities.get(cartItem.getBook().getId());
+                if (pendingQuantity != null) {
+                    cartItem.setQuantity(pendingQuantity);
+                }
+            }
+        }
+        return cartItems;
+    }
+}
@@ -0,0 +1,257 @@
+package com.vagsoft.bookstore.stores;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only log of the pending cart quantity changes, kept on local disk in
+ * numbered segment files. Every record carries a sequence number:
+ * <ul>
+ * <li>{@code S,seq,userID,bookID,quantity} sets the quantity of a book</li>
+ * <li>{@code D,seq,userID,bookID} discards the pending quantity of a book</li>
+ * <li>{@code F,seq,userID} marks the changes of a user up to {@code seq} as
+ * written to the database</li>
+ * </ul>
+ */
+public class CartWriteAheadLog implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(CartWriteAheadLog.class);
+    private static final String SEGMENT_PREFIX = "cart-wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final boolean syncWrites;
+    private final Map<Integer, Map<Integer, Integer>> recoveredQuantities;
+    private long sequence;
+    private long segmentIndex;
+    private FileChannel channel;
+
+    /**
+     * Opens the log in the given directory, recovering the pending changes of the
+     * existing segments and starting a new segment for the upcoming records.
+     *
+     * @param directory
+     *            the directory of the segment files
+     * @param syncWrites
+     *            whether every record is forced to disk before returning
+     * @throws IOException
+     *             if the directory or the segments cannot be accessed
+     */
+    public CartWriteAheadLog(final Path directory, final boolean syncWrites) throws IOException {
+        this.directory = directory;
+        this.syncWrites = syncWrites;
+
+        Files.createDirectories(directory);
+        List<Long> existingSegments = listSegments();
+        this.recoveredQuantities = replay(existingSegments);
+        this.segmentIndex = existingSegments.isEmpty() ? 0 : existingSegments.getLast() + 1;
+        this.channel = openSegment(segmentIndex);
+    }
+
+    /**
+     * Retrieves the pending changes that were recovered from the existing segments
+     * when the log was opened.
+     *
+     * @return the recovered quantities keyed by user ID and book ID
+     */
+    public Map<Integer, Map<Integer, Integer>> getRecoveredQuantities() {
+        return recoveredQuantities;
+    }
+
+    /**
+     * Retrieves the sequence number of the latest record.
+     *
+     * @return the latest sequence number
+     */
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Appends a record that sets the quantity of a book.
+     *
+     * @param userID
+     *            the ID of the user
+     * @param bookID
+     *            the ID of the book
+     * @param quantity
+     *            the new quantity
+     * @return the sequence number of the record
+     */
+    public synchronized long appendSet(final Integer userID, final Integer bookID, final Integer quantity) {
+        sequence++;
+        append("S," + sequence + "," + userID + "," + bookID + "," + quantity);
+        return sequence;
+    }
+
+    /**
+     * Appends a record that discards the pending quantity of a book.
+     *
+     * @param userID
+     *            the ID of the user
+     * @param bookID
+     *            the ID of the book
+     * @return the sequence number of the record
+     */
+    public synchronized long appendDiscard(final Integer userID, final Integer bookID) {
+        sequence++;
+        append("D," + sequence + "," + userID + "," + bookID);
+        return sequence;
+    }
+
+    /**
+     * Appends a record that marks the changes of a user up to the given sequence
+     * number as written to the database.
+     *
+     * @param userID
+     *            the ID of the user
+     * @param flushedSequence
+     *            the sequence number of the latest written change
+     */
+    public synchronized void appendFlushed(final Integer userID, final long flushedSequence) {
+        append("F," + flushedSequence + "," + userID);
+    }
+
+    /**
+     * Closes the current segment and starts a new one.
+     *
+     * @return the index of the closed segment
+     */
+    public synchronized long rotate() {
+        try {
+            channel.close();
+            long sealedIndex = segmentIndex;
+            segmentIndex++;
+            channel = openSegment(segmentIndex);
+            return sealedIndex;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Deletes the closed segments up to and including the given index.
+     *
+     * @param sealedIndex
+     *            the index of the latest segment to delete
+     */
+    public synchronized void deleteSegments(final long sealedIndex) {
+        try {
+            for (Long index : listSegments()) {
+                if (index <= sealedIndex && index != segmentIndex) {
+                    Files.deleteIfExists(segmentPath(index));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete cart write-ahead log segments", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private void append(final String recordLine) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap((recordLine + "\n").getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (syncWrites) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Map<Integer, Map<Integer, Integer>> replay(final List<Long> segments) throws IOException {
+        // Sequence number and quantity of every pending change, by user ID and book ID
+        Map<Integer, Map<Integer, long[]>> pendingChanges = new HashMap<>();
+
+        for (Long index : segments) {
+            try (BufferedReader reader = Files.newBufferedReader(segmentPath(index), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    replayRecord(line, pendingChanges);
+                }
+            }
+        }
+
+        Map<Integer, Map<Integer, Integer>> quantities = new HashMap<>();
+        pendingChanges.forEach((userID, changes) -> {
+            if (!changes.isEmpty()) {
+                Map<Integer, Integer> userQuantities = new HashMap<>();
+                changes.forEach((bookID, change) -> userQuantities.put(bookID, (int) change[1]));
+                quantities.put(userID, userQuantities);
+            }
+        });
+        return quantities;
+    }
+
+    private void replayRecord(final String line, final Map<Integer, Map<Integer, long[]>> pendingChanges) {
+        String[] fields = line.split(",");
+        try {
+            long recordSequence = Long.parseLong(fields[1]);
+            int userID = Integer.parseInt(fields[2]);
+            sequence = Math.max(sequence, recordSequence);
+
+            switch (fields[0]) {
+                case "S" -> pendingChanges.computeIfAbsent(userID, id -> new HashMap<>())
+                        .put(Integer.valueOf(fields[3]), new long[]{recordSequence, Long.parseLong(fields[4])});
+                case "D" -> {
+                    Map<Integer, long[]> changes = pendingChanges.get(userID);
+                    if (changes != null) {
+                        changes.remove(Integer.valueOf(fields[3]));
+                    }
+                }
+                case "F" -> {
+                    Map<Integer, long[]> changes = pendingChanges.get(userID);
+                    if (changes != null) {
+                        changes.values().removeIf(change -> change[0] <= recordSequence);
+                    }
+                }
+                default -> log.warn("Skipping unknown cart write-ahead log record: {}", line);
+            }
+        } catch (RuntimeException e) {
+            // A record torn by a crash in the middle of a write
+            log.warn("Skipping malformed cart write-ahead log record: {}", line);
+        }
+    }
+
+    private List<Long> listSegments() throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> segments.add(Long
+                            .valueOf(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))));
+        }
+        segments.sort(Long::compare);
+        return segments;
+    }
+
+    private FileChannel openSegment(final long index) throws IOException {
+        return FileChannel.open(segmentPath(index), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private Path segmentPath(final long index) {
+        return directory.resolve(SEGMENT_PREFIX + index + SEGMENT_SUFFIX);
+    }
+}
@@ -0,0 +1,37 @@
+package com.vagsoft.bookstore.stores;
+
+import java.util.Map;
+
+import com.vagsoft.bookstore.repositories.CartItemsRepository;
+
+/** Cart store that writes every quantity change to the database immediately. */
+public class DatabaseCartStore implements CartStore {
+    private final CartItemsRepository cartItemsRepository;
+
+    public DatabaseCartStore(final CartItemsRepository cartItemsRepository) {
+        this.cartItemsRepository = cartItemsRepository;
+    }
+
+    @Override
+    public boolean setQuantity(final Integer userID, final Integer bookID, final Integer quantity) {
+        if (cartItemsRepository.updateQuantityByUserIDAndBookID(userID, bookID, quantity) > 0) {
+            return true;
+        }
+
+        // Nothing was updated, either because of the stock or because the cart item is gone
+        return !cartItemsRepository.existsByUserIDAndBookID(userID, bookID);
+    }
+
+    @Override
+    public Map<Integer, Integer> getPendingQuantities(final Integer userID) {
+        return Map.of();
+    }
+
+    @Override
+    public void discard(final Integer userID, final Integer bookID) {
+    }
+
+    @Override
+    public void flush(final Integer userID) {
+    }
+}
@@ -0,0 +1,326 @@
+package com.vagsoft.bookstore.stores;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.vagsoft.bookstore.repositories.BookRepository;
+import com.vagsoft.bookstore.repositories.CartItemsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Cart store that keeps the quantity changes of the active carts in memory and
+ * writes them to the database later. Every change is first appended to a
+ * write-ahead log on local disk, so pending changes survive a crash. The dirty
+ * carts are written in coalesced batches on a fixed interval, the carts idle the
+ * longest are written early when their number exceeds the configured maximum,
+ * and a single user's cart is written right before it is read for a checkout.
+ * <p>
+ * A single user's cart is written in the caller's transaction, and the other
+ * writes run on the background flusher in a transaction of their own, so no
+ * request ever needs a second connection. The pending changes are only dropped
+ * from memory once their write has committed.
+ */
+public class WriteBehindCartStore implements CartStore, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindCartStore.class);
+
+    private final CartItemsRepository cartItemsRepository;
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CartWriteAheadLog writeAheadLog;
+    private final int maxCarts;
+    private final int batchSize;
+    private final Map<Integer, PendingCart> carts = new ConcurrentHashMap<>();
+    // Recording a change shares the lock, sealing a segment for a full flush takes it exclusively
+    private final ReentrantReadWriteLock recordLock = new ReentrantReadWriteLock();
+    private final AtomicBoolean earlyFlushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService flusher = Executors
+            .newSingleThreadScheduledExecutor(Thread.ofPlatform().name("cart-store-flusher").daemon().factory());
+
+    /**
+     * Creates the store, recovering the pending changes of the write-ahead log and
+     * scheduling the periodic flush.
+     *
+     * @param cartItemsRepository
+     *            the repository the changes are written to
+     * @param bookRepository
+     *            the repository the stock of the books is checked with
+     * @param transactionManager
+     *            the transaction manager used for the writes
+     * @param writeAheadLog
+     *            the write-ahead log of the pending changes
+     * @param flushInterval
+     *            the interval between two flushes of all the dirty carts
+     * @param maxCarts
+     *            the number of dirty carts that triggers an early flush of the
+     *            idle ones
+     * @param batchSize
+     *            the maximum number of cart items written by one statement
+     */
+    public WriteBehindCartStore(final CartItemsRepository cartItemsRepository, final BookRepository bookRepository,
+            final PlatformTransactionManager transactionManager, final CartWriteAheadLog writeAheadLog,
+            final Duration flushInterval, final int maxCarts, final int batchSize) {
+        this.cartItemsRepository = cartItemsRepository;
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.writeAheadLog = writeAheadLog;
+        this.maxCarts = maxCarts;
+        this.batchSize = batchSize;
+
+        // Restoring the changes that were not written before the last shutdown
+        long recoveredSequence = writeAheadLog.getSequence();
+        writeAheadLog.getRecoveredQuantities().forEach((userID, quantities) -> {
+            PendingCart cart = new PendingCart();
+            cart.quantities.putAll(quantities);
+            cart.maxSequence = recoveredSequence;
+            carts.put(userID, cart);
+        });
+
+        long intervalMillis = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushAllQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public boolean setQuantity(final Integer userID, final Integer bookID, final Integer quantity) {
+        // Checking the stock now, as the quantity is only written later
+        Integer availability = bookRepository.findAvailabilityByID(bookID);
+        if (availability == null || availability < quantity) {
+            return false;
+        }
+
+        recordLock.readLock().lock();
+        try {
+            carts.compute(userID, (id, cart) -> {
+                PendingCart pendingCart = cart == null ? new PendingCart() : cart;
+                pendingCart.maxSequence = writeAheadLog.appendSet(userID, bookID, quantity);
+                pendingCart.lastChanged = System.nanoTime();
+                pendingCart.quantities.put(bookID, quantity);
+                return pendingCart;
+            });
+        } finally {
+            recordLock.readLock().unlock();
+        }
+
+        if (carts.size() > maxCarts && earlyFlushScheduled.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                earlyFlushScheduled.set(false);
+                flushIdleQuietly();
+            });
+        }
+        return true;
+    }
+
+    @Override
+    public Map<Integer, Integer> getPendingQuantities(final Integer userID) {
+        PendingCart cart = carts.get(userID);
+        return cart == null ? Map.of() : Map.copyOf(cart.quantities);
+    }
+
+    @Override
+    public void discard(final Integer userID, final Integer bookID) {
+        recordLock.readLock().lock();
+        try {
+            carts.computeIfPresent(userID, (id, cart) -> {
+                if (cart.quantities.remove(bookID) != null) {
+                    cart.maxSequence = writeAheadLog.appendDiscard(userID, bookID);
+                    cart.lastChanged = System.nanoTime();
+                }
+                return cart.quantities.isEmpty() ? null : cart;
+            });
+        } finally {
+            recordLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void flush(final Integer userID) {
+        Snapshot snapshot = snapshot(userID);
+        if (snapshot == null) {
+            return;
+        }
+
+        // Joining the caller's transaction, so that the flush needs no connection of its own
+        transactionTemplate.executeWithoutResult(status -> write(Map.of(userID, snapshot)));
+        runAfterCommit(() -> {
+            forget(userID, snapshot);
+            writeAheadLog.appendFlushed(userID, snapshot.maxSequence());
+        });
+    }
+
+    /**
+     * Writes the pending changes of all the dirty carts to the database in
+     * coalesced batches and drops the write-ahead log segments they were recorded
+     * in. Only meant to run outside of any transaction, as it starts its own.
+     */
+    public void flushAll() {
+        long sealedSegment;
+        Map<Integer, Snapshot> snapshots = new HashMap<>();
+        recordLock.writeLock().lock();
+        try {
+            if (carts.isEmpty()) {
+                return;
+            }
+
+            // Sealing the current segment, so that it only holds the changes being written
+            sealedSegment = writeAheadLog.rotate();
+            for (Integer userID : carts.keySet()) {
+                Snapshot snapshot = snapshot(userID);
+                if (snapshot != null) {
+                    snapshots.put(userID, snapshot);
+                }
+            }
+        } finally {
+            recordLock.writeLock().unlock();
+        }
+
+        // Writing outside of the lock, so that recording changes never waits for the database
+        transactionTemplate.executeWithoutResult(status -> write(snapshots));
+        snapshots.forEach(this::forget);
+        writeAheadLog.deleteSegments(sealedSegment);
+    }
+
+    /**
+     * Writes the pending changes of the carts idle the longest to the database,
+     * until a quarter of the configured maximum is free again. Only meant to run
+     * outside of any transaction, as it starts its own.
+     */
+    public void flushIdle() {
+        int excess = carts.size() - maxCarts * 3 / 4;
+        if (excess <= 0) {
+            return;
+        }
+
+        List<Integer> idleUserIDs = carts.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().lastChanged)).limit(excess)
+                .map(Map.Entry::getKey).toList();
+        Map<Integer, Snapshot> snapshots = new HashMap<>();
+        for (Integer userID : idleUserIDs) {
+            Snapshot snapshot = snapshot(userID);
+            if (snapshot != null) {
+                snapshots.put(userID, snapshot);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> write(snapshots));
+        snapshots.forEach((userID, snapshot) -> {
+            forget(userID, snapshot);
+            writeAheadLog.appendFlushed(userID, snapshot.maxSequence());
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushAllQuietly();
+        writeAheadLog.close();
+    }
+
+    private void flushAllQuietly() {
+        try {
+            flushAll();
+        } catch (RuntimeException e) {
+            // The changes are kept in memory and in the write-ahead log for the next flush
+            log.error("Failed to flush the pending cart changes", e);
+        }
+    }
+
+    private void flushIdleQuietly() {
+        try {
+            flushIdle();
+        } catch (RuntimeException e) {
+            log.error("Failed to flush the pending changes of the idle carts", e);
+        }
+    }
+
+    private Snapshot snapshot(final Integer userID) {
+        Snapshot[] snapshot = {null};
+        // Copying inside compute, so that no change of the cart is recorded halfway through
+        carts.computeIfPresent(userID, (id, cart) -> {
+            snapshot[0] = new Snapshot(Map.copyOf(cart.quantities), cart.maxSequence);
+            return cart;
+        });
+        return snapshot[0];
+    }
+
+    private void forget(final Integer userID, final Snapshot snapshot) {
+        // Keeping the quantities changed again since the snapshot, as they are not written yet
+        carts.computeIfPresent(userID, (id, cart) -> {
+            snapshot.quantities().forEach(cart.quantities::remove);
+            return cart.quantities.isEmpty() ? null : cart;
+        });
+    }
+
+    private void runAfterCommit(final Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void write(final Map<Integer, Snapshot> snapshots) {
+        List<Integer> userIDs = new ArrayList<>(batchSize);
+        List<Integer> bookIDs = new ArrayList<>(batchSize);
+        List<Integer> bookQuantities = new ArrayList<>(batchSize);
+
+        for (Map.Entry<Integer, Snapshot> cart : snapshots.entrySet()) {
+            for (Map.Entry<Integer, Integer> item : cart.getValue().quantities().entrySet()) {
+                userIDs.add(cart.getKey());
+                bookIDs.add(item.getKey());
+                bookQuantities.add(item.getValue());
+
+                if (userIDs.size() == batchSize) {
+                    writeBatch(userIDs, bookIDs, bookQuantities);
+                }
+            }
+        }
+        if (!userIDs.isEmpty()) {
+            writeBatch(userIDs, bookIDs, bookQuantities);
+        }
+    }
+
+    private void writeBatch(final List<Integer> userIDs, final List<Integer> bookIDs,
+            final List<Integer> quantities) {
+        cartItemsRepository.updateAllQuantities(userIDs.toArray(Integer[]::new), bookIDs.toArray(Integer[]::new),
+                quantities.toArray(Integer[]::new));
+        userIDs.clear();
+        bookIDs.clear();
+        quantities.clear();
+    }
+
+    /** Pending quantity changes of a single cart, keyed by book ID. */
+    private static final class PendingCart {
+        private final Map<Integer, Integer> quantities = new ConcurrentHashMap<>();
+        private volatile long maxSequence;
+        private volatile long lastChanged = System.nanoTime();
+    }
+
+    /** Copy of the pending quantities of a cart being written. */
+    private record Snapshot(Map<Integer, Integer> quantities, long maxSequence) {
+    }
+}
@@ -27,4 +27,21 @@ public class AuthUtils {
             throw new IllegalArgumentException("Invalid Jwt token");
         }
     }
+
+    /**
+     * Retrieves the Jwt token of the current authentication context.
+     *
+     * @return the Jwt token
+     * @throws IllegalArgumentException
+     *             if the authentication is invalid or does not contain a valid Jwt
+     *             token
+     */
+    public Jwt getJwtFromAuthentication() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Jwt jwt) {
+            return jwt;
+        } else {
+            throw new IllegalArgumentException("Invalid Jwt token");
+        }
+    }
 }
@@ -0,0 +1,21 @@
+package com.vagsoft.bookstore.utils;
+
+public class CsvUtils {
+    /**
+     * Escapes a value for a CSV field, quoting it only if it contains a separator,
+     * a quote or a line break.
+     *
+     * @param value
+     *            the value to escape, null for an empty field
+     * @return the escaped value
+     */
+    public static String escape(final String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,24 @@
+package com.vagsoft.bookstore.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public class HashUtils {
+    /**
+     * Hashes a value with SHA-256.
+     *
+     * @param value
+     *            the value to hash
+     * @return the hash as 64 lowercase hex characters
+     */
+    public static String sha256(final String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
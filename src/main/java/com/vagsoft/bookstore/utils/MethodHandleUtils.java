@@ -0,0 +1,84 @@
+package com.vagsoft.bookstore.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Utility class resolving methods and fields into method handles once, so that
+ * they can be invoked on every request without looking them up again. The
+ * handles take and return plain objects, to be invoked with
+ * {@link MethodHandle#invokeExact}.
+ */
+public class MethodHandleUtils {
+    /**
+     * Resolves a method of an interface into a handle bound to the given target.
+     *
+     * @param type
+     *            the interface declaring or inheriting the method
+     * @param target
+     *            the object the handle invokes the method on
+     * @param methodName
+     *            the name of the method
+     * @param parameterCount
+     *            the number of parameters of the method
+     * @return a handle of type {@code (Object...)Object} with the given number of
+     *         parameters
+     * @throws IllegalArgumentException
+     *             if there is no such method or it is not accessible
+     */
+    public static MethodHandle bindMethod(final Class<?> type, final Object target, final String methodName,
+            final int parameterCount) {
+        for (Method method : type.getMethods()) {
+            if (method.getName().equals(methodName) && method.getParameterCount() == parameterCount) {
+                try {
+                    return MethodHandles.publicLookup().unreflect(method).bindTo(target)
+                            .asType(MethodType.genericMethodType(parameterCount));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalArgumentException("Method is not accessible: " + methodName, e);
+                }
+            }
+        }
+        throw new IllegalArgumentException("Method not found: " + type.getSimpleName() + "." + methodName);
+    }
+
+    /**
+     * Resolves a field of a class, private or not, into a getter handle.
+     *
+     * @param type
+     *            the class declaring the field
+     * @param fieldName
+     *            the name of the field
+     * @return a handle of type {@code (Object)Object}
+     * @throws IllegalArgumentException
+     *             if there is no such field or it is not accessible
+     */
+    public static MethodHandle getter(final Class<?> type, final String fieldName) {
+        try {
+            Field field = type.getDeclaredField(fieldName);
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup()).unreflectGetter(field)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new IllegalArgumentException("Field not found: " + type.getSimpleName() + "." + fieldName, e);
+        }
+    }
+
+    /**
+     * Rethrows a throwable raised by a method handle, wrapping the checked ones.
+     *
+     * @param throwable
+     *            the raised throwable
+     * @return never returns, declared so that callers can throw its result
+     */
+    public static RuntimeException rethrow(final Throwable throwable) {
+        if (throwable instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (throwable instanceof Error error) {
+            throw error;
+        }
+        throw new RuntimeException(throwable);
+    }
+}
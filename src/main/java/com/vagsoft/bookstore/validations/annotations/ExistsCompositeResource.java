@@ -34,6 +34,13 @@ public @interface ExistsCompositeResource {
     /** Whether to get the user info from JWT or not. */
     boolean useJWT() default false;
 
+    /**
+     * The name of the repository method loading the resource by both IDs, if the
+     * resource should be loaded instead of only checked and kept for the rest of
+     * the request. The method must return an Optional.
+     */
+    String prefetchMethod() default "";
+
     /** The error message to be used when the constraint is violated. */
     String message() default "Composite resource does not exist";
 
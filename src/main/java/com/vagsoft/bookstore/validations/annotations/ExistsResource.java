@@ -23,6 +23,13 @@ public @interface ExistsResource {
     /** Whether the resource can be null. */
     boolean nullable() default false;
 
+    /**
+     * The name of the repository method loading the resource by its ID, if the
+     * resource should be loaded instead of only checked and kept for the rest of
+     * the request. The method must return an Optional.
+     */
+    String prefetchMethod() default "";
+
     /** The error message to be used when the constraint is violated. */
     String message() default "Resource not found with the given ID";
 
@@ -28,6 +28,12 @@ public @interface UniqueField {
     /** The name of the path variable to use for uniqueness validation. */
     String pathVariable() default "";
 
+    /**
+     * The unique value filter of the field (optional), skipping the repository
+     * method for values that were definitely never stored.
+     */
+    String filter() default "";
+
     /** Whether the field can be null or not. If true, the field can be null and. */
     boolean nullable() default true;
 
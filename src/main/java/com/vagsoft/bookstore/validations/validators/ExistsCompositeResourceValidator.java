@@ -1,10 +1,13 @@
 package com.vagsoft.bookstore.validations.validators;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.Optional;
 
+import com.vagsoft.bookstore.caches.RequestEntityCache;
 import com.vagsoft.bookstore.errors.exceptions.ResourceNotFoundException;
 import com.vagsoft.bookstore.utils.AuthUtils;
+import com.vagsoft.bookstore.utils.MethodHandleUtils;
 import com.vagsoft.bookstore.utils.RequestUtils;
 import com.vagsoft.bookstore.validations.annotations.ExistsCompositeResource;
 import jakarta.servlet.http.HttpServletRequest;
@@ -31,6 +34,9 @@ public class ExistsCompositeResourceValidator implements ConstraintValidator<Exi
     private String firstPathVariable;
     private String secondPathVariable;
     private boolean useJWT;
+    private String prefetchMethodName;
+    // Resolved on first use, so that every later request only invokes it
+    private MethodHandle repositoryMethod;
 
     @Override
     public void initialize(final ExistsCompositeResource constraintAnnotation) {
@@ -39,34 +45,47 @@ public class ExistsCompositeResourceValidator implements ConstraintValidator<Exi
         this.firstPathVariable = constraintAnnotation.firstPathVariable();
         this.secondPathVariable = constraintAnnotation.secondPathVariable();
         this.useJWT = constraintAnnotation.useJWT();
+        this.prefetchMethodName = constraintAnnotation.prefetchMethod();
     }
 
     @Override
     public boolean isValid(final Object value, final ConstraintValidatorContext context) {
-        var repository = applicationContext.getBean(repositoryClass);
+        // Getting the IDs from the path variable or the JWT
+        Integer firstResourceID;
+        Integer secondResourceID;
+        if (useJWT) {
+            firstResourceID = authUtils.getUserIdFromAuthentication();
+        } else {
+            firstResourceID = RequestUtils.getPathVariable(request, firstPathVariable, Integer.class);
+        }
+        secondResourceID = RequestUtils.getPathVariable(request, secondPathVariable, Integer.class);
 
+        // Running the repository method, or loading the resource so that the service does not have to read it again
+        if (repositoryMethod == null) {
+            repositoryMethod = MethodHandleUtils.bindMethod(repositoryClass,
+                    applicationContext.getBean(repositoryClass),
+                    prefetchMethodName.isEmpty() ? methodName : prefetchMethodName, 2);
+        }
+        Object result;
         try {
-            // Getting the IDs from the path variable or the JWT
-            Integer firstResourceID;
-            Integer secondResourceID;
-            if (useJWT) {
-                firstResourceID = authUtils.getUserIdFromAuthentication();
-            } else {
-                firstResourceID = RequestUtils.getPathVariable(request, firstPathVariable, Integer.class);
-            }
-            secondResourceID = RequestUtils.getPathVariable(request, secondPathVariable, Integer.class);
-
-            // Running the repository method
-            Method repositoryMethod = repository.getClass().getMethod(methodName, Integer.class, Integer.class);
-
-            if (!(boolean) repositoryMethod.invoke(repository, firstResourceID, secondResourceID)) {
-                throw new ResourceNotFoundException("Composite resource with IDs: " + firstResourceID + " and "
-                        + secondResourceID + " does not exist");
-            }
+            result = repositoryMethod.invokeExact((Object) firstResourceID, (Object) secondResourceID);
+        } catch (Throwable e) {
+            throw MethodHandleUtils.rethrow(e);
+        }
+        boolean exists;
+        if (result instanceof Optional<?> resource) {
+            resource.ifPresent(entity -> RequestEntityCache.put(repositoryClass,
+                    List.of(firstResourceID, secondResourceID), entity));
+            exists = resource.isPresent();
+        } else {
+            exists = (boolean) result;
+        }
 
-            return true;
-        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException(e);
+        if (!exists) {
+            throw new ResourceNotFoundException("Composite resource with IDs: " + firstResourceID + " and "
+                    + secondResourceID + " does not exist");
         }
+
+        return true;
     }
 }
@@ -1,6 +1,11 @@
 package com.vagsoft.bookstore.validations.validators;
 
+import java.lang.invoke.MethodHandle;
+import java.util.Optional;
+
+import com.vagsoft.bookstore.caches.RequestEntityCache;
 import com.vagsoft.bookstore.errors.exceptions.ResourceNotFoundException;
+import com.vagsoft.bookstore.utils.MethodHandleUtils;
 import com.vagsoft.bookstore.validations.annotations.ExistsResource;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
@@ -15,11 +20,16 @@ public class ExistsResourceValidator implements ConstraintValidator<ExistsResour
 
     private Class<? extends JpaRepository<?, Integer>> repositoryClass;
     private boolean nullable;
+    private String prefetchMethodName;
+    // Resolved on first use instead of on every request
+    private JpaRepository<?, Integer> repository;
+    private MethodHandle prefetchMethod;
 
     @Override
     public void initialize(final ExistsResource constraintAnnotation) {
         this.repositoryClass = constraintAnnotation.repository();
         this.nullable = constraintAnnotation.nullable();
+        this.prefetchMethodName = constraintAnnotation.prefetchMethod();
     }
     @Override
     public boolean isValid(final Integer value, final ConstraintValidatorContext context) {
@@ -27,12 +37,33 @@ public class ExistsResourceValidator implements ConstraintValidator<ExistsResour
             return true;
         }
 
-        var repository = applicationContext.getBean(repositoryClass);
-
-        if (!repository.existsById(value)) {
+        if (repository == null) {
+            repository = applicationContext.getBean(repositoryClass);
+        }
+        boolean exists;
+        if (prefetchMethodName.isEmpty()) {
+            exists = repository.existsById(value);
+        } else {
+            // Loading the resource instead, so that the service does not have to read it again
+            Optional<?> resource = prefetch(value);
+            resource.ifPresent(entity -> RequestEntityCache.put(repositoryClass, value, entity));
+            exists = resource.isPresent();
+        }
+        if (!exists) {
             throw new ResourceNotFoundException("Resource with ID: " + value + " does not exist");
         }
 
         return true;
     }
+
+    private Optional<?> prefetch(final Integer value) {
+        if (prefetchMethod == null) {
+            prefetchMethod = MethodHandleUtils.bindMethod(repositoryClass, repository, prefetchMethodName, 1);
+        }
+        try {
+            return (Optional<?>) (Object) prefetchMethod.invokeExact((Object) value);
+        } catch (Throwable e) {
+            throw MethodHandleUtils.rethrow(e);
+        }
+    }
 }
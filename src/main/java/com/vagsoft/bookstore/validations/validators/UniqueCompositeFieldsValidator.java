@@ -1,9 +1,9 @@
 package com.vagsoft.bookstore.validations.validators;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
 
 import com.vagsoft.bookstore.utils.AuthUtils;
+import com.vagsoft.bookstore.utils.MethodHandleUtils;
 import com.vagsoft.bookstore.utils.RequestUtils;
 import com.vagsoft.bookstore.validations.annotations.UniqueCompositeFields;
 import jakarta.servlet.http.HttpServletRequest;
@@ -28,43 +28,44 @@ public class UniqueCompositeFieldsValidator implements ConstraintValidator<Uniqu
     private Class<? extends JpaRepository<?, ?>> repositoryClass;
     private String methodName;
     private String pathVariable;
-    private Class<?> dtoClass;
-    private String dtoFieldName;
     private boolean usePathVariable;
+    // Resolved once instead of on every request, the repository method on first use
+    private MethodHandle repositoryMethod;
+    private MethodHandle dtoFieldGetter;
 
     @Override
     public void initialize(final UniqueCompositeFields constraintAnnotation) {
         this.repositoryClass = constraintAnnotation.repository();
         this.methodName = constraintAnnotation.methodName();
         this.pathVariable = constraintAnnotation.pathVariable();
-        this.dtoClass = constraintAnnotation.dtoClass();
-        this.dtoFieldName = constraintAnnotation.dtoFieldName();
         this.usePathVariable = constraintAnnotation.usePathVariable();
+        this.dtoFieldGetter = MethodHandleUtils.getter(constraintAnnotation.dtoClass(),
+                constraintAnnotation.dtoFieldName());
     }
 
     @Override
     public boolean isValid(final Object value, final ConstraintValidatorContext context) {
-        var repository = applicationContext.getBean(repositoryClass);
+        // Getting the ID from the path variable or the JWT
+        Integer resourceID;
+        if (usePathVariable) {
+            resourceID = RequestUtils.getPathVariable(request, pathVariable, Integer.class);
+        } else {
+            resourceID = authUtils.getUserIdFromAuthentication();
+        }
 
-        try {
-            // Getting the ID from the path variable or the JWT
-            Integer resourceID;
-            if (usePathVariable) {
-                resourceID = RequestUtils.getPathVariable(request, pathVariable, Integer.class);
-            } else {
-                resourceID = authUtils.getUserIdFromAuthentication();
-            }
+        if (repositoryMethod == null) {
+            repositoryMethod = MethodHandleUtils.bindMethod(repositoryClass,
+                    applicationContext.getBean(repositoryClass), methodName, 2);
+        }
 
+        try {
             // Getting the field value from the DTO
-            var field = dtoClass.getDeclaredField(dtoFieldName);
-            field.setAccessible(true);
-            var fieldValue = field.get(value);
+            Object fieldValue = (Object) dtoFieldGetter.invokeExact(value);
 
             // Running the repository method
-            Method repositoryMethod = repository.getClass().getMethod(methodName, Integer.class, fieldValue.getClass());
-            return !(boolean) repositoryMethod.invoke(repository, resourceID, fieldValue);
-        } catch (NoSuchMethodException | NoSuchFieldException | IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException(e);
+            return !(boolean) (Object) repositoryMethod.invokeExact((Object) resourceID, fieldValue);
+        } catch (Throwable e) {
+            throw MethodHandleUtils.rethrow(e);
         }
     }
 }
@@ -1,9 +1,10 @@
 package com.vagsoft.bookstore.validations.validators;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
 
+import com.vagsoft.bookstore.caches.UniqueValueFilter;
 import com.vagsoft.bookstore.utils.AuthUtils;
+import com.vagsoft.bookstore.utils.MethodHandleUtils;
 import com.vagsoft.bookstore.utils.RequestUtils;
 import com.vagsoft.bookstore.validations.annotations.UniqueField;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,16 +26,24 @@ public class UniqueFieldValidator implements ConstraintValidator<UniqueField, Ob
     @Autowired
     private AuthUtils authUtils;
 
+    @Autowired
+    private UniqueValueFilter uniqueValueFilter;
+
     private Class<? extends JpaRepository<?, ?>> repositoryClass;
     private String methodName;
     private String pathVariable;
+    private String filter;
     private boolean nullable;
+    // Resolved on first use, as the method takes the ID of the resource only on updates
+    private MethodHandle createMethod;
+    private MethodHandle updateMethod;
 
     @Override
     public void initialize(final UniqueField constraintAnnotation) {
         this.repositoryClass = constraintAnnotation.repository();
         this.methodName = constraintAnnotation.methodName();
         this.pathVariable = constraintAnnotation.pathVariable();
+        this.filter = constraintAnnotation.filter();
         this.nullable = constraintAnnotation.nullable();
     }
 
@@ -44,18 +53,29 @@ public class UniqueFieldValidator implements ConstraintValidator<UniqueField, Ob
             return true;
         }
 
-        var repository = applicationContext.getBean(repositoryClass);
+        // A value that was never stored is unique, whichever resource is being written
+        boolean filtered = !filter.isEmpty();
+        if (filtered && !uniqueValueFilter.mightContain(filter, value.toString())) {
+            return true;
+        }
+
         var requestMethod = request.getMethod();
 
         switch (requestMethod) {
             case "POST" :
                 try {
                     // Running the repository method
-                    Method repositoryMethod = repository.getClass().getMethod(methodName, value.getClass());
-                    return !(boolean) repositoryMethod.invoke(repository, value);
+                    if (createMethod == null) {
+                        createMethod = resolveMethod(1);
+                    }
+                    boolean exists = (boolean) (Object) createMethod.invokeExact(value);
+                    if (filtered && !exists) {
+                        uniqueValueFilter.recordFalsePositive(filter);
+                    }
+                    return !exists;
 
-                } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-                    throw new RuntimeException(e);
+                } catch (Throwable e) {
+                    throw MethodHandleUtils.rethrow(e);
                 }
             case "PUT" :
                 try {
@@ -68,15 +88,21 @@ public class UniqueFieldValidator implements ConstraintValidator<UniqueField, Ob
                     }
 
                     // Running the repository method
-                    Method repositoryMethod = repository.getClass().getMethod(methodName, value.getClass(),
-                            Integer.class);
-                    return !(boolean) repositoryMethod.invoke(repository, value, resourceID);
+                    if (updateMethod == null) {
+                        updateMethod = resolveMethod(2);
+                    }
+                    return !(boolean) (Object) updateMethod.invokeExact(value, (Object) resourceID);
 
-                } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-                    throw new RuntimeException(e);
+                } catch (Throwable e) {
+                    throw MethodHandleUtils.rethrow(e);
                 }
             default :
                 throw new IllegalArgumentException("Unsupported HTTP method: " + requestMethod);
         }
     }
+
+    private MethodHandle resolveMethod(final int parameterCount) {
+        return MethodHandleUtils.bindMethod(repositoryClass, applicationContext.getBean(repositoryClass), methodName,
+                parameterCount);
+    }
 }
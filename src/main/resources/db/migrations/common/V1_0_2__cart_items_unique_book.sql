@@ -0,0 +1,16 @@
+-- Merging any duplicate cart items before enforcing one row per book in each cart
+UPDATE CartItems ci
+SET quantity = dup.total
+FROM (
+    SELECT MIN(ID) AS ID, SUM(quantity) AS total
+    FROM CartItems
+    GROUP BY cartID, bookID
+    HAVING COUNT(*) > 1
+) dup
+WHERE ci.ID = dup.ID;
+
+DELETE FROM CartItems ci
+USING CartItems kept
+WHERE ci.cartID = kept.cartID AND ci.bookID = kept.bookID AND ci.ID > kept.ID;
+
+ALTER TABLE CartItems ADD UNIQUE (cartID, bookID);
@@ -0,0 +1,19 @@
+-- Tracking when carts and cart items were last changed, so that abandoned carts can be swept
+ALTER TABLE Carts ADD COLUMN lastModified TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE CartItems ADD COLUMN lastModified TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+CREATE INDEX ON Carts (lastModified);
+
+-- Inserts and updates also go through native statements, so the timestamps are kept by the database.
+-- Deletes don't touch the cart, so sweeping a cart's items in batches doesn't make it look active.
+CREATE FUNCTION touch_cart_item() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.lastModified := CURRENT_TIMESTAMP;
+    UPDATE Carts SET lastModified = CURRENT_TIMESTAMP WHERE ID = NEW.cartID AND lastModified < CURRENT_TIMESTAMP;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER touch_cart_item
+BEFORE INSERT OR UPDATE ON CartItems
+FOR EACH ROW EXECUTE FUNCTION touch_cart_item();
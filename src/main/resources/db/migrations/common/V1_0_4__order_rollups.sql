@@ -0,0 +1,178 @@
+-- Sales rollups of the orders, kept up to date by triggers in the same transaction as the order writes, so that
+-- reports read one row per day instead of scanning the orders. Every write path is covered, including the set-based
+-- status updates. Cancelled orders are taken out of the sales rollups and put back if they are un-cancelled.
+CREATE TABLE DailySales (
+    day DATE,
+    orderCount INT NOT NULL DEFAULT 0,
+    revenue FLOAT NOT NULL DEFAULT 0,
+
+    PRIMARY KEY(day)
+);
+
+-- No foreign key to Books, the sales history outlives the books
+CREATE TABLE DailyBookSales (
+    day DATE,
+    bookID INT,
+    units INT NOT NULL DEFAULT 0,
+
+    PRIMARY KEY(day, bookID)
+);
+
+-- Units are attributed to the genres the book has when it is ordered or cancelled
+CREATE TABLE DailyGenreSales (
+    day DATE,
+    genre VARCHAR(31),
+    units INT NOT NULL DEFAULT 0,
+
+    PRIMARY KEY(day, genre)
+);
+
+CREATE TABLE OrderStatusCounts (
+    status VARCHAR(15),
+    orderCount INT NOT NULL DEFAULT 0,
+
+    PRIMARY KEY(status)
+);
+
+CREATE FUNCTION rollup_book_units(p_day DATE, p_bookID INT, p_units INT) RETURNS VOID AS $$
+BEGIN
+    INSERT INTO DailyBookSales (day, bookID, units)
+    VALUES (p_day, p_bookID, p_units)
+    ON CONFLICT (day, bookID) DO UPDATE
+    SET units = DailyBookSales.units + EXCLUDED.units;
+
+    INSERT INTO DailyGenreSales (day, genre, units)
+    SELECT p_day, g.genre, p_units
+    FROM Genres g
+    WHERE g.bookID = p_bookID
+    ON CONFLICT (day, genre) DO UPDATE
+    SET units = DailyGenreSales.units + EXCLUDED.units;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION rollup_order_sales(p_orderID INT, p_day DATE, p_amount FLOAT, p_sign INT) RETURNS VOID AS $$
+BEGIN
+    INSERT INTO DailySales (day, orderCount, revenue)
+    VALUES (p_day, p_sign, p_sign * p_amount)
+    ON CONFLICT (day) DO UPDATE
+    SET orderCount = DailySales.orderCount + EXCLUDED.orderCount, revenue = DailySales.revenue + EXCLUDED.revenue;
+
+    -- The order items are only present when an existing order changes or is deleted
+    INSERT INTO DailyBookSales (day, bookID, units)
+    SELECT p_day, oi.bookID, p_sign * SUM(oi.quantity)
+    FROM OrderItems oi
+    WHERE oi.orderID = p_orderID
+    GROUP BY oi.bookID
+    ON CONFLICT (day, bookID) DO UPDATE
+    SET units = DailyBookSales.units + EXCLUDED.units;
+
+    INSERT INTO DailyGenreSales (day, genre, units)
+    SELECT p_day, g.genre, p_sign * SUM(oi.quantity)
+    FROM OrderItems oi
+    INNER JOIN Genres g ON g.bookID = oi.bookID
+    WHERE oi.orderID = p_orderID
+    GROUP BY g.genre
+    ON CONFLICT (day, genre) DO UPDATE
+    SET units = DailyGenreSales.units + EXCLUDED.units;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION rollup_order_status(p_status VARCHAR, p_count INT) RETURNS VOID AS $$
+BEGIN
+    INSERT INTO OrderStatusCounts (status, orderCount)
+    VALUES (p_status, p_count)
+    ON CONFLICT (status) DO UPDATE
+    SET orderCount = OrderStatusCounts.orderCount + EXCLUDED.orderCount;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION rollup_order() RETURNS TRIGGER AS $$
+DECLARE
+    status_changed BOOLEAN := TG_OP <> 'UPDATE' OR OLD.status <> NEW.status;
+    -- Moving between two statuses that are not cancelled leaves the sales as they are
+    sales_changed BOOLEAN := TG_OP <> 'UPDATE' OR (OLD.status = 'CANCELLED') <> (NEW.status = 'CANCELLED')
+        OR OLD.orderDate <> NEW.orderDate OR OLD.totalAmount <> NEW.totalAmount;
+BEGIN
+    IF TG_OP <> 'INSERT' THEN
+        IF status_changed THEN
+            PERFORM rollup_order_status(OLD.status, -1);
+        END IF;
+        IF sales_changed AND OLD.status <> 'CANCELLED' THEN
+            PERFORM rollup_order_sales(OLD.ID, OLD.orderDate, OLD.totalAmount, -1);
+        END IF;
+    END IF;
+
+    IF TG_OP <> 'DELETE' THEN
+        IF status_changed THEN
+            PERFORM rollup_order_status(NEW.status, 1);
+        END IF;
+        IF sales_changed AND NEW.status <> 'CANCELLED' THEN
+            PERFORM rollup_order_sales(NEW.ID, NEW.orderDate, NEW.totalAmount, 1);
+        END IF;
+        RETURN NEW;
+    END IF;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION rollup_order_item() RETURNS TRIGGER AS $$
+DECLARE
+    item_order RECORD;
+BEGIN
+    -- Items deleted by the cascade of their order were already taken out with the order
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        SELECT o.status, o.orderDate INTO item_order FROM Orders o WHERE o.ID = OLD.orderID;
+        IF FOUND AND item_order.status <> 'CANCELLED' THEN
+            PERFORM rollup_book_units(item_order.orderDate, OLD.bookID, -OLD.quantity);
+        END IF;
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        SELECT o.status, o.orderDate INTO item_order FROM Orders o WHERE o.ID = NEW.orderID;
+        IF FOUND AND item_order.status <> 'CANCELLED' THEN
+            PERFORM rollup_book_units(item_order.orderDate, NEW.bookID, NEW.quantity);
+        END IF;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Deletes are rolled up before the row is gone, so that the items removed by the cascade are still visible
+CREATE TRIGGER rollup_order_delete
+BEFORE DELETE ON Orders
+FOR EACH ROW EXECUTE FUNCTION rollup_order();
+
+CREATE TRIGGER rollup_order
+AFTER INSERT OR UPDATE ON Orders
+FOR EACH ROW EXECUTE FUNCTION rollup_order();
+
+CREATE TRIGGER rollup_order_item
+AFTER INSERT OR UPDATE OR DELETE ON OrderItems
+FOR EACH ROW EXECUTE FUNCTION rollup_order_item();
+
+-- Rolling up the existing orders
+INSERT INTO DailySales (day, orderCount, revenue)
+SELECT o.orderDate, COUNT(*), SUM(o.totalAmount)
+FROM Orders o
+WHERE o.status <> 'CANCELLED'
+GROUP BY o.orderDate;
+
+INSERT INTO DailyBookSales (day, bookID, units)
+SELECT o.orderDate, oi.bookID, SUM(oi.quantity)
+FROM OrderItems oi
+INNER JOIN Orders o ON o.ID = oi.orderID
+WHERE o.status <> 'CANCELLED'
+GROUP BY o.orderDate, oi.bookID;
+
+INSERT INTO DailyGenreSales (day, genre, units)
+SELECT o.orderDate, g.genre, SUM(oi.quantity)
+FROM OrderItems oi
+INNER JOIN Orders o ON o.ID = oi.orderID
+INNER JOIN Genres g ON g.bookID = oi.bookID
+WHERE o.status <> 'CANCELLED'
+GROUP BY o.orderDate, g.genre;
+
+INSERT INTO OrderStatusCounts (status, orderCount)
+SELECT o.status, COUNT(*)
+FROM Orders o
+GROUP BY o.status;
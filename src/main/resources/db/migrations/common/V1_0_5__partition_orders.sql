@@ -0,0 +1,93 @@
+-- Partitioning Orders by month of orderDate, with OrderItems split by the same months, so that date range queries
+-- only scan the matching months and old months can be detached and archived whole.
+-- OrderItems carries the orderDate of its order for that, kept in step by the composite foreign key.
+ALTER TABLE OrderItems RENAME TO OrderItems_unpartitioned;
+ALTER TABLE OrderItems_unpartitioned RENAME CONSTRAINT orderitems_pkey TO orderitems_unpartitioned_pkey;
+ALTER TABLE Orders RENAME TO Orders_unpartitioned;
+ALTER TABLE Orders_unpartitioned RENAME CONSTRAINT orders_pkey TO orders_unpartitioned_pkey;
+
+ALTER SEQUENCE orders_id_seq OWNED BY NONE;
+ALTER SEQUENCE orderitems_id_seq OWNED BY NONE;
+
+CREATE TABLE Orders (
+    ID INT NOT NULL DEFAULT nextval('orders_id_seq'),
+    userID INT NOT NULL,
+    totalAmount FLOAT NOT NULL,
+    status VARCHAR(15) NOT NULL,
+    orderDate DATE NOT NULL,
+
+    PRIMARY KEY(ID, orderDate),
+    FOREIGN KEY (userID) REFERENCES Users(ID) ON DELETE CASCADE
+) PARTITION BY RANGE (orderDate);
+
+CREATE TABLE OrderItems (
+    ID INT NOT NULL DEFAULT nextval('orderitems_id_seq'),
+    orderID INT NOT NULL,
+    orderDate DATE NOT NULL,
+    bookID INT NOT NULL,
+    quantity INT DEFAULT 1,
+
+    PRIMARY KEY(ID, orderDate),
+    CONSTRAINT orderitems_order_fkey FOREIGN KEY (orderID, orderDate) REFERENCES Orders(ID, orderDate)
+        ON DELETE CASCADE ON UPDATE CASCADE,
+    FOREIGN KEY (bookID) REFERENCES Books(ID) ON DELETE CASCADE
+) PARTITION BY RANGE (orderDate);
+
+CREATE INDEX ON Orders (userID);
+CREATE INDEX ON OrderItems (orderID);
+
+-- Rows outside the monthly partitions, which are created a few months ahead
+CREATE TABLE Orders_default PARTITION OF Orders DEFAULT;
+CREATE TABLE OrderItems_default PARTITION OF OrderItems DEFAULT;
+
+CREATE FUNCTION create_order_partitions(p_from DATE, p_to DATE) RETURNS INT AS $$
+DECLARE
+    partition_month DATE := date_trunc('month', p_from)::DATE;
+    suffix TEXT;
+    created INT := 0;
+BEGIN
+    WHILE partition_month <= p_to LOOP
+        suffix := to_char(partition_month, 'YYYY_MM');
+        IF to_regclass('orders_' || suffix) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF Orders FOR VALUES FROM (%L) TO (%L)',
+                'orders_' || suffix, partition_month, (partition_month + INTERVAL '1 month')::DATE);
+            EXECUTE format('CREATE TABLE %I PARTITION OF OrderItems FOR VALUES FROM (%L) TO (%L)',
+                'orderitems_' || suffix, partition_month, (partition_month + INTERVAL '1 month')::DATE);
+            created := created + 1;
+        END IF;
+        partition_month := (partition_month + INTERVAL '1 month')::DATE;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT create_order_partitions(COALESCE((SELECT MIN(orderDate) FROM Orders_unpartitioned), CURRENT_DATE),
+    (CURRENT_DATE + INTERVAL '3 months')::DATE);
+
+INSERT INTO Orders (ID, userID, totalAmount, status, orderDate)
+SELECT o.ID, o.userID, o.totalAmount, o.status, o.orderDate
+FROM Orders_unpartitioned o;
+
+INSERT INTO OrderItems (ID, orderID, orderDate, bookID, quantity)
+SELECT oi.ID, oi.orderID, o.orderDate, oi.bookID, oi.quantity
+FROM OrderItems_unpartitioned oi
+INNER JOIN Orders_unpartitioned o ON o.ID = oi.orderID;
+
+DROP TABLE OrderItems_unpartitioned;
+DROP TABLE Orders_unpartitioned;
+
+ALTER SEQUENCE orders_id_seq OWNED BY Orders.ID;
+ALTER SEQUENCE orderitems_id_seq OWNED BY OrderItems.ID;
+
+-- The sales rollup triggers were dropped with the old tables, the copied rows are already rolled up
+CREATE TRIGGER rollup_order_delete
+BEFORE DELETE ON Orders
+FOR EACH ROW EXECUTE FUNCTION rollup_order();
+
+CREATE TRIGGER rollup_order
+AFTER INSERT OR UPDATE ON Orders
+FOR EACH ROW EXECUTE FUNCTION rollup_order();
+
+CREATE TRIGGER rollup_order_item
+AFTER INSERT OR UPDATE OR DELETE ON OrderItems
+FOR EACH ROW EXECUTE FUNCTION rollup_order_item();
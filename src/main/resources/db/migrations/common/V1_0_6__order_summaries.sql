@@ -0,0 +1,29 @@
+-- Read model of the order history listings, one row per order with everything the listings show, so that a page of
+-- orders is a single index range scan. It is kept up to date by the order and book write paths of the application
+-- and can be rebuilt from the source tables at any time.
+-- No foreign key to Orders, so that the order partitions can still be detached
+CREATE TABLE OrderSummaries (
+    orderID INT,
+    userID INT NOT NULL,
+    orderDate DATE NOT NULL,
+    status VARCHAR(15) NOT NULL,
+    totalAmount FLOAT NOT NULL,
+    itemCount INT NOT NULL,
+    firstBookID INT,
+    firstBookTitle VARCHAR(63),
+
+    PRIMARY KEY(orderID),
+    FOREIGN KEY (userID) REFERENCES Users(ID) ON DELETE CASCADE
+);
+
+CREATE INDEX ON OrderSummaries (userID, orderDate DESC, orderID DESC);
+CREATE INDEX ON OrderSummaries (orderDate DESC, orderID DESC);
+CREATE INDEX ON OrderSummaries (firstBookID);
+
+INSERT INTO OrderSummaries (orderID, userID, orderDate, status, totalAmount, itemCount, firstBookID, firstBookTitle)
+SELECT o.ID, o.userID, o.orderDate, o.status, o.totalAmount, COALESCE(SUM(oi.quantity), 0),
+    (array_agg(oi.bookID ORDER BY oi.ID))[1], (array_agg(b.title ORDER BY oi.ID))[1]
+FROM Orders o
+LEFT JOIN OrderItems oi ON oi.orderID = o.ID AND oi.orderDate = o.orderDate
+LEFT JOIN Books b ON b.ID = oi.bookID
+GROUP BY o.ID, o.userID, o.orderDate, o.status, o.totalAmount;
@@ -0,0 +1,17 @@
+-- Opaque refresh tokens, stored as the SHA-256 hash of the token. Every login starts a family of tokens, each one
+-- replaced by the next on use, so that a used token presented again reveals a stolen token.
+CREATE TABLE RefreshTokens (
+    ID SERIAL,
+    userID INT NOT NULL,
+    familyID UUID NOT NULL,
+    tokenHash VARCHAR(64) NOT NULL,
+    expiresAt TIMESTAMPTZ NOT NULL,
+    usedAt TIMESTAMPTZ,
+
+    PRIMARY KEY(ID),
+    UNIQUE (tokenHash),
+    FOREIGN KEY (userID) REFERENCES Users(ID) ON DELETE CASCADE
+);
+
+CREATE INDEX ON RefreshTokens (familyID);
+CREATE INDEX ON RefreshTokens (expiresAt);
@@ -0,0 +1,10 @@
+-- Access tokens revoked before they expire, by token ID. Every row can be deleted once the token it covers would
+-- have expired anyway, so the table only ever holds the revocations of the last access token lifetime.
+CREATE TABLE RevokedTokens (
+    tokenID VARCHAR(36),
+    expiresAt TIMESTAMPTZ NOT NULL,
+
+    PRIMARY KEY(tokenID)
+);
+
+CREATE INDEX ON RevokedTokens (expiresAt);
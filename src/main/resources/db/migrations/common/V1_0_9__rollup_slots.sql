@@ -0,0 +1,133 @@
+-- Spreading the rollup counters that every order touches over several slot rows, summed when read, so that concurrent
+-- checkouts update different rows instead of queueing on the single row of the day, the genre or the status.
+-- DailyBookSales keeps one row, the checkouts of a book already queue on the stock of the book.
+ALTER TABLE DailySales ADD COLUMN slot SMALLINT NOT NULL DEFAULT 0;
+ALTER TABLE DailySales DROP CONSTRAINT dailysales_pkey;
+ALTER TABLE DailySales ADD PRIMARY KEY (day, slot);
+
+ALTER TABLE DailyGenreSales ADD COLUMN slot SMALLINT NOT NULL DEFAULT 0;
+ALTER TABLE DailyGenreSales DROP CONSTRAINT dailygenresales_pkey;
+ALTER TABLE DailyGenreSales ADD PRIMARY KEY (day, genre, slot);
+
+ALTER TABLE OrderStatusCounts ADD COLUMN slot SMALLINT NOT NULL DEFAULT 0;
+ALTER TABLE OrderStatusCounts DROP CONSTRAINT orderstatuscounts_pkey;
+ALTER TABLE OrderStatusCounts ADD PRIMARY KEY (status, slot);
+
+-- Concurrent transactions run on different pooled connections, so the backend of the connection picks the slot
+CREATE FUNCTION rollup_slot() RETURNS SMALLINT AS $$
+    SELECT (pg_backend_pid() % 16)::SMALLINT;
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION rollup_book_units(p_day DATE, p_bookID INT, p_units INT) RETURNS VOID AS $$
+BEGIN
+    INSERT INTO DailyBookSales (day, bookID, units)
+    VALUES (p_day, p_bookID, p_units)
+    ON CONFLICT (day, bookID) DO UPDATE
+    SET units = DailyBookSales.units + EXCLUDED.units;
+
+    INSERT INTO DailyGenreSales (day, genre, slot, units)
+    SELECT p_day, g.genre, rollup_slot(), p_units
+    FROM Genres g
+    WHERE g.bookID = p_bookID
+    ON CONFLICT (day, genre, slot) DO UPDATE
+    SET units = DailyGenreSales.units + EXCLUDED.units;
+END;
+$$ LANGUAGE plpgsql;
+
+-- The items are looked up by the date they are filed under as well, so that only the partition of one month is read.
+-- That date is passed apart from the day of the sales, as an updated orderDate is cascaded to the items first.
+CREATE FUNCTION rollup_order_sales(p_orderID INT, p_itemsDay DATE, p_day DATE, p_amount FLOAT, p_sign INT)
+RETURNS VOID AS $$
+BEGIN
+    INSERT INTO DailySales (day, slot, orderCount, revenue)
+    VALUES (p_day, rollup_slot(), p_sign, p_sign * p_amount)
+    ON CONFLICT (day, slot) DO UPDATE
+    SET orderCount = DailySales.orderCount + EXCLUDED.orderCount, revenue = DailySales.revenue + EXCLUDED.revenue;
+
+    -- The order items are only present when an existing order changes or is deleted
+    INSERT INTO DailyBookSales (day, bookID, units)
+    SELECT p_day, oi.bookID, p_sign * SUM(oi.quantity)
+    FROM OrderItems oi
+    WHERE oi.orderID = p_orderID AND oi.orderDate = p_itemsDay
+    GROUP BY oi.bookID
+    ON CONFLICT (day, bookID) DO UPDATE
+    SET units = DailyBookSales.units + EXCLUDED.units;
+
+    INSERT INTO DailyGenreSales (day, genre, slot, units)
+    SELECT p_day, g.genre, rollup_slot(), p_sign * SUM(oi.quantity)
+    FROM OrderItems oi
+    INNER JOIN Genres g ON g.bookID = oi.bookID
+    WHERE oi.orderID = p_orderID AND oi.orderDate = p_itemsDay
+    GROUP BY g.genre
+    ON CONFLICT (day, genre, slot) DO UPDATE
+    SET units = DailyGenreSales.units + EXCLUDED.units;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION rollup_order_status(p_status VARCHAR, p_count INT) RETURNS VOID AS $$
+BEGIN
+    INSERT INTO OrderStatusCounts (status, slot, orderCount)
+    VALUES (p_status, rollup_slot(), p_count)
+    ON CONFLICT (status, slot) DO UPDATE
+    SET orderCount = OrderStatusCounts.orderCount + EXCLUDED.orderCount;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION rollup_order() RETURNS TRIGGER AS $$
+DECLARE
+    status_changed BOOLEAN := TG_OP <> 'UPDATE' OR OLD.status <> NEW.status;
+    -- Moving between two statuses that are not cancelled leaves the sales as they are
+    sales_changed BOOLEAN := TG_OP <> 'UPDATE' OR (OLD.status = 'CANCELLED') <> (NEW.status = 'CANCELLED')
+        OR OLD.orderDate <> NEW.orderDate OR OLD.totalAmount <> NEW.totalAmount;
+    items_day DATE := CASE WHEN TG_OP = 'DELETE' THEN OLD.orderDate ELSE NEW.orderDate END;
+BEGIN
+    IF TG_OP <> 'INSERT' THEN
+        IF status_changed THEN
+            PERFORM rollup_order_status(OLD.status, -1);
+        END IF;
+        IF sales_changed AND OLD.status <> 'CANCELLED' THEN
+            PERFORM rollup_order_sales(OLD.ID, items_day, OLD.orderDate, OLD.totalAmount, -1);
+        END IF;
+    END IF;
+
+    IF TG_OP <> 'DELETE' THEN
+        IF status_changed THEN
+            PERFORM rollup_order_status(NEW.status, 1);
+        END IF;
+        IF sales_changed AND NEW.status <> 'CANCELLED' THEN
+            PERFORM rollup_order_sales(NEW.ID, items_day, NEW.orderDate, NEW.totalAmount, 1);
+        END IF;
+        RETURN NEW;
+    END IF;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP FUNCTION rollup_order_sales(INT, DATE, FLOAT, INT);
+
+-- The order of an item is looked up by the orderDate the item carries, so that only one partition is probed
+CREATE OR REPLACE FUNCTION rollup_order_item() RETURNS TRIGGER AS $$
+DECLARE
+    item_order RECORD;
+BEGIN
+    -- Items deleted by the cascade of their order were already taken out with the order
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        SELECT o.status, o.orderDate INTO item_order
+        FROM Orders o
+        WHERE o.ID = OLD.orderID AND o.orderDate = OLD.orderDate;
+        IF FOUND AND item_order.status <> 'CANCELLED' THEN
+            PERFORM rollup_book_units(item_order.orderDate, OLD.bookID, -OLD.quantity);
+        END IF;
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        SELECT o.status, o.orderDate INTO item_order
+        FROM Orders o
+        WHERE o.ID = NEW.orderID AND o.orderDate = NEW.orderDate;
+        IF FOUND AND item_order.status <> 'CANCELLED' THEN
+            PERFORM rollup_book_units(item_order.orderDate, NEW.bookID, NEW.quantity);
+        END IF;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
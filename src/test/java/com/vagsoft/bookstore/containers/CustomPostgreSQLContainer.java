@@ -4,7 +4,7 @@ import org.testcontainers.containers.PostgreSQLContainer;
 
 /** Class for Test PostgreSQL Container configuration */
 public class CustomPostgreSQLContainer extends PostgreSQLContainer<CustomPostgreSQLContainer> {
-    private static final String IMAGE_VERSION = "postgres";
+    private static final String IMAGE_VERSION = "postgres:17";
     private static CustomPostgreSQLContainer container;
 
     private CustomPostgreSQLContainer() {
@@ -0,0 +1,168 @@
+package com.vagsoft.bookstore.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import com.vagsoft.bookstore.controllers.AuthController;
+import com.vagsoft.bookstore.dto.userDTOs.UserLoginDTO;
+import com.vagsoft.bookstore.dto.userDTOs.UserReadDTO;
+import com.vagsoft.bookstore.dto.userDTOs.UserUpdateDTO;
+import com.vagsoft.bookstore.models.entities.User;
+import com.vagsoft.bookstore.models.enums.Role;
+import com.vagsoft.bookstore.repositories.RefreshTokenRepository;
+import com.vagsoft.bookstore.repositories.RevokedTokenRepository;
+import com.vagsoft.bookstore.repositories.UserRepository;
+import com.vagsoft.bookstore.services.TokenRevocationService;
+import com.vagsoft.bookstore.utils.AuthUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestMethodOrder(MethodOrderer.DisplayName.class)
+@ActiveProfiles("test")
+public class AuthIntegrationTest {
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private TestRestTemplate client;
+
+    @MockitoBean
+    private AuthUtils authUtils;
+
+    User user1;
+
+    @BeforeEach
+    public void setUp() {
+        user1 = new User("jane.smith@example.com", "janesmith", passwordEncoder.encode("password123"), Role.USER,
+                "Jane", "Smith", LocalDate.parse("2022-01-05"));
+        userRepository.save(user1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        refreshTokenRepository.deleteAll();
+
+        revokedTokenRepository.deleteAll();
+
+        userRepository.deleteAll();
+    }
+
+    private String login() {
+        ResponseEntity<String> response = client.postForEntity("/auth/login",
+                new UserLoginDTO("janesmith", "password123"), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        String refreshToken = response.getHeaders().getFirst(AuthController.REFRESH_TOKEN_HEADER);
+        assertNotNull(refreshToken);
+        return refreshToken;
+    }
+
+    private ResponseEntity<String> refresh(final String refreshToken) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(AuthController.REFRESH_TOKEN_HEADER, refreshToken);
+
+        return client.exchange("/auth/refresh", HttpMethod.POST, new HttpEntity<>(headers), String.class);
+    }
+
+    @Test
+    @DisplayName("POST /auth/refresh - Success")
+    void refreshSuccess() {
+        String refreshToken = login();
+
+        ResponseEntity<String> response = refresh(refreshToken);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        String newRefreshToken = response.getHeaders().getFirst(AuthController.REFRESH_TOKEN_HEADER);
+        assertNotNull(newRefreshToken);
+        assertNotEquals(refreshToken, newRefreshToken);
+
+        assertEquals(HttpStatus.OK, refresh(newRefreshToken).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("POST /auth/refresh - Reused Token")
+    void refreshReusedToken() {
+        String refreshToken = login();
+        String newRefreshToken = refresh(refreshToken).getHeaders().getFirst(AuthController.REFRESH_TOKEN_HEADER);
+
+        ResponseEntity<String> response = refresh(refreshToken);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        // The reuse revokes the whole family, so the token issued in the meantime is rejected too
+        assertEquals(HttpStatus.UNAUTHORIZED, refresh(newRefreshToken).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("POST /auth/refresh - Invalid Token")
+    void refreshInvalidToken() {
+        ResponseEntity<String> response = refresh("invalid-token");
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("POST /auth/refresh - Password Changed")
+    void refreshPasswordChanged() {
+        String refreshToken = login();
+        when(authUtils.getUserIdFromAuthentication()).thenReturn(user1.getId());
+
+        UserUpdateDTO userUpdateDTO = new UserUpdateDTO();
+        userUpdateDTO.setPassword("newpassword123");
+        ResponseEntity<UserReadDTO> updateResponse = client.exchange("/users/me", HttpMethod.PUT,
+                new HttpEntity<>(userUpdateDTO), UserReadDTO.class);
+
+        assertEquals(HttpStatus.OK, updateResponse.getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, refresh(refreshToken).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("POST /auth/logout - Success")
+    void logoutSuccess() {
+        String refreshToken = login();
+        Jwt jwt = Jwt.withTokenValue("token1").header("alg", "RS256").subject("janesmith").id("token-id-1")
+                .issuedAt(Instant.now()).expiresAt(Instant.now().plusSeconds(300)).build();
+        when(authUtils.getJwtFromAuthentication()).thenReturn(jwt);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(AuthController.REFRESH_TOKEN_HEADER, refreshToken);
+        ResponseEntity<Void> response = client.exchange("/auth/logout", HttpMethod.POST, new HttpEntity<>(headers),
+                Void.class);
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertTrue(tokenRevocationService.isRevoked(jwt));
+        assertTrue(revokedTokenRepository.existsById("token-id-1"));
+        assertEquals(HttpStatus.UNAUTHORIZED, refresh(refreshToken).getStatusCode());
+    }
+}
@@ -8,7 +8,11 @@ import java.net.URI;
 import java.time.LocalDate;
 import java.util.ArrayList;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vagsoft.bookstore.dto.bookDTOs.BookReadDTO;
+import com.vagsoft.bookstore.dto.bookDTOs.BookUpdateDTO;
 import com.vagsoft.bookstore.dto.cartDTOs.CartReadDTO;
 import com.vagsoft.bookstore.mappers.CartMapper;
 import com.vagsoft.bookstore.models.entities.Book;
@@ -32,6 +36,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -177,6 +182,39 @@ public class CartIntegrationTest {
         assertEquals(cartMapper.cartToReadDto(cart1), firstCart);
     }
 
+    @Test
+    @DisplayName("GET /carts/me - Totals")
+    void getCartMeTotals() throws JsonProcessingException {
+        when(authUtils.getUserIdFromAuthentication()).thenReturn(user1.getId());
+        ResponseEntity<String> response = client.getForEntity("/carts/me", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+
+        JsonNode cart = objectMapper.readTree(response.getBody());
+        assertEquals(30.0, cart.get("cartItems").get(0).get("subtotal").asDouble());
+        assertEquals(20.0, cart.get("cartItems").get(1).get("subtotal").asDouble());
+        assertEquals(50.0, cart.get("total").asDouble());
+    }
+
+    @Test
+    @DisplayName("GET /carts/me - Totals After Book Price Change")
+    void getCartMeTotalsAfterPriceChange() {
+        when(authUtils.getUserIdFromAuthentication()).thenReturn(user1.getId());
+        assertEquals(50.0, client.getForEntity("/carts/me", CartReadDTO.class).getBody().getTotal());
+
+        BookUpdateDTO bookUpdateDTO = BookUpdateDTO.builder().price(25.0).build();
+        ResponseEntity<BookReadDTO> updateResponse = client.exchange("/books/" + book2.getId(), HttpMethod.PUT,
+                new HttpEntity<>(bookUpdateDTO), BookReadDTO.class);
+        assertEquals(HttpStatus.OK, updateResponse.getStatusCode());
+
+        ResponseEntity<CartReadDTO> response = client.getForEntity("/carts/me", CartReadDTO.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(55.0, response.getBody().getTotal());
+    }
+
     @Test
     @DisplayName("GET /carts/me - Error JWT")
     void getCartMeError() {
@@ -9,16 +9,21 @@ import static org.mockito.Mockito.when;
 import java.net.URI;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vagsoft.bookstore.dto.cartDTOs.CartItemOperationDTO;
 import com.vagsoft.bookstore.dto.cartDTOs.CartItemReadDTO;
 import com.vagsoft.bookstore.dto.cartDTOs.CartItemUpdateDTO;
 import com.vagsoft.bookstore.dto.cartDTOs.CartItemWriteDTO;
+import com.vagsoft.bookstore.dto.cartDTOs.CartItemsBatchDTO;
+import com.vagsoft.bookstore.dto.cartDTOs.CartReadDTO;
 import com.vagsoft.bookstore.mappers.CartItemMapper;
 import com.vagsoft.bookstore.models.entities.Book;
 import com.vagsoft.bookstore.models.entities.Cart;
 import com.vagsoft.bookstore.models.entities.CartItem;
 import com.vagsoft.bookstore.models.entities.User;
+import com.vagsoft.bookstore.models.enums.CartItemAction;
 import com.vagsoft.bookstore.models.enums.Role;
 import com.vagsoft.bookstore.pagination.CustomPageImpl;
 import com.vagsoft.bookstore.repositories.BookRepository;
@@ -543,6 +548,85 @@ public class CartItemsIntegrationTest {
         assertFalse(cartItemsRepository.existsByUserIDAndBookID(user2.getId(), book2.getId()));
     }
 
+    @Test
+    @DisplayName("POST /carts/me/items - Existing Item Incremented")
+    public void addCartItemMeExisting() {
+        when(authUtils.getUserIdFromAuthentication()).thenReturn(user1.getId());
+
+        CartItemWriteDTO cartItemWriteDTO = new CartItemWriteDTO(book1.getId(), 2);
+        ResponseEntity<CartItemReadDTO> response = client.postForEntity("/carts/me/items", cartItemWriteDTO,
+                CartItemReadDTO.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        assertNotNull(response.getBody());
+
+        CartItem cartItem = CartItem.builder().cart(cart1).book(book1).quantity(4).build();
+        assertEquals(cartItemMapper.cartItemToReadDto(cartItem), response.getBody());
+
+        assertEquals(1, cartItemsRepository.findAllByUserID(user1.getId()).stream()
+                .filter(item -> item.getBook().getId().equals(book1.getId())).count());
+    }
+
+    @Test
+    @DisplayName("POST /carts/me/items - Not Enough Stock")
+    public void addCartItemMeNotEnoughStock() {
+        when(authUtils.getUserIdFromAuthentication()).thenReturn(user1.getId());
+
+        CartItemWriteDTO cartItemWriteDTO = new CartItemWriteDTO(book1.getId(), 4);
+        ResponseEntity<CartItemReadDTO> response = client.postForEntity("/carts/me/items", cartItemWriteDTO,
+                CartItemReadDTO.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+
+        assertEquals(2, cartItemsRepository.findByUserIDAndBookID(user1.getId(), book1.getId()).orElseThrow()
+                .getQuantity());
+    }
+
+    @Test
+    @DisplayName("PATCH /carts/me/items - Success")
+    public void updateCartItemsMe() {
+        when(authUtils.getUserIdFromAuthentication()).thenReturn(user1.getId());
+
+        CartItemsBatchDTO cartItemsBatchDTO = new CartItemsBatchDTO(
+                List.of(new CartItemOperationDTO(CartItemAction.SET, book1.getId(), 4),
+                        new CartItemOperationDTO(CartItemAction.ADD, book1.getId(), 1),
+                        new CartItemOperationDTO(CartItemAction.REMOVE, book2.getId(), 1)));
+
+        ResponseEntity<CartReadDTO> response = client.exchange("/carts/me/items", HttpMethod.PATCH,
+                new HttpEntity<>(cartItemsBatchDTO), CartReadDTO.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        assertNotNull(response.getBody());
+
+        assertEquals(1, response.getBody().getCartItems().size());
+        CartItem cartItem = CartItem.builder().cart(cart1).book(book1).quantity(5).build();
+        assertEquals(cartItemMapper.cartItemToReadDto(cartItem), response.getBody().getCartItems().getFirst());
+
+        assertFalse(cartItemsRepository.existsByUserIDAndBookID(user1.getId(), book2.getId()));
+    }
+
+    @Test
+    @DisplayName("PATCH /carts/me/items - Not Enough Stock")
+    public void updateCartItemsMeNotEnoughStock() {
+        when(authUtils.getUserIdFromAuthentication()).thenReturn(user1.getId());
+
+        CartItemsBatchDTO cartItemsBatchDTO = new CartItemsBatchDTO(
+                List.of(new CartItemOperationDTO(CartItemAction.REMOVE, book2.getId(), 1),
+                        new CartItemOperationDTO(CartItemAction.ADD, book1.getId(), 4)));
+
+        ResponseEntity<CartReadDTO> response = client.exchange("/carts/me/items", HttpMethod.PATCH,
+                new HttpEntity<>(cartItemsBatchDTO), CartReadDTO.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+
+        // Nothing from the batch is applied
+        assertTrue(cartItemsRepository.existsByUserIDAndBookID(user1.getId(), book2.getId()));
+        assertEquals(2, cartItemsRepository.findByUserIDAndBookID(user1.getId(), book1.getId()).orElseThrow()
+                .getQuantity());
+    }
+
     @Test
     @DisplayName("GET /carts/me/items/{bookID} - Success")
     public void getCartItemsMeAndBookID() {
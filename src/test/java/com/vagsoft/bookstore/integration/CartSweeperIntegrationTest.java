@@ -0,0 +1,118 @@
+package com.vagsoft.bookstore.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import com.vagsoft.bookstore.configuration.CartSweeperConfig;
+import com.vagsoft.bookstore.models.entities.Book;
+import com.vagsoft.bookstore.models.entities.Cart;
+import com.vagsoft.bookstore.models.entities.CartItem;
+import com.vagsoft.bookstore.models.entities.User;
+import com.vagsoft.bookstore.models.enums.Role;
+import com.vagsoft.bookstore.repositories.BookRepository;
+import com.vagsoft.bookstore.repositories.CartItemsRepository;
+import com.vagsoft.bookstore.repositories.CartRepository;
+import com.vagsoft.bookstore.repositories.UserRepository;
+import com.vagsoft.bookstore.services.CartSweeperService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@TestMethodOrder(MethodOrderer.DisplayName.class)
+@ActiveProfiles("test")
+public class CartSweeperIntegrationTest {
+    @Autowired
+    private CartRepository cartRepository;
+    @Autowired
+    private CartItemsRepository cartItemsRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CartSweeperService cartSweeperService;
+    @Autowired
+    private CartSweeperConfig cartSweeperConfig;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    Book book1, book2;
+    User user1, user2;
+    Cart cart1, cart2;
+
+    @BeforeEach
+    public void setUp() {
+        book1 = Book.builder().title("The Lord of the Rings").author("J. R. R. Tolkien").pages(1178).price(15.0)
+                .availability(5).isbn("978-0-395-36381-0").genres(new ArrayList<>()).build();
+        book2 = Book.builder().title("Harry Potter and the Philosopher's Stone").author("J. K. Rowling").pages(223)
+                .price(20.0).availability(10).isbn("978-0-7-152-20664-5").genres(new ArrayList<>()).build();
+
+        book1 = bookRepository.save(book1);
+        book2 = bookRepository.save(book2);
+
+        user1 = new User("jane.smith@example.com", "janesmith", "hashed_password_value", Role.USER, "Jane", "Smith",
+                LocalDate.parse("2022-01-05"));
+        user2 = new User("bob.johnson@example.com", "bobjohnson", "hashed_password_value", Role.USER, "Bob", "Johnson",
+                LocalDate.parse("2022-01-10"));
+
+        userRepository.save(user1);
+        userRepository.save(user2);
+
+        cart1 = Cart.builder().user(user1).cartItems(new ArrayList<>()).build();
+        cart2 = Cart.builder().user(user2).cartItems(new ArrayList<>()).build();
+
+        cart1.getCartItems().add(CartItem.builder().cart(cart1).book(book1).quantity(2).build());
+        cart1.getCartItems().add(CartItem.builder().cart(cart1).book(book2).quantity(1).build());
+        cart2.getCartItems().add(CartItem.builder().cart(cart2).book(book1).quantity(3).build());
+
+        cart1 = cartRepository.save(cart1);
+        cart2 = cartRepository.save(cart2);
+
+        cartSweeperConfig.setLoadBudget(1.0);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cartItemsRepository.deleteAll();
+
+        cartRepository.deleteAll();
+
+        bookRepository.deleteAll();
+
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("sweep() - Idle Cart Emptied")
+    void sweepIdleCart() {
+        jdbcTemplate.update("UPDATE Carts SET lastModified = CURRENT_TIMESTAMP - INTERVAL '60 days' WHERE ID = ?",
+                cart1.getId());
+
+        CartSweeperService.SweepReport report = cartSweeperService.sweep();
+
+        assertEquals(2, report.deletedItems());
+        assertEquals(0, cartItemsRepository.findAllByUserID(user1.getId()).size());
+        assertEquals(1, cartItemsRepository.findAllByUserID(user2.getId()).size());
+        assertEquals(2, cartRepository.count());
+    }
+
+    @Test
+    @DisplayName("sweep() - Active Carts Kept")
+    void sweepActiveCarts() {
+        CartSweeperService.SweepReport report = cartSweeperService.sweep();
+
+        assertEquals(0, report.deletedItems());
+        assertEquals(2, cartItemsRepository.findAllByUserID(user1.getId()).size());
+        assertEquals(1, cartItemsRepository.findAllByUserID(user2.getId()).size());
+    }
+}
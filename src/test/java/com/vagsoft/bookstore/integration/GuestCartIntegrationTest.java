@@ -0,0 +1,178 @@
+package com.vagsoft.bookstore.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.vagsoft.bookstore.dto.cartDTOs.CartItemOperationDTO;
+import com.vagsoft.bookstore.dto.cartDTOs.CartItemsBatchDTO;
+import com.vagsoft.bookstore.dto.cartDTOs.CartReadDTO;
+import com.vagsoft.bookstore.dto.userDTOs.UserLoginDTO;
+import com.vagsoft.bookstore.models.entities.Book;
+import com.vagsoft.bookstore.models.entities.Cart;
+import com.vagsoft.bookstore.models.entities.CartItem;
+import com.vagsoft.bookstore.models.entities.User;
+import com.vagsoft.bookstore.models.enums.CartItemAction;
+import com.vagsoft.bookstore.models.enums.Role;
+import com.vagsoft.bookstore.repositories.BookRepository;
+import com.vagsoft.bookstore.repositories.CartItemsRepository;
+import com.vagsoft.bookstore.repositories.CartRepository;
+import com.vagsoft.bookstore.repositories.UserRepository;
+import com.vagsoft.bookstore.services.GuestCartTokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestMethodOrder(MethodOrderer.DisplayName.class)
+@ActiveProfiles("test")
+public class GuestCartIntegrationTest {
+    @Autowired
+    private CartRepository cartRepository;
+    @Autowired
+    private CartItemsRepository cartItemsRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private TestRestTemplate client;
+
+    Book book1, book2;
+    User user1;
+    Cart cart1;
+
+    @BeforeEach
+    public void setUp() {
+        book1 = Book.builder().title("The Lord of the Rings").author("J. R. R. Tolkien").pages(1178).price(15.0)
+                .availability(5).isbn("978-0-395-36381-0").genres(new ArrayList<>()).build();
+        book2 = Book.builder().title("Harry Potter and the Philosopher's Stone").author("J. K. Rowling").pages(223)
+                .price(20.0).availability(10).isbn("978-0-7-152-20664-5").genres(new ArrayList<>()).build();
+
+        book1 = bookRepository.save(book1);
+        book2 = bookRepository.save(book2);
+
+        user1 = new User("jane.smith@example.com", "janesmith", passwordEncoder.encode("password123"), Role.USER,
+                "Jane", "Smith", LocalDate.parse("2022-01-05"));
+        userRepository.save(user1);
+
+        cart1 = Cart.builder().user(user1).cartItems(new ArrayList<>()).build();
+        cart1.getCartItems().add(CartItem.builder().cart(cart1).book(book1).quantity(1).build());
+        cartRepository.save(cart1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cartItemsRepository.deleteAll();
+
+        cartRepository.deleteAll();
+
+        bookRepository.deleteAll();
+
+        userRepository.deleteAll();
+    }
+
+    private ResponseEntity<CartReadDTO> patchGuestCart(final String token, final CartItemOperationDTO... operations) {
+        HttpHeaders headers = new HttpHeaders();
+        if (token != null) {
+            headers.set(GuestCartTokenService.HEADER, token);
+        }
+        CartItemsBatchDTO batchDTO = CartItemsBatchDTO.builder().operations(List.of(operations)).build();
+
+        return client.exchange("/guest-cart/items", HttpMethod.PATCH, new HttpEntity<>(batchDTO, headers),
+                CartReadDTO.class);
+    }
+
+    @Test
+    @DisplayName("GET /guest-cart - Empty")
+    void getGuestCartEmpty() {
+        ResponseEntity<CartReadDTO> response = client.getForEntity("/guest-cart", CartReadDTO.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(0, response.getBody().getCartItems().size());
+    }
+
+    @Test
+    @DisplayName("GET /guest-cart - Invalid Token")
+    void getGuestCartInvalidToken() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(GuestCartTokenService.HEADER, "invalid.token.value");
+
+        ResponseEntity<CartReadDTO> response = client.exchange("/guest-cart", HttpMethod.GET,
+                new HttpEntity<>(headers), CartReadDTO.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("PATCH /guest-cart/items - Success")
+    void updateGuestCartItems() {
+        ResponseEntity<CartReadDTO> firstResponse = patchGuestCart(null,
+                new CartItemOperationDTO(CartItemAction.ADD, book1.getId(), 2),
+                new CartItemOperationDTO(CartItemAction.ADD, book2.getId(), 1));
+        assertEquals(HttpStatus.OK, firstResponse.getStatusCode());
+        String token = firstResponse.getHeaders().getFirst(GuestCartTokenService.HEADER);
+        assertNotNull(token);
+
+        ResponseEntity<CartReadDTO> response = patchGuestCart(token,
+                new CartItemOperationDTO(CartItemAction.REMOVE, book2.getId(), 1));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().getCartItems().size());
+        assertEquals(book1.getId(), response.getBody().getCartItems().getFirst().getBook().getId());
+        assertEquals(2, response.getBody().getCartItems().getFirst().getQuantity());
+        assertEquals(30.0, response.getBody().getTotal());
+        assertEquals(1, cartItemsRepository.findAllByUserID(user1.getId()).size());
+    }
+
+    @Test
+    @DisplayName("PATCH /guest-cart/items - Not Enough Stock")
+    void updateGuestCartItemsNotEnoughStock() {
+        ResponseEntity<CartReadDTO> response = patchGuestCart(null,
+                new CartItemOperationDTO(CartItemAction.ADD, book1.getId(), 6));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("POST /auth/login - Guest Cart Merged")
+    void loginMergesGuestCart() {
+        String token = patchGuestCart(null, new CartItemOperationDTO(CartItemAction.ADD, book1.getId(), 2),
+                new CartItemOperationDTO(CartItemAction.ADD, book2.getId(), 3)).getHeaders()
+                .getFirst(GuestCartTokenService.HEADER);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(GuestCartTokenService.HEADER, token);
+        UserLoginDTO userLoginDTO = new UserLoginDTO("janesmith", "password123");
+        ResponseEntity<String> response = client.exchange("/auth/login", HttpMethod.POST,
+                new HttpEntity<>(userLoginDTO, headers), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        assertEquals(2, cartItemsRepository.findAllByUserID(user1.getId()).size());
+        assertEquals(3, cartItemsRepository.findByUserIDAndBookID(user1.getId(), book1.getId()).orElseThrow()
+                .getQuantity());
+        assertEquals(3, cartItemsRepository.findByUserIDAndBookID(user1.getId(), book2.getId()).orElseThrow()
+                .getQuantity());
+    }
+}
@@ -6,12 +6,19 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vagsoft.bookstore.dto.orderDTOs.OrderReadDTO;
+import com.vagsoft.bookstore.dto.orderDTOs.OrderStatusBatchDTO;
+import com.vagsoft.bookstore.dto.orderDTOs.OrderStatusBatchReadDTO;
+import com.vagsoft.bookstore.dto.orderDTOs.OrderSummaryReadDTO;
+import com.vagsoft.bookstore.dto.orderDTOs.OrderSummaryRebuildReadDTO;
 import com.vagsoft.bookstore.dto.orderDTOs.OrderUpdateDTO;
 import com.vagsoft.bookstore.mappers.OrderItemMapper;
 import com.vagsoft.bookstore.mappers.OrderMapper;
@@ -31,6 +38,10 @@ import com.vagsoft.bookstore.repositories.OrderItemsRepository;
 import com.vagsoft.bookstore.repositories.OrderRepository;
 import com.vagsoft.bookstore.repositories.UserRepository;
 import com.vagsoft.bookstore.utils.AuthUtils;
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -76,6 +87,8 @@ public class OrderIntegrationTest {
     private OrderItemMapper orderItemMapper;
     @Autowired
     private TestRestTemplate client;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
     @MockitoBean
     private AuthUtils authUtils;
 
@@ -143,6 +156,18 @@ public class OrderIntegrationTest {
         orderRepository.save(order2);
     }
 
+    private long countStatements(final Runnable request) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        request.run();
+
+        long statementCount = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+        return statementCount;
+    }
+
     @AfterEach
     public void tearDown() {
         orderItemsRepository.deleteAll();
@@ -178,6 +203,36 @@ public class OrderIntegrationTest {
         assertEquals(orderMapper.orderToReadDto(order2), secondCart);
     }
 
+    @Test
+    @DisplayName("GET /orders - Constant Statement Count")
+    void getAllOrdersConstantStatementCount() {
+        URI uri = UriComponentsBuilder.fromUriString("/orders").queryParam("size", 50).build().encode().toUri();
+
+        ParameterizedTypeReference<CustomPageImpl<OrderReadDTO>> classType = new ParameterizedTypeReference<>() {
+        };
+        long statementsForTwoOrders = countStatements(() -> client.exchange(uri, HttpMethod.GET, null, classType));
+
+        for (int i = 0; i < 20; i++) {
+            Order order = Order.builder().user(i % 2 == 0 ? user1 : user2).orderItems(new ArrayList<>())
+                    .totalAmount(35.0).orderDate(LocalDate.now()).status(Status.PROCESSING).build();
+            order.getOrderItems().add(OrderItem.builder().order(order).book(book1).quantity(1).build());
+            order.getOrderItems().add(OrderItem.builder().order(order).book(book2).quantity(1).build());
+            orderRepository.save(order);
+        }
+
+        List<ResponseEntity<CustomPageImpl<OrderReadDTO>>> responses = new ArrayList<>();
+        long statementsForManyOrders = countStatements(
+                () -> responses.add(client.exchange(uri, HttpMethod.GET, null, classType)));
+
+        assertEquals(HttpStatus.OK, responses.getFirst().getStatusCode());
+        assertNotNull(responses.getFirst().getBody());
+        assertEquals(22, responses.getFirst().getBody().getContent().size());
+
+        // Page query, items, books and genres, plus the count query at most
+        assertTrue(statementsForManyOrders <= 5);
+        assertEquals(statementsForTwoOrders, statementsForManyOrders);
+    }
+
     @Test
     @DisplayName("GET /orders - Success With Filters")
     void getAllOrdersWithFilters() {
@@ -196,6 +251,29 @@ public class OrderIntegrationTest {
         assertEquals(orderMapper.orderToReadDto(order1), firstOrder);
     }
 
+    @Test
+    @DisplayName("GET /orders - Success With Date Range")
+    void getAllOrdersWithDateRange() {
+        Order oldOrder = Order.builder().user(user1).orderItems(new ArrayList<>()).totalAmount(15.0)
+                .orderDate(LocalDate.now().minusMonths(2)).status(Status.DELIVERED).build();
+        oldOrder.getOrderItems().add(OrderItem.builder().order(oldOrder).book(book1).quantity(1).build());
+        orderRepository.save(oldOrder);
+
+        URI uri = UriComponentsBuilder.fromUriString("/orders")
+                .queryParam("minOrderDate", LocalDate.now().minusMonths(3))
+                .queryParam("maxOrderDate", LocalDate.now().minusMonths(1)).build().encode().toUri();
+
+        ParameterizedTypeReference<CustomPageImpl<OrderReadDTO>> classType = new ParameterizedTypeReference<>() {
+        };
+        ResponseEntity<CustomPageImpl<OrderReadDTO>> response = client.exchange(uri, HttpMethod.GET, null, classType);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().getContent().size());
+        assertEquals(oldOrder.getId(), response.getBody().getContent().getFirst().getId());
+    }
+
     @Test
     @DisplayName("GET /orders/{orderID} - Success")
     void getOrderById() {
@@ -228,7 +306,7 @@ public class OrderIntegrationTest {
     @Test
     @DisplayName("PUT /orders/{orderID} - Success")
     void putOrderById() throws Exception {
-        OrderUpdateDTO orderUpdate = OrderUpdateDTO.builder().status(Status.DELIVERED).build();
+        OrderUpdateDTO orderUpdate = OrderUpdateDTO.builder().status(Status.ENROUTE).build();
 
         String orderUpdateString = objectMapper.writeValueAsString(orderUpdate);
         HttpHeaders headers = new HttpHeaders();
@@ -243,13 +321,30 @@ public class OrderIntegrationTest {
         assertNotNull(response.getBody());
 
         OrderReadDTO updatedOrder = response.getBody();
-        assertEquals(Status.DELIVERED, updatedOrder.getStatus());
+        assertEquals(Status.ENROUTE, updatedOrder.getStatus());
         assertEquals(order1.getId(), updatedOrder.getId());
         assertEquals(order1.getUser().getId(), updatedOrder.getUserID());
         assertEquals(order1.getTotalAmount(), updatedOrder.getTotalAmount());
         assertEquals(order1.getOrderItems().size(), updatedOrder.getOrderItems().size());
     }
 
+    @Test
+    @DisplayName("PUT /orders/{orderID} - Invalid Status Transition")
+    void putOrderByIdInvalidTransition() throws Exception {
+        OrderUpdateDTO orderUpdate = OrderUpdateDTO.builder().status(Status.PROCESSING).build();
+
+        String orderUpdateString = objectMapper.writeValueAsString(orderUpdate);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<String> request = new HttpEntity<>(orderUpdateString, headers);
+
+        ResponseEntity<ProblemDetail> response = client.exchange("/orders/" + order2.getId(), HttpMethod.PUT, request,
+                ProblemDetail.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(Status.DELIVERED, orderRepository.findById(order2.getId()).orElseThrow().getStatus());
+    }
+
     @Test
     @DisplayName("PUT /orders/999 - Not Found")
     void putOrderByIdNotFound() throws Exception {
@@ -282,6 +377,111 @@ public class OrderIntegrationTest {
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
 
+    @Test
+    @DisplayName("PATCH /orders/status - Success Cancel")
+    void patchOrderStatusesCancel() {
+        OrderStatusBatchDTO batchDTO = OrderStatusBatchDTO.builder().status(Status.CANCELLED)
+                .orderIDs(List.of(order1.getId(), order2.getId())).build();
+
+        ResponseEntity<OrderStatusBatchReadDTO> response = client.exchange("/orders/status", HttpMethod.PATCH,
+                new HttpEntity<>(batchDTO), OrderStatusBatchReadDTO.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        assertNotNull(response.getBody());
+        // The delivered order cannot be cancelled and is skipped
+        assertEquals(List.of(order1.getId()), response.getBody().getUpdatedOrderIDs());
+        assertEquals(Status.CANCELLED, orderRepository.findById(order1.getId()).orElseThrow().getStatus());
+        assertEquals(Status.DELIVERED, orderRepository.findById(order2.getId()).orElseThrow().getStatus());
+
+        assertEquals(book1.getAvailability() + orderItem1.getQuantity(),
+                bookRepository.findById(book1.getId()).orElseThrow().getAvailability());
+        assertEquals(book2.getAvailability() + orderItem2.getQuantity(),
+                bookRepository.findById(book2.getId()).orElseThrow().getAvailability());
+    }
+
+    @Test
+    @DisplayName("PATCH /orders/status - Success Filter")
+    void patchOrderStatusesFilter() {
+        OrderStatusBatchDTO batchDTO = OrderStatusBatchDTO.builder().status(Status.ENROUTE)
+                .currentStatus(Status.PROCESSING).build();
+
+        ResponseEntity<OrderStatusBatchReadDTO> response = client.exchange("/orders/status", HttpMethod.PATCH,
+                new HttpEntity<>(batchDTO), OrderStatusBatchReadDTO.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        assertNotNull(response.getBody());
+        assertEquals(List.of(order1.getId()), response.getBody().getUpdatedOrderIDs());
+        assertEquals(Status.ENROUTE, orderRepository.findById(order1.getId()).orElseThrow().getStatus());
+        assertEquals(book1.getAvailability(), bookRepository.findById(book1.getId()).orElseThrow().getAvailability());
+    }
+
+    @Test
+    @DisplayName("PATCH /orders/status - Invalid Transition")
+    void patchOrderStatusesInvalidTransition() {
+        OrderStatusBatchDTO batchDTO = OrderStatusBatchDTO.builder().status(Status.PROCESSING)
+                .orderIDs(List.of(order2.getId())).build();
+
+        ResponseEntity<ProblemDetail> response = client.exchange("/orders/status", HttpMethod.PATCH,
+                new HttpEntity<>(batchDTO), ProblemDetail.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(Status.DELIVERED, orderRepository.findById(order2.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("PATCH /orders/status - No Selection")
+    void patchOrderStatusesNoSelection() {
+        OrderStatusBatchDTO batchDTO = OrderStatusBatchDTO.builder().status(Status.CANCELLED).build();
+
+        ResponseEntity<ProblemDetail> response = client.exchange("/orders/status", HttpMethod.PATCH,
+                new HttpEntity<>(batchDTO), ProblemDetail.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(Status.PROCESSING, orderRepository.findById(order1.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("GET /orders/export - Success CSV")
+    void exportOrdersCsv() {
+        URI uri = UriComponentsBuilder.fromUriString("/orders/export").queryParam("status", "PROCESSING").build()
+                .encode().toUri();
+
+        ResponseEntity<String> response = client.exchange(uri, HttpMethod.GET, null, String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+
+        List<String> lines = response.getBody().lines().toList();
+        assertEquals(3, lines.size());
+        assertEquals("orderID,userID,orderDate,status,totalAmount,bookID,isbn,title,quantity", lines.getFirst());
+        assertEquals(order1.getId() + "," + user1.getId() + "," + order1.getOrderDate() + ",PROCESSING,50,"
+                + book1.getId() + ",978-0-395-36381-0,The Lord of the Rings,2", lines.get(1));
+    }
+
+    @Test
+    @DisplayName("GET /orders/export - Success NDJSON Gzip")
+    void exportOrdersNdjsonGzip() throws Exception {
+        URI uri = UriComponentsBuilder.fromUriString("/orders/export").queryParam("format", "NDJSON")
+                .queryParam("gzip", true).build().encode().toUri();
+
+        ResponseEntity<byte[]> response = client.exchange(uri, HttpMethod.GET, null, byte[].class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+
+        List<String> lines;
+        try (GzipCompressorInputStream input = new GzipCompressorInputStream(
+                new ByteArrayInputStream(response.getBody()))) {
+            lines = new String(input.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+        assertEquals(3, lines.size());
+        assertEquals(order2.getId(), objectMapper.readTree(lines.getLast()).get("orderID").asInt());
+        assertEquals("Harry Potter and the Philosopher's Stone",
+                objectMapper.readTree(lines.get(1)).get("title").asText());
+    }
+
     @Test
     @DisplayName("GET /orders/me - Success No Filters")
     void getOrdersMeNoFilters() {
@@ -358,6 +558,64 @@ public class OrderIntegrationTest {
         assertFalse(cartItemsRepository.existsById(cartItem1.getId()));
     }
 
+    @Test
+    @DisplayName("GET /orders/me/summaries - Success")
+    void getOrderSummariesMe() {
+        when(authUtils.getUserIdFromAuthentication()).thenReturn(user1.getId());
+        OrderReadDTO placedOrder = client.postForEntity("/orders/me", null, OrderReadDTO.class).getBody();
+        assertNotNull(placedOrder);
+
+        ParameterizedTypeReference<CustomPageImpl<OrderSummaryReadDTO>> classType = new ParameterizedTypeReference<>() {
+        };
+        ResponseEntity<CustomPageImpl<OrderSummaryReadDTO>> response = client.exchange("/orders/me/summaries",
+                HttpMethod.GET, null, classType);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().getContent().size());
+
+        OrderSummaryReadDTO summary = response.getBody().getContent().getFirst();
+        assertEquals(placedOrder.getId(), summary.getId());
+        assertEquals(user1.getId(), summary.getUserID());
+        assertEquals(Status.PROCESSING, summary.getStatus());
+        assertEquals(50.0, summary.getTotalAmount());
+        assertEquals(3, summary.getItemCount());
+        assertEquals(book1.getTitle(), summary.getFirstBookTitle());
+    }
+
+    @Test
+    @DisplayName("POST /orders/summaries/rebuild - Success")
+    void rebuildOrderSummaries() {
+        ResponseEntity<OrderSummaryRebuildReadDTO> rebuildResponse = client.postForEntity("/orders/summaries/rebuild",
+                null, OrderSummaryRebuildReadDTO.class);
+
+        assertEquals(HttpStatus.OK, rebuildResponse.getStatusCode());
+        assertNotNull(rebuildResponse.getBody());
+        assertEquals(2, rebuildResponse.getBody().getSummaryCount());
+
+        URI uri = UriComponentsBuilder.fromUriString("/orders/summaries").queryParam("status", "DELIVERED").build()
+                .encode().toUri();
+        ParameterizedTypeReference<CustomPageImpl<OrderSummaryReadDTO>> classType = new ParameterizedTypeReference<>() {
+        };
+        ResponseEntity<CustomPageImpl<OrderSummaryReadDTO>> response = client.exchange(uri, HttpMethod.GET, null,
+                classType);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().getContent().size());
+        assertEquals(order2.getId(), response.getBody().getContent().getFirst().getId());
+        assertEquals(3, response.getBody().getContent().getFirst().getItemCount());
+    }
+
+    @Test
+    @DisplayName("GET /orders/summaries - User Not Found")
+    void getOrderSummariesUserNotFound() {
+        ResponseEntity<ProblemDetail> response = client.getForEntity("/orders/summaries?userID=999",
+                ProblemDetail.class);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
     @Test
     @DisplayName("POST /orders/me - Empty Cart")
     void postOrderMeEmptyCart() {
@@ -396,6 +654,45 @@ public class OrderIntegrationTest {
         assertEquals(orderMapper.orderToReadDto(order1), firstOrder);
     }
 
+    @Test
+    @DisplayName("GET /orders/me/{orderID} - Delivered Order Cached")
+    void getOrderMeByIdDeliveredCached() {
+        when(authUtils.getUserIdFromAuthentication()).thenReturn(user2.getId());
+        String path = "/orders/me/" + order2.getId();
+
+        long statementsForFirstView = countStatements(() -> client.getForEntity(path, OrderReadDTO.class));
+
+        List<ResponseEntity<OrderReadDTO>> responses = new ArrayList<>();
+        long statementsForSecondView = countStatements(
+                () -> responses.add(client.getForEntity(path, OrderReadDTO.class)));
+
+        assertEquals(HttpStatus.OK, responses.getFirst().getStatusCode());
+        assertEquals(orderMapper.orderToReadDto(order2), responses.getFirst().getBody());
+
+        // Only the ownership check is left, the order is not loaded again
+        assertTrue(statementsForSecondView < statementsForFirstView);
+    }
+
+    @Test
+    @DisplayName("GET /orders/me/{orderID} - Cached Order Invalidated")
+    void getOrderMeByIdCachedInvalidated() throws Exception {
+        when(authUtils.getUserIdFromAuthentication()).thenReturn(user2.getId());
+        String path = "/orders/me/" + order2.getId();
+        client.getForEntity(path, OrderReadDTO.class);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<String> request = new HttpEntity<>(
+                objectMapper.writeValueAsString(OrderUpdateDTO.builder().status(Status.ENROUTE).build()), headers);
+        client.exchange("/orders/" + order2.getId(), HttpMethod.PUT, request, OrderReadDTO.class);
+
+        ResponseEntity<OrderReadDTO> response = client.getForEntity(path, OrderReadDTO.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(Status.ENROUTE, response.getBody().getStatus());
+    }
+
     @Test
     @DisplayName("GET /orders/me/999 - Not Found")
     void getOrderMeByIdNotFound() {
@@ -0,0 +1,140 @@
+package com.vagsoft.bookstore.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.vagsoft.bookstore.configuration.OrderPartitionConfig;
+import com.vagsoft.bookstore.models.entities.Book;
+import com.vagsoft.bookstore.models.entities.Order;
+import com.vagsoft.bookstore.models.entities.OrderItem;
+import com.vagsoft.bookstore.models.entities.User;
+import com.vagsoft.bookstore.models.enums.Role;
+import com.vagsoft.bookstore.models.enums.Status;
+import com.vagsoft.bookstore.repositories.BookRepository;
+import com.vagsoft.bookstore.repositories.OrderItemsRepository;
+import com.vagsoft.bookstore.repositories.OrderRepository;
+import com.vagsoft.bookstore.repositories.UserRepository;
+import com.vagsoft.bookstore.services.OrderPartitionService;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@TestMethodOrder(MethodOrderer.DisplayName.class)
+@ActiveProfiles("test")
+public class OrderPartitionIntegrationTest {
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OrderItemsRepository orderItemsRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private OrderPartitionService orderPartitionService;
+    @Autowired
+    private OrderPartitionConfig orderPartitionConfig;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path archiveDirectory;
+
+    Book book1;
+    User user1;
+    Order order1;
+
+    @BeforeEach
+    public void setUp() {
+        book1 = Book.builder().title("The Lord of the Rings").author("J. R. R. Tolkien").pages(1178).price(15.0)
+                .availability(5).isbn("978-0-395-36381-0").genres(new ArrayList<>()).build();
+        book1 = bookRepository.save(book1);
+
+        user1 = new User("jane.smith@example.com", "janesmith", "hashed_password_value", Role.USER, "Jane", "Smith",
+                LocalDate.parse("2022-01-05"));
+        userRepository.save(user1);
+
+        order1 = Order.builder().user(user1).orderItems(new ArrayList<>()).totalAmount(30.0)
+                .orderDate(LocalDate.now()).status(Status.PROCESSING).build();
+        order1.getOrderItems().add(OrderItem.builder().order(order1).book(book1).quantity(2).build());
+        orderRepository.save(order1);
+
+        orderPartitionConfig.setArchiveDirectory(archiveDirectory.toString());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        orderPartitionConfig.setRetentionMonths(24);
+
+        orderItemsRepository.deleteAll();
+
+        orderRepository.deleteAll();
+
+        bookRepository.deleteAll();
+
+        userRepository.deleteAll();
+
+        orderPartitionService.createPartitions();
+    }
+
+    @Test
+    @DisplayName("createPartitions() - Month Range Pruned")
+    void createPartitionsMonthRangePruned() {
+        YearMonth month = YearMonth.now();
+        String suffix = month.format(DateTimeFormatter.ofPattern("yyyy_MM"));
+
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN SELECT * FROM Orders o WHERE o.orderDate >= '"
+                + month.atDay(1) + "' AND o.orderDate <= '" + month.atEndOfMonth() + "'", String.class);
+
+        assertTrue(plan.stream().anyMatch(line -> line.contains("orders_" + suffix)));
+        assertFalse(plan.stream().anyMatch(line -> line.contains("orders_default")));
+        assertFalse(plan.stream().anyMatch(line -> line.contains("orders_" + month.plusMonths(1).format(
+                DateTimeFormatter.ofPattern("yyyy_MM")))));
+    }
+
+    @Test
+    @DisplayName("archivePartitions() - Expired Month Archived")
+    void archivePartitionsExpiredMonth() throws IOException {
+        String suffix = YearMonth.now().format(DateTimeFormatter.ofPattern("yyyy_MM"));
+        orderPartitionConfig.setRetentionMonths(-1);
+
+        List<YearMonth> archived = orderPartitionService.archivePartitions();
+
+        assertEquals(List.of(YearMonth.now()), archived);
+        assertEquals(0, orderRepository.count());
+        assertEquals(0, orderItemsRepository.count());
+
+        Path ordersFile = archiveDirectory.resolve("orders_" + suffix + ".csv.gz");
+        Path itemsFile = archiveDirectory.resolve("orderitems_" + suffix + ".csv.gz");
+        assertTrue(Files.exists(itemsFile));
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GzipCompressorInputStream(Files.newInputStream(ordersFile)), StandardCharsets.UTF_8))) {
+            List<String> lines = reader.lines().toList();
+            assertEquals(2, lines.size());
+            assertTrue(lines.getLast().startsWith(order1.getId() + "," + user1.getId() + ","));
+        }
+    }
+}
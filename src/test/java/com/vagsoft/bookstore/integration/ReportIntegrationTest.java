@@ -0,0 +1,166 @@
+package com.vagsoft.bookstore.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.vagsoft.bookstore.dto.orderDTOs.OrderStatusBatchDTO;
+import com.vagsoft.bookstore.dto.reportDTOs.BookSalesReadDTO;
+import com.vagsoft.bookstore.dto.reportDTOs.DailySalesReadDTO;
+import com.vagsoft.bookstore.dto.reportDTOs.GenreSalesReadDTO;
+import com.vagsoft.bookstore.dto.reportDTOs.OrderStatusCountReadDTO;
+import com.vagsoft.bookstore.dto.reportDTOs.SalesReportReadDTO;
+import com.vagsoft.bookstore.models.entities.Book;
+import com.vagsoft.bookstore.models.entities.Genre;
+import com.vagsoft.bookstore.models.entities.Order;
+import com.vagsoft.bookstore.models.entities.OrderItem;
+import com.vagsoft.bookstore.models.entities.User;
+import com.vagsoft.bookstore.models.enums.Role;
+import com.vagsoft.bookstore.models.enums.Status;
+import com.vagsoft.bookstore.repositories.BookRepository;
+import com.vagsoft.bookstore.repositories.OrderItemsRepository;
+import com.vagsoft.bookstore.repositories.OrderRepository;
+import com.vagsoft.bookstore.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestMethodOrder(MethodOrderer.DisplayName.class)
+@ActiveProfiles("test")
+public class ReportIntegrationTest {
+    private static final LocalDate DAY1 = LocalDate.parse("2020-01-10");
+    private static final LocalDate DAY2 = LocalDate.parse("2020-01-11");
+
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OrderItemsRepository orderItemsRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TestRestTemplate client;
+
+    Book book1, book2;
+    User user1;
+    Order order1, order2, order3;
+
+    @BeforeEach
+    public void setUp() {
+        book1 = Book.builder().title("The Lord of the Rings").author("J. R. R. Tolkien").pages(1178).price(15.0)
+                .availability(5).isbn("978-0-395-36381-0").genres(new ArrayList<>()).build();
+        book2 = Book.builder().title("Harry Potter and the Philosopher's Stone").author("J. K. Rowling").pages(223)
+                .price(20.0).availability(10).isbn("978-0-7-152-20664-5").genres(new ArrayList<>()).build();
+
+        book1.addGenre(Genre.builder().book(book1).genre("Fantasy").build());
+        book2.addGenre(Genre.builder().book(book2).genre("Fantasy").build());
+        book2.addGenre(Genre.builder().book(book2).genre("Children").build());
+
+        book1 = bookRepository.save(book1);
+        book2 = bookRepository.save(book2);
+
+        user1 = new User("jane.smith@example.com", "janesmith", "hashed_password_value", Role.USER, "Jane", "Smith",
+                LocalDate.parse("2022-01-05"));
+
+        userRepository.save(user1);
+
+        order1 = Order.builder().user(user1).orderItems(new ArrayList<>()).totalAmount(50.0).orderDate(DAY1)
+                .status(Status.PROCESSING).build();
+        order2 = Order.builder().user(user1).orderItems(new ArrayList<>()).totalAmount(45.0).orderDate(DAY2)
+                .status(Status.DELIVERED).build();
+        order3 = Order.builder().user(user1).orderItems(new ArrayList<>()).totalAmount(80.0).orderDate(DAY2)
+                .status(Status.CANCELLED).build();
+
+        order1.getOrderItems().add(OrderItem.builder().order(order1).book(book1).quantity(2).build());
+        order1.getOrderItems().add(OrderItem.builder().order(order1).book(book2).quantity(1).build());
+        order2.getOrderItems().add(OrderItem.builder().order(order2).book(book1).quantity(3).build());
+        order3.getOrderItems().add(OrderItem.builder().order(order3).book(book2).quantity(4).build());
+
+        order1 = orderRepository.save(order1);
+        order2 = orderRepository.save(order2);
+        order3 = orderRepository.save(order3);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        orderItemsRepository.deleteAll();
+
+        orderRepository.deleteAll();
+
+        bookRepository.deleteAll();
+
+        userRepository.deleteAll();
+    }
+
+    private SalesReportReadDTO getSalesReport() {
+        ResponseEntity<SalesReportReadDTO> response = client
+                .getForEntity("/reports/sales?from=" + DAY1 + "&to=" + DAY2, SalesReportReadDTO.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        return response.getBody();
+    }
+
+    @Test
+    @DisplayName("GET /reports/sales - Success")
+    void getSalesReportSuccess() {
+        SalesReportReadDTO report = getSalesReport();
+
+        // The cancelled order is left out of the sales
+        assertEquals(List.of(new DailySalesReadDTO(DAY1, 1, 50.0), new DailySalesReadDTO(DAY2, 1, 45.0)),
+                report.getDays());
+        assertEquals(2, report.getOrderCount());
+        assertEquals(95.0, report.getRevenue());
+        assertEquals(List.of(new BookSalesReadDTO(book1.getId(), book1.getTitle(), 5L),
+                new BookSalesReadDTO(book2.getId(), book2.getTitle(), 1L)), report.getBooks());
+        assertEquals(List.of(new GenreSalesReadDTO("Fantasy", 6L), new GenreSalesReadDTO("Children", 1L)),
+                report.getGenres());
+        assertEquals(List.of(new OrderStatusCountReadDTO(Status.CANCELLED, 1),
+                new OrderStatusCountReadDTO(Status.DELIVERED, 1), new OrderStatusCountReadDTO(Status.PROCESSING, 1)),
+                report.getStatuses());
+    }
+
+    @Test
+    @DisplayName("GET /reports/sales - Success After Cancel")
+    void getSalesReportAfterCancel() {
+        OrderStatusBatchDTO batchDTO = OrderStatusBatchDTO.builder().status(Status.CANCELLED)
+                .orderIDs(List.of(order1.getId())).build();
+        ResponseEntity<Void> cancelResponse = client.exchange("/orders/status", HttpMethod.PATCH,
+                new HttpEntity<>(batchDTO), Void.class);
+        assertEquals(HttpStatus.OK, cancelResponse.getStatusCode());
+
+        SalesReportReadDTO report = getSalesReport();
+
+        assertEquals(List.of(new DailySalesReadDTO(DAY2, 1, 45.0)), report.getDays());
+        assertEquals(List.of(new BookSalesReadDTO(book1.getId(), book1.getTitle(), 3L)), report.getBooks());
+        assertEquals(List.of(new GenreSalesReadDTO("Fantasy", 3L)), report.getGenres());
+        assertEquals(List.of(new OrderStatusCountReadDTO(Status.CANCELLED, 2),
+                new OrderStatusCountReadDTO(Status.DELIVERED, 1)), report.getStatuses());
+    }
+
+    @Test
+    @DisplayName("GET /reports/sales - Invalid Range")
+    void getSalesReportInvalidRange() {
+        ResponseEntity<ProblemDetail> response = client
+                .getForEntity("/reports/sales?from=" + DAY2 + "&to=" + DAY1, ProblemDetail.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+}
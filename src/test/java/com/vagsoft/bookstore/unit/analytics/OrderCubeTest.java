@@ -0,0 +1,130 @@
+package com.vagsoft.bookstore.unit.analytics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import com.vagsoft.bookstore.analytics.OrderCube;
+import com.vagsoft.bookstore.dto.analyticsDTOs.OrderCubeQueryDTO;
+import com.vagsoft.bookstore.dto.analyticsDTOs.OrderCubeRowReadDTO;
+import com.vagsoft.bookstore.models.enums.CubeDimension;
+import com.vagsoft.bookstore.models.enums.CubeMeasure;
+import com.vagsoft.bookstore.models.enums.Status;
+import org.junit.jupiter.api.*;
+
+@TestMethodOrder(MethodOrderer.DisplayName.class)
+class OrderCubeTest {
+    // Monday and Wednesday of the same week, and the Monday after
+    private static final LocalDate DAY1 = LocalDate.parse("2024-03-04");
+    private static final LocalDate DAY2 = LocalDate.parse("2024-03-06");
+    private static final LocalDate DAY3 = LocalDate.parse("2024-03-11");
+
+    private OrderCube cube;
+
+    @BeforeEach
+    void setUp() {
+        // A tiny threshold, so that even small scans are split across the pool
+        cube = new OrderCube(2, 10, ForkJoinPool.commonPool());
+        cube.setGenres(Map.of(1, List.of("Fantasy"), 2, List.of("Fantasy", "Children")));
+
+        cube.append(1, 1, DAY1, 2, 30.0, Status.DELIVERED);
+        cube.append(1, 2, DAY1, 1, 20.0, Status.DELIVERED);
+        cube.append(2, 1, DAY2, 3, 45.0, Status.DELIVERED);
+        cube.append(3, 2, DAY3, 4, 80.0, Status.PROCESSING);
+        cube.append(4, 3, DAY3, 1, 10.0, Status.CANCELLED);
+        cube.publish();
+    }
+
+    @Test
+    @DisplayName("query() - Group By Genre And Week")
+    void queryGenreWeek() {
+        List<OrderCubeRowReadDTO> rows = cube.query(OrderCubeQueryDTO.builder()
+                .groupBy(List.of(CubeDimension.GENRE, CubeDimension.WEEK)).statuses(Set.of(Status.DELIVERED)).build());
+
+        assertEquals(List.of(new OrderCubeRowReadDTO(List.of("Fantasy", "2024-03-04"), 95.0, 6L, 3L),
+                new OrderCubeRowReadDTO(List.of("Children", "2024-03-04"), 20.0, 1L, 1L)), rows);
+    }
+
+    @Test
+    @DisplayName("query() - Top N By Units")
+    void queryTopUnits() {
+        List<OrderCubeRowReadDTO> rows = cube.query(OrderCubeQueryDTO.builder().groupBy(List.of(CubeDimension.BOOK))
+                .orderBy(CubeMeasure.UNITS).limit(1).build());
+
+        assertEquals(List.of(new OrderCubeRowReadDTO(List.of("1"), 75.0, 5L, 2L)), rows);
+    }
+
+    @Test
+    @DisplayName("query() - Date Range Without Grouping")
+    void queryDateRange() {
+        List<OrderCubeRowReadDTO> rows = cube.query(OrderCubeQueryDTO.builder().from(DAY2).to(DAY3).build());
+
+        assertEquals(List.of(new OrderCubeRowReadDTO(List.of(), 135.0, 8L, 3L)), rows);
+    }
+
+    @Test
+    @DisplayName("updateStatus() - Open Order Moved")
+    void updateStatusOpenOrder() {
+        cube.updateStatus(3, Status.CANCELLED);
+        cube.updateStatus(1, Status.CANCELLED);
+
+        List<OrderCubeRowReadDTO> rows = cube.query(
+                OrderCubeQueryDTO.builder().groupBy(List.of(CubeDimension.STATUS)).orderBy(CubeMeasure.LINES).build());
+
+        // The delivered order is final and keeps its status
+        assertEquals(List.of(new OrderCubeRowReadDTO(List.of("DELIVERED"), 95.0, 6L, 3L),
+                new OrderCubeRowReadDTO(List.of("CANCELLED"), 90.0, 5L, 2L)), rows);
+        assertEquals(Set.of(), cube.getOpenOrderIDs());
+    }
+
+    @Test
+    @DisplayName("append() - Unpublished Lines Hidden")
+    void appendUnpublished() {
+        cube.append(5, 1, DAY3, 1, 15.0, Status.PROCESSING);
+
+        assertEquals(5, cube.getLineCount());
+        assertEquals(5, cube.getMaxOrderID());
+
+        cube.publish();
+
+        assertEquals(6, cube.getLineCount());
+    }
+
+    @Test
+    @DisplayName("append() - Out Of Order Orders Kept As Recent")
+    void appendOutOfOrder() {
+        cube.append(20, 1, DAY3, 1, 15.0, Status.PROCESSING);
+        cube.append(15, 2, DAY3, 1, 20.0, Status.PROCESSING);
+
+        assertEquals(20, cube.getMaxOrderID());
+        assertEquals(Set.of(15, 20), cube.getRecentOrderIDs());
+    }
+
+    @Test
+    @DisplayName("removeOrders() - Deleted Order Lines Skipped")
+    void removeOrders() {
+        cube.removeOrders(Set.of(3));
+        cube.publish();
+
+        List<OrderCubeRowReadDTO> rows = cube.query(OrderCubeQueryDTO.builder().build());
+
+        assertEquals(List.of(new OrderCubeRowReadDTO(List.of(), 105.0, 7L, 4L)), rows);
+        assertEquals(Set.of(), cube.getOpenOrderIDs());
+    }
+
+    @Test
+    @DisplayName("removeBook() - Deleted Book Lines Skipped")
+    void removeBook() {
+        cube.removeBook(1);
+        cube.updateStatus(3, Status.DELIVERED);
+        cube.publish();
+
+        List<OrderCubeRowReadDTO> rows = cube.query(OrderCubeQueryDTO.builder().build());
+
+        assertEquals(List.of(new OrderCubeRowReadDTO(List.of(), 110.0, 6L, 3L)), rows);
+    }
+}
@@ -0,0 +1,59 @@
+package com.vagsoft.bookstore.unit.caches;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.vagsoft.bookstore.caches.BloomFilter;
+import org.junit.jupiter.api.*;
+
+@TestMethodOrder(MethodOrderer.DisplayName.class)
+class BloomFilterTest {
+    @Test
+    @DisplayName("mightContain() - Added Values Found")
+    void mightContainAdded() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+
+        for (int i = 0; i < 1000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"));
+        }
+    }
+
+    @Test
+    @DisplayName("mightContain() - False Positive Rate Within Bound")
+    void mightContainFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put("user" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Allowing for the randomness of the sample, three times the configured rate
+        assertTrue(falsePositives < 300, "False positives: " + falsePositives);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.005);
+    }
+
+    @Test
+    @DisplayName("mightContain() - Empty Filter")
+    void mightContainEmpty() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+
+        assertFalse(filter.mightContain("janesmith"));
+        assertEquals(0, filter.expectedFalsePositiveRate());
+    }
+
+    @Test
+    @DisplayName("BloomFilter() - Invalid Size")
+    void invalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 0));
+    }
+}
@@ -0,0 +1,58 @@
+package com.vagsoft.bookstore.unit.caches;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import com.vagsoft.bookstore.caches.RequestEntityCache;
+import com.vagsoft.bookstore.models.entities.Book;
+import com.vagsoft.bookstore.models.entities.CartItem;
+import com.vagsoft.bookstore.repositories.BookRepository;
+import com.vagsoft.bookstore.repositories.CartItemsRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+@TestMethodOrder(MethodOrderer.DisplayName.class)
+class RequestEntityCacheTest {
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("get() - Entity Cached During Request")
+    void getCached() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        Book book = new Book();
+        CartItem cartItem = new CartItem();
+
+        RequestEntityCache.put(BookRepository.class, 1, book);
+        RequestEntityCache.put(CartItemsRepository.class, List.of(1, 2), cartItem);
+
+        assertSame(book, RequestEntityCache.get(BookRepository.class, 1).orElseThrow());
+        assertSame(cartItem, RequestEntityCache.get(CartItemsRepository.class, List.of(1, 2)).orElseThrow());
+        assertTrue(RequestEntityCache.get(BookRepository.class, 2).isEmpty());
+        assertTrue(RequestEntityCache.get(CartItemsRepository.class, List.of(2, 1)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("get() - Entity Not Shared Between Requests")
+    void getOtherRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        RequestEntityCache.put(BookRepository.class, 1, new Book());
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        assertTrue(RequestEntityCache.get(BookRepository.class, 1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("put() - Nothing Cached Outside Request")
+    void putOutsideRequest() {
+        RequestEntityCache.put(BookRepository.class, 1, new Book());
+
+        assertTrue(RequestEntityCache.get(BookRepository.class, 1).isEmpty());
+    }
+}
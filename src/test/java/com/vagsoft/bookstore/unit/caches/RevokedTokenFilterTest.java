@@ -0,0 +1,75 @@
+package com.vagsoft.bookstore.unit.caches;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+import com.vagsoft.bookstore.caches.RevokedTokenFilter;
+import org.junit.jupiter.api.*;
+
+@TestMethodOrder(MethodOrderer.DisplayName.class)
+class RevokedTokenFilterTest {
+    @Test
+    @DisplayName("add() - Token Revoked")
+    void addRevoked() {
+        RevokedTokenFilter filter = new RevokedTokenFilter(100, 0.01);
+
+        filter.add("token1", Instant.now().plusSeconds(300));
+
+        assertTrue(filter.isRevoked("token1"));
+        assertFalse(filter.isRevoked("token2"));
+        assertEquals(1, filter.size());
+    }
+
+    @Test
+    @DisplayName("isRevoked() - Expired Revocation Ignored")
+    void isRevokedExpired() {
+        RevokedTokenFilter filter = new RevokedTokenFilter(100, 0.01);
+
+        filter.add("token1", Instant.now().minusSeconds(1));
+
+        assertFalse(filter.isRevoked("token1"));
+    }
+
+    @Test
+    @DisplayName("isRevoked() - No False Negatives Beyond Expected Entries")
+    void isRevokedNoFalseNegatives() {
+        RevokedTokenFilter filter = new RevokedTokenFilter(100, 0.01);
+        Instant expiresAt = Instant.now().plusSeconds(300);
+
+        String[] tokenIDs = new String[1000];
+        for (int i = 0; i < tokenIDs.length; i++) {
+            tokenIDs[i] = UUID.randomUUID().toString();
+            filter.add(tokenIDs[i], expiresAt);
+        }
+
+        for (String tokenID : tokenIDs) {
+            assertTrue(filter.isRevoked(tokenID));
+        }
+    }
+
+    @Test
+    @DisplayName("reload() - Expired Removed And New Added")
+    void reload() {
+        RevokedTokenFilter filter = new RevokedTokenFilter(100, 0.01);
+        Instant now = Instant.now();
+        filter.add("token1", now.minusSeconds(1));
+        filter.add("token2", now.plusSeconds(300));
+
+        filter.reload(Map.of("token3", now.plusSeconds(300)), now);
+
+        assertFalse(filter.isRevoked("token1"));
+        assertTrue(filter.isRevoked("token2"));
+        assertTrue(filter.isRevoked("token3"));
+        assertEquals(2, filter.size());
+    }
+
+    @Test
+    @DisplayName("RevokedTokenFilter() - Invalid Size")
+    void invalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new RevokedTokenFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new RevokedTokenFilter(100, 1));
+    }
+}
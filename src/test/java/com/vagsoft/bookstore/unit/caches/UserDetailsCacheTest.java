@@ -0,0 +1,98 @@
+package com.vagsoft.bookstore.unit.caches;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.vagsoft.bookstore.caches.UserDetailsCache;
+import com.vagsoft.bookstore.models.CustomUserDetails;
+import com.vagsoft.bookstore.models.entities.User;
+import com.vagsoft.bookstore.models.enums.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+
+@TestMethodOrder(MethodOrderer.DisplayName.class)
+class UserDetailsCacheTest {
+    private SimpleMeterRegistry meterRegistry;
+    private UserDetailsCache userDetailsCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userDetailsCache = new UserDetailsCache(2, Duration.ofMinutes(5), Duration.ofMinutes(1), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    private CustomUserDetails load(final Integer id, final String username) {
+        loads.incrementAndGet();
+        return new CustomUserDetails(new User(id, username + "@example.com", username, "hashed_password_value",
+                Role.USER, "Jane", "Smith", LocalDate.parse("2022-01-05")));
+    }
+
+    private CustomUserDetails loadUnknown() {
+        loads.incrementAndGet();
+        return null;
+    }
+
+    @Test
+    @DisplayName("getOrLoad() - Known User Cached")
+    void getOrLoadCached() {
+        CustomUserDetails first = userDetailsCache.getOrLoad("janesmith", () -> load(1, "janesmith"));
+        CustomUserDetails second = userDetailsCache.getOrLoad("janesmith", () -> load(1, "janesmith"));
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, meterRegistry.get("user-details.cache").tag("result", "hit").counter().count());
+        assertEquals(1, meterRegistry.get("user-details.cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    @DisplayName("getOrLoad() - Unknown Username Cached")
+    void getOrLoadNegative() {
+        assertNull(userDetailsCache.getOrLoad("nobody", this::loadUnknown));
+        assertNull(userDetailsCache.getOrLoad("nobody", this::loadUnknown));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, meterRegistry.get("user-details.cache").tag("result", "negative_hit").counter().count());
+    }
+
+    @Test
+    @DisplayName("getOrLoad() - Least Recently Read Evicted")
+    void getOrLoadEvicted() {
+        userDetailsCache.getOrLoad("user1", () -> load(1, "user1"));
+        userDetailsCache.getOrLoad("user2", () -> load(2, "user2"));
+        userDetailsCache.getOrLoad("user1", () -> load(1, "user1"));
+        userDetailsCache.getOrLoad("user3", () -> load(3, "user3"));
+
+        assertEquals(2, userDetailsCache.size());
+        userDetailsCache.getOrLoad("user1", () -> load(1, "user1"));
+        assertEquals(3, loads.get());
+        userDetailsCache.getOrLoad("user2", () -> load(2, "user2"));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    @DisplayName("invalidate() - Unknown Username Loaded Again")
+    void invalidate() {
+        userDetailsCache.getOrLoad("janesmith", this::loadUnknown);
+
+        userDetailsCache.invalidate("janesmith");
+
+        assertNotNull(userDetailsCache.getOrLoad("janesmith", () -> load(1, "janesmith")));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("invalidateUser() - User Loaded Again")
+    void invalidateUser() {
+        userDetailsCache.getOrLoad("janesmith", () -> load(1, "janesmith"));
+
+        userDetailsCache.invalidateUser(1);
+
+        userDetailsCache.getOrLoad("janesmith", () -> load(1, "janesmith"));
+        assertEquals(2, loads.get());
+    }
+}
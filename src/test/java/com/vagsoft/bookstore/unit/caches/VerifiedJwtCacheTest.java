@@ -0,0 +1,114 @@
+package com.vagsoft.bookstore.unit.caches;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+
+import com.vagsoft.bookstore.caches.VerifiedJwtCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+@TestMethodOrder(MethodOrderer.DisplayName.class)
+class VerifiedJwtCacheTest {
+    private JwtDecoder delegate;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(JwtDecoder.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private static Jwt createJwt(final String token, final Instant expiresAt) {
+        return Jwt.withTokenValue(token).header("alg", "RS256").subject("janesmith").issuedAt(Instant.now())
+                .expiresAt(expiresAt).build();
+    }
+
+    @Test
+    @DisplayName("decode() - Verified Token Cached")
+    void decodeCached() {
+        Jwt jwt = createJwt("token1", Instant.now().plusSeconds(300));
+        when(delegate.decode("token1")).thenReturn(jwt);
+        VerifiedJwtCache jwtDecoder = new VerifiedJwtCache(delegate, 10, meterRegistry);
+
+        assertSame(jwt, jwtDecoder.decode("token1"));
+        assertSame(jwt, jwtDecoder.decode("token1"));
+        assertSame(jwt, jwtDecoder.decode("token1"));
+
+        verify(delegate, times(1)).decode("token1");
+        assertEquals(2, meterRegistry.get("jwt.decode").tag("cached", "true").timer().count());
+        assertEquals(1, meterRegistry.get("jwt.decode").tag("cached", "false").timer().count());
+    }
+
+    @Test
+    @DisplayName("decode() - Expired Token Verified Again")
+    void decodeExpired() throws InterruptedException {
+        Jwt jwt = createJwt("token1", Instant.now().plusMillis(50));
+        when(delegate.decode("token1")).thenReturn(jwt);
+        VerifiedJwtCache jwtDecoder = new VerifiedJwtCache(delegate, 10, meterRegistry);
+
+        jwtDecoder.decode("token1");
+        Thread.sleep(100);
+        jwtDecoder.decode("token1");
+
+        verify(delegate, times(2)).decode("token1");
+    }
+
+    @Test
+    @DisplayName("decode() - Invalid Token Not Cached")
+    void decodeInvalid() {
+        when(delegate.decode("invalid")).thenThrow(new BadJwtException("Invalid signature"));
+        VerifiedJwtCache jwtDecoder = new VerifiedJwtCache(delegate, 10, meterRegistry);
+
+        assertThrows(BadJwtException.class, () -> jwtDecoder.decode("invalid"));
+        assertThrows(BadJwtException.class, () -> jwtDecoder.decode("invalid"));
+
+        verify(delegate, times(2)).decode("invalid");
+    }
+
+    @Test
+    @DisplayName("decode() - Full Cache Evicts Closest Expiry")
+    void decodeFull() {
+        Jwt jwt1 = createJwt("token1", Instant.now().plusSeconds(100));
+        Jwt jwt2 = createJwt("token2", Instant.now().plusSeconds(300));
+        Jwt jwt3 = createJwt("token3", Instant.now().plusSeconds(200));
+        when(delegate.decode("token1")).thenReturn(jwt1);
+        when(delegate.decode("token2")).thenReturn(jwt2);
+        when(delegate.decode("token3")).thenReturn(jwt3);
+        VerifiedJwtCache jwtDecoder = new VerifiedJwtCache(delegate, 2, meterRegistry);
+
+        jwtDecoder.decode("token1");
+        jwtDecoder.decode("token2");
+        jwtDecoder.decode("token3");
+        jwtDecoder.decode("token2");
+        jwtDecoder.decode("token3");
+
+        verify(delegate, times(1)).decode("token2");
+        verify(delegate, times(1)).decode("token3");
+
+        // The token closest to its expiry was evicted for the third one
+        jwtDecoder.decode("token1");
+        verify(delegate, times(2)).decode("token1");
+    }
+
+    @Test
+    @DisplayName("invalidateAll() - Tokens Verified Again")
+    void invalidateAll() {
+        Jwt jwt = createJwt("token1", Instant.now().plusSeconds(300));
+        when(delegate.decode("token1")).thenReturn(jwt);
+        VerifiedJwtCache jwtDecoder = new VerifiedJwtCache(delegate, 10, meterRegistry);
+
+        jwtDecoder.decode("token1");
+        jwtDecoder.invalidateAll();
+        jwtDecoder.decode("token1");
+
+        verify(delegate, times(2)).decode("token1");
+    }
+}
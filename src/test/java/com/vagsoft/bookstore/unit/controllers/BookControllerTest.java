@@ -2,6 +2,7 @@ package com.vagsoft.bookstore.unit.controllers;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -12,11 +13,13 @@ import java.util.List;
 import java.util.Optional;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vagsoft.bookstore.caches.UniqueValueFilter;
 import com.vagsoft.bookstore.controllers.BookController;
 import com.vagsoft.bookstore.dto.bookDTOs.BookReadDTO;
 import com.vagsoft.bookstore.dto.bookDTOs.BookUpdateDTO;
 import com.vagsoft.bookstore.dto.bookDTOs.BookWriteDTO;
 import com.vagsoft.bookstore.dto.genreDTOs.GenreDTO;
+import com.vagsoft.bookstore.models.entities.Book;
 import com.vagsoft.bookstore.repositories.BookRepository;
 import com.vagsoft.bookstore.services.BookService;
 import com.vagsoft.bookstore.utils.AuthUtils;
@@ -47,11 +50,16 @@ class BookControllerTest {
     private ObjectMapper objectMapper;
     @MockitoBean
     private AuthUtils authUtils;
+    @MockitoBean
+    private UniqueValueFilter uniqueValueFilter;
 
     private List<BookReadDTO> storedBooks;
 
     @BeforeEach
     void setUp() {
+        // Leaving every uniqueness check to the mocked repository
+        when(uniqueValueFilter.mightContain(any(), any())).thenReturn(true);
+
         storedBooks = new ArrayList<>();
         storedBooks.add(new BookReadDTO(1, "title", "author", "description", 1, 1.0, 1, "isbn", new ArrayList<>()));
         storedBooks.add(new BookReadDTO(2, "title2", "author2", "description2", 2, 2.0, 2, "isbn2",
@@ -158,7 +166,7 @@ class BookControllerTest {
     @DisplayName("GET /books/1 - Success")
     void getBookByIDFound() throws Exception {
         BookReadDTO bookOutput = storedBooks.getFirst();
-        when(bookRepository.existsById(1)).thenReturn(true);
+        when(bookRepository.findWithGenresByID(1)).thenReturn(Optional.of(new Book()));
         when(bookService.getBookByID(1)).thenReturn(bookOutput);
 
         assertNotNull(bookOutput);
@@ -178,7 +186,7 @@ class BookControllerTest {
     @Test
     @DisplayName("GET /books/999} - Not Found")
     void getBookByIDNotFound() throws Exception {
-        when(bookRepository.existsById(999)).thenReturn(false);
+        when(bookRepository.findWithGenresByID(999)).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/books/{bookID}", 999)).andExpect(status().isNotFound());
     }
@@ -186,7 +194,7 @@ class BookControllerTest {
     @Test
     @DisplayName("GET /books/-1} - Invalid ID")
     void getBookByIDInvalid() throws Exception {
-        when(bookRepository.existsById(-1)).thenReturn(false);
+        when(bookRepository.findWithGenresByID(-1)).thenReturn(Optional.empty());
         mockMvc.perform(get("/books/{bookID}", -1)).andExpect(status().isBadRequest());
     }
 
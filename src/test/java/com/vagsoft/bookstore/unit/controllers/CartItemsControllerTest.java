@@ -2,9 +2,11 @@ package com.vagsoft.bookstore.unit.controllers;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -17,11 +19,15 @@ import java.util.Optional;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vagsoft.bookstore.controllers.CartItemsController;
 import com.vagsoft.bookstore.dto.bookDTOs.BookReadDTO;
+import com.vagsoft.bookstore.dto.cartDTOs.CartItemOperationDTO;
 import com.vagsoft.bookstore.dto.cartDTOs.CartItemReadDTO;
 import com.vagsoft.bookstore.dto.cartDTOs.CartItemUpdateDTO;
 import com.vagsoft.bookstore.dto.cartDTOs.CartItemWriteDTO;
+import com.vagsoft.bookstore.dto.cartDTOs.CartItemsBatchDTO;
 import com.vagsoft.bookstore.dto.cartDTOs.CartReadDTO;
 import com.vagsoft.bookstore.dto.genreDTOs.GenreDTO;
+import com.vagsoft.bookstore.models.entities.CartItem;
+import com.vagsoft.bookstore.models.enums.CartItemAction;
 import com.vagsoft.bookstore.repositories.BookRepository;
 import com.vagsoft.bookstore.repositories.CartItemsRepository;
 import com.vagsoft.bookstore.repositories.UserRepository;
@@ -126,7 +132,7 @@ public class CartItemsControllerTest {
     void getCartItemByUserIDAndBookID() throws Exception {
         when(userRepository.existsById(1)).thenReturn(true);
         when(bookRepository.existsById(1)).thenReturn(true);
-        when(cartItemsRepository.existsByUserIDAndBookID(1, 1)).thenReturn(true);
+        when(cartItemsRepository.findWithBookByUserIDAndBookID(1, 1)).thenReturn(Optional.of(new CartItem()));
         when(cartItemsService.getCartItem(1, 1)).thenReturn(cartItem1);
 
         mockMvc.perform(get("/carts/1/items/1"))
@@ -141,7 +147,7 @@ public class CartItemsControllerTest {
     void getCartItemByUserIDAndBookIDNotFoundUser() throws Exception {
         when(userRepository.existsById(999)).thenReturn(false);
         when(bookRepository.existsById(1)).thenReturn(true);
-        when(cartItemsRepository.existsByUserIDAndBookID(999, 1)).thenReturn(false);
+        when(cartItemsRepository.findWithBookByUserIDAndBookID(999, 1)).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/carts/999/items/1"))
                 .andExpect(status().isNotFound());
@@ -152,7 +158,7 @@ public class CartItemsControllerTest {
     void getCartItemByUserIDAndBookIDInvalidUser() throws Exception {
         when(userRepository.existsById(-1)).thenReturn(false);
         when(bookRepository.existsById(1)).thenReturn(true);
-        when(cartItemsRepository.existsByUserIDAndBookID(-1, 1)).thenReturn(false);
+        when(cartItemsRepository.findWithBookByUserIDAndBookID(-1, 1)).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/carts/-1/items/1"))
                 .andExpect(status().isBadRequest());
@@ -163,7 +169,7 @@ public class CartItemsControllerTest {
     void getCartItemByUserIDAndBookIDNotFoundBook() throws Exception {
         when(userRepository.existsById(1)).thenReturn(true);
         when(bookRepository.existsById(999)).thenReturn(false);
-        when(cartItemsRepository.existsByUserIDAndBookID(1, 999)).thenReturn(false);
+        when(cartItemsRepository.findWithBookByUserIDAndBookID(1, 999)).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/carts/1/items/999"))
                 .andExpect(status().isNotFound());
@@ -174,7 +180,7 @@ public class CartItemsControllerTest {
     void getCartItemByUserIDAndBookIDInvalidBook() throws Exception {
         when(userRepository.existsById(1)).thenReturn(true);
         when(bookRepository.existsById(-1)).thenReturn(false);
-        when(cartItemsRepository.existsByUserIDAndBookID(1, -1)).thenReturn(false);
+        when(cartItemsRepository.findWithBookByUserIDAndBookID(1, -1)).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/carts/1/items/-1"))
                 .andExpect(status().isBadRequest());
@@ -185,7 +191,7 @@ public class CartItemsControllerTest {
     void getCartItemByUserIDAndBookIDNotFoundBoth() throws Exception {
         when(userRepository.existsById(999)).thenReturn(false);
         when(bookRepository.existsById(999)).thenReturn(false);
-        when(cartItemsRepository.existsByUserIDAndBookID(999, 999)).thenReturn(false);
+        when(cartItemsRepository.findWithBookByUserIDAndBookID(999, 999)).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/carts/999/items/999"))
                 .andExpect(status().isNotFound());
@@ -196,7 +202,7 @@ public class CartItemsControllerTest {
     void getCartItemByUserIDAndBookIDInvalidBoth() throws Exception {
         when(userRepository.existsById(-1)).thenReturn(false);
         when(bookRepository.existsById(-1)).thenReturn(false);
-        when(cartItemsRepository.existsByUserIDAndBookID(-1, -1)).thenReturn(false);
+        when(cartItemsRepository.findWithBookByUserIDAndBookID(-1, -1)).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/carts/-1/items/-1"))
                 .andExpect(status().isBadRequest());
@@ -210,7 +216,7 @@ public class CartItemsControllerTest {
 
         when(userRepository.existsById(1)).thenReturn(true);
         when(bookRepository.existsById(1)).thenReturn(true);
-        when(cartItemsRepository.existsByUserIDAndBookID(1, 1)).thenReturn(true);
+        when(cartItemsRepository.findWithBookByUserIDAndBookID(1, 1)).thenReturn(Optional.of(new CartItem()));
         when(cartItemsService.updateCartItem(1, 1, cartItemUpdateDTO)).thenReturn(Optional.of(updatedCartItem));
 
         String cartItemUpdateDTOString = objectMapper.writeValueAsString(cartItemUpdateDTO);
@@ -227,7 +233,7 @@ public class CartItemsControllerTest {
 
         when(userRepository.existsById(999)).thenReturn(false);
         when(bookRepository.existsById(1)).thenReturn(true);
-        when(cartItemsRepository.existsByUserIDAndBookID(999, 1)).thenReturn(false);
+        when(cartItemsRepository.findWithBookByUserIDAndBookID(999, 1)).thenReturn(Optional.empty());
 
         String cartItemUpdateDTOString = objectMapper.writeValueAsString(cartItemUpdateDTO);
         mockMvc.perform(put("/carts/999/items/1").contentType("application/json").content(cartItemUpdateDTOString))
@@ -241,7 +247,7 @@ public class CartItemsControllerTest {
 
         when(userRepository.existsById(-1)).thenReturn(false);
         when(bookRepository.existsById(1)).thenReturn(true);
-        when(cartItemsRepository.existsByUserIDAndBookID(-1, 1)).thenReturn(false);
+        when(cartItemsRepository.findWithBookByUserIDAndBookID(-1, 1)).thenReturn(Optional.empty());
 
         String cartItemUpdateDTOString = objectMapper.writeValueAsString(cartItemUpdateDTO);
         mockMvc.perform(put("/carts/-1/items/1").contentType("application/json").content(cartItemUpdateDTOString))
@@ -255,7 +261,7 @@ public class CartItemsControllerTest {
 
         when(userRepository.existsById(1)).thenReturn(true);
         when(bookRepository.existsById(999)).thenReturn(false);
-        when(cartItemsRepository.existsByUserIDAndBookID(1, 999)).thenReturn(false);
+        when(cartItemsRepository.findWithBookByUserIDAndBookID(1, 999)).thenReturn(Optional.empty());
 
         String cartItemUpdateDTOString = objectMapper.writeValueAsString(cartItemUpdateDTO);
         mockMvc.perform(put("/carts/1/items/999").contentType("application/json").content(cartItemUpdateDTOString))
@@ -269,7 +275,7 @@ public class CartItemsControllerTest {
 
         when(userRepository.existsById(1)).thenReturn(true);
         when(bookRepository.existsById(-1)).thenReturn(false);
-        when(cartItemsRepository.existsByUserIDAndBookID(1, -1)).thenReturn(false);
+        when(cartItemsRepository.findWithBookByUserIDAndBookID(1, -1)).thenReturn(Optional.empty());
 
         String cartItemUpdateDTOString = objectMapper.writeValueAsString(cartItemUpdateDTO);
         mockMvc.perform(put("/carts/1/items/-1").contentType("application/json").content(cartItemUpdateDTOString))
@@ -283,7 +289,7 @@ public class CartItemsControllerTest {
 
         when(userRepository.existsById(999)).thenReturn(false);
         when(bookRepository.existsById(999)).thenReturn(false);
-        when(cartItemsRepository.existsByUserIDAndBookID(999, 999)).thenReturn(false);
+        when(cartItemsRepository.findWithBookByUserIDAndBookID(999, 999)).thenReturn(Optional.empty());
 
         String cartItemUpdateDTOString = objectMapper.writeValueAsString(cartItemUpdateDTO);
         mockMvc.perform(put("/carts/999/items/999").contentType("application/json").content(cartItemUpdateDTOString))
@@ -297,7 +303,7 @@ public class CartItemsControllerTest {
 
         when(userRepository.existsById(-1)).thenReturn(false);
         when(bookRepository.existsById(-1)).thenReturn(false);
-        when(cartItemsRepository.existsByUserIDAndBookID(-1, -1)).thenReturn(false);
+        when(cartItemsRepository.findWithBookByUserIDAndBookID(-1, -1)).thenReturn(Optional.empty());
 
         String cartItemUpdateDTOString = objectMapper.writeValueAsString(cartItemUpdateDTO);
         mockMvc.perform(put("/carts/-1/items/-1").contentType("application/json").content(cartItemUpdateDTOString))
@@ -442,13 +448,57 @@ public class CartItemsControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("PATCH /carts/me/items - Success")
+    void updateCartItemsMe() throws Exception {
+        CartItemsBatchDTO cartItemsBatchDTO = new CartItemsBatchDTO(
+                List.of(new CartItemOperationDTO(CartItemAction.SET, 1, 2),
+                        new CartItemOperationDTO(CartItemAction.ADD, 2, 1)));
+
+        when(authUtils.getUserIdFromAuthentication()).thenReturn(1);
+        when(cartItemsService.applyCartItemOperations(1, cartItemsBatchDTO)).thenReturn(cart1);
+
+        String cartItemsBatchDTOString = objectMapper.writeValueAsString(cartItemsBatchDTO);
+        mockMvc.perform(patch("/carts/me/items").contentType("application/json").content(cartItemsBatchDTOString))
+                .andExpect(status().isOk()).andExpect(jsonPath("$.id").value(cart1.getId()))
+                .andExpect(jsonPath("$.cartItems", hasSize(2)))
+                .andExpect(jsonPath("$.cartItems[0].book.id").value(cartItem1.getBook().getId()))
+                .andExpect(jsonPath("$.cartItems[1].book.id").value(cartItem2.getBook().getId()));
+    }
+
+    @Test
+    @DisplayName("PATCH /carts/me/items - Invalid Operations")
+    void updateCartItemsMeInvalid() throws Exception {
+        CartItemsBatchDTO cartItemsBatchDTO = new CartItemsBatchDTO(
+                List.of(new CartItemOperationDTO(CartItemAction.ADD, -1, 0)));
+
+        when(authUtils.getUserIdFromAuthentication()).thenReturn(1);
+
+        String cartItemsBatchDTOString = objectMapper.writeValueAsString(cartItemsBatchDTO);
+        mockMvc.perform(patch("/carts/me/items").contentType("application/json").content(cartItemsBatchDTOString))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("PATCH /carts/me/items - Null Quantity")
+    void updateCartItemsMeNullQuantity() throws Exception {
+        when(authUtils.getUserIdFromAuthentication()).thenReturn(1);
+
+        String cartItemsBatchDTOString = """
+                {"operations": [{"action": "ADD", "bookID": 1, "quantity": null}]}
+                """;
+        mockMvc.perform(patch("/carts/me/items").contentType("application/json").content(cartItemsBatchDTOString))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(cartItemsService);
+    }
+
     @Test
     @DisplayName("GET /carts/me/items/1 - Success")
     void getCartItemMeByBookID() throws Exception {
         when(authUtils.getUserIdFromAuthentication()).thenReturn(1);
         when(userRepository.existsById(1)).thenReturn(true);
         when(bookRepository.existsById(1)).thenReturn(true);
-        when(cartItemsRepository.existsByUserIDAndBookID(1, 1)).thenReturn(true);
+        when(cartItemsRepository.findWithBookByUserIDAndBookID(1, 1)).thenReturn(Optional.of(new CartItem()));
         when(cartItemsService.getCartItem(1, 1)).thenReturn(cartItem1);
 
         mockMvc.perform(get("/carts/me/items/1"))
@@ -474,7 +524,7 @@ public class CartItemsControllerTest {
         when(authUtils.getUserIdFromAuthentication()).thenReturn(1);
         when(userRepository.existsById(1)).thenReturn(true);
         when(bookRepository.existsById(999)).thenReturn(false);
-        when(cartItemsRepository.existsByUserIDAndBookID(1, 999)).thenReturn(false);
+        when(cartItemsRepository.findWithBookByUserIDAndBookID(1, 999)).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/carts/me/items/999"))
                 .andExpect(status().isNotFound());
@@ -486,7 +536,7 @@ public class CartItemsControllerTest {
         when(authUtils.getUserIdFromAuthentication()).thenReturn(1);
         when(userRepository.existsById(1)).thenReturn(true);
         when(bookRepository.existsById(-1)).thenReturn(false);
-        when(cartItemsRepository.existsByUserIDAndBookID(1, -1)).thenReturn(false);
+        when(cartItemsRepository.findWithBookByUserIDAndBookID(1, -1)).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/carts/me/items/-1"))
                 .andExpect(status().isBadRequest());
@@ -501,7 +551,7 @@ public class CartItemsControllerTest {
         when(authUtils.getUserIdFromAuthentication()).thenReturn(1);
         when(userRepository.existsById(1)).thenReturn(true);
         when(bookRepository.existsById(1)).thenReturn(true);
-        when(cartItemsRepository.existsByUserIDAndBookID(1, 1)).thenReturn(true);
+        when(cartItemsRepository.findWithBookByUserIDAndBookID(1, 1)).thenReturn(Optional.of(new CartItem()));
         when(cartItemsService.updateCartItem(1, 1, cartItemUpdateDTO)).thenReturn(Optional.of(updatedCartItem));
 
         String cartItemUpdateDTOString = objectMapper.writeValueAsString(cartItemUpdateDTO);
@@ -532,7 +582,7 @@ public class CartItemsControllerTest {
         when(authUtils.getUserIdFromAuthentication()).thenReturn(1);
         when(userRepository.existsById(1)).thenReturn(true);
         when(bookRepository.existsById(999)).thenReturn(false);
-        when(cartItemsRepository.existsByUserIDAndBookID(1, 999)).thenReturn(false);
+        when(cartItemsRepository.findWithBookByUserIDAndBookID(1, 999)).thenReturn(Optional.empty());
 
         String cartItemUpdateDTOString = objectMapper.writeValueAsString(cartItemUpdateDTO);
         mockMvc.perform(put("/carts/me/items/999").contentType("application/json").content(cartItemUpdateDTOString))
@@ -547,7 +597,7 @@ public class CartItemsControllerTest {
         when(authUtils.getUserIdFromAuthentication()).thenReturn(1);
         when(userRepository.existsById(1)).thenReturn(true);
         when(bookRepository.existsById(-1)).thenReturn(false);
-        when(cartItemsRepository.existsByUserIDAndBookID(1, -1)).thenReturn(false);
+        when(cartItemsRepository.findWithBookByUserIDAndBookID(1, -1)).thenReturn(Optional.empty());
 
         String cartItemUpdateDTOString = objectMapper.writeValueAsString(cartItemUpdateDTO);
         mockMvc.perform(put("/carts/me/items/-1").contentType("application/json").content(cartItemUpdateDTOString))
@@ -29,7 +29,9 @@ import com.vagsoft.bookstore.repositories.BookRepository;
 import com.vagsoft.bookstore.repositories.CartItemsRepository;
 import com.vagsoft.bookstore.repositories.OrderRepository;
 import com.vagsoft.bookstore.repositories.UserRepository;
+import com.vagsoft.bookstore.services.OrderExportService;
 import com.vagsoft.bookstore.services.OrderService;
+import com.vagsoft.bookstore.services.OrderSummaryService;
 import com.vagsoft.bookstore.utils.AuthUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -55,6 +57,10 @@ public class OrderControllerTest {
     @MockitoBean
     private OrderService orderService;
     @MockitoBean
+    private OrderExportService orderExportService;
+    @MockitoBean
+    private OrderSummaryService orderSummaryService;
+    @MockitoBean
     private OrderRepository orderRepository;
     @MockitoBean
     private BookRepository bookRepository;
@@ -102,7 +108,7 @@ public class OrderControllerTest {
         Pageable pageable = PageRequest.of(0, 20);
         Page<OrderReadDTO> page = new PageImpl<>(storedOrders, pageable, storedOrders.size());
 
-        when(orderService.getOrders(null, null, null, null, pageable)).thenReturn(page);
+        when(orderService.getOrders(null, null, null, null, null, null, pageable)).thenReturn(page);
 
         mockMvc.perform(get("/orders").param("page", "0").param("size", "20").accept("application/json"))
                 .andExpect(status().isOk()).andExpect(jsonPath("$.content", hasSize(2)))
@@ -136,7 +142,7 @@ public class OrderControllerTest {
         Page<OrderReadDTO> page = new PageImpl<>(storedOrders, pageable, storedOrders.size());
 
         when(userRepository.existsById(1)).thenReturn(true);
-        when(orderService.getOrders(1, 50.0, 100.0, Status.PROCESSING, pageable)).thenReturn(page);
+        when(orderService.getOrders(1, 50.0, 100.0, Status.PROCESSING, null, null, pageable)).thenReturn(page);
 
         mockMvc.perform(get("/orders").param("userID", "1").param("minTotalAmount", "50.0")
                 .param("maxTotalAmount", "100.0").param("status", Status.PROCESSING.toString()).param("page", "0")
@@ -258,7 +264,7 @@ public class OrderControllerTest {
 
         when(authUtils.getUserIdFromAuthentication()).thenReturn(1);
         when(userRepository.existsById(1)).thenReturn(true);
-        when(orderService.getOrders(1, null, null, null, pageable)).thenReturn(page);
+        when(orderService.getOrders(1, null, null, null, null, null, pageable)).thenReturn(page);
 
         mockMvc.perform(get("/orders/me").param("page", "0").param("size", "20").accept("application/json"))
                 .andExpect(status().isOk()).andExpect(jsonPath("$.content", hasSize(2)))
@@ -284,7 +290,7 @@ public class OrderControllerTest {
 
         when(authUtils.getUserIdFromAuthentication()).thenReturn(1);
         when(userRepository.existsById(1)).thenReturn(true);
-        when(orderService.getOrders(1, 50.0, 100.0, Status.PROCESSING, pageable)).thenReturn(page);
+        when(orderService.getOrders(1, 50.0, 100.0, Status.PROCESSING, null, null, pageable)).thenReturn(page);
 
         mockMvc.perform(get("/orders/me").param("minTotalAmount", "50.0").param("maxTotalAmount", "100.0")
                 .param("status", Status.PROCESSING.toString()).param("page", "0").param("size", "20")
@@ -314,15 +320,15 @@ public class OrderControllerTest {
         User testUser = new User();
         testUser.setId(1);
 
-        Cart testCart = new Cart(1, testUser, new ArrayList<>());
+        Cart testCart = new Cart(1, testUser, new ArrayList<>(), null);
 
         BookReadDTO bookReadDTO1 = BookReadDTO.builder().id(1).title(book1.getTitle()).author(book1.getAuthor())
                 .price(book1.getPrice()).build();
         BookReadDTO bookReadDTO2 = BookReadDTO.builder().id(2).title(book2.getTitle()).author(book2.getAuthor())
                 .price(book2.getPrice()).build();
 
-        CartItem cartItem1 = new CartItem(1, testCart, book1, 2);
-        CartItem cartItem2 = new CartItem(2, testCart, book2, 1);
+        CartItem cartItem1 = new CartItem(1, testCart, book1, 2, null);
+        CartItem cartItem2 = new CartItem(2, testCart, book2, 1, null);
 
         OrderItemReadDTO orderItem1 = new OrderItemReadDTO(4, 3, bookReadDTO1, 2);
         OrderItemReadDTO orderItem2 = new OrderItemReadDTO(5, 3, bookReadDTO2, 1);
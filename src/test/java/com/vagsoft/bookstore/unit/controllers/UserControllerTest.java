@@ -2,6 +2,7 @@ package com.vagsoft.bookstore.unit.controllers;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -13,6 +14,7 @@ import java.util.List;
 import java.util.Optional;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vagsoft.bookstore.caches.UniqueValueFilter;
 import com.vagsoft.bookstore.controllers.UserController;
 import com.vagsoft.bookstore.dto.userDTOs.UserReadDTO;
 import com.vagsoft.bookstore.dto.userDTOs.UserUpdateDTO;
@@ -47,11 +49,16 @@ class UserControllerTest {
     private ObjectMapper objectMapper;
     @MockitoBean
     private AuthUtils authUtils;
+    @MockitoBean
+    private UniqueValueFilter uniqueValueFilter;
 
     private List<UserReadDTO> storedUsers;
 
     @BeforeEach
     void setUp() {
+        // Leaving every uniqueness check to the mocked repository
+        when(uniqueValueFilter.mightContain(any(), any())).thenReturn(true);
+
         storedUsers = new ArrayList<>();
         storedUsers.add(new UserReadDTO(1, "jane.smith@example.com", "janesmith", Role.USER, "Jane", "Smith",
                 LocalDate.parse("2022-01-05")));
@@ -0,0 +1,101 @@
+package com.vagsoft.bookstore.unit.executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.vagsoft.bookstore.configuration.PasswordHashingConfig;
+import com.vagsoft.bookstore.errors.exceptions.ServiceUnavailableException;
+import com.vagsoft.bookstore.executors.PasswordHashingExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+
+@TestMethodOrder(MethodOrderer.DisplayName.class)
+class PasswordHashingExecutorTest {
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingConfig passwordHashingConfig;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        passwordHashingConfig = new PasswordHashingConfig();
+        passwordHashingConfig.setThreads(1);
+        passwordHashingConfig.setQueueCapacity(1);
+        passwordHashingConfig.setMinStrength(4);
+        passwordHashingConfig.setMaxStrength(4);
+    }
+
+    private void awaitGauge(final String name, final double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get(name).gauge().value() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, meterRegistry.get(name).gauge().value());
+    }
+
+    @Test
+    @DisplayName("encode() - Success")
+    void encodeSuccess() {
+        try (PasswordHashingExecutor passwordEncoder = new PasswordHashingExecutor(passwordHashingConfig,
+                meterRegistry)) {
+            String encodedPassword = passwordEncoder.encode("password");
+
+            assertTrue(encodedPassword.startsWith("$2a$04$"));
+            assertTrue(passwordEncoder.matches("password", encodedPassword));
+            assertFalse(passwordEncoder.matches("wrong_password", encodedPassword));
+            assertEquals(1, meterRegistry.get("password.hashing").tag("operation", "encode").timer().count());
+            assertEquals(2, meterRegistry.get("password.hashing").tag("operation", "matches").timer().count());
+        }
+    }
+
+    @Test
+    @DisplayName("encode() - Queue Full Rejected")
+    void encodeQueueFull() throws Exception {
+        // Slow enough that the first hash is still running when the third one arrives
+        passwordHashingConfig.setMinStrength(14);
+        passwordHashingConfig.setMaxStrength(14);
+        passwordHashingConfig.setRetryAfter(Duration.ofSeconds(3));
+
+        ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+        try (PasswordHashingExecutor passwordEncoder = new PasswordHashingExecutor(passwordHashingConfig,
+                meterRegistry)) {
+            Future<String> running = callers.submit(() -> passwordEncoder.encode("first"));
+            awaitGauge("password.hashing.active", 1);
+            Future<String> queued = callers.submit(() -> passwordEncoder.encode("second"));
+            awaitGauge("password.hashing.queued", 1);
+
+            ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+                    () -> passwordEncoder.encode("third"));
+            assertEquals(Duration.ofSeconds(3), exception.getRetryAfter());
+            assertEquals(1, meterRegistry.get("password.hashing.rejected").counter().count());
+
+            assertTrue(passwordEncoder.matches("first", running.get(30, TimeUnit.SECONDS)));
+            assertNotNull(queued.get(30, TimeUnit.SECONDS));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("PasswordHashingExecutor() - Strength Calibrated Within Bounds")
+    void calibrateStrength() {
+        passwordHashingConfig.setMinStrength(4);
+        passwordHashingConfig.setMaxStrength(6);
+
+        passwordHashingConfig.setTargetLatency(Duration.ofHours(1));
+        try (PasswordHashingExecutor passwordEncoder = new PasswordHashingExecutor(passwordHashingConfig,
+                meterRegistry)) {
+            assertEquals(6, passwordEncoder.getStrength());
+        }
+
+        passwordHashingConfig.setTargetLatency(Duration.ofNanos(1));
+        try (PasswordHashingExecutor passwordEncoder = new PasswordHashingExecutor(passwordHashingConfig,
+                new SimpleMeterRegistry())) {
+            assertEquals(4, passwordEncoder.getStrength());
+        }
+    }
+}
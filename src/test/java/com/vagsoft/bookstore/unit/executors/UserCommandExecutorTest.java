@@ -0,0 +1,129 @@
+package com.vagsoft.bookstore.unit.executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.vagsoft.bookstore.errors.exceptions.ServiceUnavailableException;
+import com.vagsoft.bookstore.executors.UserCommandExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@TestMethodOrder(MethodOrderer.DisplayName.class)
+class UserCommandExecutorTest {
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService threads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        threads = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        threads.shutdownNow();
+    }
+
+    private UserCommandExecutor createExecutor(final Duration waitTimeout) {
+        return new UserCommandExecutor(mock(PlatformTransactionManager.class), meterRegistry, 16, waitTimeout);
+    }
+
+    private double waitingCommands() {
+        return meterRegistry.get("user.commands.waiting").gauge().value();
+    }
+
+    private void awaitWaitingCommands(final double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (waitingCommands() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, waitingCommands());
+    }
+
+    @Test
+    @DisplayName("call() - Same User Serialized")
+    void callSameUserSerialized() throws Exception {
+        UserCommandExecutor executor = createExecutor(Duration.ofSeconds(5));
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        StringBuffer order = new StringBuffer();
+
+        Future<?> first = threads.submit(() -> executor.run(1, () -> {
+            firstStarted.countDown();
+            awaitUninterruptibly(releaseFirst);
+            order.append("first,");
+        }));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+
+        Future<String> second = threads.submit(() -> executor.call(1, () -> order.append("second").toString()));
+        awaitWaitingCommands(1);
+        assertEquals("", order.toString());
+
+        releaseFirst.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals("first,second", second.get(5, TimeUnit.SECONDS));
+        assertEquals(0, waitingCommands());
+        assertEquals(2, meterRegistry.get("user.commands.wait").tag("outcome", "acquired").timer().count());
+    }
+
+    @Test
+    @DisplayName("call() - Different Users Parallel")
+    void callDifferentUsersParallel() throws Exception {
+        UserCommandExecutor executor = createExecutor(Duration.ofSeconds(5));
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        // Each command only finishes once the other one has started too
+        Future<?> first = threads.submit(() -> executor.run(1, () -> {
+            bothStarted.countDown();
+            awaitUninterruptibly(bothStarted);
+        }));
+        Future<?> second = threads.submit(() -> executor.run(2, () -> {
+            bothStarted.countDown();
+            awaitUninterruptibly(bothStarted);
+        }));
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(0, waitingCommands());
+    }
+
+    @Test
+    @DisplayName("call() - Wait Timeout")
+    void callWaitTimeout() throws Exception {
+        UserCommandExecutor executor = createExecutor(Duration.ofMillis(50));
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+
+        Future<?> first = threads.submit(() -> executor.run(1, () -> {
+            firstStarted.countDown();
+            awaitUninterruptibly(releaseFirst);
+        }));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+
+        ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+                () -> executor.call(1, () -> "second"));
+        assertEquals(Duration.ofSeconds(1), exception.getRetryAfter());
+        assertEquals(1, meterRegistry.get("user.commands.wait").tag("outcome", "timed_out").timer().count());
+
+        releaseFirst.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals("third", executor.call(1, () -> "third"));
+    }
+
+    private static void awaitUninterruptibly(final CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.vagsoft.bookstore.unit.filters;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vagsoft.bookstore.configuration.AuthRateLimitConfig;
+import com.vagsoft.bookstore.filters.AuthRateLimitFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+@TestMethodOrder(MethodOrderer.DisplayName.class)
+class AuthRateLimitFilterTest {
+    private AuthRateLimitConfig config;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        config = new AuthRateLimitConfig();
+        config.setIpBurst(100);
+        config.setUsernameBurst(2);
+        config.setGlobalBurst(100);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private static MockHttpServletRequest createRequest(final String remoteAddr, final String username) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        request.setRemoteAddr(remoteAddr);
+        request.setContent(("{\"username\":\"" + username + "\",\"password\":\"password123\"}")
+                .getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    @Test
+    @DisplayName("doFilter() - Body Passed On")
+    void doFilterBodyPassedOn() throws ServletException, IOException {
+        AuthRateLimitFilter filter = new AuthRateLimitFilter(config, new ObjectMapper(), meterRegistry);
+        MockFilterChain filterChain = new MockFilterChain();
+
+        filter.doFilter(createRequest("10.0.0.1", "janesmith"), new MockHttpServletResponse(), filterChain);
+
+        assertNotNull(filterChain.getRequest());
+        String body = new String(filterChain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(body.contains("janesmith"));
+    }
+
+    @Test
+    @DisplayName("doFilter() - Body Read Asynchronously")
+    void doFilterBodyReadAsynchronously() throws ServletException, IOException {
+        AuthRateLimitFilter filter = new AuthRateLimitFilter(config, new ObjectMapper(), meterRegistry);
+        MockFilterChain filterChain = new MockFilterChain();
+
+        filter.doFilter(createRequest("10.0.0.1", "janesmith"), new MockHttpServletResponse(), filterChain);
+
+        assertNotNull(filterChain.getRequest());
+        ServletInputStream inputStream = filterChain.getRequest().getInputStream();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        AtomicBoolean allDataRead = new AtomicBoolean();
+        inputStream.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                while (inputStream.isReady() && !inputStream.isFinished()) {
+                    body.write(inputStream.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allDataRead.set(true);
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                fail(throwable);
+            }
+        });
+
+        assertTrue(allDataRead.get());
+        assertTrue(body.toString(StandardCharsets.UTF_8).contains("janesmith"));
+    }
+
+    @Test
+    @DisplayName("doFilter() - Username Limited Across IPs")
+    void doFilterUsernameLimited() throws ServletException, IOException {
+        AuthRateLimitFilter filter = new AuthRateLimitFilter(config, new ObjectMapper(), meterRegistry);
+
+        filter.doFilter(createRequest("10.0.0.1", "janesmith"), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(createRequest("10.0.0.2", "JaneSmith"), new MockHttpServletResponse(), new MockFilterChain());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+        filter.doFilter(createRequest("10.0.0.3", "janesmith"), response, filterChain);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertNotNull(response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertNull(filterChain.getRequest());
+        assertEquals(1, meterRegistry.get("auth.rate-limited").tag("limit", "username").counter().count());
+    }
+
+    @Test
+    @DisplayName("doFilter() - IP Limited")
+    void doFilterIpLimited() throws ServletException, IOException {
+        config.setIpBurst(1);
+        AuthRateLimitFilter filter = new AuthRateLimitFilter(config, new ObjectMapper(), meterRegistry);
+
+        filter.doFilter(createRequest("10.0.0.1", "janesmith"), new MockHttpServletResponse(), new MockFilterChain());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(createRequest("10.0.0.1", "johndoe"), response, new MockFilterChain());
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertEquals(1, meterRegistry.get("auth.rate-limited").tag("limit", "ip").counter().count());
+    }
+}
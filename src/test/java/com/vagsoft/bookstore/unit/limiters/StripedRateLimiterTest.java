@@ -0,0 +1,67 @@
+package com.vagsoft.bookstore.unit.limiters;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+
+import com.vagsoft.bookstore.limiters.StripedRateLimiter;
+import org.junit.jupiter.api.*;
+
+@TestMethodOrder(MethodOrderer.DisplayName.class)
+class StripedRateLimiterTest {
+    @Test
+    @DisplayName("tryAcquire() - Burst Allowed Then Rejected")
+    void tryAcquireBurst() {
+        StripedRateLimiter limiter = new StripedRateLimiter(1, 3, 4, 100);
+
+        assertEquals(0, limiter.tryAcquire("key1"));
+        assertEquals(0, limiter.tryAcquire("key1"));
+        assertEquals(0, limiter.tryAcquire("key1"));
+
+        long wait = limiter.tryAcquire("key1");
+        assertTrue(wait > 0);
+        assertTrue(wait <= TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    @DisplayName("tryAcquire() - Keys Limited Separately")
+    void tryAcquireSeparateKeys() {
+        StripedRateLimiter limiter = new StripedRateLimiter(1, 1, 4, 100);
+
+        assertEquals(0, limiter.tryAcquire("key1"));
+        assertTrue(limiter.tryAcquire("key1") > 0);
+        assertEquals(0, limiter.tryAcquire("key2"));
+    }
+
+    @Test
+    @DisplayName("tryAcquire() - Refilled Over Time")
+    void tryAcquireRefilled() throws InterruptedException {
+        StripedRateLimiter limiter = new StripedRateLimiter(20, 1, 4, 100);
+
+        assertEquals(0, limiter.tryAcquire("key1"));
+        assertTrue(limiter.tryAcquire("key1") > 0);
+        Thread.sleep(100);
+        assertEquals(0, limiter.tryAcquire("key1"));
+    }
+
+    @Test
+    @DisplayName("tryAcquire() - Keys Bounded")
+    void tryAcquireBounded() {
+        StripedRateLimiter limiter = new StripedRateLimiter(1, 1, 1, 10);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("key" + i);
+        }
+
+        assertEquals(10, limiter.size());
+        // The keys beyond the bound share a single bucket, which is already empty
+        assertTrue(limiter.tryAcquire("key100") > 0);
+    }
+
+    @Test
+    @DisplayName("StripedRateLimiter() - Invalid Settings")
+    void invalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new StripedRateLimiter(0, 1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new StripedRateLimiter(1, 1, 4, 2));
+    }
+}
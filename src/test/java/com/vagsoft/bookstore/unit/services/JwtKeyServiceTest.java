@@ -0,0 +1,134 @@
+package com.vagsoft.bookstore.unit.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.nimbusds.jose.proc.DefaultJOSEObjectTypeVerifier;
+import com.vagsoft.bookstore.services.JwtKeyService;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+@TestMethodOrder(MethodOrderer.DisplayName.class)
+class JwtKeyServiceTest {
+    @TempDir
+    private Path keyDirectory;
+
+    private JwtKeyService jwtKeyService;
+    private JwtEncoder jwtEncoder;
+    private JwtDecoder jwtDecoder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        writeKeyPair("2025-01", generateRsaKeyPair(), true);
+        writeKeyPair("2025-06", generateEcKeyPair(), true);
+
+        jwtKeyService = new JwtKeyService(keyDirectory, null);
+        jwtEncoder = new NimbusJwtEncoder(jwtKeyService);
+        jwtDecoder = jwtKeyService.createDecoder(DefaultJOSEObjectTypeVerifier.JWT);
+    }
+
+    private static KeyPair generateRsaKeyPair() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private static KeyPair generateEcKeyPair() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+
+    private void writeKeyPair(final String keyID, final KeyPair keyPair, final boolean withPrivateKey)
+            throws IOException {
+        writePem(keyDirectory.resolve(keyID + ".pub"), "PUBLIC KEY", keyPair.getPublic().getEncoded());
+        if (withPrivateKey) {
+            writePem(keyDirectory.resolve(keyID + ".key"), "PRIVATE KEY", keyPair.getPrivate().getEncoded());
+        }
+    }
+
+    private static void writePem(final Path file, final String type, final byte[] encoded) throws IOException {
+        String base64 = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(encoded);
+        Files.writeString(file, "-----BEGIN " + type + "-----\n" + base64 + "\n-----END " + type + "-----\n");
+    }
+
+    private String generateToken() {
+        JwtClaimsSet claimsSet = JwtClaimsSet.builder().issuer("BookStore").issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(300)).subject("janesmith").build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(jwtKeyService.signingHeader().build(), claimsSet))
+                .getTokenValue();
+    }
+
+    @Test
+    @DisplayName("createDecoder() - Token Signed With Latest Key")
+    void createDecoderLatestKey() {
+        Jwt jwt = jwtDecoder.decode(generateToken());
+
+        assertEquals("ES256", jwt.getHeaders().get("alg").toString());
+        assertEquals("2025-06", jwt.getHeaders().get("kid"));
+        assertEquals("janesmith", jwt.getSubject());
+    }
+
+    @Test
+    @DisplayName("createDecoder() - Token Of Retired Key Verified")
+    void createDecoderRetiredKey() throws Exception {
+        String token = generateToken();
+
+        // Keeping only the public key of the old signing key and adding a new one
+        Files.delete(keyDirectory.resolve("2025-06.key"));
+        writeKeyPair("2025-12", generateRsaKeyPair(), true);
+        jwtKeyService.reloadKeys();
+
+        assertEquals("2025-12", jwtKeyService.signingHeader().build().getKeyId());
+        assertEquals("2025-06", jwtDecoder.decode(token).getHeaders().get("kid"));
+        assertEquals("2025-12", jwtDecoder.decode(generateToken()).getHeaders().get("kid"));
+    }
+
+    @Test
+    @DisplayName("reloadKeys() - Token Of Removed Key Rejected")
+    void reloadKeysRemovedKey() throws Exception {
+        AtomicInteger reloads = new AtomicInteger();
+        jwtKeyService.addReloadListener(reloads::incrementAndGet);
+        String token = generateToken();
+
+        Files.delete(keyDirectory.resolve("2025-06.key"));
+        Files.delete(keyDirectory.resolve("2025-06.pub"));
+        jwtKeyService.reloadKeys();
+
+        assertEquals(1, reloads.get());
+        assertThrows(JwtException.class, () -> jwtDecoder.decode(token));
+        assertEquals("2025-01", jwtKeyService.signingHeader().build().getKeyId());
+    }
+
+    @Test
+    @DisplayName("reloadKeys() - Invalid Key Keeps Current Keys")
+    void reloadKeysInvalidKey() throws Exception {
+        AtomicInteger reloads = new AtomicInteger();
+        jwtKeyService.addReloadListener(reloads::incrementAndGet);
+
+        Files.writeString(keyDirectory.resolve("2026-01.pub"), "not a key");
+        jwtKeyService.reloadKeys();
+
+        assertEquals(0, reloads.get());
+        assertEquals("2025-06", jwtKeyService.signingHeader().build().getKeyId());
+        assertNotNull(jwtDecoder.decode(generateToken()));
+    }
+}
@@ -0,0 +1,80 @@
+package com.vagsoft.bookstore.unit.stores;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import com.vagsoft.bookstore.stores.CartWriteAheadLog;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+@TestMethodOrder(MethodOrderer.DisplayName.class)
+class CartWriteAheadLogTest {
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("replay() - Pending Changes Recovered")
+    void replayPendingChanges() throws IOException {
+        try (CartWriteAheadLog writeAheadLog = new CartWriteAheadLog(directory, true)) {
+            writeAheadLog.appendSet(1, 10, 2);
+            writeAheadLog.appendSet(1, 10, 5);
+            writeAheadLog.appendSet(1, 11, 1);
+            writeAheadLog.appendDiscard(1, 11);
+            writeAheadLog.appendSet(2, 20, 3);
+        }
+
+        try (CartWriteAheadLog writeAheadLog = new CartWriteAheadLog(directory, true)) {
+            assertEquals(Map.of(1, Map.of(10, 5), 2, Map.of(20, 3)), writeAheadLog.getRecoveredQuantities());
+            assertEquals(5, writeAheadLog.getSequence());
+        }
+    }
+
+    @Test
+    @DisplayName("replay() - Flushed Changes Skipped")
+    void replayFlushedChanges() throws IOException {
+        try (CartWriteAheadLog writeAheadLog = new CartWriteAheadLog(directory, true)) {
+            long flushedSequence = writeAheadLog.appendSet(1, 10, 2);
+            writeAheadLog.appendFlushed(1, flushedSequence);
+            writeAheadLog.appendSet(1, 11, 4);
+        }
+
+        try (CartWriteAheadLog writeAheadLog = new CartWriteAheadLog(directory, true)) {
+            assertEquals(Map.of(1, Map.of(11, 4)), writeAheadLog.getRecoveredQuantities());
+        }
+    }
+
+    @Test
+    @DisplayName("replay() - Torn Record Skipped")
+    void replayTornRecord() throws IOException {
+        try (CartWriteAheadLog writeAheadLog = new CartWriteAheadLog(directory, true)) {
+            writeAheadLog.appendSet(1, 10, 2);
+        }
+        Files.writeString(directory.resolve("cart-wal-0.log"), "S,2,1,1", StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+
+        try (CartWriteAheadLog writeAheadLog = new CartWriteAheadLog(directory, true)) {
+            assertEquals(Map.of(1, Map.of(10, 2)), writeAheadLog.getRecoveredQuantities());
+        }
+    }
+
+    @Test
+    @DisplayName("deleteSegments() - Sealed Segments Deleted")
+    void deleteSealedSegments() throws IOException {
+        try (CartWriteAheadLog writeAheadLog = new CartWriteAheadLog(directory, true)) {
+            writeAheadLog.appendSet(1, 10, 2);
+            long sealedSegment = writeAheadLog.rotate();
+            writeAheadLog.appendSet(2, 20, 3);
+            writeAheadLog.deleteSegments(sealedSegment);
+        }
+
+        try (CartWriteAheadLog writeAheadLog = new CartWriteAheadLog(directory, true)) {
+            assertEquals(Map.of(2, Map.of(20, 3)), writeAheadLog.getRecoveredQuantities());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.vagsoft.bookstore.unit.stores;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+import com.vagsoft.bookstore.repositories.BookRepository;
+import com.vagsoft.bookstore.repositories.CartItemsRepository;
+import com.vagsoft.bookstore.stores.CartWriteAheadLog;
+import com.vagsoft.bookstore.stores.WriteBehindCartStore;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@TestMethodOrder(MethodOrderer.DisplayName.class)
+class WriteBehindCartStoreTest {
+    @TempDir
+    private Path directory;
+
+    private CartItemsRepository cartItemsRepository;
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() {
+        cartItemsRepository = mock(CartItemsRepository.class);
+        bookRepository = mock(BookRepository.class);
+        when(bookRepository.findAvailabilityByID(anyInt())).thenReturn(10);
+    }
+
+    private WriteBehindCartStore createStore(final CartWriteAheadLog writeAheadLog, final int maxCarts) {
+        return new WriteBehindCartStore(cartItemsRepository, bookRepository, mock(PlatformTransactionManager.class),
+                writeAheadLog, Duration.ofHours(1), maxCarts, 500);
+    }
+
+    @Test
+    @DisplayName("flush() - Pending Changes Written")
+    void flushPendingChanges() throws IOException {
+        try (CartWriteAheadLog writeAheadLog = new CartWriteAheadLog(directory, true)) {
+            WriteBehindCartStore store = createStore(writeAheadLog, 100);
+            store.setQuantity(1, 10, 3);
+            store.setQuantity(2, 20, 1);
+
+            store.flush(1);
+
+            verify(cartItemsRepository).updateAllQuantities(new Integer[]{1}, new Integer[]{10}, new Integer[]{3});
+            assertEquals(Map.of(), store.getPendingQuantities(1));
+            assertEquals(Map.of(20, 1), store.getPendingQuantities(2));
+        }
+    }
+
+    @Test
+    @DisplayName("flush() - Failed Write Keeps Changes")
+    void flushFailedWrite() throws IOException {
+        doThrow(new IllegalStateException("Connection lost")).when(cartItemsRepository).updateAllQuantities(any(),
+                any(), any());
+
+        try (CartWriteAheadLog writeAheadLog = new CartWriteAheadLog(directory, true)) {
+            WriteBehindCartStore store = createStore(writeAheadLog, 100);
+            store.setQuantity(1, 10, 3);
+
+            assertThrows(IllegalStateException.class, () -> store.flush(1));
+            assertEquals(Map.of(10, 3), store.getPendingQuantities(1));
+        }
+    }
+
+    @Test
+    @DisplayName("flushAll() - Sealed Segment Not Replayed")
+    void flushAllRotatesLog() throws IOException {
+        try (CartWriteAheadLog writeAheadLog = new CartWriteAheadLog(directory, true)) {
+            WriteBehindCartStore store = createStore(writeAheadLog, 100);
+            store.setQuantity(1, 10, 3);
+
+            store.flushAll();
+            store.setQuantity(2, 20, 1);
+
+            verify(cartItemsRepository).updateAllQuantities(new Integer[]{1}, new Integer[]{10}, new Integer[]{3});
+            assertEquals(Map.of(), store.getPendingQuantities(1));
+        }
+
+        // Only the change recorded after the rotation is left in the log
+        try (CartWriteAheadLog writeAheadLog = new CartWriteAheadLog(directory, true)) {
+            assertEquals(Map.of(2, Map.of(20, 1)), writeAheadLog.getRecoveredQuantities());
+        }
+    }
+
+    @Test
+    @DisplayName("setQuantity() - Idle Carts Written Over Maximum")
+    void setQuantityOverMaxCarts() throws IOException {
+        try (CartWriteAheadLog writeAheadLog = new CartWriteAheadLog(directory, true)) {
+            WriteBehindCartStore store = createStore(writeAheadLog, 4);
+            store.setQuantity(1, 10, 1);
+            store.setQuantity(2, 20, 2);
+            store.setQuantity(3, 30, 3);
+            store.setQuantity(4, 40, 4);
+            store.setQuantity(1, 11, 5);
+            store.setQuantity(5, 50, 6);
+
+            // Dropping the carts down to three quarters of the maximum, starting from the idle ones
+            ArgumentCaptor<Integer[]> userIDs = ArgumentCaptor.forClass(Integer[].class);
+            verify(cartItemsRepository, timeout(5000)).updateAllQuantities(userIDs.capture(), any(), any());
+            assertEquals(Set.of(2, 3), Set.of(userIDs.getValue()));
+            assertEquals(Map.of(10, 1, 11, 5), store.getPendingQuantities(1));
+        }
+    }
+
+    @Test
+    @DisplayName("replay() - Pending Changes Recovered After Crash")
+    void replayAfterCrash() throws IOException {
+        // Closing only the log, as a crash leaves the store without a final flush
+        try (CartWriteAheadLog writeAheadLog = new CartWriteAheadLog(directory, true)) {
+            WriteBehindCartStore store = createStore(writeAheadLog, 100);
+            store.setQuantity(1, 10, 3);
+            store.setQuantity(2, 20, 1);
+            store.setQuantity(2, 21, 2);
+            store.discard(2, 21);
+            store.flush(1);
+        }
+
+        try (CartWriteAheadLog writeAheadLog = new CartWriteAheadLog(directory, true)) {
+            WriteBehindCartStore store = createStore(writeAheadLog, 100);
+
+            assertEquals(Map.of(), store.getPendingQuantities(1));
+            assertEquals(Map.of(20, 1), store.getPendingQuantities(2));
+        }
+    }
+
+    @Test
+    @DisplayName("setQuantity() - Not Enough Stock")
+    void setQuantityNotEnoughStock() throws IOException {
+        try (CartWriteAheadLog writeAheadLog = new CartWriteAheadLog(directory, true)) {
+            WriteBehindCartStore store = createStore(writeAheadLog, 100);
+
+            assertFalse(store.setQuantity(1, 10, 11));
+            assertEquals(Map.of(), store.getPendingQuantities(1));
+        }
+    }
+}
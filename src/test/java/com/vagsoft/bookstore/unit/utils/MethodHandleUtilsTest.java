@@ -0,0 +1,61 @@
+package com.vagsoft.bookstore.unit.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.invoke.MethodHandle;
+
+import com.vagsoft.bookstore.dto.favouriteDTOs.FavouriteWriteDTO;
+import com.vagsoft.bookstore.repositories.UserRepository;
+import com.vagsoft.bookstore.utils.MethodHandleUtils;
+import org.junit.jupiter.api.*;
+
+@TestMethodOrder(MethodOrderer.DisplayName.class)
+class MethodHandleUtilsTest {
+    @Test
+    @DisplayName("bindMethod() - Repository Method Invoked")
+    void bindMethod() throws Throwable {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.existsByUsernameAndIdNot("janesmith", 1)).thenReturn(true);
+
+        MethodHandle handle = MethodHandleUtils.bindMethod(UserRepository.class, userRepository,
+                "existsByUsernameAndIdNot", 2);
+
+        assertTrue((boolean) (Object) handle.invokeExact((Object) "janesmith", (Object) 1));
+        assertFalse((boolean) (Object) handle.invokeExact((Object) "janesmith", (Object) 2));
+    }
+
+    @Test
+    @DisplayName("bindMethod() - Method Not Found")
+    void bindMethodNotFound() {
+        UserRepository userRepository = mock(UserRepository.class);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> MethodHandleUtils.bindMethod(UserRepository.class, userRepository, "existsByUsername", 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> MethodHandleUtils.bindMethod(UserRepository.class, userRepository, "existsByNothing", 1));
+    }
+
+    @Test
+    @DisplayName("getter() - Private Field Read")
+    void getter() throws Throwable {
+        FavouriteWriteDTO favouriteWriteDTO = new FavouriteWriteDTO(5);
+
+        MethodHandle handle = MethodHandleUtils.getter(FavouriteWriteDTO.class, "bookID");
+
+        assertEquals(5, (Object) handle.invokeExact((Object) favouriteWriteDTO));
+    }
+
+    @Test
+    @DisplayName("rethrow() - Checked Exception Wrapped")
+    void rethrow() {
+        IllegalStateException runtimeException = new IllegalStateException("failed");
+        Exception checkedException = new Exception("failed");
+
+        assertSame(runtimeException, assertThrows(IllegalStateException.class,
+                () -> MethodHandleUtils.rethrow(runtimeException)));
+        assertSame(checkedException, assertThrows(RuntimeException.class,
+                () -> MethodHandleUtils.rethrow(checkedException)).getCause());
+    }
+}